@@ -0,0 +1,123 @@
+package componentindex;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.lang.annotation.Annotation;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * {@link ComponentIndexProcessor}가 만든 인덱스를 읽는다.
+ * <p>
+ * 인덱스는 `@애노테이션 이름` 줄 다음에 그 애노테이션이 붙은 타입의 바이너리 이름을 한 줄씩 적은 텍스트 파일이다.
+ * 클래스패스의 모든 jar/디렉터리에 있는 인덱스를 합치고, 클래스는 요청할 때만 로딩한다.
+ */
+public final class ComponentIndex {
+
+    public static final String RESOURCE_LOCATION = "META-INF/jwp-components.idx";
+
+    private static final String HEADER = "# jwp component index";
+    private static final char ANNOTATION_PREFIX = '@';
+    private static final char COMMENT_PREFIX = '#';
+
+    private final Map<String, Set<String>> typesByAnnotation;
+
+    private ComponentIndex(final Map<String, Set<String>> typesByAnnotation) {
+        this.typesByAnnotation = typesByAnnotation;
+    }
+
+    /**
+     * 클래스 로더에서 보이는 인덱스를 모두 읽는다. 인덱스가 하나도 없으면 빈 Optional을 돌려준다.
+     */
+    public static Optional<ComponentIndex> load(final ClassLoader classLoader) {
+        try {
+            final var resources = classLoader.getResources(RESOURCE_LOCATION);
+            if (!resources.hasMoreElements()) {
+                return Optional.empty();
+            }
+            final var typesByAnnotation = new HashMap<String, Set<String>>();
+            while (resources.hasMoreElements()) {
+                read(resources.nextElement(), typesByAnnotation);
+            }
+            return Optional.of(new ComponentIndex(typesByAnnotation));
+        } catch (IOException e) {
+            throw new UncheckedIOException("컴포넌트 인덱스를 읽지 못했습니다.", e);
+        }
+    }
+
+    private static void read(final URL resource, final Map<String, Set<String>> typesByAnnotation)
+            throws IOException {
+        try (final var reader = new BufferedReader(
+                new InputStreamReader(resource.openStream(), StandardCharsets.UTF_8))) {
+            Set<String> current = null;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.trim();
+                if (line.isEmpty() || line.charAt(0) == COMMENT_PREFIX) {
+                    continue;
+                }
+                if (line.charAt(0) == ANNOTATION_PREFIX) {
+                    current = typesByAnnotation.computeIfAbsent(line.substring(1), ignored -> new LinkedHashSet<>());
+                    continue;
+                }
+                if (current == null) {
+                    throw new IOException("애노테이션 줄보다 타입이 먼저 나왔습니다: " + resource + " - " + line);
+                }
+                current.add(line);
+            }
+        }
+    }
+
+    static String format(final Map<String, Set<String>> typesByAnnotation) {
+        final var builder = new StringBuilder(HEADER).append('\n');
+        typesByAnnotation.forEach((annotation, types) -> {
+            builder.append(ANNOTATION_PREFIX).append(annotation).append('\n');
+            types.forEach(type -> builder.append(type).append('\n'));
+        });
+        return builder.toString();
+    }
+
+    public Set<String> getAnnotations() {
+        return Collections.unmodifiableSet(typesByAnnotation.keySet());
+    }
+
+    public Set<String> getTypesAnnotatedWith(final String annotationName) {
+        return Collections.unmodifiableSet(typesByAnnotation.getOrDefault(annotationName, Set.of()));
+    }
+
+    /**
+     * basePackage와 그 하위 패키지에서 애노테이션이 붙은 타입 이름을 찾는다. 클래스는 로딩하지 않는다.
+     */
+    public Set<String> getTypesAnnotatedWith(final String annotationName, final String basePackage) {
+        final var prefix = basePackage.isEmpty() ? "" : basePackage + ".";
+        final var result = new TreeSet<String>();
+        for (final var type : getTypesAnnotatedWith(annotationName)) {
+            if (type.startsWith(prefix)) {
+                result.add(type);
+            }
+        }
+        return result;
+    }
+
+    public Set<Class<?>> loadTypesAnnotatedWith(final Class<? extends Annotation> annotation, final String basePackage,
+                                                final ClassLoader classLoader) {
+        final var result = new LinkedHashSet<Class<?>>();
+        for (final var type : getTypesAnnotatedWith(annotation.getName(), basePackage)) {
+            try {
+                result.add(Class.forName(type, false, classLoader));
+            } catch (ClassNotFoundException e) {
+                throw new IllegalStateException("인덱스에 있는 클래스를 찾을 수 없습니다. 다시 빌드해 주세요: " + type, e);
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,96 @@
+package componentindex;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.TypeElement;
+import javax.tools.Diagnostic;
+import javax.tools.StandardLocation;
+
+/**
+ * 컴파일 시점에 컴포넌트 애노테이션이 붙은 타입을 모아 {@value ComponentIndex#RESOURCE_LOCATION}에 기록한다.
+ * <p>
+ * 런타임에 Reflections로 클래스 파일을 전부 읽는 대신 이 인덱스만 읽으면 된다.
+ * 기본 대상은 annotation 패키지의 @Controller, @Service, @Repository이고
+ * {@code -Ajwp.components.annotations=a.B,c.D}로 바꿀 수 있다.
+ * <p>
+ * 여러 라운드에 걸쳐 모은 뒤 마지막 라운드에서 한 번만 쓴다. 출력은 정렬해서 같은 입력이면 같은 파일이 나온다.
+ * Gradle에서는 aggregating 프로세서로 등록되어 있어 증분 컴파일에서도 인덱스 전체를 다시 만든다.
+ */
+public class ComponentIndexProcessor extends AbstractProcessor {
+
+    static final String ANNOTATIONS_OPTION = "jwp.components.annotations";
+    static final String DEFAULT_ANNOTATIONS = "annotation.Controller,annotation.Service,annotation.Repository";
+
+    private final Map<String, Set<String>> typesByAnnotation = new TreeMap<>();
+    private Set<String> annotationNames;
+
+    @Override
+    public synchronized void init(final ProcessingEnvironment processingEnv) {
+        super.init(processingEnv);
+        final var option = processingEnv.getOptions().getOrDefault(ANNOTATIONS_OPTION, DEFAULT_ANNOTATIONS);
+        annotationNames = Arrays.stream(option.split(","))
+                .map(String::trim)
+                .filter(name -> !name.isEmpty())
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+    }
+
+    @Override
+    public Set<String> getSupportedAnnotationTypes() {
+        return annotationNames;
+    }
+
+    @Override
+    public Set<String> getSupportedOptions() {
+        return Set.of(ANNOTATIONS_OPTION);
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(final Set<? extends TypeElement> annotations, final RoundEnvironment roundEnv) {
+        for (final var annotation : annotations) {
+            final var annotationName = annotation.getQualifiedName().toString();
+            final var types = typesByAnnotation.computeIfAbsent(annotationName, ignored -> new TreeSet<>());
+            for (final var element : roundEnv.getElementsAnnotatedWith(annotation)) {
+                if (element.getKind().isClass() || element.getKind().isInterface()) {
+                    // 중첩 클래스도 Class.forName으로 바로 읽을 수 있도록 바이너리 이름(Outer$Inner)을 쓴다.
+                    types.add(processingEnv.getElementUtils().getBinaryName((TypeElement) element).toString());
+                }
+            }
+        }
+        if (roundEnv.processingOver()) {
+            writeIndex();
+        }
+        // 다른 프로세서도 같은 애노테이션을 처리할 수 있도록 claim 하지 않는다.
+        return false;
+    }
+
+    private void writeIndex() {
+        if (typesByAnnotation.isEmpty()) {
+            return;
+        }
+        try (final OutputStream out = processingEnv.getFiler()
+                .createResource(StandardLocation.CLASS_OUTPUT, "", ComponentIndex.RESOURCE_LOCATION)
+                .openOutputStream()) {
+            out.write(ComponentIndex.format(typesByAnnotation).getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                    "컴포넌트 인덱스를 쓰지 못했습니다: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package componentindex;
+
+import java.lang.annotation.Annotation;
+import java.util.LinkedHashSet;
+import java.util.Optional;
+import java.util.Set;
+import org.reflections.Reflections;
+import org.reflections.scanners.Scanners;
+import org.reflections.util.ConfigurationBuilder;
+import org.reflections.util.FilterBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * 컴포넌트 애노테이션이 붙은 클래스를 찾는다.
+ * <p>
+ * 클래스패스에 {@link ComponentIndex}가 있으면 인덱스만 읽고, 없을 때만 Reflections로 패키지를 스캔한다.
+ * 인덱스는 한 번 읽으면 재사용하므로 여러 패키지를 찾아도 리소스를 다시 읽지 않는다.
+ */
+public class ComponentScanner {
+
+    private static final Logger log = LoggerFactory.getLogger(ComponentScanner.class);
+
+    private final ClassLoader classLoader;
+    private final Optional<ComponentIndex> index;
+
+    public ComponentScanner() {
+        this(Thread.currentThread().getContextClassLoader());
+    }
+
+    public ComponentScanner(final ClassLoader classLoader) {
+        this(classLoader, ComponentIndex.load(classLoader));
+    }
+
+    ComponentScanner(final ClassLoader classLoader, final Optional<ComponentIndex> index) {
+        this.classLoader = classLoader;
+        this.index = index;
+    }
+
+    public boolean isIndexed() {
+        return index.isPresent();
+    }
+
+    @SafeVarargs
+    public final Set<Class<?>> getTypesAnnotatedWith(final String basePackage,
+                                                     final Class<? extends Annotation>... annotations) {
+        if (index.isPresent()) {
+            final var result = new LinkedHashSet<Class<?>>();
+            for (final var annotation : annotations) {
+                result.addAll(index.get().loadTypesAnnotatedWith(annotation, basePackage, classLoader));
+            }
+            return result;
+        }
+        log.info("{} 가 없어 {} 패키지를 스캔합니다.", ComponentIndex.RESOURCE_LOCATION, basePackage);
+        return scan(basePackage, annotations);
+    }
+
+    private Set<Class<?>> scan(final String basePackage, final Class<? extends Annotation>[] annotations) {
+        final var reflections = new Reflections(new ConfigurationBuilder()
+                .forPackage(basePackage, classLoader)
+                .filterInputsBy(new FilterBuilder().includePackage(basePackage))
+                .addClassLoaders(classLoader)
+                .setScanners(Scanners.TypesAnnotated, Scanners.SubTypes));
+        final var result = new LinkedHashSet<Class<?>>();
+        for (final var annotation : annotations) {
+            // 인덱스와 같게 직접 붙은 애노테이션만 본다. (@Inherited가 아니면 하위 타입은 포함하지 않는다)
+            result.addAll(reflections.getTypesAnnotatedWith(annotation, true));
+        }
+        return result;
+    }
+}
@@ -0,0 +1,122 @@
+package componentindex;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.lang.annotation.Annotation;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * 합성 클래스 10k개를 컴파일해 두고, 시작할 때 컴포넌트를 찾는 시간을 인덱스와 Reflections 스캔으로 비교한다.
+ * <p>
+ * 매 라운드마다 새 클래스 로더를 만들어 애플리케이션을 처음 띄우는 상황과 맞춘다.
+ * 기본 test 태스크에서는 제외된다. 아래처럼 실행한다.
+ * <pre>
+ * ./gradlew :componentindex:benchmark -Dbenchmark.components.classes=10000
+ * </pre>
+ */
+@Tag("benchmark")
+class ComponentIndexBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(ComponentIndexBenchmarkTest.class);
+
+    private static final String BASE_PACKAGE = "generated";
+    private static final String[] COMPONENT_ANNOTATIONS = {"Controller", "Service", "Repository"};
+    private static final int CLASSES_PER_PACKAGE = 100;
+    // 실제 애플리케이션처럼 대부분은 컴포넌트가 아닌 클래스다.
+    private static final int COMPONENT_EVERY = 10;
+    private static final int WARMUP_ROUNDS = 2;
+    private static final int MEASURE_ROUNDS = 5;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void startup() throws Exception {
+        final var classCount = Integer.getInteger("benchmark.components.classes", 10_000);
+        final var sources = new HashMap<>(TestCompiler.componentAnnotations());
+        for (int i = 0; i < classCount; i++) {
+            final var packageName = BASE_PACKAGE + ".p" + (i / CLASSES_PER_PACKAGE);
+            final var simpleName = "Generated" + i;
+            final var annotation = i % COMPONENT_EVERY == 0
+                    ? "@annotation." + COMPONENT_ANNOTATIONS[(i / COMPONENT_EVERY) % COMPONENT_ANNOTATIONS.length] + " "
+                    : "";
+            sources.put(packageName + "." + simpleName, "package " + packageName + ";\n"
+                    + annotation + "public class " + simpleName + " {\n"
+                    + "    private final String name = \"" + simpleName + "\";\n"
+                    + "    public String getName() { return name; }\n"
+                    + "}\n");
+        }
+
+        final var compileStart = System.nanoTime();
+        final var classes = new TestCompiler(tempDir).compile(sources);
+        log.info("compiled {} classes with the index processor in {}ms",
+                classCount, (System.nanoTime() - compileStart) / 1_000_000);
+
+        // 클래스를 로딩하지 않고 이름만 읽는 비용. 인덱스 자체를 읽는 시간이다.
+        final var names = measure("index (names only)", classes, loader -> {
+            final var index = ComponentIndex.load(loader).orElseThrow();
+            final var result = new HashSet<String>();
+            for (final var annotation : COMPONENT_ANNOTATIONS) {
+                result.addAll(index.getTypesAnnotatedWith("annotation." + annotation, BASE_PACKAGE));
+            }
+            return result;
+        });
+        final var indexed = measure("index", classes,
+                loader -> names(new ComponentScanner(loader).getTypesAnnotatedWith(BASE_PACKAGE, annotations(loader))));
+        final var scanned = measure("reflections", classes, loader -> names(
+                new ComponentScanner(loader, Optional.empty()).getTypesAnnotatedWith(BASE_PACKAGE, annotations(loader))));
+
+        assertThat(names).hasSize(classCount / COMPONENT_EVERY);
+        assertThat(indexed).isEqualTo(names);
+        assertThat(scanned).isEqualTo(names);
+    }
+
+    private Set<String> measure(final String name, final Path classes,
+                                final Function<ClassLoader, Set<String>> finder) throws Exception {
+        Set<String> found = Set.of();
+        long totalNanos = 0;
+        long minNanos = Long.MAX_VALUE;
+        for (int round = 0; round < WARMUP_ROUNDS + MEASURE_ROUNDS; round++) {
+            try (final var loader = TestCompiler.classLoader(classes)) {
+                final var start = System.nanoTime();
+                found = finder.apply(loader);
+                final var elapsed = System.nanoTime() - start;
+                if (round >= WARMUP_ROUNDS) {
+                    totalNanos += elapsed;
+                    minNanos = Math.min(minNanos, elapsed);
+                }
+            }
+        }
+        log.info("{}: {} components, avg {}us, min {}us",
+                name, found.size(), totalNanos / MEASURE_ROUNDS / 1_000, minNanos / 1_000);
+        return found;
+    }
+
+    private static Set<String> names(final Set<Class<?>> types) {
+        return types.stream().map(Class::getName).collect(Collectors.toSet());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Class<? extends Annotation>[] annotations(final ClassLoader loader) {
+        final var annotations = new Class[COMPONENT_ANNOTATIONS.length];
+        for (int i = 0; i < COMPONENT_ANNOTATIONS.length; i++) {
+            try {
+                annotations[i] = loader.loadClass("annotation." + COMPONENT_ANNOTATIONS[i]).asSubclass(Annotation.class);
+            } catch (ClassNotFoundException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+        return annotations;
+    }
+}
@@ -0,0 +1,92 @@
+package componentindex;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.lang.annotation.Annotation;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ComponentIndexProcessorTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void indexesOnlyAnnotatedTypes() throws Exception {
+        final var sources = new HashMap<>(TestCompiler.componentAnnotations());
+        sources.put("examples.QnaController", "package examples;\n"
+                + "@annotation.Controller public class QnaController {\n"
+                + "    @annotation.Service public static class InnerService {}\n"
+                + "}\n");
+        sources.put("examples.jdbc.JdbcUserRepository", "package examples.jdbc;\n"
+                + "@annotation.Repository public class JdbcUserRepository {}\n");
+        sources.put("examples.Plain", "package examples;\npublic class Plain {}\n");
+
+        final var classes = new TestCompiler(tempDir).compile(sources);
+
+        final var index = Files.readString(classes.resolve(ComponentIndex.RESOURCE_LOCATION));
+        assertThat(index).isEqualTo("# jwp component index\n"
+                + "@annotation.Controller\n"
+                + "examples.QnaController\n"
+                + "@annotation.Repository\n"
+                + "examples.jdbc.JdbcUserRepository\n"
+                + "@annotation.Service\n"
+                + "examples.QnaController$InnerService\n");
+    }
+
+    @Test
+    void annotationsCanBeConfigured() throws Exception {
+        final var sources = Map.of(
+                "custom.Component", TestCompiler.annotationSource("Component").replace("package annotation;",
+                        "package custom;"),
+                "examples.Foo", "package examples;\n@custom.Component public class Foo {}\n");
+
+        final var classes = new TestCompiler(tempDir).compile(sources,
+                "-A" + ComponentIndexProcessor.ANNOTATIONS_OPTION + "=custom.Component");
+
+        try (final var loader = TestCompiler.classLoader(classes)) {
+            final var index = ComponentIndex.load(loader).orElseThrow();
+            assertThat(index.getAnnotations()).containsExactly("custom.Component");
+            assertThat(index.getTypesAnnotatedWith("custom.Component")).containsExactly("examples.Foo");
+        }
+    }
+
+    @Test
+    void noIndexWithoutComponents() throws Exception {
+        final var classes = new TestCompiler(tempDir).compile(
+                Map.of("examples.Plain", "package examples;\npublic class Plain {}\n"));
+
+        assertThat(Files.exists(classes.resolve(ComponentIndex.RESOURCE_LOCATION))).isFalse();
+        try (final var loader = TestCompiler.classLoader(classes)) {
+            assertThat(ComponentIndex.load(loader).isPresent()).isFalse();
+            assertThat(new ComponentScanner(loader).isIndexed()).isFalse();
+        }
+    }
+
+    @Test
+    void mergesIndexesAndFiltersByPackage() throws Exception {
+        final var first = new TestCompiler(tempDir.resolve("first")).compile(Map.of(
+                "annotation.Service", TestCompiler.annotationSource("Service"),
+                "examples.UserService", "package examples;\n@annotation.Service public class UserService {}\n",
+                "examplesx.OtherService", "package examplesx;\n@annotation.Service public class OtherService {}\n"));
+        final var second = new TestCompiler(tempDir.resolve("second")).compile(Map.of(
+                "annotation.Service", TestCompiler.annotationSource("Service"),
+                "examples.sub.QnaService", "package examples.sub;\n@annotation.Service public class QnaService {}\n"));
+
+        try (final var loader = TestCompiler.classLoader(first, second)) {
+            final var index = ComponentIndex.load(loader).orElseThrow();
+            assertThat(index.getTypesAnnotatedWith("annotation.Service", "examples"))
+                    .containsExactly("examples.UserService", "examples.sub.QnaService");
+
+            final var service = loader.loadClass("annotation.Service").asSubclass(Annotation.class);
+            final var scanner = new ComponentScanner(loader);
+            assertThat(scanner.isIndexed()).isTrue();
+            assertThat(scanner.getTypesAnnotatedWith("examples.sub", service))
+                    .containsExactly(loader.loadClass("examples.sub.QnaService"));
+        }
+    }
+}
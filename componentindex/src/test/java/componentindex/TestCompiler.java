@@ -0,0 +1,92 @@
+package componentindex;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import javax.tools.ToolProvider;
+
+/**
+ * 테스트용 소스를 디스크에 쓰고 {@link ComponentIndexProcessor}를 붙여 컴파일한다.
+ */
+class TestCompiler {
+
+    static final String ANNOTATIONS_SOURCE_PACKAGE = "annotation";
+
+    private final Path sourceDir;
+    private final Path classesDir;
+
+    TestCompiler(final Path root) {
+        this.sourceDir = root.resolve("src");
+        this.classesDir = root.resolve("classes");
+    }
+
+    /**
+     * annotation 패키지의 @Controller, @Service, @Repository 소스를 만든다.
+     */
+    static Map<String, String> componentAnnotations() {
+        return Map.of(
+                "annotation.Controller", annotationSource("Controller"),
+                "annotation.Service", annotationSource("Service"),
+                "annotation.Repository", annotationSource("Repository"));
+    }
+
+    static String annotationSource(final String simpleName) {
+        return "package " + ANNOTATIONS_SOURCE_PACKAGE + ";\n"
+                + "import java.lang.annotation.*;\n"
+                + "@Target(ElementType.TYPE) @Retention(RetentionPolicy.RUNTIME)\n"
+                + "public @interface " + simpleName + " {}\n";
+    }
+
+    Path compile(final Map<String, String> sources, final String... options) {
+        try {
+            final var files = new ArrayList<Path>(sources.size());
+            for (final var entry : sources.entrySet()) {
+                final var file = sourceDir.resolve(entry.getKey().replace('.', '/') + ".java");
+                Files.createDirectories(file.getParent());
+                Files.writeString(file, entry.getValue());
+                files.add(file);
+            }
+            Files.createDirectories(classesDir);
+            return compile(files, List.of(options));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private Path compile(final List<Path> files, final List<String> options) throws IOException {
+        final var compiler = ToolProvider.getSystemJavaCompiler();
+        final var output = new StringWriter();
+        try (final var fileManager = compiler.getStandardFileManager(null, null, null)) {
+            final var arguments = new ArrayList<String>(options);
+            arguments.addAll(List.of("-d", classesDir.toString()));
+            final var task = compiler.getTask(output, fileManager, null, arguments, null,
+                    fileManager.getJavaFileObjectsFromPaths(files));
+            task.setProcessors(List.of(new ComponentIndexProcessor()));
+            if (!task.call()) {
+                throw new IllegalStateException("컴파일 실패\n" + output);
+            }
+        }
+        return classesDir;
+    }
+
+    static URLClassLoader classLoader(final Path... classesDirs) {
+        final var urls = new URL[classesDirs.length];
+        try {
+            for (int i = 0; i < classesDirs.length; i++) {
+                urls[i] = classesDirs[i].toUri().toURL();
+            }
+        } catch (MalformedURLException e) {
+            throw new IllegalArgumentException(e);
+        }
+        // 부모를 플랫폼 로더로 두어 테스트 클래스패스의 인덱스가 섞이지 않게 한다.
+        return new URLClassLoader(urls, ClassLoader.getPlatformClassLoader());
+    }
+}
@@ -0,0 +1,328 @@
+package nextstep.study.di.scan;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 클래스 파일에서 상수 풀, 클래스 이름, 상위 타입, 클래스 레벨 애노테이션, 생성자만 읽는 최소한의 파서.
+ * <p>
+ * 클래스를 로딩하지 않으므로 static 초기화가 실행되지 않고 의존 클래스가 클래스패스에 없어도 읽을 수 있다.
+ * 상수 풀은 항목의 위치만 기록해 두고, 필요한 UTF-8 문자열만 그때 디코딩한다.
+ * 필드와 생성자가 아닌 메소드는 속성 길이만 보고 건너뛴다.
+ *
+ * @see <a href="https://docs.oracle.com/javase/specs/jvms/se11/html/jvms-4.html">JVMS 4. The class File Format</a>
+ */
+public final class ClassFileParser {
+
+    private static final int MAGIC = 0xCAFEBABE;
+
+    private static final int CONSTANT_UTF8 = 1;
+    private static final int CONSTANT_INTEGER = 3;
+    private static final int CONSTANT_FLOAT = 4;
+    private static final int CONSTANT_LONG = 5;
+    private static final int CONSTANT_DOUBLE = 6;
+    private static final int CONSTANT_CLASS = 7;
+    private static final int CONSTANT_STRING = 8;
+    private static final int CONSTANT_FIELDREF = 9;
+    private static final int CONSTANT_METHODREF = 10;
+    private static final int CONSTANT_INTERFACE_METHODREF = 11;
+    private static final int CONSTANT_NAME_AND_TYPE = 12;
+    private static final int CONSTANT_METHOD_HANDLE = 15;
+    private static final int CONSTANT_METHOD_TYPE = 16;
+    private static final int CONSTANT_DYNAMIC = 17;
+    private static final int CONSTANT_INVOKE_DYNAMIC = 18;
+    private static final int CONSTANT_MODULE = 19;
+    private static final int CONSTANT_PACKAGE = 20;
+
+    private static final String RUNTIME_VISIBLE_ANNOTATIONS = "RuntimeVisibleAnnotations";
+    private static final String CONSTRUCTOR_NAME = "<init>";
+
+    private final ByteBuffer buffer;
+    // 상수 풀 인덱스별로 항목 본문(태그 다음)이 시작하는 위치.
+    private final int[] offsets;
+
+    private ClassFileParser(final ByteBuffer buffer, final int[] offsets) {
+        this.buffer = buffer;
+        this.offsets = offsets;
+    }
+
+    /**
+     * buffer의 position부터 limit까지를 클래스 파일 하나로 읽는다. buffer의 position은 바뀌지 않는다.
+     *
+     * @throws IllegalArgumentException 클래스 파일 형식이 아닐 때
+     */
+    public static ClassMetadata parse(final ByteBuffer buffer) {
+        final var slice = buffer.slice();
+        try {
+            if (slice.getInt() != MAGIC) {
+                throw new IllegalArgumentException("클래스 파일이 아닙니다.");
+            }
+            slice.getInt(); // minor_version, major_version
+            return new ClassFileParser(slice, readConstantPool(slice)).readClass();
+        } catch (BufferUnderflowException | IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("클래스 파일이 잘렸거나 손상되었습니다.", e);
+        }
+    }
+
+    private static int[] readConstantPool(final ByteBuffer buffer) {
+        final var count = u2(buffer);
+        final var offsets = new int[count];
+        for (int i = 1; i < count; i++) {
+            final var tag = buffer.get();
+            offsets[i] = buffer.position();
+            switch (tag) {
+                case CONSTANT_UTF8:
+                    skip(buffer, u2(buffer));
+                    break;
+                case CONSTANT_CLASS:
+                case CONSTANT_STRING:
+                case CONSTANT_METHOD_TYPE:
+                case CONSTANT_MODULE:
+                case CONSTANT_PACKAGE:
+                    skip(buffer, 2);
+                    break;
+                case CONSTANT_METHOD_HANDLE:
+                    skip(buffer, 3);
+                    break;
+                case CONSTANT_INTEGER:
+                case CONSTANT_FLOAT:
+                case CONSTANT_FIELDREF:
+                case CONSTANT_METHODREF:
+                case CONSTANT_INTERFACE_METHODREF:
+                case CONSTANT_NAME_AND_TYPE:
+                case CONSTANT_DYNAMIC:
+                case CONSTANT_INVOKE_DYNAMIC:
+                    skip(buffer, 4);
+                    break;
+                case CONSTANT_LONG:
+                case CONSTANT_DOUBLE:
+                    // 8바이트 상수는 상수 풀 슬롯을 두 개 차지한다.
+                    skip(buffer, 8);
+                    i++;
+                    break;
+                default:
+                    throw new IllegalArgumentException("알 수 없는 상수 풀 태그입니다: " + tag);
+            }
+        }
+        return offsets;
+    }
+
+    private ClassMetadata readClass() {
+        final var accessFlags = u2(buffer);
+        final var className = className(u2(buffer));
+        final var superClassIndex = u2(buffer);
+        final var superClassName = superClassIndex == 0 ? null : className(superClassIndex);
+
+        final var interfaceCount = u2(buffer);
+        final var interfaceNames = new ArrayList<String>(interfaceCount);
+        for (int i = 0; i < interfaceCount; i++) {
+            interfaceNames.add(className(u2(buffer)));
+        }
+
+        skipFields();
+        final var constructors = readConstructors();
+        final var annotationNames = readAttributeAnnotations();
+        return new ClassMetadata(className, superClassName, interfaceNames, annotationNames, constructors,
+                accessFlags);
+    }
+
+    private void skipFields() {
+        final var count = u2(buffer);
+        for (int i = 0; i < count; i++) {
+            skip(buffer, 6); // access_flags, name_index, descriptor_index
+            skipAttributes();
+        }
+    }
+
+    private List<ConstructorMetadata> readConstructors() {
+        final var count = u2(buffer);
+        final var constructors = new ArrayList<ConstructorMetadata>();
+        for (int i = 0; i < count; i++) {
+            final var accessFlags = u2(buffer);
+            final var nameIndex = u2(buffer);
+            final var descriptorIndex = u2(buffer);
+            // 이름을 디코딩하지 않고 길이와 첫 글자로 먼저 거른다. 대부분의 메소드는 여기서 걸러진다.
+            if (!isConstructorName(nameIndex)) {
+                skipAttributes();
+                continue;
+            }
+            final var parameterTypeNames = parameterTypeNames(utf8(descriptorIndex));
+            constructors.add(new ConstructorMetadata(accessFlags, parameterTypeNames, readAttributeAnnotations()));
+        }
+        return constructors;
+    }
+
+    private boolean isConstructorName(final int nameIndex) {
+        final var offset = offsets[nameIndex];
+        return (buffer.getShort(offset) & 0xFFFF) == CONSTRUCTOR_NAME.length()
+                && buffer.get(offset + 2) == '<'
+                && CONSTRUCTOR_NAME.equals(utf8(nameIndex));
+    }
+
+    /**
+     * 속성 목록을 읽으면서 RuntimeVisibleAnnotations만 꺼내고 나머지는 건너뛴다.
+     */
+    private List<String> readAttributeAnnotations() {
+        final var annotationNames = new ArrayList<String>();
+        final var count = u2(buffer);
+        for (int i = 0; i < count; i++) {
+            final var name = utf8(u2(buffer));
+            final var length = buffer.getInt();
+            if (RUNTIME_VISIBLE_ANNOTATIONS.equals(name)) {
+                readAnnotations(annotationNames);
+            } else {
+                skip(buffer, length);
+            }
+        }
+        return annotationNames;
+    }
+
+    private void skipAttributes() {
+        final var count = u2(buffer);
+        for (int i = 0; i < count; i++) {
+            skip(buffer, 2);
+            skip(buffer, buffer.getInt());
+        }
+    }
+
+    private void readAnnotations(final List<String> annotationNames) {
+        final var count = u2(buffer);
+        for (int i = 0; i < count; i++) {
+            annotationNames.add(descriptorToName(utf8(u2(buffer))));
+            skipElementValuePairs();
+        }
+    }
+
+    private void skipElementValuePairs() {
+        final var pairCount = u2(buffer);
+        for (int i = 0; i < pairCount; i++) {
+            skip(buffer, 2); // element_name_index
+            skipElementValue();
+        }
+    }
+
+    private void skipElementValue() {
+        final var tag = (char) buffer.get();
+        switch (tag) {
+            case 'e':
+                skip(buffer, 4); // type_name_index, const_name_index
+                break;
+            case '@':
+                skip(buffer, 2); // type_index
+                skipElementValuePairs();
+                break;
+            case '[':
+                final var count = u2(buffer);
+                for (int i = 0; i < count; i++) {
+                    skipElementValue();
+                }
+                break;
+            default:
+                // B C D F I J S Z s c는 상수 풀 인덱스 하나다.
+                skip(buffer, 2);
+        }
+    }
+
+    private String className(final int classIndex) {
+        final var nameIndex = buffer.getShort(offsets[classIndex]) & 0xFFFF;
+        return utf8(nameIndex).replace('/', '.');
+    }
+
+    /**
+     * "Lpkg/Name;" 형식의 필드 디스크립터를 바이너리 이름으로 바꾼다.
+     */
+    static String descriptorToName(final String descriptor) {
+        if (descriptor.length() < 3 || descriptor.charAt(0) != 'L' || descriptor.charAt(descriptor.length() - 1) != ';') {
+            throw new IllegalArgumentException("클래스 타입 디스크립터가 아닙니다: " + descriptor);
+        }
+        return descriptor.substring(1, descriptor.length() - 1).replace('/', '.');
+    }
+
+    /**
+     * "(I[Ljava/lang/String;)V" 같은 메소드 디스크립터에서 파라미터 타입을 int, java.lang.String[] 형식으로 꺼낸다.
+     */
+    static List<String> parameterTypeNames(final String descriptor) {
+        final var names = new ArrayList<String>();
+        int position = 1; // '('
+        while (descriptor.charAt(position) != ')') {
+            int dimensions = 0;
+            while (descriptor.charAt(position) == '[') {
+                dimensions++;
+                position++;
+            }
+            final String typeName;
+            if (descriptor.charAt(position) == 'L') {
+                final var end = descriptor.indexOf(';', position);
+                typeName = descriptor.substring(position + 1, end).replace('/', '.');
+                position = end + 1;
+            } else {
+                typeName = primitiveName(descriptor.charAt(position));
+                position++;
+            }
+            names.add(typeName + "[]".repeat(dimensions));
+        }
+        return names;
+    }
+
+    private static String primitiveName(final char descriptor) {
+        switch (descriptor) {
+            case 'B':
+                return "byte";
+            case 'C':
+                return "char";
+            case 'D':
+                return "double";
+            case 'F':
+                return "float";
+            case 'I':
+                return "int";
+            case 'J':
+                return "long";
+            case 'S':
+                return "short";
+            case 'Z':
+                return "boolean";
+            default:
+                throw new IllegalArgumentException("알 수 없는 타입 디스크립터입니다: " + descriptor);
+        }
+    }
+
+    /**
+     * 상수 풀의 modified UTF-8 문자열을 디코딩한다. 클래스 이름은 대부분 ASCII라서 그 경우를 먼저 처리한다.
+     */
+    private String utf8(final int index) {
+        final var offset = offsets[index];
+        final var length = buffer.getShort(offset) & 0xFFFF;
+        final var start = offset + 2;
+        final var chars = new char[length];
+        int count = 0;
+        int position = start;
+        final var end = start + length;
+        while (position < end) {
+            final var b = buffer.get(position) & 0xFF;
+            if (b < 0x80) {
+                chars[count++] = (char) b;
+                position++;
+            } else if ((b & 0xE0) == 0xC0) {
+                chars[count++] = (char) (((b & 0x1F) << 6) | (buffer.get(position + 1) & 0x3F));
+                position += 2;
+            } else {
+                chars[count++] = (char) (((b & 0x0F) << 12)
+                        | ((buffer.get(position + 1) & 0x3F) << 6)
+                        | (buffer.get(position + 2) & 0x3F));
+                position += 3;
+            }
+        }
+        return new String(chars, 0, count);
+    }
+
+    private static int u2(final ByteBuffer buffer) {
+        return buffer.getShort() & 0xFFFF;
+    }
+
+    private static void skip(final ByteBuffer buffer, final int length) {
+        buffer.position(buffer.position() + length);
+    }
+}
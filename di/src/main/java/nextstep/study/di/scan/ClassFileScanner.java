@@ -0,0 +1,369 @@
+package nextstep.study.di.scan;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+import java.util.zip.Inflater;
+import java.util.zip.ZipException;
+import java.util.zip.ZipFile;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * 패키지 아래의 클래스 파일을 클래스 로딩 없이 읽어 {@link ClassMetadata} 목록을 만든다.
+ * <pre>
+ * final var scanner = ClassFileScanner.fromSystemProperties();
+ * final List&lt;ClassMetadata&gt; classes = scanner.scan("nextstep.study", classLoader);
+ * </pre>
+ * 클래스 로더에서 패키지를 가진 루트(디렉터리나 jar)를 찾고, 루트마다 클래스 파일을 ForkJoinPool에 나눠
+ * {@link ClassFileParser}로 동시에 읽는다. jar는 {@link MappedJar}로 메모리 매핑해서 읽는다.
+ * <p>
+ * 캐시 디렉터리를 주면 루트와 패키지별로 결과를 저장한다. jar는 크기, 수정 시각과 central directory(항목마다의
+ * CRC-32가 들어 있다)의 해시를, 디렉터리는 클래스 파일마다의 경로, 크기, 수정 시각을 섞은 해시를 fingerprint로 쓴다.
+ * 그래서 크기와 수정 시각이 그대로인 채 다시 만든 jar도 다시 읽는다. 다음 실행에서 fingerprint가 같으면 클래스 파일을 전혀
+ * 읽지 않고 캐시를 그대로 쓴다. 디렉터리는 fingerprint를 구하려고 파일 속성은 읽어야 하지만 내용은 읽지 않는다.
+ */
+public class ClassFileScanner {
+
+    private static final Logger log = LoggerFactory.getLogger(ClassFileScanner.class);
+
+    public static final String CACHE_DIRECTORY_PROPERTY = "jwp.scan.cache-dir";
+    public static final String PARALLELISM_PROPERTY = "jwp.scan.parallelism";
+
+    private static final String CLASS_EXTENSION = ".class";
+    private static final String FILE_PROTOCOL = "file";
+    private static final String JAR_PROTOCOL = "jar";
+    private static final String JAR_SEPARATOR = "!/";
+    // 클래스 파일 하나를 읽는 비용이 작아서 너무 잘게 나누면 작업 분배 비용이 더 든다.
+    private static final int THRESHOLD = 64;
+
+    private final int parallelism;
+    private final ScanCache cache;
+
+    private final LongAdder parsedClasses = new LongAdder();
+    private final LongAdder cacheHits = new LongAdder();
+    private final LongAdder cacheMisses = new LongAdder();
+
+    /**
+     * @param cacheDirectory 스캔 결과를 저장할 디렉터리. null이면 캐시를 쓰지 않는다.
+     */
+    public ClassFileScanner(final int parallelism, final Path cacheDirectory) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("parallelism은 1 이상이어야 합니다.");
+        }
+        this.parallelism = parallelism;
+        this.cache = cacheDirectory == null ? null : new ScanCache(cacheDirectory);
+    }
+
+    /**
+     * 시스템 프로퍼티로 설정한다. 캐시는 jwp.scan.cache-dir로 디렉터리를 줄 때만 쓴다.
+     * 기본값으로 공용 임시 디렉터리에 쓰면 테스트나 다른 프로세스가 모르는 사이에 파일을 남기기 때문이다.
+     * parallelism 기본값은 코어 수다.
+     */
+    public static ClassFileScanner fromSystemProperties() {
+        final var parallelism = Integer.getInteger(PARALLELISM_PROPERTY, Runtime.getRuntime().availableProcessors());
+        final var cacheDirectory = System.getProperty(CACHE_DIRECTORY_PROPERTY);
+        return new ClassFileScanner(parallelism,
+                cacheDirectory == null || cacheDirectory.isBlank() ? null : Paths.get(cacheDirectory));
+    }
+
+    /**
+     * 클래스 로더에서 보이는 packageName과 그 하위 패키지의 클래스를 모두 찾는다.
+     */
+    public List<ClassMetadata> scan(final String packageName, final ClassLoader classLoader) {
+        if (packageName.isEmpty()) {
+            throw new IllegalArgumentException("기본 패키지는 스캔할 수 없습니다.");
+        }
+        final var packagePath = packageName.replace('.', '/');
+        final var result = new ArrayList<ClassMetadata>();
+        try {
+            final var roots = new LinkedHashSet<Path>();
+            final var resources = classLoader.getResources(packagePath);
+            while (resources.hasMoreElements()) {
+                final var root = rootOf(resources.nextElement(), packagePath);
+                if (root != null) {
+                    roots.add(root);
+                }
+            }
+            for (final var root : roots) {
+                result.addAll(scan(root, packageName));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(packageName + " 패키지를 스캔하지 못했습니다.", e);
+        }
+        return result;
+    }
+
+    /**
+     * 클래스패스 루트 하나(디렉터리나 jar)에서 packageName과 그 하위 패키지의 클래스를 찾는다.
+     */
+    public List<ClassMetadata> scan(final Path root, final String packageName) throws IOException {
+        final var packagePath = packageName.isEmpty() ? "" : packageName.replace('.', '/') + "/";
+        final var directory = Files.isDirectory(root);
+        final var key = root.toAbsolutePath().normalize() + JAR_SEPARATOR + packagePath;
+
+        final List<Path> classFiles = directory ? findClassFiles(root.resolve(packagePath)) : List.of();
+        final var fingerprint = directory ? directoryFingerprint(root, classFiles) : jarFingerprint(root);
+        if (cache != null) {
+            final var cached = cache.load(key, fingerprint);
+            if (cached.isPresent()) {
+                cacheHits.increment();
+                return cached.get();
+            }
+            cacheMisses.increment();
+        }
+
+        final var sources = directory ? directorySources(root, classFiles) : jarSources(root, packagePath);
+        final var classes = parse(sources);
+        if (cache != null) {
+            cache.store(key, fingerprint, classes);
+        }
+        return classes;
+    }
+
+    private List<ClassMetadata> parse(final List<? extends ClassFileSource> sources) {
+        final var results = new ClassMetadata[sources.size()];
+        if (parallelism == 1 || sources.size() <= THRESHOLD) {
+            new ParseTask(sources, results, 0, results.length).compute();
+        } else {
+            final var pool = new ForkJoinPool(parallelism);
+            try {
+                pool.invoke(new ParseTask(sources, results, 0, results.length));
+            } finally {
+                pool.shutdown();
+            }
+        }
+        final var classes = new ArrayList<ClassMetadata>(results.length);
+        for (final var metadata : results) {
+            if (metadata != null) {
+                classes.add(metadata);
+            }
+        }
+        parsedClasses.add(results.length);
+        return classes;
+    }
+
+    private static Path rootOf(final URL resource, final String packagePath) throws IOException {
+        try {
+            if (FILE_PROTOCOL.equals(resource.getProtocol())) {
+                var root = Paths.get(resource.toURI());
+                for (int i = packagePath.split("/").length; i > 0; i--) {
+                    root = root.getParent();
+                }
+                return root;
+            }
+            if (JAR_PROTOCOL.equals(resource.getProtocol())) {
+                final var spec = resource.toString();
+                return Paths.get(new URI(spec.substring(JAR_PROTOCOL.length() + 1, spec.indexOf(JAR_SEPARATOR))));
+            }
+        } catch (URISyntaxException | IllegalArgumentException e) {
+            throw new IOException("클래스패스 루트를 찾을 수 없습니다: " + resource, e);
+        }
+        log.debug("파일이나 jar가 아닌 클래스패스는 건너뜁니다. resource={}", resource);
+        return null;
+    }
+
+    private static List<Path> findClassFiles(final Path packageDirectory) throws IOException {
+        if (!Files.isDirectory(packageDirectory)) {
+            return List.of();
+        }
+        try (final var paths = Files.walk(packageDirectory)) {
+            return paths.filter(path -> isClassFile(path.getFileName().toString()))
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+    }
+
+    private static long directoryFingerprint(final Path root, final List<Path> classFiles) throws IOException {
+        long hash = classFiles.size();
+        for (final var classFile : classFiles) {
+            final var attributes = Files.readAttributes(classFile, BasicFileAttributes.class);
+            hash = 31 * hash + root.relativize(classFile).toString().hashCode();
+            hash = 31 * hash + attributes.size();
+            hash = 31 * hash + attributes.lastModifiedTime().toMillis();
+        }
+        return hash;
+    }
+
+    private static long jarFingerprint(final Path jar) throws IOException {
+        final var attributes = Files.readAttributes(jar, BasicFileAttributes.class);
+        final var hash = 31 * attributes.size() + attributes.lastModifiedTime().toMillis();
+        return 31 * hash + jarContentHash(jar);
+    }
+
+    private static long jarContentHash(final Path jar) throws IOException {
+        try {
+            return MappedJar.centralDirectoryHash(jar);
+        } catch (ZipException e) {
+            // central directory를 찾지 못하는 jar는 전체 내용을 해시한다.
+            log.debug("jar를 매핑해서 읽을 수 없어 전체를 해시합니다. jar={}, reason={}", jar, e.getMessage());
+            final MessageDigest digest;
+            try {
+                digest = MessageDigest.getInstance("SHA-256");
+            } catch (NoSuchAlgorithmException ex) {
+                throw new IllegalStateException("SHA-256은 모든 JVM이 지원해야 합니다.", ex);
+            }
+            try (final var in = new DigestInputStream(Files.newInputStream(jar), digest)) {
+                in.transferTo(OutputStream.nullOutputStream());
+            }
+            return ByteBuffer.wrap(digest.digest()).getLong();
+        }
+    }
+
+    private static List<ClassFileSource> directorySources(final Path root, final List<Path> classFiles) {
+        final var sources = new ArrayList<ClassFileSource>(classFiles.size());
+        for (final var classFile : classFiles) {
+            sources.add(new ClassFileSource() {
+                @Override
+                public String getName() {
+                    return root.relativize(classFile).toString();
+                }
+
+                @Override
+                public ByteBuffer read(final Inflater inflater) throws IOException {
+                    return ByteBuffer.wrap(Files.readAllBytes(classFile));
+                }
+            });
+        }
+        return sources;
+    }
+
+    private static List<? extends ClassFileSource> jarSources(final Path jar, final String packagePath)
+            throws IOException {
+        try {
+            return MappedJar.classEntries(jar, packagePath);
+        } catch (ZipException e) {
+            log.debug("jar를 매핑해서 읽을 수 없어 ZipFile로 읽습니다. jar={}, reason={}", jar, e.getMessage());
+            return zipFileSources(jar, packagePath);
+        }
+    }
+
+    /**
+     * ZIP64처럼 {@link MappedJar}가 읽지 못하는 jar는 ZipFile로 미리 읽어 둔다.
+     */
+    private static List<ClassFileSource> zipFileSources(final Path jar, final String packagePath) throws IOException {
+        final var sources = new ArrayList<ClassFileSource>();
+        try (final var zipFile = new ZipFile(jar.toFile())) {
+            final var entries = zipFile.entries();
+            while (entries.hasMoreElements()) {
+                final var entry = entries.nextElement();
+                final var name = entry.getName();
+                if (!isClassFile(name) || !name.startsWith(packagePath)) {
+                    continue;
+                }
+                final byte[] bytes;
+                try (final var in = zipFile.getInputStream(entry)) {
+                    bytes = in.readAllBytes();
+                }
+                sources.add(new ClassFileSource() {
+                    @Override
+                    public String getName() {
+                        return name;
+                    }
+
+                    @Override
+                    public ByteBuffer read(final Inflater inflater) {
+                        return ByteBuffer.wrap(bytes);
+                    }
+                });
+            }
+        }
+        return sources;
+    }
+
+    static boolean isClassFile(final String name) {
+        return name.endsWith(CLASS_EXTENSION)
+                && !name.startsWith("META-INF/")
+                && !name.endsWith("module-info.class")
+                && !name.endsWith("package-info.class");
+    }
+
+    public long getParsedClassCount() {
+        return parsedClasses.sum();
+    }
+
+    public long getCacheHitCount() {
+        return cacheHits.sum();
+    }
+
+    public long getCacheMissCount() {
+        return cacheMisses.sum();
+    }
+
+    interface ClassFileSource {
+
+        String getName();
+
+        /**
+         * 클래스 파일 내용을 읽는다. 압축된 항목은 호출하는 스레드의 inflater로 푼다.
+         */
+        ByteBuffer read(Inflater inflater) throws IOException;
+    }
+
+    /**
+     * 클래스 파일 목록을 반씩 나누다가 THRESHOLD 이하가 되면 한 스레드에서 순서대로 읽는다.
+     * 결과는 입력과 같은 위치에 넣어서 병렬 여부와 관계없이 순서가 같다.
+     */
+    private static final class ParseTask extends RecursiveAction {
+
+        private final List<? extends ClassFileSource> sources;
+        private final ClassMetadata[] results;
+        private final int from;
+        private final int to;
+
+        private ParseTask(final List<? extends ClassFileSource> sources, final ClassMetadata[] results,
+                          final int from, final int to) {
+            this.sources = sources;
+            this.results = results;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > THRESHOLD) {
+                final var middle = (from + to) >>> 1;
+                invokeAll(new ParseTask(sources, results, from, middle),
+                        new ParseTask(sources, results, middle, to));
+                return;
+            }
+            final var inflater = new Inflater(true);
+            try {
+                for (int i = from; i < to; i++) {
+                    results[i] = parse(sources.get(i), inflater);
+                }
+            } finally {
+                inflater.end();
+            }
+        }
+
+        private static ClassMetadata parse(final ClassFileSource source, final Inflater inflater) {
+            try {
+                return ClassFileParser.parse(source.read(inflater));
+            } catch (IOException e) {
+                throw new UncheckedIOException(source.getName() + "을 읽지 못했습니다.", e);
+            } catch (IllegalArgumentException e) {
+                log.warn("클래스 파일 형식이 아니어서 건너뜁니다. name={}, reason={}", source.getName(), e.getMessage());
+                return null;
+            }
+        }
+    }
+}
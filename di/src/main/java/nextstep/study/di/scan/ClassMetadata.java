@@ -0,0 +1,146 @@
+package nextstep.study.di.scan;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * 클래스 파일에서 읽은 타입 정보. 클래스를 로딩하지 않고 이름과 애노테이션으로만 판단할 수 있게 한다.
+ * <p>
+ * 이름은 모두 바이너리 이름(a.b.Outer$Inner)이다. 실제로 쓸 클래스만 {@link #loadClass(ClassLoader)}로 로딩한다.
+ */
+public final class ClassMetadata {
+
+    static final int ACC_PUBLIC = 0x0001;
+    static final int ACC_INTERFACE = 0x0200;
+    static final int ACC_ABSTRACT = 0x0400;
+    static final int ACC_ANNOTATION = 0x2000;
+    static final int ACC_ENUM = 0x4000;
+
+    private final String className;
+    private final String superClassName;
+    private final List<String> interfaceNames;
+    private final List<String> annotationNames;
+    private final List<ConstructorMetadata> constructors;
+    private final int accessFlags;
+
+    ClassMetadata(final String className, final String superClassName, final List<String> interfaceNames,
+                  final List<String> annotationNames, final List<ConstructorMetadata> constructors,
+                  final int accessFlags) {
+        this.className = className;
+        this.superClassName = superClassName;
+        this.interfaceNames = List.copyOf(interfaceNames);
+        this.annotationNames = List.copyOf(annotationNames);
+        this.constructors = List.copyOf(constructors);
+        this.accessFlags = accessFlags;
+    }
+
+    public String getClassName() {
+        return className;
+    }
+
+    public String getPackageName() {
+        final var lastDot = className.lastIndexOf('.');
+        return lastDot < 0 ? "" : className.substring(0, lastDot);
+    }
+
+    /**
+     * java.lang.Object와 모듈 정보에는 상위 클래스가 없어서 null이다.
+     */
+    public String getSuperClassName() {
+        return superClassName;
+    }
+
+    public List<String> getInterfaceNames() {
+        return interfaceNames;
+    }
+
+    /**
+     * 클래스에 직접 붙은 런타임 애노테이션. 메타 애노테이션과 상속된 애노테이션은 포함하지 않는다.
+     */
+    public List<String> getAnnotationNames() {
+        return annotationNames;
+    }
+
+    public boolean hasAnnotation(final String annotationName) {
+        return annotationNames.contains(annotationName);
+    }
+
+    /**
+     * 선언된 생성자. 인터페이스와 애노테이션은 비어 있다.
+     */
+    public List<ConstructorMetadata> getConstructors() {
+        return constructors;
+    }
+
+    public boolean hasNoArgConstructor() {
+        return constructors.stream().anyMatch(constructor -> constructor.getParameterCount() == 0);
+    }
+
+    public int getAccessFlags() {
+        return accessFlags;
+    }
+
+    public boolean isInterface() {
+        return (accessFlags & ACC_INTERFACE) != 0;
+    }
+
+    public boolean isAnnotation() {
+        return (accessFlags & ACC_ANNOTATION) != 0;
+    }
+
+    public boolean isAbstract() {
+        return (accessFlags & ACC_ABSTRACT) != 0;
+    }
+
+    public boolean isEnum() {
+        return (accessFlags & ACC_ENUM) != 0;
+    }
+
+    /**
+     * 인스턴스를 만들 수 있는 일반 클래스인지. 인터페이스, 애노테이션, 추상 클래스가 아니면 참이다.
+     */
+    public boolean isConcrete() {
+        return (accessFlags & (ACC_INTERFACE | ACC_ABSTRACT)) == 0;
+    }
+
+    /**
+     * 클래스를 로딩하되 초기화(static 블록 실행)는 하지 않는다. 인스턴스를 처음 만들 때 초기화된다.
+     */
+    public Class<?> loadClass(final ClassLoader classLoader) throws ClassNotFoundException {
+        return Class.forName(className, false, classLoader);
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof ClassMetadata)) {
+            return false;
+        }
+        final var that = (ClassMetadata) o;
+        return accessFlags == that.accessFlags
+                && className.equals(that.className)
+                && Objects.equals(superClassName, that.superClassName)
+                && interfaceNames.equals(that.interfaceNames)
+                && annotationNames.equals(that.annotationNames)
+                && constructors.equals(that.constructors);
+    }
+
+    @Override
+    public int hashCode() {
+        return className.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return "ClassMetadata{" +
+                "className='" + className + '\'' +
+                ", superClassName='" + superClassName + '\'' +
+                ", interfaceNames=" + interfaceNames +
+                ", annotationNames=" + annotationNames +
+                ", constructors=" + constructors +
+                ", accessFlags=0x" + Integer.toHexString(accessFlags) +
+                '}';
+    }
+}
@@ -0,0 +1,72 @@
+package nextstep.study.di.scan;
+
+import java.util.List;
+
+/**
+ * 클래스 파일에서 읽은 생성자 정보. 파라미터 타입 이름은 {@link Class#getTypeName()} 형식(int, java.lang.String[])이다.
+ */
+public final class ConstructorMetadata {
+
+    private final int accessFlags;
+    private final List<String> parameterTypeNames;
+    private final List<String> annotationNames;
+
+    ConstructorMetadata(final int accessFlags, final List<String> parameterTypeNames,
+                        final List<String> annotationNames) {
+        this.accessFlags = accessFlags;
+        this.parameterTypeNames = List.copyOf(parameterTypeNames);
+        this.annotationNames = List.copyOf(annotationNames);
+    }
+
+    public int getAccessFlags() {
+        return accessFlags;
+    }
+
+    public boolean isPublic() {
+        return (accessFlags & ClassMetadata.ACC_PUBLIC) != 0;
+    }
+
+    public List<String> getParameterTypeNames() {
+        return parameterTypeNames;
+    }
+
+    public int getParameterCount() {
+        return parameterTypeNames.size();
+    }
+
+    public List<String> getAnnotationNames() {
+        return annotationNames;
+    }
+
+    public boolean hasAnnotation(final String annotationName) {
+        return annotationNames.contains(annotationName);
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof ConstructorMetadata)) {
+            return false;
+        }
+        final var that = (ConstructorMetadata) o;
+        return accessFlags == that.accessFlags
+                && parameterTypeNames.equals(that.parameterTypeNames)
+                && annotationNames.equals(that.annotationNames);
+    }
+
+    @Override
+    public int hashCode() {
+        return parameterTypeNames.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return "ConstructorMetadata{" +
+                "parameterTypeNames=" + parameterTypeNames +
+                ", annotationNames=" + annotationNames +
+                ", accessFlags=0x" + Integer.toHexString(accessFlags) +
+                '}';
+    }
+}
@@ -0,0 +1,193 @@
+package nextstep.study.di.scan;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+import java.util.zip.ZipException;
+
+/**
+ * jar 파일 전체를 메모리 매핑하고 central directory를 직접 읽어 클래스 항목을 꺼낸다.
+ * <p>
+ * ZipFile처럼 항목마다 스트림과 버퍼를 만들지 않고, STORED 항목은 매핑된 영역을 그대로 잘라 쓰고
+ * DEFLATED 항목은 매핑된 영역을 Inflater 입력으로 바로 넘긴다. 여러 스레드가 같은 매핑을 나눠 읽을 수 있다.
+ * <p>
+ * ZIP64와 2GB 넘는 jar는 지원하지 않는다. 이때는 {@link ZipException}을 던지므로 호출하는 쪽에서 다른 방법으로 읽는다.
+ */
+final class MappedJar {
+
+    private static final int END_OF_CENTRAL_DIRECTORY = 0x06054b50;
+    private static final int CENTRAL_DIRECTORY_HEADER = 0x02014b50;
+    private static final int LOCAL_FILE_HEADER = 0x04034b50;
+    private static final int END_OF_CENTRAL_DIRECTORY_SIZE = 22;
+    private static final int MAX_COMMENT_LENGTH = 0xFFFF;
+    private static final int CENTRAL_DIRECTORY_HEADER_SIZE = 46;
+    private static final int LOCAL_FILE_HEADER_SIZE = 30;
+
+    private static final int STORED = 0;
+    private static final int DEFLATED = 8;
+
+    private MappedJar() {
+    }
+
+    /**
+     * namePrefix로 시작하는 .class 항목을 찾는다. 항목 데이터는 아직 읽지 않는다.
+     */
+    static List<Entry> classEntries(final Path jar, final String namePrefix) throws IOException {
+        final var buffer = map(jar);
+        final var endOfCentralDirectory = findEndOfCentralDirectory(buffer, jar);
+        final var entryCount = buffer.getShort(endOfCentralDirectory + 10) & 0xFFFF;
+        final var centralDirectoryOffset = buffer.getInt(endOfCentralDirectory + 16);
+        if (entryCount == 0xFFFF || centralDirectoryOffset == 0xFFFFFFFF) {
+            throw new ZipException("ZIP64 jar는 지원하지 않습니다: " + jar);
+        }
+
+        final var entries = new ArrayList<Entry>();
+        int position = centralDirectoryOffset;
+        for (int i = 0; i < entryCount; i++) {
+            if (buffer.getInt(position) != CENTRAL_DIRECTORY_HEADER) {
+                throw new ZipException("central directory가 손상되었습니다: " + jar);
+            }
+            final var method = buffer.getShort(position + 10) & 0xFFFF;
+            final var compressedSize = buffer.getInt(position + 20);
+            final var uncompressedSize = buffer.getInt(position + 24);
+            final var nameLength = buffer.getShort(position + 28) & 0xFFFF;
+            final var extraLength = buffer.getShort(position + 30) & 0xFFFF;
+            final var commentLength = buffer.getShort(position + 32) & 0xFFFF;
+            final var localHeaderOffset = buffer.getInt(position + 42);
+            final var name = ascii(buffer, position + CENTRAL_DIRECTORY_HEADER_SIZE, nameLength);
+            position += CENTRAL_DIRECTORY_HEADER_SIZE + nameLength + extraLength + commentLength;
+
+            if (!ClassFileScanner.isClassFile(name) || !name.startsWith(namePrefix)) {
+                continue;
+            }
+            if (method != STORED && method != DEFLATED) {
+                throw new ZipException("지원하지 않는 압축 방식입니다: " + method + " " + name);
+            }
+            entries.add(new Entry(buffer, name, method, localHeaderOffset, compressedSize, uncompressedSize));
+        }
+        return entries;
+    }
+
+    /**
+     * central directory부터 파일 끝까지를 SHA-256으로 해시한 앞 8바이트.
+     * central directory에는 항목마다 이름, 크기, CRC-32가 들어 있으므로 항목 내용이 바뀌면 값이 달라진다.
+     * 항목 데이터는 읽지 않으므로 jar가 커도 central directory 크기만큼만 읽는다.
+     */
+    static long centralDirectoryHash(final Path jar) throws IOException {
+        final var buffer = map(jar);
+        final var endOfCentralDirectory = findEndOfCentralDirectory(buffer, jar);
+        final var centralDirectoryOffset = buffer.getInt(endOfCentralDirectory + 16);
+        if (centralDirectoryOffset < 0 || centralDirectoryOffset > endOfCentralDirectory) {
+            throw new ZipException("ZIP64 jar는 지원하지 않습니다: " + jar);
+        }
+        final MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256은 모든 JVM이 지원해야 합니다.", e);
+        }
+        digest.update(buffer.duplicate().position(centralDirectoryOffset));
+        return ByteBuffer.wrap(digest.digest()).getLong();
+    }
+
+    private static ByteBuffer map(final Path jar) throws IOException {
+        final MappedByteBuffer mapped;
+        try (final var channel = FileChannel.open(jar, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new ZipException("2GB보다 큰 jar는 매핑하지 않습니다: " + jar);
+            }
+            // 매핑은 채널을 닫아도 유지된다.
+            mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        return mapped.order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    private static int findEndOfCentralDirectory(final ByteBuffer buffer, final Path jar) throws ZipException {
+        final var last = buffer.limit() - END_OF_CENTRAL_DIRECTORY_SIZE;
+        final var first = Math.max(0, last - MAX_COMMENT_LENGTH);
+        for (int position = last; position >= first; position--) {
+            if (buffer.getInt(position) == END_OF_CENTRAL_DIRECTORY) {
+                return position;
+            }
+        }
+        throw new ZipException("jar 파일이 아닙니다: " + jar);
+    }
+
+    /**
+     * 클래스 파일 경로는 ASCII라고 보고 읽는다. ASCII가 아닌 이름은 .class로 끝나는지만 맞으면 충분하다.
+     */
+    private static String ascii(final ByteBuffer buffer, final int offset, final int length) {
+        final var chars = new char[length];
+        for (int i = 0; i < length; i++) {
+            chars[i] = (char) (buffer.get(offset + i) & 0xFF);
+        }
+        return new String(chars);
+    }
+
+    static final class Entry implements ClassFileScanner.ClassFileSource {
+
+        private final ByteBuffer jar;
+        private final String name;
+        private final int method;
+        private final int localHeaderOffset;
+        private final int compressedSize;
+        private final int uncompressedSize;
+
+        private Entry(final ByteBuffer jar, final String name, final int method, final int localHeaderOffset,
+                      final int compressedSize, final int uncompressedSize) {
+            this.jar = jar;
+            this.name = name;
+            this.method = method;
+            this.localHeaderOffset = localHeaderOffset;
+            this.compressedSize = compressedSize;
+            this.uncompressedSize = uncompressedSize;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * STORED 항목은 매핑된 영역을 그대로 돌려준다. inflater는 다 쓰면 reset 해 둔다.
+         */
+        @Override
+        public ByteBuffer read(final Inflater inflater) throws IOException {
+            if (jar.getInt(localHeaderOffset) != LOCAL_FILE_HEADER) {
+                throw new ZipException("local header가 손상되었습니다: " + name);
+            }
+            // local header의 이름/extra 길이는 central directory와 다를 수 있어서 여기서 다시 읽는다.
+            final var nameLength = jar.getShort(localHeaderOffset + 26) & 0xFFFF;
+            final var extraLength = jar.getShort(localHeaderOffset + 28) & 0xFFFF;
+            final var dataOffset = localHeaderOffset + LOCAL_FILE_HEADER_SIZE + nameLength + extraLength;
+            final var data = jar.duplicate().position(dataOffset).limit(dataOffset + compressedSize).slice();
+            if (method == STORED) {
+                return data;
+            }
+            final var out = ByteBuffer.allocate(uncompressedSize);
+            try {
+                inflater.setInput(data);
+                while (!inflater.finished() && out.hasRemaining()) {
+                    if (inflater.inflate(out) == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                        throw new ZipException("압축 데이터가 잘렸습니다: " + name);
+                    }
+                }
+            } catch (DataFormatException e) {
+                throw new ZipException("압축 데이터가 손상되었습니다: " + name + " " + e.getMessage());
+            } finally {
+                inflater.reset();
+            }
+            return out.flip();
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package nextstep.study.di.scan;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * 스캔 결과를 디스크에 저장해 두고 다음 실행에서 다시 쓴다.
+ * <p>
+ * 키(클래스패스 루트와 패키지)마다 파일 하나를 쓰고, 파일 안에 스캔할 때의 fingerprint를 함께 적는다.
+ * fingerprint가 달라졌거나 파일이 깨졌으면 없는 것으로 보고 다시 스캔한다.
+ * 쓰는 중에 다른 프로세스가 읽지 않도록 임시 파일에 쓴 뒤 이름을 바꾼다.
+ */
+final class ScanCache {
+
+    private static final Logger log = LoggerFactory.getLogger(ScanCache.class);
+
+    private static final int MAGIC = 0x4A575343; // "JWSC"
+    // ClassMetadata에 필드가 늘어나면 올린다. 이전 형식의 파일은 읽지 않는다.
+    private static final int FORMAT_VERSION = 2;
+    private static final String EXTENSION = ".scan";
+
+    private final Path directory;
+
+    ScanCache(final Path directory) {
+        this.directory = directory;
+    }
+
+    Optional<List<ClassMetadata>> load(final String key, final long fingerprint) {
+        final var file = fileOf(key);
+        try (final var in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION || !key.equals(in.readUTF())
+                    || in.readLong() != fingerprint) {
+                return Optional.empty();
+            }
+            final var count = in.readInt();
+            final var classes = new ArrayList<ClassMetadata>(count);
+            for (int i = 0; i < count; i++) {
+                classes.add(read(in));
+            }
+            return Optional.of(classes);
+        } catch (NoSuchFileException e) {
+            return Optional.empty();
+        } catch (IOException | RuntimeException e) {
+            log.warn("스캔 캐시를 읽지 못해 다시 스캔합니다. file={}", file, e);
+            return Optional.empty();
+        }
+    }
+
+    void store(final String key, final long fingerprint, final List<ClassMetadata> classes) {
+        final var file = fileOf(key);
+        try {
+            Files.createDirectories(directory);
+            final var temp = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+            try (final var out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(FORMAT_VERSION);
+                out.writeUTF(key);
+                out.writeLong(fingerprint);
+                out.writeInt(classes.size());
+                for (final var metadata : classes) {
+                    write(out, metadata);
+                }
+            }
+            move(temp, file);
+        } catch (IOException e) {
+            // 캐시는 없어도 동작한다. 다음 실행에서 다시 스캔할 뿐이다.
+            log.warn("스캔 캐시를 저장하지 못했습니다. file={}", file, e);
+        }
+    }
+
+    private static void move(final Path source, final Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private Path fileOf(final String key) {
+        return directory.resolve(UUID.nameUUIDFromBytes(key.getBytes(StandardCharsets.UTF_8)) + EXTENSION);
+    }
+
+    private static void write(final DataOutputStream out, final ClassMetadata metadata) throws IOException {
+        out.writeUTF(metadata.getClassName());
+        out.writeBoolean(metadata.getSuperClassName() != null);
+        if (metadata.getSuperClassName() != null) {
+            out.writeUTF(metadata.getSuperClassName());
+        }
+        writeNames(out, metadata.getInterfaceNames());
+        writeNames(out, metadata.getAnnotationNames());
+        out.writeShort(metadata.getConstructors().size());
+        for (final var constructor : metadata.getConstructors()) {
+            out.writeShort(constructor.getAccessFlags());
+            writeNames(out, constructor.getParameterTypeNames());
+            writeNames(out, constructor.getAnnotationNames());
+        }
+        out.writeShort(metadata.getAccessFlags());
+    }
+
+    private static ClassMetadata read(final DataInputStream in) throws IOException {
+        final var className = in.readUTF();
+        final var superClassName = in.readBoolean() ? in.readUTF() : null;
+        final var interfaceNames = readNames(in);
+        final var annotationNames = readNames(in);
+        final var constructorCount = in.readUnsignedShort();
+        final var constructors = new ArrayList<ConstructorMetadata>(constructorCount);
+        for (int i = 0; i < constructorCount; i++) {
+            constructors.add(new ConstructorMetadata(in.readUnsignedShort(), readNames(in), readNames(in)));
+        }
+        final var accessFlags = in.readUnsignedShort();
+        return new ClassMetadata(className, superClassName, interfaceNames, annotationNames, constructors,
+                accessFlags);
+    }
+
+    private static void writeNames(final DataOutputStream out, final List<String> names) throws IOException {
+        out.writeShort(names.size());
+        for (final var name : names) {
+            out.writeUTF(name);
+        }
+    }
+
+    private static List<String> readNames(final DataInputStream in) throws IOException {
+        final var count = in.readUnsignedShort();
+        final var names = new ArrayList<String>(count);
+        for (int i = 0; i < count; i++) {
+            names.add(in.readUTF());
+        }
+        return names;
+    }
+}
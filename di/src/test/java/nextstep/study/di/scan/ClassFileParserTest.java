@@ -0,0 +1,89 @@
+package nextstep.study.di.scan;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import nextstep.study.User;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ClassFileParserTest {
+
+    private static final String STAGE4 = "nextstep.study.di.stage4.annotations";
+
+    @Test
+    void classAnnotationsAndInterfaces() throws IOException {
+        final var userService = parse(STAGE4 + ".UserService");
+        final var inMemoryUserDao = parse(STAGE4 + ".InMemoryUserDao");
+
+        assertThat(userService.getClassName()).isEqualTo(STAGE4 + ".UserService");
+        assertThat(userService.getPackageName()).isEqualTo(STAGE4);
+        assertThat(userService.getSuperClassName()).isEqualTo("java.lang.Object");
+        assertThat(userService.getAnnotationNames()).containsExactly(STAGE4 + ".Service");
+        assertThat(userService.isConcrete()).isTrue();
+
+        assertThat(inMemoryUserDao.getInterfaceNames()).containsExactly(STAGE4 + ".UserDao");
+        assertThat(inMemoryUserDao.hasAnnotation(STAGE4 + ".Repository")).isTrue();
+    }
+
+    @Test
+    void annotationWithElementValues() throws IOException {
+        // @Target({TYPE})의 배열/enum 값과 @Retention을 건너뛰고 이름만 읽어야 한다.
+        final var service = parse(STAGE4 + ".Service");
+
+        assertThat(service.isAnnotation()).isTrue();
+        assertThat(service.isInterface()).isTrue();
+        assertThat(service.isConcrete()).isFalse();
+        assertThat(service.getAnnotationNames())
+                .containsExactly("java.lang.annotation.Target", "java.lang.annotation.Retention");
+    }
+
+    @Test
+    void wideConstantsAndNestedClasses() throws IOException {
+        // Long은 8바이트 상수가 상수 풀 슬롯 두 개를 차지한다.
+        final var longClass = parse(Long.class.getName());
+        final var state = parse(Thread.State.class.getName());
+
+        assertThat(longClass.getSuperClassName()).isEqualTo(Number.class.getName());
+        assertThat(longClass.getInterfaceNames()).contains(Comparable.class.getName());
+        assertThat(state.getClassName()).isEqualTo("java.lang.Thread$State");
+        assertThat(state.isEnum()).isTrue();
+        assertThat(parse(Object.class.getName()).getSuperClassName()).isNull();
+        assertThat(parse(Serializable.class.getName()).isInterface()).isTrue();
+    }
+
+    @Test
+    void constructors() throws IOException {
+        final var userService = parse(STAGE4 + ".UserService");
+        final var user = parse(User.class.getName());
+
+        assertThat(userService.hasNoArgConstructor()).isTrue();
+        assertThat(userService.getConstructors().get(0).isPublic()).isFalse();
+        assertThat(user.hasNoArgConstructor()).isFalse();
+        assertThat(user.getConstructors().get(0).getParameterTypeNames()).containsExactly("long", "java.lang.String");
+        assertThat(parse(STAGE4 + ".UserDao").getConstructors()).isEmpty();
+        assertThat(ClassFileParser.parameterTypeNames("([[ILjava/util/Map$Entry;[Ljava/lang/String;Z)V"))
+                .containsExactly("int[][]", "java.util.Map$Entry", "java.lang.String[]", "boolean");
+    }
+
+    @Test
+    void rejectsNonClassFiles() {
+        assertThatThrownBy(() -> ClassFileParser.parse(ByteBuffer.wrap(new byte[]{1, 2, 3, 4, 5, 6, 7, 8})))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> ClassFileParser.parse(ByteBuffer.wrap(new byte[]{
+                (byte) 0xCA, (byte) 0xFE, (byte) 0xBA, (byte) 0xBE, 0, 0, 0, 55, 0, 10})))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    static byte[] classBytes(final String className) throws IOException {
+        try (final var in = ClassLoader.getSystemResourceAsStream(className.replace('.', '/') + ".class")) {
+            return in.readAllBytes();
+        }
+    }
+
+    private static ClassMetadata parse(final String className) throws IOException {
+        return ClassFileParser.parse(ByteBuffer.wrap(classBytes(className)));
+    }
+}
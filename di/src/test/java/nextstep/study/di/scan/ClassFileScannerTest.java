@@ -0,0 +1,181 @@
+package nextstep.study.di.scan;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.stream.Collectors;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class ClassFileScannerTest {
+
+    private static final String STAGE4 = "nextstep.study.di.stage4.annotations";
+    private static final List<String> STAGE4_CLASSES = List.of(
+            "ClassPathScanner", "DIContainer", "Inject", "InMemoryUserDao", "Repository", "Service",
+            "Stage4Test", "UserDao", "UserService");
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void scanDirectoryWithoutLoadingClasses() {
+        final var scanner = new ClassFileScanner(1, null);
+
+        final var classes = scanner.scan(STAGE4, getClass().getClassLoader());
+
+        assertThat(names(classes)).isEqualTo(STAGE4_CLASSES.stream()
+                .map(name -> STAGE4 + "." + name)
+                .collect(Collectors.toSet()));
+        assertThat(scanner.getParsedClassCount()).isEqualTo(classes.size());
+    }
+
+    @Test
+    void storedAndDeflatedJarEntries() throws IOException {
+        final var stored = writeJar(tempDir.resolve("stored.jar"), ZipEntry.STORED, 1);
+        final var deflated = writeJar(tempDir.resolve("deflated.jar"), ZipEntry.DEFLATED, 1);
+        final var scanner = new ClassFileScanner(1, null);
+
+        final var fromStored = scanner.scan(stored, STAGE4);
+        final var fromDeflated = scanner.scan(deflated, STAGE4);
+        final var fromDirectory = scanner.scan(STAGE4, getClass().getClassLoader());
+
+        assertThat(Set.copyOf(fromStored)).isEqualTo(Set.copyOf(fromDirectory));
+        assertThat(Set.copyOf(fromDeflated)).isEqualTo(Set.copyOf(fromDirectory));
+        assertThat(scanner.scan(stored, "nextstep.other")).isEmpty();
+    }
+
+    @Test
+    void parallelScanKeepsOrder() throws IOException {
+        final var jar = writeJar(tempDir.resolve("large.jar"), ZipEntry.DEFLATED, 100);
+
+        final var sequential = new ClassFileScanner(1, null).scan(jar, STAGE4);
+        final var parallel = new ClassFileScanner(4, null).scan(jar, STAGE4);
+
+        assertThat(parallel).hasSize(STAGE4_CLASSES.size() * 100);
+        assertThat(parallel).isEqualTo(sequential);
+    }
+
+    @Test
+    void secondStartSkipsUnchangedJar() throws IOException {
+        final var jar = writeJar(tempDir.resolve("app.jar"), ZipEntry.DEFLATED, 1);
+        final var cacheDirectory = tempDir.resolve("cache");
+
+        final var first = new ClassFileScanner(2, cacheDirectory);
+        final var scanned = first.scan(jar, STAGE4);
+        final var restarted = new ClassFileScanner(2, cacheDirectory);
+        final var cached = restarted.scan(jar, STAGE4);
+
+        assertThat(first.getCacheMissCount()).isEqualTo(1);
+        assertThat(restarted.getCacheHitCount()).isEqualTo(1);
+        assertThat(restarted.getParsedClassCount()).isZero();
+        assertThat(cached).isEqualTo(scanned);
+
+        // jar가 바뀌면 fingerprint가 달라져서 다시 읽는다.
+        Files.setLastModifiedTime(jar, FileTime.fromMillis(Files.getLastModifiedTime(jar).toMillis() + 1_000));
+        final var changed = new ClassFileScanner(2, cacheDirectory);
+        changed.scan(jar, STAGE4);
+        assertThat(changed.getCacheMissCount()).isEqualTo(1);
+        assertThat(changed.getParsedClassCount()).isEqualTo(scanned.size());
+    }
+
+    /**
+     * 같은 항목을 다른 순서로 담은 jar는 크기가 같다. 수정 시각까지 되돌려도 central directory가 달라서 다시 읽는다.
+     */
+    @Test
+    void rebuiltJarWithSameSizeAndTimeIsScannedAgain() throws IOException {
+        final var jar = writeJar(tempDir.resolve("app.jar"), ZipEntry.STORED, 1, STAGE4_CLASSES);
+        final var cacheDirectory = tempDir.resolve("cache");
+        final var scanned = new ClassFileScanner(1, cacheDirectory).scan(jar, STAGE4);
+        final var size = Files.size(jar);
+        final var modified = Files.getLastModifiedTime(jar);
+
+        final var reversed = new ArrayList<>(STAGE4_CLASSES);
+        Collections.reverse(reversed);
+        writeJar(jar, ZipEntry.STORED, 1, reversed);
+        Files.setLastModifiedTime(jar, modified);
+        final var rebuilt = new ClassFileScanner(1, cacheDirectory);
+        final var rescanned = rebuilt.scan(jar, STAGE4);
+
+        assertThat(Files.size(jar)).isEqualTo(size);
+        assertThat(rebuilt.getCacheMissCount()).isEqualTo(1);
+        assertThat(rebuilt.getParsedClassCount()).isEqualTo(scanned.size());
+        assertThat(Set.copyOf(rescanned)).isEqualTo(Set.copyOf(scanned));
+    }
+
+    @Test
+    void diskCacheIsOffUnlessDirectoryIsGiven() {
+        assumeTrue(System.getProperty(ClassFileScanner.CACHE_DIRECTORY_PROPERTY) == null);
+        final var scanner = ClassFileScanner.fromSystemProperties();
+
+        scanner.scan(STAGE4, getClass().getClassLoader());
+
+        assertThat(scanner.getCacheMissCount()).isZero();
+        assertThat(scanner.getCacheHitCount()).isZero();
+    }
+
+    @Test
+    void corruptedCacheIsIgnored() throws IOException {
+        final var jar = writeJar(tempDir.resolve("app.jar"), ZipEntry.STORED, 1);
+        final var cacheDirectory = tempDir.resolve("cache");
+        final var scanned = new ClassFileScanner(1, cacheDirectory).scan(jar, STAGE4);
+        try (final var files = Files.list(cacheDirectory)) {
+            for (final var file : files.collect(Collectors.toList())) {
+                Files.write(file, new byte[]{1, 2, 3});
+            }
+        }
+
+        final var restarted = new ClassFileScanner(1, cacheDirectory);
+
+        assertThat(restarted.scan(jar, STAGE4)).isEqualTo(scanned);
+        assertThat(restarted.getCacheMissCount()).isEqualTo(1);
+    }
+
+    /**
+     * stage4 패키지의 클래스 파일을 copies 벌 담은 jar를 만든다. 두 번째부터는 하위 패키지 copyN에 넣는다.
+     */
+    private static Path writeJar(final Path jar, final int method, final int copies) throws IOException {
+        return writeJar(jar, method, copies, STAGE4_CLASSES);
+    }
+
+    private static Path writeJar(final Path jar, final int method, final int copies, final List<String> simpleNames)
+            throws IOException {
+        final var packagePath = STAGE4.replace('.', '/');
+        try (final var out = new JarOutputStream(Files.newOutputStream(jar))) {
+            for (int copy = 0; copy < copies; copy++) {
+                final var directory = copy == 0 ? packagePath : packagePath + "/copy" + copy;
+                for (final var simpleName : simpleNames) {
+                    final var bytes = ClassFileParserTest.classBytes(STAGE4 + "." + simpleName);
+                    final var entry = new JarEntry(directory + "/" + simpleName + ".class");
+                    entry.setMethod(method);
+                    if (method == ZipEntry.STORED) {
+                        final var crc = new CRC32();
+                        crc.update(bytes);
+                        entry.setSize(bytes.length);
+                        entry.setCompressedSize(bytes.length);
+                        entry.setCrc(crc.getValue());
+                    }
+                    out.putNextEntry(entry);
+                    out.write(bytes);
+                    out.closeEntry();
+                }
+            }
+        }
+        return jar;
+    }
+
+    private static Set<String> names(final List<ClassMetadata> classes) {
+        return classes.stream().map(ClassMetadata::getClassName).collect(Collectors.toSet());
+    }
+}
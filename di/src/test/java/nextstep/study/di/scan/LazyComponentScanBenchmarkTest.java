@@ -0,0 +1,162 @@
+package nextstep.study.di.scan;
+
+import java.io.IOException;
+import java.lang.annotation.Annotation;
+import java.lang.management.ManagementFactory;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import javax.tools.ToolProvider;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 큰 패키지에서 컴포넌트를 찾을 때 모든 클래스를 로딩해서 애노테이션을 보는 방식과
+ * 클래스 파일 메타데이터로 거른 뒤 컴포넌트만 로딩하는 방식의 시간, 로딩된 클래스 수, Metaspace 사용량을 비교한다.
+ * <p>
+ * 매 라운드마다 새 클래스 로더를 만들어 애플리케이션을 처음 띄우는 상황과 맞춘다. 두 방식 모두 스캔 캐시는 쓰지 않는다.
+ * 기본 test 태스크에서는 제외된다. 아래처럼 실행한다.
+ * <pre>
+ * ./gradlew :di:benchmark -Dbenchmark.scan.classes=20000
+ * </pre>
+ */
+@Tag("benchmark")
+class LazyComponentScanBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(LazyComponentScanBenchmarkTest.class);
+
+    private static final String BASE_PACKAGE = "generated";
+    private static final String COMPONENT_ANNOTATION = BASE_PACKAGE + ".Component";
+    private static final int CLASSES_PER_PACKAGE = 100;
+    // 실제 애플리케이션처럼 컴포넌트는 일부다.
+    private static final int COMPONENT_EVERY = 20;
+    private static final int ROUNDS = 3;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void compare() throws Exception {
+        final var classCount = Integer.getInteger("benchmark.scan.classes", 10_000);
+        final var classes = compile(classCount);
+
+        for (int round = 0; round < ROUNDS; round++) {
+            final var lazy = measure("metadata", classes, this::loadComponentsOnly);
+            final var eager = measure("loadAll", classes, this::loadAllThenFilter);
+
+            assertThat(lazy).hasSize(classCount / COMPONENT_EVERY);
+            assertThat(lazy).isEqualTo(eager);
+        }
+    }
+
+    private Set<String> loadComponentsOnly(final ClassLoader loader) throws Exception {
+        final var components = new ArrayList<Class<?>>();
+        for (final var metadata : new ClassFileScanner(1, null).scan(BASE_PACKAGE, loader)) {
+            if (metadata.hasAnnotation(COMPONENT_ANNOTATION)) {
+                components.add(metadata.loadClass(loader));
+            }
+        }
+        return names(components);
+    }
+
+    private Set<String> loadAllThenFilter(final ClassLoader loader) throws Exception {
+        final var annotation = loader.loadClass(COMPONENT_ANNOTATION).asSubclass(Annotation.class);
+        final var components = new ArrayList<Class<?>>();
+        for (final var metadata : new ClassFileScanner(1, null).scan(BASE_PACKAGE, loader)) {
+            final var type = metadata.loadClass(loader);
+            if (type.isAnnotationPresent(annotation)) {
+                components.add(type);
+            }
+        }
+        return names(components);
+    }
+
+    private Set<String> measure(final String name, final Path classes, final Finder finder) throws Exception {
+        final var classLoading = ManagementFactory.getClassLoadingMXBean();
+        try (final var loader = new URLClassLoader(new URL[]{classes.toUri().toURL()},
+                ClassLoader.getPlatformClassLoader())) {
+            // 이전 라운드의 클래스 로더가 측정 중에 언로드되면 Metaspace가 줄어든 것처럼 보이므로 먼저 정리한다.
+            System.gc();
+            final var loadedBefore = classLoading.getTotalLoadedClassCount();
+            final var metaspaceBefore = metaspaceUsed();
+            final var start = System.nanoTime();
+
+            final var found = finder.find(loader);
+
+            final var elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+            log.info("{}: {} components, {}ms, loaded classes +{}, metaspace +{}KB", name, found.size(),
+                    elapsedMillis, classLoading.getTotalLoadedClassCount() - loadedBefore,
+                    (metaspaceUsed() - metaspaceBefore) / 1024);
+            return found;
+        }
+    }
+
+    private static long metaspaceUsed() {
+        return ManagementFactory.getMemoryPoolMXBeans().stream()
+                .filter(pool -> "Metaspace".equals(pool.getName()))
+                .mapToLong(pool -> pool.getUsage().getUsed())
+                .sum();
+    }
+
+    /**
+     * static 초기화와 메소드가 몇 개 있는 클래스를 만든다. COMPONENT_EVERY번째마다 @Component를 붙인다.
+     */
+    private Path compile(final int classCount) throws IOException {
+        final var sourceDir = tempDir.resolve("src");
+        final var classesDir = Files.createDirectories(tempDir.resolve("classes"));
+        final List<Path> sources = new ArrayList<>();
+        sources.add(write(sourceDir, COMPONENT_ANNOTATION, "package " + BASE_PACKAGE + ";\n"
+                + "@java.lang.annotation.Retention(java.lang.annotation.RetentionPolicy.RUNTIME)\n"
+                + "public @interface Component {}\n"));
+        for (int i = 0; i < classCount; i++) {
+            final var packageName = BASE_PACKAGE + ".p" + (i / CLASSES_PER_PACKAGE);
+            final var simpleName = "Generated" + i;
+            final var annotation = i % COMPONENT_EVERY == 0 ? "@" + COMPONENT_ANNOTATION + " " : "";
+            sources.add(write(sourceDir, packageName + "." + simpleName, "package " + packageName + ";\n"
+                    + annotation + "public class " + simpleName + " {\n"
+                    + "    private static final java.util.List<String> NAMES =\n"
+                    + "            java.util.List.of(\"" + simpleName + "\");\n"
+                    + "    private final String name = NAMES.get(0);\n"
+                    + "    public String getName() { return name; }\n"
+                    + "    public int length() { return name.length(); }\n"
+                    + "    @Override public String toString() { return \"" + simpleName + "(\" + name + \")\"; }\n"
+                    + "}\n"));
+        }
+
+        final var start = System.nanoTime();
+        final var compiler = ToolProvider.getSystemJavaCompiler();
+        try (final var fileManager = compiler.getStandardFileManager(null, null, null)) {
+            final var success = compiler.getTask(null, fileManager, null, List.of("-d", classesDir.toString()),
+                    null, fileManager.getJavaFileObjectsFromPaths(sources)).call();
+            assertThat(success).isTrue();
+        }
+        log.info("compiled {} classes in {}ms", classCount, (System.nanoTime() - start) / 1_000_000);
+        return classesDir;
+    }
+
+    private static Path write(final Path sourceDir, final String className, final String source) throws IOException {
+        final var file = sourceDir.resolve(className.replace('.', '/') + ".java");
+        Files.createDirectories(file.getParent());
+        return Files.writeString(file, source);
+    }
+
+    private static Set<String> names(final List<Class<?>> types) {
+        return types.stream().map(Class::getName).collect(Collectors.toSet());
+    }
+
+    @FunctionalInterface
+    private interface Finder {
+
+        Set<String> find(ClassLoader loader) throws Exception;
+    }
+}
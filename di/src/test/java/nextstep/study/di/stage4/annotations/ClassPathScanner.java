@@ -1,13 +1,40 @@
 package nextstep.study.di.stage4.annotations;
 
+import java.lang.annotation.Annotation;
+import java.util.Arrays;
 import java.util.Set;
-import org.reflections.Reflections;
-import org.reflections.scanners.Scanners;
+import java.util.stream.Collectors;
+import nextstep.study.FunctionWrapper;
+import nextstep.study.di.scan.ClassFileScanner;
+import nextstep.study.di.scan.ClassMetadata;
 
 public class ClassPathScanner {
 
+    // 한 번 만든 스캐너를 재사용한다. jwp.scan.cache-dir를 주면 두 번째 실행부터는 디스크 캐시에서 바로 읽는다.
+    private static final ClassFileScanner SCANNER = ClassFileScanner.fromSystemProperties();
+
     public static Set<Class<?>> getAllClassesInPackage(final String packageName) {
-        Reflections reflections = new Reflections(packageName, Scanners.SubTypes.filterResultsBy(filter -> true));
-        return reflections.getSubTypesOf(Object.class);
+        final var classLoader = ClassPathScanner.class.getClassLoader();
+        return SCANNER.scan(packageName, classLoader).stream()
+                .map(FunctionWrapper.apply(metadata -> metadata.loadClass(classLoader)))
+                .collect(Collectors.toSet());
+    }
+
+    /**
+     * 클래스 파일에 적힌 애노테이션 이름으로 먼저 거르고, 고른 클래스만 로딩한다.
+     * 컴포넌트가 아닌 클래스는 로딩도 초기화도 되지 않는다.
+     */
+    @SafeVarargs
+    public static Set<Class<?>> getClassesAnnotatedWith(final String packageName,
+                                                        final Class<? extends Annotation>... annotations) {
+        final var classLoader = ClassPathScanner.class.getClassLoader();
+        final var annotationNames = Arrays.stream(annotations)
+                .map(Class::getName)
+                .collect(Collectors.toSet());
+        return SCANNER.scan(packageName, classLoader).stream()
+                .filter(ClassMetadata::isConcrete)
+                .filter(metadata -> metadata.getAnnotationNames().stream().anyMatch(annotationNames::contains))
+                .map(FunctionWrapper.apply(metadata -> metadata.loadClass(classLoader)))
+                .collect(Collectors.toSet());
     }
 }
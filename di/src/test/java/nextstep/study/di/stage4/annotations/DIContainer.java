@@ -21,11 +21,9 @@ class DIContainer {
     }
 
     public static DIContainer createContainerForPackage(final String rootPackageName) {
-        Set<Class<?>> classes = ClassPathScanner.getAllClassesInPackage(rootPackageName);
-        return classes.stream()
-                .filter(clazz -> clazz.isAnnotationPresent(Service.class) ||
-                        clazz.isAnnotationPresent(Repository.class))
-                .collect(Collectors.collectingAndThen(Collectors.toSet(), DIContainer::new));
+        // 컴포넌트인지는 클래스 파일에서 판단하고, 빈으로 만들 클래스만 로딩한다.
+        return new DIContainer(ClassPathScanner.getClassesAnnotatedWith(rootPackageName, Service.class,
+                Repository.class));
     }
 
     private Set<Object> createBeans(final Set<Class<?>> classes) {
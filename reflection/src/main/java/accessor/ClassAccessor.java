@@ -0,0 +1,139 @@
+package accessor;
+
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * 클래스 하나의 필드 접근자와 생성자 팩토리를 모아 둔다.
+ * <pre>
+ * final var accessor = ClassAccessor.of(Student.class);
+ * final var student = accessor.supplier().get();
+ * accessor.field("age").set(student, 99);
+ * </pre>
+ * 클래스마다 한 번만 만들어 {@link ClassValue}에 넣어 둔다. 필드 접근자는 처음에 모두 만들고,
+ * 생성자 팩토리는 파라미터 타입별로 처음 요청할 때 만든다.
+ * <p>
+ * 필드는 같은 모듈 안의 상위 클래스부터 선언 순서대로 모으고 static 필드는 제외한다.
+ * 하위 클래스에 같은 이름의 필드가 있으면 하위 클래스 것을 쓴다.
+ * private 멤버는 {@link MethodHandles#privateLookupIn}으로 접근하므로 같은 모듈(또는 열린 패키지)의 클래스만 다룰 수 있다.
+ */
+public final class ClassAccessor<T> {
+
+    private static final ClassValue<ClassAccessor<?>> ACCESSORS = new ClassValue<>() {
+        @Override
+        protected ClassAccessor<?> computeValue(final Class<?> type) {
+            try {
+                return create(type);
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalArgumentException(type.getName() + "의 접근자를 만들 수 없습니다.", e);
+            }
+        }
+    };
+
+    private final Class<T> type;
+    private final MethodHandles.Lookup lookup;
+    private final Map<String, FieldAccessor> fields;
+    private final Map<List<Class<?>>, ObjectFactory<T>> factories = new ConcurrentHashMap<>();
+    private volatile Supplier<T> supplier;
+
+    private ClassAccessor(final Class<T> type, final MethodHandles.Lookup lookup,
+                          final Map<String, FieldAccessor> fields) {
+        this.type = type;
+        this.lookup = lookup;
+        this.fields = fields;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T> ClassAccessor<T> of(final Class<T> type) {
+        return (ClassAccessor<T>) ACCESSORS.get(type);
+    }
+
+    private static <T> ClassAccessor<T> create(final Class<T> type) throws ReflectiveOperationException {
+        final var lookup = MethodHandles.privateLookupIn(type, MethodHandles.lookup());
+        final List<Class<?>> hierarchy = new ArrayList<>();
+        // 다른 모듈의 상위 클래스(JDK 클래스 등)는 private 접근이 안 되므로 같은 모듈까지만 올라간다.
+        for (Class<?> current = type; current != null && current.getModule() == type.getModule();
+             current = current.getSuperclass()) {
+            hierarchy.add(0, current);
+        }
+        final var fields = new LinkedHashMap<String, FieldAccessor>();
+        for (final var declaringClass : hierarchy) {
+            final var declaringLookup = declaringClass == type
+                    ? lookup
+                    : MethodHandles.privateLookupIn(declaringClass, MethodHandles.lookup());
+            for (final var field : declaringClass.getDeclaredFields()) {
+                if (!Modifier.isStatic(field.getModifiers()) && !field.isSynthetic()) {
+                    fields.put(field.getName(), FieldAccessor.of(declaringLookup, field));
+                }
+            }
+        }
+        return new ClassAccessor<>(type, lookup, Collections.unmodifiableMap(fields));
+    }
+
+    public Class<T> getType() {
+        return type;
+    }
+
+    public Collection<FieldAccessor> getFields() {
+        return fields.values();
+    }
+
+    public FieldAccessor field(final String name) {
+        final var field = fields.get(name);
+        if (field == null) {
+            throw new IllegalArgumentException(type.getName() + "에 " + name + " 필드가 없습니다.");
+        }
+        return field;
+    }
+
+    public ObjectFactory<T> factory(final Class<?>... parameterTypes) {
+        return factories.computeIfAbsent(List.of(parameterTypes), ignored -> {
+            try {
+                return ObjectFactory.of(lookup, type.getDeclaredConstructor(parameterTypes));
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalArgumentException(type.getName() + "에 " + List.of(parameterTypes)
+                        + " 생성자가 없습니다.", e);
+            }
+        });
+    }
+
+    /**
+     * 기본 생성자를 부르는 Supplier. LambdaMetafactory로 생성자를 직접 부르는 구현 클래스를 만들기 때문에
+     * 부르는 비용이 일반 인터페이스 호출과 같다. 필드 읽기/쓰기는 LambdaMetafactory가 지원하지 않아 MethodHandle을 쓴다.
+     */
+    public Supplier<T> supplier() {
+        var result = supplier;
+        if (result == null) {
+            result = createSupplier();
+            supplier = result;
+        }
+        return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Supplier<T> createSupplier() {
+        try {
+            final var constructor = lookup.findConstructor(type, MethodType.methodType(void.class));
+            final var site = LambdaMetafactory.metafactory(lookup, "get",
+                    MethodType.methodType(Supplier.class),
+                    MethodType.methodType(Object.class),
+                    constructor,
+                    MethodType.methodType(type));
+            return (Supplier<T>) site.getTarget().invokeExact();
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            throw new IllegalArgumentException(type.getName() + "에 기본 생성자가 없습니다.", e);
+        } catch (Throwable e) {
+            throw new IllegalStateException(type.getName() + "의 Supplier를 만들 수 없습니다.", e);
+        }
+    }
+}
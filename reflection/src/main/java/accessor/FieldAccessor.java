@@ -0,0 +1,94 @@
+package accessor;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+
+/**
+ * 필드 하나를 읽고 쓰는 MethodHandle을 담아 둔다.
+ * <p>
+ * Field.get/set은 호출할 때마다 접근 검사와 타입 검사를 하지만, 여기서는 만들 때 한 번만 검사하고
+ * (Object)Object, (Object, Object)void로 맞춘 핸들을 invokeExact로 부른다.
+ * <p>
+ * 핸들은 인스턴스 필드라서 {@link #get(Object)}, {@link #set(Object, Object)} 안의 invokeExact 호출 지점 하나를
+ * 모든 필드의 접근자가 같이 쓴다. JIT는 이 핸들을 상수로 보지 못하므로 static final MethodHandle이나 직접 접근처럼
+ * 필드 접근 코드를 호출 지점에 인라인하지는 못한다. 검사를 줄이는 것까지이며, 차이는 AccessorBenchmark의
+ * accessor*와 constantHandle*로 확인한다.
+ * <p>
+ * final 필드도 setAccessible로 연 뒤 setter를 만든다. 생성 직후 값을 채우는 매퍼 용도이며, 다른 스레드에 공개된
+ * 객체의 final 필드를 바꾸면 그 스레드가 새 값을 본다는 보장은 없다.
+ */
+public final class FieldAccessor {
+
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+    private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+    private final String name;
+    private final Class<?> type;
+    private final MethodHandle getter;
+    private final MethodHandle setter;
+
+    private FieldAccessor(final String name, final Class<?> type, final MethodHandle getter,
+                          final MethodHandle setter) {
+        this.name = name;
+        this.type = type;
+        this.getter = getter;
+        this.setter = setter;
+    }
+
+    static FieldAccessor of(final MethodHandles.Lookup lookup, final Field field) throws IllegalAccessException {
+        if (Modifier.isFinal(field.getModifiers())) {
+            // Lookup.unreflectSetter는 final 필드에 대해 setAccessible(true)가 되어 있어야 setter를 만들어 준다.
+            field.setAccessible(true);
+        }
+        return new FieldAccessor(field.getName(), field.getType(),
+                lookup.unreflectGetter(field).asType(GETTER_TYPE),
+                lookup.unreflectSetter(field).asType(SETTER_TYPE));
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Class<?> getType() {
+        return type;
+    }
+
+    /**
+     * 원시 타입 필드는 박싱된 값을 돌려준다.
+     */
+    public Object get(final Object target) {
+        try {
+            return (Object) getter.invokeExact(target);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            // 필드 읽기는 checked 예외를 던지지 않는다.
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * 원시 타입 필드에는 박싱된 값을 넘긴다. 타입이 맞지 않으면 ClassCastException, 원시 타입에 null을 넘기면
+     * NullPointerException이 난다.
+     */
+    public void set(final Object target, final Object value) {
+        try {
+            setter.invokeExact(target, value);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "FieldAccessor{" +
+                "name='" + name + '\'' +
+                ", type=" + type.getTypeName() +
+                '}';
+    }
+}
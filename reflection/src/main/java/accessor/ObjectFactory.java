@@ -0,0 +1,58 @@
+package accessor;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.util.List;
+
+/**
+ * 생성자 하나로 인스턴스를 만든다. 인자 배열을 펼쳐 생성자를 부르는 (Object[])Object 핸들을 invokeExact로 부른다.
+ * <p>
+ * Constructor.newInstance와 달리 생성자가 던진 예외를 InvocationTargetException으로 감싸지 않는다.
+ * unchecked 예외는 그대로 던지고, checked 예외만 IllegalStateException으로 감싼다.
+ */
+public final class ObjectFactory<T> {
+
+    private static final MethodType FACTORY_TYPE = MethodType.methodType(Object.class, Object[].class);
+
+    private final Class<T> type;
+    private final List<Class<?>> parameterTypes;
+    private final MethodHandle constructor;
+
+    private ObjectFactory(final Class<T> type, final List<Class<?>> parameterTypes, final MethodHandle constructor) {
+        this.type = type;
+        this.parameterTypes = parameterTypes;
+        this.constructor = constructor;
+    }
+
+    static <T> ObjectFactory<T> of(final MethodHandles.Lookup lookup, final Constructor<T> constructor)
+            throws IllegalAccessException {
+        final var handle = lookup.unreflectConstructor(constructor)
+                .asSpreader(Object[].class, constructor.getParameterCount())
+                .asType(FACTORY_TYPE);
+        return new ObjectFactory<>(constructor.getDeclaringClass(), List.of(constructor.getParameterTypes()), handle);
+    }
+
+    /**
+     * 원시 타입 인자에는 박싱된 값을 넘긴다. 인자 수가 다르면 IllegalArgumentException, 타입이 맞지 않으면
+     * ClassCastException이 난다.
+     */
+    public T newInstance(final Object... args) {
+        try {
+            return type.cast((Object) constructor.invokeExact(args));
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException(type.getName() + " 생성자가 예외를 던졌습니다.", e);
+        }
+    }
+
+    public Class<T> getType() {
+        return type;
+    }
+
+    public List<Class<?>> getParameterTypes() {
+        return parameterTypes;
+    }
+}
@@ -0,0 +1,69 @@
+package testengine;
+
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+/**
+ * 테스트 메소드를 부르는 방법.
+ */
+public enum InvokeStrategy {
+
+    /**
+     * Method.invoke. 호출마다 인자 배열을 만들고 접근 검사를 하며, 예외는 InvocationTargetException으로 감싸진다.
+     */
+    REFLECTION {
+        @Override
+        TestInvoker create(final MethodHandles.Lookup lookup, final Method method) {
+            method.setAccessible(true);
+            return instance -> {
+                try {
+                    method.invoke(instance);
+                } catch (InvocationTargetException e) {
+                    throw e.getCause();
+                }
+            };
+        }
+    },
+
+    /**
+     * (Object)void로 맞춘 MethodHandle을 invokeExact로 부른다. 접근 검사는 만들 때 한 번만 한다.
+     */
+    METHOD_HANDLE {
+        @Override
+        TestInvoker create(final MethodHandles.Lookup lookup, final Method method) throws Exception {
+            final var handle = lookup.unreflect(method).asType(MethodType.methodType(void.class, Object.class));
+            // 식 람다로 쓰면 invokeExact의 반환 타입이 Object로 잡혀 (Object)Object 시그니처가 되므로 블록으로 쓴다.
+            return instance -> {
+                handle.invokeExact(instance);
+            };
+        }
+    },
+
+    /**
+     * LambdaMetafactory로 테스트 메소드를 직접 부르는 TestInvoker 구현 클래스를 만든다.
+     * 메소드마다 클래스가 하나씩 생기므로 만드는 비용은 가장 크고, 부르는 비용은 일반 인터페이스 호출과 같다.
+     */
+    LAMBDA {
+        @Override
+        TestInvoker create(final MethodHandles.Lookup lookup, final Method method) throws Exception {
+            final var site = LambdaMetafactory.metafactory(lookup, "invoke",
+                    MethodType.methodType(TestInvoker.class),
+                    MethodType.methodType(void.class, Object.class),
+                    lookup.unreflect(method),
+                    MethodType.methodType(void.class, method.getDeclaringClass()));
+            try {
+                return (TestInvoker) site.getTarget().invokeExact();
+            } catch (Throwable e) {
+                throw new IllegalStateException(method + "의 TestInvoker를 만들 수 없습니다.", e);
+            }
+        }
+    };
+
+    /**
+     * @param lookup 테스트 클래스에 대한 private 접근 권한이 있는 Lookup
+     */
+    abstract TestInvoker create(MethodHandles.Lookup lookup, Method method) throws Exception;
+}
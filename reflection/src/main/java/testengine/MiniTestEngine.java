@@ -0,0 +1,152 @@
+package testengine;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * 테스트 클래스에서 테스트 메소드를 찾아 실행하는 작은 테스트 엔진.
+ * <pre>
+ * final var engine = new MiniTestEngine(TestMethodSelector.annotatedWith(MyTest.class));
+ * final List&lt;TestResult&gt; results = engine.run(Junit4Test.class);
+ * </pre>
+ * 클래스마다 getDeclaredMethods()로 테스트 메소드를 찾고 호출 방법을 만드는 일은 처음 한 번만 하고
+ * {@link ClassValue}에 {@link TestClassDescriptor}로 넣어 둔다. ClassValue는 클래스가 언로드되면 함께 사라지므로
+ * 클래스 로더를 붙잡지 않는다.
+ * <p>
+ * JUnit처럼 테스트 메소드마다 새 인스턴스를 만든다. 한 테스트가 실패해도 나머지는 계속 실행한다.
+ * <p>
+ * parallelism이 1보다 크면 {@link #runAll(List)}는 클래스와 테스트 메소드를 ForkJoinPool에 나눠 동시에 실행한다.
+ * 작업 훔치기로 오래 걸리는 테스트가 한쪽에 몰려도 남은 스레드가 나머지를 가져간다. 결과 순서는 병렬 여부와 관계없이
+ * 클래스 순서, 메소드 이름순이다. static 필드처럼 테스트끼리 나눠 쓰는 상태가 있으면 병렬로 돌리면 안 된다.
+ * 테스트가 I/O나 sleep으로 오래 멈춰 있다면 코어 수보다 큰 parallelism을 준다.
+ */
+public class MiniTestEngine {
+
+    private final ClassValue<TestClassDescriptor> descriptors;
+    private final int parallelism;
+
+    public MiniTestEngine(final TestMethodSelector selector) {
+        this(selector, InvokeStrategy.METHOD_HANDLE);
+    }
+
+    public MiniTestEngine(final TestMethodSelector selector, final InvokeStrategy strategy) {
+        this(selector, strategy, 1);
+    }
+
+    public MiniTestEngine(final TestMethodSelector selector, final InvokeStrategy strategy, final int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("parallelism은 1 이상이어야 합니다.");
+        }
+        this.descriptors = new ClassValue<>() {
+            @Override
+            protected TestClassDescriptor computeValue(final Class<?> type) {
+                try {
+                    return TestClassDescriptor.discover(type, selector, strategy);
+                } catch (Exception e) {
+                    throw new IllegalArgumentException(type.getName() + "에서 테스트를 찾을 수 없습니다.", e);
+                }
+            }
+        };
+        this.parallelism = parallelism;
+    }
+
+    public TestClassDescriptor describe(final Class<?> testClass) {
+        return descriptors.get(testClass);
+    }
+
+    public List<TestResult> run(final Class<?> testClass) {
+        return runAll(List.of(testClass)).getResults();
+    }
+
+    public TestReport runAll(final List<Class<?>> testClasses) {
+        final var start = System.nanoTime();
+        final var results = new TestResult[testClasses.size()][];
+        if (parallelism == 1) {
+            for (int i = 0; i < results.length; i++) {
+                results[i] = runSequentially(describe(testClasses.get(i)));
+            }
+        } else {
+            final var pool = new ForkJoinPool(parallelism);
+            try {
+                pool.invoke(new ClassesTask(testClasses, results, 0, results.length));
+            } finally {
+                pool.shutdown();
+            }
+        }
+        final List<TestResult> flattened = new ArrayList<>();
+        for (final var classResults : results) {
+            flattened.addAll(Arrays.asList(classResults));
+        }
+        return new TestReport(flattened, System.nanoTime() - start);
+    }
+
+    private TestResult[] runSequentially(final TestClassDescriptor descriptor) {
+        final var testMethods = descriptor.getTestMethods();
+        final var results = new TestResult[testMethods.size()];
+        for (int i = 0; i < results.length; i++) {
+            results[i] = run(descriptor, testMethods.get(i));
+        }
+        return results;
+    }
+
+    private static TestResult run(final TestClassDescriptor descriptor, final TestMethod testMethod) {
+        final var start = System.nanoTime();
+        try {
+            testMethod.invoke(descriptor.newInstance());
+            return new TestResult(descriptor.getTestClass(), testMethod.getName(), null, System.nanoTime() - start);
+        } catch (Throwable e) {
+            if (e instanceof VirtualMachineError) {
+                throw (VirtualMachineError) e;
+            }
+            return new TestResult(descriptor.getTestClass(), testMethod.getName(), e, System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * 클래스 목록을 반씩 나누다가 클래스 하나가 남으면 그 클래스의 테스트 메소드를 하나씩 작업으로 나눈다.
+     */
+    private final class ClassesTask extends RecursiveAction {
+
+        private final List<Class<?>> testClasses;
+        private final TestResult[][] results;
+        private final int from;
+        private final int to;
+
+        private ClassesTask(final List<Class<?>> testClasses, final TestResult[][] results, final int from,
+                            final int to) {
+            this.testClasses = testClasses;
+            this.results = results;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > 1) {
+                final var middle = (from + to) >>> 1;
+                invokeAll(new ClassesTask(testClasses, results, from, middle),
+                        new ClassesTask(testClasses, results, middle, to));
+                return;
+            }
+            if (to == from) {
+                return;
+            }
+            final var descriptor = describe(testClasses.get(from));
+            final var testMethods = descriptor.getTestMethods();
+            final var classResults = new TestResult[testMethods.size()];
+            final List<ForkJoinTask<?>> tasks = new ArrayList<>(testMethods.size());
+            for (int i = 0; i < classResults.length; i++) {
+                final var index = i;
+                tasks.add(ForkJoinTask.adapt(() -> {
+                    classResults[index] = run(descriptor, testMethods.get(index));
+                }));
+            }
+            invokeAll(tasks);
+            results[from] = classResults;
+        }
+    }
+}
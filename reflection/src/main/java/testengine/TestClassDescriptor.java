@@ -0,0 +1,68 @@
+package testengine;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * 테스트 클래스 하나에서 찾은 테스트 메소드 목록과 인스턴스를 만드는 생성자. 만든 뒤에는 바뀌지 않는다.
+ * <p>
+ * getDeclaredMethods()는 순서를 보장하지 않으므로 이름순으로 정렬한다. 인자가 있거나 static, abstract인 메소드는 테스트로 보지 않는다.
+ */
+public final class TestClassDescriptor {
+
+    private final Class<?> testClass;
+    private final MethodHandle constructor;
+    private final List<TestMethod> testMethods;
+
+    private TestClassDescriptor(final Class<?> testClass, final MethodHandle constructor,
+                                final List<TestMethod> testMethods) {
+        this.testClass = testClass;
+        this.constructor = constructor;
+        this.testMethods = testMethods;
+    }
+
+    static TestClassDescriptor discover(final Class<?> testClass, final TestMethodSelector selector,
+                                        final InvokeStrategy strategy) throws Exception {
+        final var lookup = MethodHandles.privateLookupIn(testClass, MethodHandles.lookup());
+        final var constructor = lookup.findConstructor(testClass, MethodType.methodType(void.class))
+                .asType(MethodType.methodType(Object.class));
+
+        final List<Method> methods = new ArrayList<>();
+        for (final var method : testClass.getDeclaredMethods()) {
+            if (isRunnable(method) && selector.isTest(method)) {
+                methods.add(method);
+            }
+        }
+        methods.sort(Comparator.comparing(Method::getName));
+
+        final List<TestMethod> testMethods = new ArrayList<>(methods.size());
+        for (final var method : methods) {
+            testMethods.add(new TestMethod(method.getName(), strategy.create(lookup, method)));
+        }
+        return new TestClassDescriptor(testClass, constructor, List.copyOf(testMethods));
+    }
+
+    private static boolean isRunnable(final Method method) {
+        final var modifiers = method.getModifiers();
+        return method.getParameterCount() == 0 && !Modifier.isStatic(modifiers) && !Modifier.isAbstract(modifiers)
+                && !method.isSynthetic() && !method.isBridge();
+    }
+
+    public Object newInstance() throws Throwable {
+        return (Object) constructor.invokeExact();
+    }
+
+    public Class<?> getTestClass() {
+        return testClass;
+    }
+
+    public List<TestMethod> getTestMethods() {
+        return testMethods;
+    }
+}
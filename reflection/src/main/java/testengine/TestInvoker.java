@@ -0,0 +1,10 @@
+package testengine;
+
+/**
+ * 테스트 메소드 하나를 실행한다. 테스트가 던진 예외는 감싸지 않고 그대로 던진다.
+ */
+@FunctionalInterface
+public interface TestInvoker {
+
+    void invoke(Object instance) throws Throwable;
+}
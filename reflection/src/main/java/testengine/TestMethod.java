@@ -0,0 +1,23 @@
+package testengine;
+
+/**
+ * 발견한 테스트 메소드와 그것을 부르는 TestInvoker.
+ */
+public final class TestMethod {
+
+    private final String name;
+    private final TestInvoker invoker;
+
+    TestMethod(final String name, final TestInvoker invoker) {
+        this.name = name;
+        this.invoker = invoker;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void invoke(final Object instance) throws Throwable {
+        invoker.invoke(instance);
+    }
+}
@@ -0,0 +1,21 @@
+package testengine;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+
+/**
+ * 어떤 메소드를 테스트로 볼지 정한다. JUnit3은 이름, JUnit4는 애노테이션으로 고른다.
+ */
+@FunctionalInterface
+public interface TestMethodSelector {
+
+    boolean isTest(Method method);
+
+    static TestMethodSelector namePrefix(final String prefix) {
+        return method -> method.getName().startsWith(prefix);
+    }
+
+    static TestMethodSelector annotatedWith(final Class<? extends Annotation> annotationType) {
+        return method -> method.isAnnotationPresent(annotationType);
+    }
+}
@@ -0,0 +1,56 @@
+package testengine;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * 여러 테스트 클래스를 실행한 결과. 실패한 테스트가 있어도 모든 결과를 모아 둔다.
+ */
+public final class TestReport {
+
+    private final List<TestResult> results;
+    private final long elapsedNanos;
+
+    TestReport(final List<TestResult> results, final long elapsedNanos) {
+        this.results = List.copyOf(results);
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public List<TestResult> getResults() {
+        return results;
+    }
+
+    public List<TestResult> getFailures() {
+        return results.stream()
+                .filter(result -> !result.isSuccess())
+                .collect(Collectors.toList());
+    }
+
+    public boolean isSuccess() {
+        return results.stream().allMatch(TestResult::isSuccess);
+    }
+
+    /**
+     * 실제로 걸린 시간. 병렬로 실행했다면 테스트별 시간의 합보다 짧다.
+     */
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    public long getTotalTestNanos() {
+        return results.stream().mapToLong(TestResult::getElapsedNanos).sum();
+    }
+
+    @Override
+    public String toString() {
+        final var builder = new StringBuilder()
+                .append("tests=").append(results.size())
+                .append(", failures=").append(getFailures().size())
+                .append(", elapsed=").append(elapsedNanos / 1_000_000).append("ms")
+                .append(", testTime=").append(getTotalTestNanos() / 1_000_000).append("ms");
+        for (final var failure : getFailures()) {
+            builder.append('\n').append(failure);
+        }
+        return builder.toString();
+    }
+}
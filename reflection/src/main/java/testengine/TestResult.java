@@ -0,0 +1,47 @@
+package testengine;
+
+/**
+ * 테스트 메소드 하나의 실행 결과.
+ */
+public final class TestResult {
+
+    private final Class<?> testClass;
+    private final String name;
+    private final Throwable failure;
+    private final long elapsedNanos;
+
+    TestResult(final Class<?> testClass, final String name, final Throwable failure, final long elapsedNanos) {
+        this.testClass = testClass;
+        this.name = name;
+        this.failure = failure;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public Class<?> getTestClass() {
+        return testClass;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public boolean isSuccess() {
+        return failure == null;
+    }
+
+    /**
+     * 테스트가 던진 예외. 성공했으면 null.
+     */
+    public Throwable getFailure() {
+        return failure;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        return testClass.getSimpleName() + "." + name + (isSuccess() ? " 성공" : " 실패: " + failure) + " (" + elapsedNanos / 1_000 + "us)";
+    }
+}
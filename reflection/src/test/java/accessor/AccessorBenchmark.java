@@ -0,0 +1,153 @@
+package accessor;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import reflection.Question;
+import reflection.Student;
+
+/**
+ * 필드 읽기/쓰기와 객체 생성을 직접 호출, 리플렉션, {@link ClassAccessor}로 비교한다.
+ * <pre>
+ * ./gradlew :reflection:jmh -PjmhArgs="AccessorBenchmark -prof gc"
+ * </pre>
+ * <ul>
+ *     <li>direct*: 컴파일된 일반 코드. 기준값이다.</li>
+ *     <li>reflection*: setAccessible(true)로 연 Field.get/set, Constructor.newInstance.</li>
+ *     <li>accessor*: ClassAccessor의 FieldAccessor, ObjectFactory, Supplier.</li>
+ *     <li>constantHandle*: static final 필드의 MethodHandle. JIT가 상수로 접어 direct와 비슷해진다.
+ *     FieldAccessor 안의 핸들은 인스턴스 필드라서 상수가 아니므로 이만큼 빨라지지 않는다.</li>
+ * </ul>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class AccessorBenchmark {
+
+    private static final MethodHandle CONSTANT_AGE_GETTER;
+    private static final MethodHandle CONSTANT_AGE_SETTER;
+
+    static {
+        try {
+            final var lookup = MethodHandles.privateLookupIn(Student.class, MethodHandles.lookup());
+            CONSTANT_AGE_GETTER = lookup.findGetter(Student.class, "age", int.class)
+                    .asType(MethodType.methodType(Object.class, Object.class));
+            CONSTANT_AGE_SETTER = lookup.findSetter(Student.class, "age", int.class)
+                    .asType(MethodType.methodType(void.class, Object.class, Object.class));
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private final Student student = new Student();
+    private int age;
+
+    private Field ageField;
+    private Constructor<Student> studentConstructor;
+    private Constructor<Question> questionConstructor;
+    private FieldAccessor ageAccessor;
+    private Supplier<Student> studentSupplier;
+    private ObjectFactory<Student> studentFactory;
+    private ObjectFactory<Question> questionFactory;
+
+    @Setup
+    public void setUp() throws Exception {
+        ageField = Student.class.getDeclaredField("age");
+        ageField.setAccessible(true);
+        studentConstructor = Student.class.getDeclaredConstructor();
+        questionConstructor = Question.class.getDeclaredConstructor(String.class, String.class, String.class);
+
+        final var studentAccessor = ClassAccessor.of(Student.class);
+        ageAccessor = studentAccessor.field("age");
+        studentSupplier = studentAccessor.supplier();
+        studentFactory = studentAccessor.factory();
+        questionFactory = ClassAccessor.of(Question.class).factory(String.class, String.class, String.class);
+    }
+
+    @Benchmark
+    public int directGet() {
+        return student.getAge();
+    }
+
+    @Benchmark
+    public Object reflectionGet() throws Exception {
+        return ageField.get(student);
+    }
+
+    @Benchmark
+    public Object accessorGet() {
+        return ageAccessor.get(student);
+    }
+
+    @Benchmark
+    public Object constantHandleGet() throws Throwable {
+        return (Object) CONSTANT_AGE_GETTER.invokeExact((Object) student);
+    }
+
+    @Benchmark
+    public void reflectionSet() throws Exception {
+        ageField.set(student, ++age);
+    }
+
+    @Benchmark
+    public void accessorSet() {
+        ageAccessor.set(student, ++age);
+    }
+
+    @Benchmark
+    public void constantHandleSet() throws Throwable {
+        CONSTANT_AGE_SETTER.invokeExact((Object) student, (Object) (++age));
+    }
+
+    @Benchmark
+    public Student directNewInstance() {
+        return new Student();
+    }
+
+    @Benchmark
+    public Student reflectionNewInstance() throws Exception {
+        return studentConstructor.newInstance();
+    }
+
+    @Benchmark
+    public Student accessorSupplier() {
+        return studentSupplier.get();
+    }
+
+    @Benchmark
+    public Student accessorFactory() {
+        return studentFactory.newInstance();
+    }
+
+    @Benchmark
+    public Question directNewInstanceWithArguments() {
+        return new Question("gugu", "제목", "내용");
+    }
+
+    @Benchmark
+    public Question reflectionNewInstanceWithArguments() throws Exception {
+        return questionConstructor.newInstance("gugu", "제목", "내용");
+    }
+
+    @Benchmark
+    public Question accessorFactoryWithArguments() {
+        return questionFactory.newInstance("gugu", "제목", "내용");
+    }
+}
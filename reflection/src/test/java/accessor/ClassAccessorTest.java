@@ -0,0 +1,123 @@
+package accessor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.Date;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+import reflection.Question;
+import reflection.Student;
+
+class ClassAccessorTest {
+
+    @Test
+    void getAndSetPrivateFields() {
+        final var accessor = ClassAccessor.of(Student.class);
+        final var student = accessor.supplier().get();
+
+        accessor.field("name").set(student, "gugu");
+        accessor.field("age").set(student, 99);
+
+        assertThat(student.getName()).isEqualTo("gugu");
+        assertThat(student.getAge()).isEqualTo(99);
+        assertThat(accessor.field("age").get(student)).isEqualTo(99);
+        assertThat(accessor.field("age").getType()).isEqualTo(int.class);
+    }
+
+    @Test
+    void cachedPerClass() {
+        assertThat(ClassAccessor.of(Student.class)).isSameAs(ClassAccessor.of(Student.class));
+        assertThat(ClassAccessor.of(Question.class).factory(String.class, String.class, String.class))
+                .isSameAs(ClassAccessor.of(Question.class).factory(String.class, String.class, String.class));
+    }
+
+    @Test
+    void factoryWithArguments() {
+        final var createdDate = new Date();
+        final var factory = ClassAccessor.of(Question.class)
+                .factory(long.class, String.class, String.class, String.class, Date.class, int.class);
+
+        final var question = factory.newInstance(1L, "gugu", "제목", "내용", createdDate, 3);
+
+        assertThat(question).isEqualTo(new Question(1L, "gugu", "제목", "내용", createdDate, 3));
+        assertThat(ClassAccessor.of(Question.class).field("questionId").get(question)).isEqualTo(1L);
+    }
+
+    @Test
+    void fieldsInDeclarationOrderWithoutStatics() {
+        final var names = ClassAccessor.of(Child.class).getFields().stream()
+                .map(FieldAccessor::getName)
+                .collect(Collectors.toList());
+
+        assertThat(names).containsExactly("id", "name", "nickname");
+    }
+
+    @Test
+    void subclassFieldHidesParentField() {
+        final var child = ClassAccessor.of(Child.class).supplier().get();
+
+        ClassAccessor.of(Child.class).field("name").set(child, "child");
+
+        assertThat(child.name).isEqualTo("child");
+        assertThat(((Parent) child).name).isNull();
+    }
+
+    @Test
+    void finalFieldsAndPrivateConstructors() {
+        final var accessor = ClassAccessor.of(Parent.class);
+        final var parent = accessor.supplier().get();
+
+        accessor.field("id").set(parent, 7L);
+
+        assertThat(accessor.field("id").get(parent)).isEqualTo(7L);
+        assertThat(accessor.factory().newInstance()).isInstanceOf(Parent.class);
+    }
+
+    @Test
+    void invalidArguments() {
+        final var accessor = ClassAccessor.of(Student.class);
+        final var student = accessor.supplier().get();
+
+        assertThatThrownBy(() -> accessor.field("grade")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> accessor.field("age").set(student, "99")).isInstanceOf(ClassCastException.class);
+        assertThatThrownBy(() -> accessor.field("age").set(student, null)).isInstanceOf(NullPointerException.class);
+        assertThatThrownBy(() -> accessor.factory(String.class)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> ClassAccessor.of(Question.class).supplier())
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void constructorExceptionsAreNotWrapped() {
+        final var factory = ClassAccessor.of(Failing.class).factory(String.class);
+
+        assertThatThrownBy(() -> factory.newInstance("boom"))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("boom");
+    }
+
+    static class Parent {
+
+        private static final String TYPE = "parent";
+
+        private final long id;
+        String name;
+
+        private Parent() {
+            this.id = 0L;
+        }
+    }
+
+    static class Child extends Parent {
+
+        String name;
+        private String nickname;
+    }
+
+    static class Failing {
+
+        Failing(final String message) {
+            throw new IllegalStateException(message);
+        }
+    }
+}
@@ -1,28 +1,24 @@
 package reflection;
 
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
-import java.util.stream.Stream;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
 import org.junit.jupiter.api.Test;
+import testengine.InvokeStrategy;
+import testengine.MiniTestEngine;
+import testengine.TestMethodSelector;
+import testengine.TestResult;
 
 class Junit3TestRunner {
 
     @Test
-    void run() throws Exception {
-        Class<Junit3Test> clazz = Junit3Test.class;
+    void run() {
+        final var engine = new MiniTestEngine(TestMethodSelector.namePrefix("test"),
+                InvokeStrategy.METHOD_HANDLE, Runtime.getRuntime().availableProcessors());
 
-        // TODO Junit3Test에서 test로 시작하는 메소드 실행
-        Junit3Test instance = clazz.getDeclaredConstructor().newInstance();
-        Stream.of(clazz.getDeclaredMethods())
-                .filter(method -> method.getName().startsWith("test"))
-                .forEach(method -> invoke(instance, method));
-    }
+        final var report = engine.runAll(List.of(Junit3Test.class));
 
-    private void invoke(final Junit3Test instance, final Method method) {
-        try {
-            method.invoke(instance);
-        } catch (IllegalAccessException | InvocationTargetException e) {
-            throw new RuntimeException(e);
-        }
+        assertThat(report.isSuccess()).as(report.toString()).isTrue();
+        assertThat(report.getResults()).extracting(TestResult::getName).containsExactly("test1", "test2");
     }
 }
@@ -1,28 +1,24 @@
 package reflection;
 
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
-import java.util.stream.Stream;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
 import org.junit.jupiter.api.Test;
+import testengine.InvokeStrategy;
+import testengine.MiniTestEngine;
+import testengine.TestMethodSelector;
+import testengine.TestResult;
 
 class Junit4TestRunner {
 
     @Test
-    void run() throws Exception {
-        Class<Junit4Test> clazz = Junit4Test.class;
+    void run() {
+        final var engine = new MiniTestEngine(TestMethodSelector.annotatedWith(MyTest.class),
+                InvokeStrategy.METHOD_HANDLE, Runtime.getRuntime().availableProcessors());
 
-        // TODO Junit4Test에서 @MyTest 애노테이션이 있는 메소드 실행
-        Junit4Test instance = clazz.getDeclaredConstructor().newInstance();
-        Stream.of(clazz.getDeclaredMethods())
-                .filter(method -> method.isAnnotationPresent(MyTest.class))
-                .forEach(method -> invoke(instance, method));
-    }
+        final var report = engine.runAll(List.of(Junit4Test.class));
 
-    private void invoke(final Junit4Test instance, final Method method) {
-        try {
-            method.invoke(instance);
-        } catch (IllegalAccessException | InvocationTargetException e) {
-            throw new RuntimeException(e);
-        }
+        assertThat(report.isSuccess()).as(report.toString()).isTrue();
+        assertThat(report.getResults()).extracting(TestResult::getName).containsExactly("one", "two");
     }
 }
@@ -1,8 +1,15 @@
 package reflection;
 
+import static org.assertj.core.api.Assertions.assertThat;
+
 import annotation.Controller;
 import annotation.Repository;
 import annotation.Service;
+import componentindex.ComponentScanner;
+import examples.JdbcQuestionRepository;
+import examples.JdbcUserRepository;
+import examples.MyQnaService;
+import examples.QnaController;
 import java.util.HashSet;
 import java.util.Set;
 import org.junit.jupiter.api.Test;
@@ -27,4 +34,17 @@ class ReflectionsTest {
 
         classes.forEach(clazz -> log.info(clazz.getName()));
     }
+
+    @Test
+    void showAnnotationClassFromIndex() {
+        // 컴파일할 때 만든 META-INF/jwp-components.idx만 읽는다. 클래스 파일을 스캔하지 않는다.
+        final var scanner = new ComponentScanner(getClass().getClassLoader());
+
+        final var classes = scanner.getTypesAnnotatedWith("examples", Controller.class, Service.class, Repository.class);
+
+        assertThat(scanner.isIndexed()).isTrue();
+        assertThat(classes).containsExactlyInAnyOrder(QnaController.class, MyQnaService.class,
+                JdbcUserRepository.class, JdbcQuestionRepository.class);
+        classes.forEach(clazz -> log.info(clazz.getName()));
+    }
 }
@@ -0,0 +1,128 @@
+package testengine;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * 테스트 메소드를 부르는 방법과 테스트 메소드를 찾는 방법의 비용을 비교한다.
+ * <pre>
+ * ./gradlew :reflection:jmh -PjmhArgs="InvokeStrategyBenchmark -prof gc"
+ * </pre>
+ * <ul>
+ *     <li>direct: 컴파일된 일반 호출. 기준값이다.</li>
+ *     <li>reflection, methodHandle, lambda: {@link InvokeStrategy}별 TestInvoker 호출.</li>
+ *     <li>constantMethodHandle: static final 필드의 MethodHandle. JIT가 상수로 접어 direct와 비슷해진다.
+ *     TestInvoker 안의 MethodHandle은 상수가 아니므로 이만큼 빨라지지 않는다.</li>
+ *     <li>discoverEveryRun, discoverCached: 실행할 때마다 getDeclaredMethods()로 찾는 것과 ClassValue에 넣어 둔 것을 꺼내는 것.</li>
+ * </ul>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class InvokeStrategyBenchmark {
+
+    private static final MethodHandle CONSTANT_HANDLE;
+
+    static {
+        try {
+            CONSTANT_HANDLE = MethodHandles.lookup()
+                    .findVirtual(Target.class, "testCount", MethodType.methodType(void.class))
+                    .asType(MethodType.methodType(void.class, Object.class));
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private final Target target = new Target();
+    private final TestMethodSelector selector = TestMethodSelector.namePrefix("test");
+    private TestInvoker reflection;
+    private TestInvoker methodHandle;
+    private TestInvoker lambda;
+    private MiniTestEngine engine;
+
+    @Setup
+    public void setUp() {
+        reflection = invoker(InvokeStrategy.REFLECTION);
+        methodHandle = invoker(InvokeStrategy.METHOD_HANDLE);
+        lambda = invoker(InvokeStrategy.LAMBDA);
+        engine = new MiniTestEngine(selector);
+    }
+
+    private TestInvoker invoker(final InvokeStrategy strategy) {
+        return new MiniTestEngine(selector, strategy).describe(Target.class).getTestMethods().get(0)::invoke;
+    }
+
+    @Benchmark
+    public int direct() {
+        target.testCount();
+        return target.count;
+    }
+
+    @Benchmark
+    public int reflection() throws Throwable {
+        reflection.invoke(target);
+        return target.count;
+    }
+
+    @Benchmark
+    public int methodHandle() throws Throwable {
+        methodHandle.invoke(target);
+        return target.count;
+    }
+
+    @Benchmark
+    public int constantMethodHandle() throws Throwable {
+        CONSTANT_HANDLE.invokeExact((Object) target);
+        return target.count;
+    }
+
+    @Benchmark
+    public int lambda() throws Throwable {
+        lambda.invoke(target);
+        return target.count;
+    }
+
+    @Benchmark
+    public int discoverEveryRun() {
+        var found = 0;
+        for (final Method method : Target.class.getDeclaredMethods()) {
+            if (selector.isTest(method)) {
+                found++;
+            }
+        }
+        return found;
+    }
+
+    @Benchmark
+    public int discoverCached() {
+        return engine.describe(Target.class).getTestMethods().size();
+    }
+
+    public static class Target {
+
+        private int count;
+
+        public void testCount() {
+            count++;
+        }
+
+        public void helper() {
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package testengine;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+class MiniTestEngineTest {
+
+    private static final List<Object> instances = Collections.synchronizedList(new ArrayList<>());
+    private static final CyclicBarrier barrier = new CyclicBarrier(4);
+
+    @Test
+    void runsEachTestWithNewInstance() {
+        for (final var strategy : InvokeStrategy.values()) {
+            instances.clear();
+            final var engine = new MiniTestEngine(TestMethodSelector.namePrefix("test"), strategy);
+
+            final var results = engine.run(SampleTest.class);
+
+            assertThat(results).extracting(TestResult::getName)
+                    .containsExactly("testFailure", "testPrivate", "testSuccess");
+            assertThat(instances).hasSize(3).doesNotHaveDuplicates();
+        }
+    }
+
+    @Test
+    void failureIsNotWrapped() {
+        for (final var strategy : InvokeStrategy.values()) {
+            final var engine = new MiniTestEngine(TestMethodSelector.namePrefix("test"), strategy);
+
+            final var results = engine.run(SampleTest.class);
+
+            assertThat(results.get(0).isSuccess()).isFalse();
+            assertThat(results.get(0).getFailure()).isInstanceOf(AssertionError.class).hasMessage("실패");
+            assertThat(results.get(1).isSuccess()).isTrue();
+            assertThat(results.get(2).isSuccess()).isTrue();
+        }
+    }
+
+    @Test
+    void descriptorIsDiscoveredOnce() {
+        final var engine = new MiniTestEngine(TestMethodSelector.namePrefix("test"));
+
+        final var descriptor = engine.describe(SampleTest.class);
+
+        assertThat(engine.describe(SampleTest.class)).isSameAs(descriptor);
+        assertThat(descriptor.getTestMethods()).hasSize(3);
+    }
+
+    @Test
+    void skipsMethodsThatCannotBeRun() {
+        final var engine = new MiniTestEngine(TestMethodSelector.namePrefix("test"));
+
+        assertThat(engine.describe(NotRunnableTest.class).getTestMethods()).isEmpty();
+    }
+
+    @Test
+    void runsInParallelAndCollectsEveryFailure() {
+        barrier.reset();
+        final var engine = new MiniTestEngine(TestMethodSelector.namePrefix("test"), InvokeStrategy.METHOD_HANDLE, 4);
+
+        // 네 테스트가 모두 동시에 barrier에 도착해야 통과한다. 순서대로 실행하면 시간 초과로 실패한다.
+        final var report = engine.runAll(List.of(ConcurrentTest.class, SampleTest.class));
+
+        assertThat(report.getResults()).extracting(TestResult::getName).containsExactly(
+                "testFour", "testOne", "testThree", "testTwo", "testFailure", "testPrivate", "testSuccess");
+        assertThat(report.getFailures()).extracting(TestResult::getName).containsExactly("testFailure");
+        assertThat(report.isSuccess()).isFalse();
+    }
+
+    @Test
+    void parallelismMustBePositive() {
+        assertThatThrownBy(() -> new MiniTestEngine(TestMethodSelector.namePrefix("test"),
+                InvokeStrategy.METHOD_HANDLE, 0))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    static class ConcurrentTest {
+
+        public void testOne() throws Exception {
+            barrier.await(5, TimeUnit.SECONDS);
+        }
+
+        public void testTwo() throws Exception {
+            barrier.await(5, TimeUnit.SECONDS);
+        }
+
+        public void testThree() throws Exception {
+            barrier.await(5, TimeUnit.SECONDS);
+        }
+
+        public void testFour() throws Exception {
+            barrier.await(5, TimeUnit.SECONDS);
+        }
+    }
+
+    static class SampleTest {
+
+        SampleTest() {
+            instances.add(this);
+        }
+
+        public void testSuccess() {
+        }
+
+        private void testPrivate() {
+        }
+
+        public void testFailure() {
+            throw new AssertionError("실패");
+        }
+
+        public void helper() {
+            throw new IllegalStateException("테스트가 아니다.");
+        }
+    }
+
+    static class NotRunnableTest {
+
+        public static void testStatic() {
+        }
+
+        public void testWithArgument(final int argument) {
+        }
+    }
+}
@@ -1,23 +1,141 @@
 package com.example;
 
+import com.example.filter.PathPatternTrie;
+import com.example.filter.RequestPaths;
+import com.example.trace.RequestTracer;
 import jakarta.servlet.Filter;
 import jakarta.servlet.FilterChain;
+import jakarta.servlet.FilterConfig;
+import jakarta.servlet.ServletContext;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.ServletRequest;
 import jakarta.servlet.ServletResponse;
 import jakarta.servlet.annotation.WebFilter;
+import jakarta.servlet.annotation.WebInitParam;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
 import java.io.IOException;
+import java.io.PrintWriter;
 import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.concurrent.atomic.LongAdder;
 
-@WebFilter("/*")
+/**
+ * 요청 본문과 텍스트 응답의 문자 인코딩을 UTF-8로 맞춘다.
+ * <p>
+ * 이미지, 압축 파일 같은 정적/바이너리 경로는 문자 인코딩과 상관이 없으므로 아무것도 하지 않고 넘긴다.
+ * 어떤 경로를 건너뛸지는 bypass-patterns init-param(url-pattern 목록)으로 정하고, init()에서 트라이로 한 번만 만든다.
+ * 경로는 컨테이너가 정규화한 {@link RequestPaths#pathWithinApplication}으로 맞춰 본다.
+ * <p>
+ * 요청 인코딩은 읽을 본문이 있을 때만 설정한다. 본문이 없는 GET 요청에서는 쓰이지 않는다.
+ * 응답 인코딩은 응답이 텍스트일 때만 설정한다. 서블릿이 실행되기 전에는 응답 형식을 모르므로 응답을 감싸 두었다가,
+ * 서블릿이 charset 없이 text/*, json, xml Content-Type을 정하거나 charset을 정하지 않고 getWriter()를 부를 때 UTF-8을 넣는다.
+ * getOutputStream()으로 바이너리를 쓰는 응답의 Content-Type에는 charset을 붙이지 않는다.
+ * <p>
+ * 건너뛴 요청 수는 ServletContext의 {@link #ATTRIBUTE_NAME} 속성으로 등록한 이 필터에서 꺼내 볼 수 있다.
+ */
+@WebFilter(urlPatterns = "/*", asyncSupported = true,
+        initParams = @WebInitParam(name = CharacterEncodingFilter.BYPASS_PATTERNS,
+                value = "/static/*, /images/*, /favicon.ico, *.png, *.jpg, *.jpeg, *.gif, *.ico, *.webp, *.woff2, *.zip"))
 public class CharacterEncodingFilter implements Filter {
 
+    public static final String ATTRIBUTE_NAME = CharacterEncodingFilter.class.getName();
+    static final String BYPASS_PATTERNS = "bypass-patterns";
+
+    private static final String ENCODING = StandardCharsets.UTF_8.name();
+
+    private final LongAdder bypassed = new LongAdder();
+    private final LongAdder encoded = new LongAdder();
+    private PathPatternTrie bypassPatterns;
+    private RequestTracer tracer;
+    private ServletContext servletContext;
+
+    @Override
+    public void init(final FilterConfig filterConfig) {
+        bypassPatterns = PathPatternTrie.compile(filterConfig.getInitParameter(BYPASS_PATTERNS));
+        tracer = RequestTracer.from(filterConfig.getServletContext());
+        servletContext = filterConfig.getServletContext();
+        servletContext.setAttribute(ATTRIBUTE_NAME, this);
+    }
+
     @Override
     public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
             throws IOException, ServletException {
-        request.getServletContext().log("doFilter() 호출");
-        request.setCharacterEncoding(StandardCharsets.UTF_8.name());
-        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
-        chain.doFilter(request, response);
+        final var httpRequest = (HttpServletRequest) request;
+        final var path = RequestPaths.pathWithinApplication(httpRequest);
+        tracer.trace("doFilter() 호출", path);
+        if (bypassPatterns.matches(path)) {
+            bypassed.increment();
+            chain.doFilter(request, response);
+            return;
+        }
+        encoded.increment();
+        if (hasBody(httpRequest)) {
+            request.setCharacterEncoding(ENCODING);
+        }
+        chain.doFilter(request, new TextEncodingResponse((HttpServletResponse) response));
+    }
+
+    private static boolean hasBody(final HttpServletRequest request) {
+        return request.getContentLengthLong() > 0 || request.getHeader("Transfer-Encoding") != null;
+    }
+
+    private static boolean isText(final String contentType) {
+        final var mimeType = contentType.toLowerCase(Locale.ROOT);
+        return mimeType.startsWith("text/") || mimeType.contains("json") || mimeType.contains("xml")
+                || mimeType.contains("javascript");
+    }
+
+    public long getBypassedCount() {
+        return bypassed.sum();
+    }
+
+    public long getEncodedCount() {
+        return encoded.sum();
+    }
+
+    @Override
+    public void destroy() {
+        servletContext.log("destroy() 호출. bypassed=" + getBypassedCount() + ", encoded=" + getEncodedCount());
+    }
+
+    /**
+     * 서블릿이 charset을 직접 정하지 않은 텍스트 응답에만 UTF-8을 넣는다. 출력 스트림은 감싸지 않고 그대로 돌려준다.
+     */
+    private static final class TextEncodingResponse extends HttpServletResponseWrapper {
+
+        private boolean charsetChosen;
+
+        private TextEncodingResponse(final HttpServletResponse response) {
+            super(response);
+        }
+
+        @Override
+        public void setCharacterEncoding(final String charset) {
+            charsetChosen = true;
+            super.setCharacterEncoding(charset);
+        }
+
+        @Override
+        public void setContentType(final String type) {
+            super.setContentType(type);
+            if (type == null || charsetChosen) {
+                return;
+            }
+            if (type.toLowerCase(Locale.ROOT).contains("charset=")) {
+                charsetChosen = true;
+            } else if (isText(type)) {
+                super.setCharacterEncoding(ENCODING);
+            }
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            if (!charsetChosen) {
+                super.setCharacterEncoding(ENCODING);
+            }
+            return super.getWriter();
+        }
     }
 }
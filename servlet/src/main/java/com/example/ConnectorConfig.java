@@ -0,0 +1,241 @@
+package com.example;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * TomcatStarter가 만드는 커넥터의 설정. 기본값은 톰캣 기본값과 같다.
+ * <pre>
+ * ConnectorConfig.builder()
+ *         .protocol(ConnectorConfig.Protocol.NIO2)
+ *         .maxThreads(50)
+ *         .keepAliveTimeout(Duration.ofSeconds(5))
+ *         .build();
+ * </pre>
+ * 톰캣 10.1은 acceptor 스레드를 하나만 쓴다(acceptorThreadCount 설정이 없어졌다).
+ * 연결을 받는 쪽에서 조절할 수 있는 것은 OS가 대신 쌓아 두는 대기열 크기인 acceptCount다.
+ * <p>
+ * http2(true)면 같은 포트에서 HTTP/2를 평문(h2c)으로도 받는다. 클라이언트는 HTTP/2 연결 서문을 바로 보내거나(prior knowledge)
+ * HTTP/1.1 요청에 Upgrade: h2c를 붙여서 전환할 수 있다. 연결 하나에 여러 요청을 동시에 실어 보내므로
+ * 작은 요청을 많이 보낼 때 연결 비용과 head-of-line blocking이 줄어든다.
+ */
+public class ConnectorConfig {
+
+    public enum Protocol {
+        NIO("org.apache.coyote.http11.Http11NioProtocol"),
+        NIO2("org.apache.coyote.http11.Http11Nio2Protocol");
+
+        private final String className;
+
+        Protocol(final String className) {
+            this.className = className;
+        }
+
+        public String getClassName() {
+            return className;
+        }
+    }
+
+    private final Protocol protocol;
+    private final int port;
+    private final int acceptCount;
+    private final int maxThreads;
+    private final int maxConnections;
+    private final Duration keepAliveTimeout;
+    private final int maxKeepAliveRequests;
+    private final boolean virtualThreads;
+    private final boolean http2;
+    private final int maxConcurrentStreams;
+
+    private ConnectorConfig(final Builder builder) {
+        this.protocol = builder.protocol;
+        this.port = builder.port;
+        this.acceptCount = builder.acceptCount;
+        this.maxThreads = builder.maxThreads;
+        this.maxConnections = builder.maxConnections;
+        this.keepAliveTimeout = builder.keepAliveTimeout;
+        this.maxKeepAliveRequests = builder.maxKeepAliveRequests;
+        this.virtualThreads = builder.virtualThreads;
+        this.http2 = builder.http2;
+        this.maxConcurrentStreams = builder.maxConcurrentStreams;
+    }
+
+    public static ConnectorConfig defaults() {
+        return builder().build();
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * 가상 스레드는 JDK 21부터 쓸 수 있다. 모듈은 Java 11로 컴파일하므로 실행 중인 JDK에 메서드가 있는지 본다.
+     */
+    public static boolean isVirtualThreadSupported() {
+        try {
+            Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return true;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+
+    /**
+     * 요청마다 가상 스레드를 하나씩 만드는 executor. maxThreads 대신 maxConnections가 동시 처리 수를 제한한다.
+     */
+    ExecutorService createVirtualThreadExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("가상 스레드는 JDK 21 이상에서만 사용할 수 있습니다. java.version="
+                    + System.getProperty("java.version"), e);
+        }
+    }
+
+    public Protocol getProtocol() {
+        return protocol;
+    }
+
+    public int getPort() {
+        return port;
+    }
+
+    public int getAcceptCount() {
+        return acceptCount;
+    }
+
+    public int getMaxThreads() {
+        return maxThreads;
+    }
+
+    public int getMaxConnections() {
+        return maxConnections;
+    }
+
+    public Duration getKeepAliveTimeout() {
+        return keepAliveTimeout;
+    }
+
+    public int getMaxKeepAliveRequests() {
+        return maxKeepAliveRequests;
+    }
+
+    public boolean isVirtualThreads() {
+        return virtualThreads;
+    }
+
+    public boolean isHttp2() {
+        return http2;
+    }
+
+    public int getMaxConcurrentStreams() {
+        return maxConcurrentStreams;
+    }
+
+    @Override
+    public String toString() {
+        return protocol
+                + (virtualThreads ? " virtualThreads" : " maxThreads=" + maxThreads)
+                + " maxConnections=" + maxConnections
+                + " acceptCount=" + acceptCount
+                + " keepAliveTimeout=" + keepAliveTimeout.toMillis() + "ms"
+                + " maxKeepAliveRequests=" + maxKeepAliveRequests
+                + (http2 ? " h2c maxConcurrentStreams=" + maxConcurrentStreams : "");
+    }
+
+    public static class Builder {
+
+        private Protocol protocol = Protocol.NIO;
+        private int port = 8080;
+        private int acceptCount = 100;
+        private int maxThreads = 200;
+        private int maxConnections = 8192;
+        private Duration keepAliveTimeout = Duration.ofSeconds(60);
+        private int maxKeepAliveRequests = 100;
+        private boolean virtualThreads;
+        private boolean http2;
+        private int maxConcurrentStreams = 100;
+
+        private Builder() {
+        }
+
+        public Builder protocol(final Protocol protocol) {
+            this.protocol = protocol;
+            return this;
+        }
+
+        /**
+         * 0이면 비어 있는 포트를 OS가 골라 준다.
+         */
+        public Builder port(final int port) {
+            this.port = port;
+            return this;
+        }
+
+        public Builder acceptCount(final int acceptCount) {
+            this.acceptCount = acceptCount;
+            return this;
+        }
+
+        public Builder maxThreads(final int maxThreads) {
+            this.maxThreads = maxThreads;
+            return this;
+        }
+
+        /**
+         * -1이면 제한하지 않는다.
+         */
+        public Builder maxConnections(final int maxConnections) {
+            this.maxConnections = maxConnections;
+            return this;
+        }
+
+        public Builder keepAliveTimeout(final Duration keepAliveTimeout) {
+            this.keepAliveTimeout = keepAliveTimeout;
+            return this;
+        }
+
+        /**
+         * 1이면 keep-alive를 끄고, -1이면 제한하지 않는다.
+         */
+        public Builder maxKeepAliveRequests(final int maxKeepAliveRequests) {
+            this.maxKeepAliveRequests = maxKeepAliveRequests;
+            return this;
+        }
+
+        public Builder virtualThreads(final boolean virtualThreads) {
+            this.virtualThreads = virtualThreads;
+            return this;
+        }
+
+        public Builder http2(final boolean http2) {
+            this.http2 = http2;
+            return this;
+        }
+
+        /**
+         * HTTP/2 연결 하나에 동시에 열 수 있는 스트림(요청) 수. 톰캣 기본값은 100이다.
+         */
+        public Builder maxConcurrentStreams(final int maxConcurrentStreams) {
+            this.maxConcurrentStreams = maxConcurrentStreams;
+            return this;
+        }
+
+        public ConnectorConfig build() {
+            if (protocol == null || keepAliveTimeout == null) {
+                throw new IllegalArgumentException("protocol, keepAliveTimeout은 null일 수 없습니다.");
+            }
+            if (port < 0 || acceptCount <= 0 || maxThreads <= 0) {
+                throw new IllegalArgumentException("port는 0 이상, acceptCount, maxThreads는 0보다 커야 합니다.");
+            }
+            if (maxConcurrentStreams <= 0) {
+                throw new IllegalArgumentException("maxConcurrentStreams는 0보다 커야 합니다.");
+            }
+            if (maxConnections == 0 || maxKeepAliveRequests == 0) {
+                throw new IllegalArgumentException("maxConnections, maxKeepAliveRequests는 0일 수 없습니다.");
+            }
+            return new ConnectorConfig(this);
+        }
+    }
+}
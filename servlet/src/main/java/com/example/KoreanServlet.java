@@ -1,5 +1,7 @@
 package com.example;
 
+import com.example.response.StaticResponse;
+import com.example.trace.RequestTracer;
 import jakarta.servlet.ServletConfig;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.annotation.WebServlet;
@@ -8,22 +10,31 @@ import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 
 @WebServlet(name = "koreanServlet", urlPatterns = "/korean")
 public class KoreanServlet extends HttpServlet {
 
     public static final String 인코딩 = "인코딩";
 
+    /**
+     * 응답 본문이 항상 같으므로 UTF-8 인코딩은 한 번만 하고 요청마다 바이트를 그대로 내보낸다.
+     */
+    private static final StaticResponse RESPONSE = StaticResponse.of("text/plain", StandardCharsets.UTF_8, 인코딩);
+
+    private RequestTracer tracer;
+
     @Override
     public void init(final ServletConfig config) throws ServletException {
         super.init(config);
         getServletContext().log("init() 호출");
+        tracer = RequestTracer.from(getServletContext());
     }
 
     @Override
     protected void service(final HttpServletRequest request, final HttpServletResponse response) throws IOException {
-        getServletContext().log("service() 호출");
-        response.getWriter().write(인코딩);
+        tracer.trace("service() 호출", request.getRequestURI());
+        RESPONSE.writeTo(response);
     }
 
     @Override
@@ -1,5 +1,6 @@
 package com.example;
 
+import com.example.trace.RequestTracer;
 import jakarta.servlet.ServletConfig;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.annotation.WebServlet;
@@ -12,10 +13,13 @@ import java.io.IOException;
 @WebServlet(name = "localCounterServlet", urlPatterns = "/local-counter")
 public class LocalCounterServlet extends HttpServlet {
 
+    private RequestTracer tracer;
+
     @Override
     public void init(final ServletConfig config) throws ServletException {
         super.init(config);
         getServletContext().log("init() 호출");
+        tracer = RequestTracer.from(getServletContext());
     }
 
     /**
@@ -24,7 +28,7 @@ public class LocalCounterServlet extends HttpServlet {
      */
     @Override
     protected void service(final HttpServletRequest request, final HttpServletResponse response) throws IOException {
-        getServletContext().log("service() 호출");
+        tracer.trace("service() 호출", request.getRequestURI());
         response.addHeader("Content-Type", "text/html; charset=utf-8");
         int localCounter = 0;
         localCounter++;
@@ -1,5 +1,8 @@
 package com.example;
 
+import com.example.counter.SharedCounter;
+import com.example.response.BufferRecyclingFilter;
+import com.example.trace.RequestTracer;
 import jakarta.servlet.ServletConfig;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.annotation.WebServlet;
@@ -8,6 +11,8 @@ import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
 
 /**
  * Servlet 인터페이스의 service 메서드는 HTTP 요청 및 응답을 처리할 때 사용된다.
@@ -24,30 +29,84 @@ import java.io.IOException;
 @WebServlet(name = "sharedCounterServlet", urlPatterns = "/shared-counter")
 public class SharedCounterServlet extends HttpServlet {
 
+    static final String SNAPSHOT_FILE = "shared-counter.snapshot-file";
+    static final String SNAPSHOT_INTERVAL_MILLIS = "shared-counter.snapshot-interval-millis";
+    private static final long DEFAULT_SNAPSHOT_INTERVAL_MILLIS = 1_000;
+
     /**
-     * ❗아래 변수는 문제가 있다.
+     * ❗Integer 인스턴스 변수를 sharedCounter++ 하면 문제가 있다.
      * 서블릿의 인스턴스 변수는 다른 스레드와 공유된다.
+     * ++는 읽기, 더하기, 쓰기 세 단계라서 여러 스레드가 동시에 실행하면 값을 잃어버리고, 매번 새 Integer 객체도 만든다.
      * 서버는 여러 스레드에서 접근 가능하므로 서블릿에서 비즈니스 로직을 처리할 때 인스턴스 변수는 사용하지 않는다.
      * 다른 사용자에게 공유되어도 문제가 없는 불변 객체라면 서블릿의 인스턴스 변수로 사용 가능하다.
+     * <br>
+     * 여러 요청이 정말로 하나의 값을 공유해야 한다면 스레드 안전한 객체를 쓴다.
+     * SharedCounter는 스레드마다 다른 칸에 더하는 방식이라 동시에 올려도 값을 잃지 않고 서로 기다리지도 않는다.
      */
-    private Integer sharedCounter;
+    private SharedCounter sharedCounter;
+    private RequestTracer tracer;
 
     @Override
     public void init(final ServletConfig config) throws ServletException {
         super.init(config);
         getServletContext().log("init() 호출");
-        sharedCounter = 0;
+        tracer = RequestTracer.from(getServletContext());
+        sharedCounter = createSharedCounter(config);
+    }
+
+    /**
+     * shared-counter.snapshot-file 시스템 프로퍼티(또는 같은 이름의 init-param)를 주면 값을 파일에 저장해서
+     * 톰캣을 다시 띄워도 이어서 센다. 주지 않으면 메모리에만 둔다.
+     */
+    private SharedCounter createSharedCounter(final ServletConfig config) throws ServletException {
+        final var snapshotFile = System.getProperty(SNAPSHOT_FILE, config.getInitParameter(SNAPSHOT_FILE));
+        if (snapshotFile == null || snapshotFile.isBlank()) {
+            return SharedCounter.inMemory();
+        }
+        final var interval = System.getProperty(SNAPSHOT_INTERVAL_MILLIS,
+                config.getInitParameter(SNAPSHOT_INTERVAL_MILLIS));
+        try {
+            return SharedCounter.persistent(Path.of(snapshotFile),
+                    interval == null ? DEFAULT_SNAPSHOT_INTERVAL_MILLIS : Long.parseLong(interval));
+        } catch (IOException e) {
+            throw new ServletException("shared counter 스냅샷 파일을 열 수 없습니다. file=" + snapshotFile, e);
+        }
     }
 
     @Override
     protected void service(final HttpServletRequest request, final HttpServletResponse response) throws IOException {
-        getServletContext().log("service() 호출");
-        sharedCounter++;
-        response.getWriter().write(String.valueOf(sharedCounter));
+        tracer.trace("service() 호출", request.getRequestURI());
+        final var count = sharedCounter.incrementAndGet();
+        // String.valueOf()와 writer의 char 변환 없이 숫자를 풀에서 빌린 버퍼에 바로 쓴다.
+        final var buffer = BufferRecyclingFilter.borrow(request);
+        putDecimal(buffer, count);
+        BufferRecyclingFilter.write(buffer, response);
+    }
+
+    /**
+     * 0 이상의 값을 ASCII 십진수로 쓴다. 뒷자리부터 쓰고 뒤집는다.
+     */
+    static void putDecimal(final ByteBuffer buffer, final long value) {
+        final var start = buffer.position();
+        var remaining = value;
+        do {
+            buffer.put((byte) ('0' + remaining % 10));
+            remaining /= 10;
+        } while (remaining != 0);
+        for (int i = start, j = buffer.position() - 1; i < j; i++, j--) {
+            final var digit = buffer.get(i);
+            buffer.put(i, buffer.get(j));
+            buffer.put(j, digit);
+        }
     }
 
     @Override
     public void destroy() {
         getServletContext().log("destroy() 호출");
+        try {
+            sharedCounter.close();
+        } catch (IOException e) {
+            getServletContext().log("shared counter 스냅샷 저장 실패", e);
+        }
     }
 }
@@ -0,0 +1,138 @@
+package com.example;
+
+import com.example.allocation.AllocationFilter;
+import com.example.allocation.AllocationReportServlet;
+import com.example.async.AsyncKoreanServlet;
+import com.example.async.AsyncLocalCounterServlet;
+import com.example.compression.CompressionFilter;
+import com.example.metrics.MetricsFilter;
+import com.example.metrics.MetricsServlet;
+import com.example.ratelimit.RateLimitFilter;
+import com.example.response.BufferRecyclingFilter;
+import com.example.trace.TraceListener;
+import jakarta.servlet.Filter;
+import jakarta.servlet.Servlet;
+import jakarta.servlet.annotation.WebFilter;
+import jakarta.servlet.annotation.WebInitParam;
+import jakarta.servlet.annotation.WebListener;
+import jakarta.servlet.annotation.WebServlet;
+import java.lang.reflect.InvocationTargetException;
+import java.util.List;
+import org.apache.catalina.Context;
+import org.apache.catalina.startup.Tomcat;
+import org.apache.tomcat.util.descriptor.web.FilterDef;
+import org.apache.tomcat.util.descriptor.web.FilterMap;
+
+/**
+ * 이 애플리케이션의 서블릿, 필터, 리스너 목록과 이를 컨텍스트에 직접 등록하는 방법.
+ * <p>
+ * addWebapp()은 클래스패스와 jar를 뒤져 @WebServlet, @WebFilter, TLD를 찾고 JSP 서블릿까지 올린다.
+ * 어떤 컴포넌트가 있는지 이미 알고 있다면 그럴 필요가 없다. 여기 적힌 클래스의 애너테이션만 읽어서
+ * 같은 이름, url-pattern, init-param으로 등록한다. 새 서블릿이나 필터를 만들면 COMPONENTS에도 추가해야 한다.
+ * <p>
+ * 이 방법으로 등록하면 필터는 목록 순서대로 체인에 들어간다. addWebapp()이 애너테이션을 스캔해서 올릴 때는
+ * web.xml의 filter-mapping이 없으므로 순서를 컨테이너가 정하고, 이 목록의 순서는 보장되지 않는다.
+ */
+public final class WebComponents {
+
+    static final List<Class<?>> COMPONENTS = List.of(
+            TraceListener.class,
+            MetricsFilter.class,
+            RateLimitFilter.class,
+            AllocationFilter.class,
+            CharacterEncodingFilter.class,
+            BufferRecyclingFilter.class,
+            CompressionFilter.class,
+            KoreanServlet.class,
+            LocalCounterServlet.class,
+            SharedCounterServlet.class,
+            AsyncKoreanServlet.class,
+            AsyncLocalCounterServlet.class,
+            AllocationReportServlet.class,
+            MetricsServlet.class
+    );
+
+    private WebComponents() {
+    }
+
+    public static List<Class<?>> components() {
+        return COMPONENTS;
+    }
+
+    public static void register(final Context context) {
+        register(context, COMPONENTS);
+    }
+
+    /**
+     * 주어진 컴포넌트만 순서대로 등록한다. 테스트 전용 서블릿을 추가로 올릴 때 쓴다.
+     */
+    public static void register(final Context context, final List<Class<?>> components) {
+        for (final var component : components) {
+            if (component.isAnnotationPresent(WebListener.class)) {
+                context.addApplicationListener(component.getName());
+            }
+            if (component.isAnnotationPresent(WebFilter.class)) {
+                registerFilter(context, component.asSubclass(Filter.class), component.getAnnotation(WebFilter.class));
+            }
+            if (component.isAnnotationPresent(WebServlet.class)) {
+                registerServlet(context, component.asSubclass(Servlet.class),
+                        component.getAnnotation(WebServlet.class));
+            }
+        }
+    }
+
+    private static void registerServlet(final Context context, final Class<? extends Servlet> servletClass,
+                                        final WebServlet webServlet) {
+        final var name = webServlet.name().isEmpty() ? servletClass.getName() : webServlet.name();
+        final var wrapper = Tomcat.addServlet(context, name, instantiate(servletClass));
+        wrapper.setAsyncSupported(webServlet.asyncSupported());
+        wrapper.setLoadOnStartup(webServlet.loadOnStartup());
+        for (final var initParam : webServlet.initParams()) {
+            wrapper.addInitParameter(initParam.name(), initParam.value());
+        }
+        for (final var urlPattern : urlPatterns(webServlet.value(), webServlet.urlPatterns())) {
+            context.addServletMappingDecoded(urlPattern, name);
+        }
+    }
+
+    private static void registerFilter(final Context context, final Class<? extends Filter> filterClass,
+                                       final WebFilter webFilter) {
+        final var name = webFilter.filterName().isEmpty() ? filterClass.getName() : webFilter.filterName();
+        final var filterDef = new FilterDef();
+        filterDef.setFilterName(name);
+        filterDef.setFilterClass(filterClass.getName());
+        filterDef.setFilter(instantiate(filterClass));
+        filterDef.setAsyncSupported(String.valueOf(webFilter.asyncSupported()));
+        for (final WebInitParam initParam : webFilter.initParams()) {
+            filterDef.addInitParameter(initParam.name(), initParam.value());
+        }
+        context.addFilterDef(filterDef);
+
+        final var filterMap = new FilterMap();
+        filterMap.setFilterName(name);
+        for (final var urlPattern : urlPatterns(webFilter.value(), webFilter.urlPatterns())) {
+            filterMap.addURLPatternDecoded(urlPattern);
+        }
+        for (final var servletName : webFilter.servletNames()) {
+            filterMap.addServletName(servletName);
+        }
+        for (final var dispatcherType : webFilter.dispatcherTypes()) {
+            filterMap.setDispatcher(dispatcherType.name());
+        }
+        context.addFilterMap(filterMap);
+    }
+
+    private static String[] urlPatterns(final String[] value, final String[] urlPatterns) {
+        return value.length > 0 ? value : urlPatterns;
+    }
+
+    private static <T> T instantiate(final Class<T> type) {
+        try {
+            return type.getDeclaredConstructor().newInstance();
+        } catch (InstantiationException | IllegalAccessException | NoSuchMethodException e) {
+            throw new IllegalStateException(type.getName() + "의 기본 생성자를 호출할 수 없습니다.", e);
+        } catch (InvocationTargetException e) {
+            throw new IllegalStateException(type.getName() + " 생성 중 예외가 발생했습니다.", e.getCause());
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.allocation;
+
+import jakarta.servlet.Filter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.FilterConfig;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.annotation.WebFilter;
+import jakarta.servlet.http.HttpServletRequest;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+
+/**
+ * 요청 스레드가 필터 체인을 지나는 동안 할당한 바이트를 서블릿별로 잰다.
+ * <p>
+ * HotSpot의 com.sun.management.ThreadMXBean은 스레드마다 지금까지 할당한 바이트 수(TLAB 포함)를 센다.
+ * 체인 앞뒤에서 한 번씩 읽은 차이가 이 요청에서 할당한 양이다. 읽는 비용은 수십 ns라 항상 켜 두어도 된다.
+ * 비동기 요청은 다른 스레드에서 할당한 부분이 빠지므로 요청 스레드에서 쓴 만큼만 잡힌다.
+ * <p>
+ * 결과는 /allocations({@link AllocationReportServlet})에서 본다.
+ */
+@WebFilter(urlPatterns = "/*", asyncSupported = true)
+public class AllocationFilter implements Filter {
+
+    private final com.sun.management.ThreadMXBean threadMXBean = threadMXBean();
+    private AllocationStats stats;
+
+    private static com.sun.management.ThreadMXBean threadMXBean() {
+        final var threadMXBean = ManagementFactory.getThreadMXBean();
+        if (threadMXBean instanceof com.sun.management.ThreadMXBean) {
+            final var hotspotThreadMXBean = (com.sun.management.ThreadMXBean) threadMXBean;
+            if (hotspotThreadMXBean.isThreadAllocatedMemorySupported()) {
+                hotspotThreadMXBean.setThreadAllocatedMemoryEnabled(true);
+                return hotspotThreadMXBean;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public void init(final FilterConfig filterConfig) {
+        stats = new AllocationStats();
+        filterConfig.getServletContext().setAttribute(AllocationStats.ATTRIBUTE_NAME, stats);
+        if (threadMXBean == null) {
+            filterConfig.getServletContext().log("이 JVM은 스레드별 할당량 측정을 지원하지 않습니다. AllocationFilter는 아무것도 재지 않습니다.");
+        }
+    }
+
+    @Override
+    public void doFilter(final ServletRequest request, final ServletResponse response, final FilterChain chain)
+            throws IOException, ServletException {
+        if (threadMXBean == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+        final var threadId = Thread.currentThread().getId();
+        final var before = threadMXBean.getThreadAllocatedBytes(threadId);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            final var allocated = threadMXBean.getThreadAllocatedBytes(threadId) - before;
+            stats.record(servletName((HttpServletRequest) request), allocated);
+        }
+    }
+
+    private static String servletName(final HttpServletRequest request) {
+        final var mapping = request.getHttpServletMapping();
+        return mapping == null || mapping.getServletName() == null ? "(none)" : mapping.getServletName();
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.allocation;
+
+import jakarta.servlet.annotation.WebServlet;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * AllocationFilter가 모은 서블릿별 요청당 할당 바이트를 text/plain으로 보여준다. DELETE는 통계를 비운다.
+ */
+@WebServlet(name = "allocationReportServlet", urlPatterns = "/allocations")
+public class AllocationReportServlet extends HttpServlet {
+
+    @Override
+    protected void doGet(final HttpServletRequest request, final HttpServletResponse response) throws IOException {
+        response.setContentType("text/plain;charset=UTF-8");
+        final var stats = stats();
+        response.getWriter().write(stats == null ? "AllocationFilter가 등록되지 않았습니다.\n" : stats.render());
+    }
+
+    @Override
+    protected void doDelete(final HttpServletRequest request, final HttpServletResponse response) {
+        final var stats = stats();
+        if (stats != null) {
+            stats.reset();
+        }
+        response.setStatus(HttpServletResponse.SC_NO_CONTENT);
+    }
+
+    private AllocationStats stats() {
+        return (AllocationStats) getServletContext().getAttribute(AllocationStats.ATTRIBUTE_NAME);
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.allocation;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 서블릿별로 요청 하나를 처리하는 동안 요청 스레드가 할당한 바이트를 모은다.
+ */
+public class AllocationStats {
+
+    public static final String ATTRIBUTE_NAME = AllocationStats.class.getName();
+
+    private final Map<String, ServletAllocation> servlets = new ConcurrentHashMap<>();
+
+    public void record(final String servletName, final long allocatedBytes) {
+        servlets.computeIfAbsent(servletName, ignored -> new ServletAllocation()).add(allocatedBytes);
+    }
+
+    public long getRequests(final String servletName) {
+        final var allocation = servlets.get(servletName);
+        return allocation == null ? 0 : allocation.requests.sum();
+    }
+
+    public long getBytesPerRequest(final String servletName) {
+        final var allocation = servlets.get(servletName);
+        return allocation == null ? 0 : allocation.bytesPerRequest();
+    }
+
+    public void reset() {
+        servlets.clear();
+    }
+
+    /**
+     * 요청당 할당 바이트가 큰 서블릿부터 출력한다.
+     */
+    public String render() {
+        final var entries = new ArrayList<>(servlets.entrySet());
+        entries.sort(Comparator.comparingLong(
+                (Map.Entry<String, ServletAllocation> entry) -> entry.getValue().bytesPerRequest()).reversed());
+
+        final var builder = new StringBuilder("# servlet\trequests\tbytesPerRequest\tmaxBytes\ttotalBytes\n");
+        for (final var entry : entries) {
+            final var value = entry.getValue();
+            builder.append(entry.getKey()).append('\t')
+                    .append(value.requests.sum()).append('\t')
+                    .append(value.bytesPerRequest()).append('\t')
+                    .append(value.maxBytes.get()).append('\t')
+                    .append(value.totalBytes.sum()).append('\n');
+        }
+        return builder.toString();
+    }
+
+    private static final class ServletAllocation {
+
+        private final LongAdder requests = new LongAdder();
+        private final LongAdder totalBytes = new LongAdder();
+        private final LongAccumulator maxBytes = new LongAccumulator(Math::max, 0);
+
+        void add(final long allocatedBytes) {
+            requests.increment();
+            totalBytes.add(allocatedBytes);
+            maxBytes.accumulate(allocatedBytes);
+        }
+
+        long bytesPerRequest() {
+            final var count = requests.sum();
+            return count == 0 ? 0 : totalBytes.sum() / count;
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.async;
+
+import static com.example.KoreanServlet.인코딩;
+
+import com.example.response.StaticResponse;
+import jakarta.servlet.annotation.WebServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * KoreanServlet의 논블로킹 버전. 미리 인코딩해 둔 본문을 소켓에 쓸 수 있을 때만 보낸다.
+ */
+@WebServlet(name = "asyncKoreanServlet", urlPatterns = "/async/korean", asyncSupported = true)
+public class AsyncKoreanServlet extends AsyncWriteServlet {
+
+    private static final StaticResponse RESPONSE = StaticResponse.of("text/plain", StandardCharsets.UTF_8, 인코딩);
+
+    @Override
+    protected ByteBuffer respond(final HttpServletRequest request, final HttpServletResponse response,
+                                 final ByteBuffer requestBody) {
+        response.setContentType(RESPONSE.getContentType());
+        return RESPONSE.body();
+    }
+}
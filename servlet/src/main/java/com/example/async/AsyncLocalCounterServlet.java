@@ -0,0 +1,26 @@
+package com.example.async;
+
+import jakarta.servlet.annotation.WebServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * LocalCounterServlet의 논블로킹 버전.
+ */
+@WebServlet(name = "asyncLocalCounterServlet", urlPatterns = "/async/local-counter", asyncSupported = true)
+public class AsyncLocalCounterServlet extends AsyncWriteServlet {
+
+    /**
+     * respond()는 요청마다 다른 컨테이너 스레드에서 불릴 수 있지만, 로컬 변수는 여전히 그 호출 안에서만 보인다.
+     */
+    @Override
+    protected ByteBuffer respond(final HttpServletRequest request, final HttpServletResponse response,
+                                 final ByteBuffer requestBody) {
+        response.addHeader("Content-Type", "text/html; charset=utf-8");
+        int localCounter = 0;
+        localCounter++;
+        return ByteBuffer.wrap(String.valueOf(localCounter).getBytes(StandardCharsets.UTF_8));
+    }
+}
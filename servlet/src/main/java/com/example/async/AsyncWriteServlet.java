@@ -0,0 +1,170 @@
+package com.example.async;
+
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import org.apache.catalina.connector.CoyoteOutputStream;
+
+/**
+ * 요청 본문은 ReadListener로, 응답 본문은 WriteListener로 주고받는 논블로킹 서블릿의 기반 클래스.
+ * <p>
+ * getWriter().write()처럼 블로킹으로 쓰면 클라이언트가 느리게 받는 동안 컨테이너 스레드가 소켓 쓰기에 묶여 있다.
+ * 여기서는 service()가 startAsync()만 하고 바로 돌아가고, 소켓에 쓸 수 있을 때(onWritePossible)만 컨테이너가
+ * 잠깐 스레드를 빌려 준다. 느린 클라이언트 천 명이 붙어 있어도 잡혀 있는 스레드는 거의 없다.
+ * <p>
+ * 하위 클래스는 {@link #respond}에서 상태 코드와 헤더를 정하고 보낼 본문을 ByteBuffer로 돌려준다.
+ * 필터 체인의 모든 필터가 asyncSupported=true여야 한다.
+ */
+public abstract class AsyncWriteServlet extends HttpServlet {
+
+    private static final ByteBuffer EMPTY = ByteBuffer.allocate(0);
+    private static final int MAX_REQUEST_BODY = 64 * 1024;
+    private static final int WRITE_CHUNK = 8 * 1024;
+    private static final long TIMEOUT_MILLIS = 30_000;
+
+    /**
+     * 요청 본문을 다 읽은 뒤 컨테이너 스레드에서 한 번 호출된다.
+     *
+     * @param requestBody 요청 본문. 본문이 없으면 비어 있다.
+     * @return 보낼 본문. position부터 limit까지 보내며, 돌려준 버퍼의 position, limit은 바꾸지 않는다.
+     */
+    protected abstract ByteBuffer respond(HttpServletRequest request, HttpServletResponse response,
+                                          ByteBuffer requestBody) throws IOException;
+
+    @Override
+    protected void service(final HttpServletRequest request, final HttpServletResponse response) throws IOException {
+        final var asyncContext = request.startAsync();
+        asyncContext.setTimeout(TIMEOUT_MILLIS);
+        if (!hasBody(request)) {
+            startWriting(asyncContext, EMPTY);
+            return;
+        }
+        if (request.getContentLengthLong() > MAX_REQUEST_BODY) {
+            response.sendError(HttpServletResponse.SC_REQUEST_ENTITY_TOO_LARGE);
+            asyncContext.complete();
+            return;
+        }
+        final var inputStream = request.getInputStream();
+        inputStream.setReadListener(new BodyReader(asyncContext, inputStream));
+    }
+
+    private static boolean hasBody(final HttpServletRequest request) {
+        return request.getContentLengthLong() > 0 || request.getHeader("Transfer-Encoding") != null;
+    }
+
+    private void startWriting(final AsyncContext asyncContext, final ByteBuffer requestBody) throws IOException {
+        final var request = (HttpServletRequest) asyncContext.getRequest();
+        final var response = (HttpServletResponse) asyncContext.getResponse();
+        final var body = respond(request, response, requestBody).duplicate();
+        response.setContentLength(body.remaining());
+        final var outputStream = response.getOutputStream();
+        outputStream.setWriteListener(new BodyWriter(asyncContext, outputStream, body));
+    }
+
+    /**
+     * 읽을 수 있는 만큼만 읽고 돌아간다. 다 읽으면 응답을 시작한다.
+     */
+    private final class BodyReader implements ReadListener {
+
+        private final AsyncContext asyncContext;
+        private final ServletInputStream inputStream;
+        private byte[] body = new byte[1024];
+        private int length;
+
+        private BodyReader(final AsyncContext asyncContext, final ServletInputStream inputStream) {
+            this.asyncContext = asyncContext;
+            this.inputStream = inputStream;
+        }
+
+        @Override
+        public void onDataAvailable() throws IOException {
+            while (inputStream.isReady() && !inputStream.isFinished()) {
+                if (length == body.length) {
+                    if (body.length >= MAX_REQUEST_BODY) {
+                        ((HttpServletResponse) asyncContext.getResponse()).sendError(HttpServletResponse.SC_REQUEST_ENTITY_TOO_LARGE);
+                        asyncContext.complete();
+                        return;
+                    }
+                    body = Arrays.copyOf(body, Math.min(body.length * 2, MAX_REQUEST_BODY));
+                }
+                final var read = inputStream.read(body, length, body.length - length);
+                if (read < 0) {
+                    return;
+                }
+                length += read;
+            }
+        }
+
+        @Override
+        public void onAllDataRead() throws IOException {
+            startWriting(asyncContext, ByteBuffer.wrap(body, 0, length));
+        }
+
+        @Override
+        public void onError(final Throwable throwable) {
+            getServletContext().log("요청 본문을 읽지 못했습니다.", throwable);
+            asyncContext.complete();
+        }
+    }
+
+    /**
+     * 소켓에 쓸 수 있는 동안만 WRITE_CHUNK씩 쓴다. isReady()가 false가 되면 돌아가고,
+     * 다시 쓸 수 있게 되면 컨테이너가 onWritePossible()을 부른다.
+     */
+    private final class BodyWriter implements WriteListener {
+
+        private final AsyncContext asyncContext;
+        private final ServletOutputStream outputStream;
+        private final ByteBuffer body;
+        private byte[] chunk;
+
+        private BodyWriter(final AsyncContext asyncContext, final ServletOutputStream outputStream,
+                           final ByteBuffer body) {
+            this.asyncContext = asyncContext;
+            this.outputStream = outputStream;
+            this.body = body;
+        }
+
+        @Override
+        public void onWritePossible() throws IOException {
+            while (outputStream.isReady()) {
+                if (!body.hasRemaining()) {
+                    asyncContext.complete();
+                    return;
+                }
+                writeChunk();
+            }
+        }
+
+        private void writeChunk() throws IOException {
+            final var length = Math.min(body.remaining(), WRITE_CHUNK);
+            if (outputStream instanceof CoyoteOutputStream) {
+                final var slice = body.duplicate();
+                slice.limit(slice.position() + length);
+                ((CoyoteOutputStream) outputStream).write(slice);
+                body.position(body.position() + length);
+                return;
+            }
+            // 다른 필터가 스트림을 감싼 경우에만 byte[]로 옮겨 쓴다.
+            if (chunk == null) {
+                chunk = new byte[WRITE_CHUNK];
+            }
+            body.get(chunk, 0, length);
+            outputStream.write(chunk, 0, length);
+        }
+
+        @Override
+        public void onError(final Throwable throwable) {
+            // 대부분 클라이언트가 먼저 연결을 끊은 경우다.
+            asyncContext.complete();
+        }
+    }
+}
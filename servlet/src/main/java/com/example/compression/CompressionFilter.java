@@ -0,0 +1,169 @@
+package com.example.compression;
+
+import jakarta.servlet.Filter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.FilterConfig;
+import jakarta.servlet.ServletContext;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.annotation.WebFilter;
+import jakarta.servlet.annotation.WebInitParam;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.Locale;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Accept-Encoding에 맞춰 응답을 gzip이나 deflate로 압축한다.
+ * <p>
+ * Deflater는 모든 스레드가 같이 쓰는 풀({@link CompressorPool})에서 빌려 재사용하고, 본문은 모으지 않고 쓰는 대로 압축해서 내보낸다.
+ * threshold보다 작은 본문과 excluded-types(이미지, 압축 파일처럼 이미 압축된 형식)로 시작하는 Content-Type은 그대로 보낸다.
+ * 압축 수준(level), 최소 크기(threshold), 출력 버퍼 크기(buffer-size), 풀에 남겨 둘 인코딩별 Compressor 수(max-pooled)는
+ * init-param으로 정한다.
+ * <p>
+ * 비동기를 지원하는 서블릿은 WriteListener로 직접 쓰므로 감싸지 않는다. HEAD 요청도 본문이 없으므로 그대로 넘긴다.
+ * 압축한 응답 수와 압축 전후 바이트 수는 ServletContext의 {@link #ATTRIBUTE_NAME} 속성으로 등록한 이 필터에서 볼 수 있다.
+ */
+@WebFilter(urlPatterns = "/*", asyncSupported = true, initParams = {
+        @WebInitParam(name = CompressionFilter.LEVEL, value = "6"),
+        @WebInitParam(name = CompressionFilter.THRESHOLD, value = "1024"),
+        @WebInitParam(name = CompressionFilter.BUFFER_SIZE, value = "8192"),
+        @WebInitParam(name = CompressionFilter.MAX_POOLED, value = "64"),
+        @WebInitParam(name = CompressionFilter.EXCLUDED_TYPES,
+                value = "image/, video/, audio/, font/woff, application/zip, application/gzip, application/x-gzip, "
+                        + "application/octet-stream, application/pdf")
+})
+public class CompressionFilter implements Filter {
+
+    public static final String ATTRIBUTE_NAME = CompressionFilter.class.getName();
+    static final String LEVEL = "level";
+    static final String THRESHOLD = "threshold";
+    static final String BUFFER_SIZE = "buffer-size";
+    static final String MAX_POOLED = "max-pooled";
+    static final String EXCLUDED_TYPES = "excluded-types";
+
+    private final LongAdder compressed = new LongAdder();
+    private final LongAdder skipped = new LongAdder();
+    private final LongAdder bytesIn = new LongAdder();
+    private final LongAdder bytesOut = new LongAdder();
+    private CompressorPool pool;
+    private String[] excludedTypes;
+    private ServletContext servletContext;
+
+    @Override
+    public void init(final FilterConfig filterConfig) {
+        pool = new CompressorPool(Integer.parseInt(filterConfig.getInitParameter(LEVEL)),
+                Integer.parseInt(filterConfig.getInitParameter(BUFFER_SIZE)),
+                Integer.parseInt(filterConfig.getInitParameter(THRESHOLD)),
+                Integer.parseInt(filterConfig.getInitParameter(MAX_POOLED)));
+        excludedTypes = parseTypes(filterConfig.getInitParameter(EXCLUDED_TYPES));
+        servletContext = filterConfig.getServletContext();
+        servletContext.setAttribute(ATTRIBUTE_NAME, this);
+    }
+
+    private static String[] parseTypes(final String value) {
+        if (value == null || value.isBlank()) {
+            return new String[0];
+        }
+        final var types = value.split(",");
+        for (int i = 0; i < types.length; i++) {
+            types[i] = types[i].trim().toLowerCase(Locale.ROOT);
+        }
+        return types;
+    }
+
+    @Override
+    public void doFilter(final ServletRequest request, final ServletResponse response, final FilterChain chain)
+            throws IOException, ServletException {
+        final var httpRequest = (HttpServletRequest) request;
+        final var encoding = request.isAsyncSupported() || "HEAD".equals(httpRequest.getMethod())
+                ? null
+                : ContentEncoding.negotiate(httpRequest.getHeader("Accept-Encoding"));
+        if (encoding == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+        final var compression = new CompressionResponse((HttpServletResponse) response, this, encoding);
+        try {
+            chain.doFilter(request, compression);
+        } finally {
+            compression.finish();
+        }
+    }
+
+    boolean isCompressible(final int status, final String contentType) {
+        return status >= 200 && status != HttpServletResponse.SC_NO_CONTENT
+                && status != HttpServletResponse.SC_PARTIAL_CONTENT
+                && status != HttpServletResponse.SC_NOT_MODIFIED
+                && isCompressible(contentType);
+    }
+
+    /**
+     * Content-Type을 아직 모르면 압축할 수 있다고 본다.
+     */
+    boolean isCompressible(final String contentType) {
+        if (contentType == null) {
+            return true;
+        }
+        for (final var excludedType : excludedTypes) {
+            if (contentType.regionMatches(true, 0, excludedType, 0, excludedType.length())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    int threshold() {
+        return pool.threshold();
+    }
+
+    Compressor borrow(final ContentEncoding encoding) {
+        return pool.borrow(encoding);
+    }
+
+    void release(final Compressor compressor) {
+        pool.release(compressor);
+    }
+
+    void recordCompressed(final long in, final long out) {
+        compressed.increment();
+        bytesIn.add(in);
+        bytesOut.add(out);
+    }
+
+    void recordSkipped() {
+        skipped.increment();
+    }
+
+    public long getCompressedCount() {
+        return compressed.sum();
+    }
+
+    public long getSkippedCount() {
+        return skipped.sum();
+    }
+
+    public long getBytesIn() {
+        return bytesIn.sum();
+    }
+
+    public long getBytesOut() {
+        return bytesOut.sum();
+    }
+
+    /**
+     * 지금까지 새로 만든 Deflater 수. 요청 수를 따라 늘면 max-pooled가 동시에 압축하는 응답 수보다 작은 것이다.
+     */
+    public long getCreatedCompressorCount() {
+        return pool.getCreatedCount();
+    }
+
+    @Override
+    public void destroy() {
+        pool.close();
+        servletContext.log("destroy() 호출. compressed=" + getCompressedCount() + ", skipped=" + getSkippedCount()
+                + ", bytesIn=" + getBytesIn() + ", bytesOut=" + getBytesOut());
+    }
+}
@@ -0,0 +1,293 @@
+package com.example.compression;
+
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+
+/**
+ * 본문을 쓰기 시작할 때 압축할지 정하고, 압축하면 Content-Encoding을 붙여 Deflater로 흘려보내는 응답.
+ * <p>
+ * 압축 여부는 첫 바이트를 쓸 때의 상태 코드, Content-Type, Content-Length로 정한다. Content-Length를 모르면
+ * 최소 크기만큼만 모아 보고, 그 전에 응답이 끝나면 압축하지 않고 그대로 보낸다. 최소 크기를 넘으면 그때부터는 모으지 않고
+ * 쓰는 대로 압축해서 내보낸다. 압축하는 응답의 Content-Length는 원래 본문 길이이므로 내보내지 않는다.
+ * <p>
+ * 응답이 끝나면 {@link #finish()}가 남은 압축 결과와 gzip 트레일러를 내보내고 Compressor를 풀에 돌려준다.
+ */
+class CompressionResponse extends HttpServletResponseWrapper {
+
+    private static final String CONTENT_LENGTH = "Content-Length";
+
+    private final CompressionFilter filter;
+    private final ContentEncoding encoding;
+    private long contentLength = -1;
+    private CompressingOutputStream outputStream;
+    private PrintWriter writer;
+
+    CompressionResponse(final HttpServletResponse response, final CompressionFilter filter,
+                        final ContentEncoding encoding) {
+        super(response);
+        this.filter = filter;
+        this.encoding = encoding;
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() {
+        if (outputStream == null) {
+            outputStream = new CompressingOutputStream();
+        }
+        return outputStream;
+    }
+
+    @Override
+    public PrintWriter getWriter() throws IOException {
+        if (writer == null) {
+            if (!filter.isCompressible(getContentType())) {
+                // 압축하지 않을 것이 분명하면 톰캣이 재사용하는 writer를 그대로 쓴다.
+                forwardContentLength();
+                return super.getWriter();
+            }
+            writer = new PrintWriter(new OutputStreamWriter(getOutputStream(), getCharacterEncoding()));
+        }
+        return writer;
+    }
+
+    @Override
+    public void setContentLength(final int length) {
+        setContentLengthLong(length);
+    }
+
+    @Override
+    public void setContentLengthLong(final long length) {
+        if (outputStream == null || outputStream.state == State.UNDECIDED) {
+            contentLength = length;
+        } else if (outputStream.state == State.PASS_THROUGH) {
+            super.setContentLengthLong(length);
+        }
+    }
+
+    @Override
+    public void setHeader(final String name, final String value) {
+        if (CONTENT_LENGTH.equalsIgnoreCase(name)) {
+            setContentLengthLong(value == null ? -1 : Long.parseLong(value));
+            return;
+        }
+        super.setHeader(name, value);
+    }
+
+    @Override
+    public void addHeader(final String name, final String value) {
+        if (CONTENT_LENGTH.equalsIgnoreCase(name)) {
+            setContentLengthLong(Long.parseLong(value));
+            return;
+        }
+        super.addHeader(name, value);
+    }
+
+    @Override
+    public void setIntHeader(final String name, final int value) {
+        if (CONTENT_LENGTH.equalsIgnoreCase(name)) {
+            setContentLengthLong(value);
+            return;
+        }
+        super.setIntHeader(name, value);
+    }
+
+    @Override
+    public void flushBuffer() throws IOException {
+        if (writer != null) {
+            writer.flush();
+        }
+        if (outputStream != null) {
+            outputStream.flush();
+        }
+        super.flushBuffer();
+    }
+
+    @Override
+    public void resetBuffer() {
+        if (outputStream != null && outputStream.state == State.PENDING) {
+            outputStream.pendingCount = 0;
+        }
+        super.resetBuffer();
+    }
+
+    @Override
+    public void reset() {
+        resetBuffer();
+        contentLength = -1;
+        super.reset();
+    }
+
+    /**
+     * 남은 압축 결과를 내보내고 Compressor를 돌려준다. 본문을 쓰지 않았다면 미뤄 둔 Content-Length만 넘긴다. 두 번 불러도 된다.
+     */
+    void finish() throws IOException {
+        if (writer != null) {
+            writer.flush();
+        }
+        if (outputStream == null) {
+            forwardContentLength();
+            return;
+        }
+        outputStream.finish();
+    }
+
+    private void forwardContentLength() {
+        if (contentLength >= 0) {
+            super.setContentLengthLong(contentLength);
+            contentLength = -1;
+        }
+    }
+
+    private enum State {
+        UNDECIDED, PENDING, PASS_THROUGH, COMPRESSING, FINISHED
+    }
+
+    private final class CompressingOutputStream extends ServletOutputStream {
+
+        private final byte[] single = new byte[1];
+        private State state = State.UNDECIDED;
+        private ServletOutputStream target;
+        private Compressor compressor;
+        private int pendingCount;
+
+        @Override
+        public void write(final int b) throws IOException {
+            single[0] = (byte) b;
+            write(single, 0, 1);
+        }
+
+        @Override
+        public void write(final byte[] b, final int off, final int len) throws IOException {
+            if (state == State.UNDECIDED) {
+                decide();
+            }
+            switch (state) {
+                case PENDING:
+                    final var pending = compressor.pending();
+                    if (pendingCount + len <= pending.length) {
+                        System.arraycopy(b, off, pending, pendingCount, len);
+                        pendingCount += len;
+                        return;
+                    }
+                    startCompressing();
+                    write(b, off, len);
+                    return;
+                case COMPRESSING:
+                    compressor.write(b, off, len);
+                    return;
+                case PASS_THROUGH:
+                    target().write(b, off, len);
+                    return;
+                default:
+                    throw new IOException("응답이 이미 끝났습니다.");
+            }
+        }
+
+        private void decide() {
+            if (isCommitted() || !filter.isCompressible(getStatus(), getContentType())
+                    || containsHeader("Content-Encoding")
+                    || (contentLength >= 0 && contentLength < filter.threshold())) {
+                state = State.PASS_THROUGH;
+                forwardContentLength();
+                filter.recordSkipped();
+                return;
+            }
+            addHeader("Vary", "Accept-Encoding");
+            compressor = filter.borrow(encoding);
+            state = State.PENDING;
+        }
+
+        private void startCompressing() throws IOException {
+            if (isCommitted()) {
+                // flushBuffer()로 헤더가 이미 나갔으면 Content-Encoding을 붙일 수 없으므로 모은 것을 그대로 보낸다.
+                state = State.PASS_THROUGH;
+                target().write(compressor.pending(), 0, pendingCount);
+                pendingCount = 0;
+                filter.release(compressor);
+                compressor = null;
+                filter.recordSkipped();
+                return;
+            }
+            CompressionResponse.super.setHeader("Content-Encoding", encoding.token());
+            contentLength = -1;
+            state = State.COMPRESSING;
+            compressor.begin(target());
+            compressor.write(compressor.pending(), 0, pendingCount);
+            pendingCount = 0;
+        }
+
+        private ServletOutputStream target() throws IOException {
+            if (target == null) {
+                target = CompressionResponse.super.getOutputStream();
+            }
+            return target;
+        }
+
+        @Override
+        public void flush() throws IOException {
+            if (state == State.UNDECIDED || (state == State.PENDING && pendingCount == 0)) {
+                // 아직 쓴 바이트가 없다. 여기서 압축을 시작하면 빈 본문에도 gzip 헤더가 나가므로 첫 바이트를 쓸 때까지 미룬다.
+                return;
+            }
+            if (state == State.PENDING) {
+                // 클라이언트가 지금까지 쓴 것을 기다리고 있으므로 더 모으지 않고 압축을 시작한다.
+                startCompressing();
+            }
+            if (state == State.COMPRESSING) {
+                compressor.flush();
+            }
+            target().flush();
+        }
+
+        void finish() throws IOException {
+            try {
+                if (state == State.PENDING) {
+                    // 최소 크기에 못 미친 본문은 압축하지 않는다.
+                    if (!isCommitted()) {
+                        CompressionResponse.super.setContentLengthLong(pendingCount);
+                    }
+                    target().write(compressor.pending(), 0, pendingCount);
+                    filter.recordSkipped();
+                } else if (state == State.COMPRESSING) {
+                    compressor.finish();
+                    filter.recordCompressed(compressor.bytesRead(), compressor.bytesWritten());
+                } else if (state == State.UNDECIDED) {
+                    forwardContentLength();
+                }
+            } finally {
+                if (compressor != null) {
+                    filter.release(compressor);
+                    compressor = null;
+                }
+                state = State.FINISHED;
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (state != State.FINISHED) {
+                finish();
+            }
+            target().close();
+        }
+
+        @Override
+        public boolean isReady() {
+            try {
+                return target().isReady();
+            } catch (IOException e) {
+                return false;
+            }
+        }
+
+        @Override
+        public void setWriteListener(final WriteListener writeListener) {
+            throw new IllegalStateException("압축 응답은 비동기 쓰기를 지원하지 않습니다.");
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.compression;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * Deflater 하나와 출력 버퍼를 묶어 응답 하나를 압축한다. {@link CompressorPool}이 돌려받아 다음 응답에 다시 쓴다.
+ * <p>
+ * GZIPOutputStream, DeflaterOutputStream은 만들 때마다 Deflater(네이티브 zlib 상태 수백 KB)와 버퍼를 새로 잡으므로
+ * 직접 Deflater를 돌리고 gzip 헤더와 트레일러도 직접 쓴다.
+ */
+final class Compressor {
+
+    private static final byte[] GZIP_HEADER = {0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, (byte) 0xff};
+
+    private final ContentEncoding encoding;
+    private final Deflater deflater;
+    private final CRC32 crc = new CRC32();
+    private final byte[] buffer;
+    private final byte[] trailer = new byte[8];
+    private final byte[] pending;
+
+    private OutputStream sink;
+
+    Compressor(final ContentEncoding encoding, final int level, final int bufferSize, final int pendingSize) {
+        this.encoding = encoding;
+        this.deflater = new Deflater(level, encoding.nowrap());
+        this.buffer = new byte[bufferSize];
+        this.pending = new byte[pendingSize];
+    }
+
+    ContentEncoding encoding() {
+        return encoding;
+    }
+
+    /**
+     * 압축할지 정하기 전까지 본문 앞부분을 모아 두는 버퍼. 크기는 압축을 시작하는 최소 크기와 같다.
+     */
+    byte[] pending() {
+        return pending;
+    }
+
+    void begin(final OutputStream sink) throws IOException {
+        this.sink = sink;
+        deflater.reset();
+        crc.reset();
+        if (encoding == ContentEncoding.GZIP) {
+            sink.write(GZIP_HEADER);
+        }
+    }
+
+    void write(final byte[] b, final int off, final int len) throws IOException {
+        if (len == 0) {
+            return;
+        }
+        if (encoding == ContentEncoding.GZIP) {
+            crc.update(b, off, len);
+        }
+        deflater.setInput(b, off, len);
+        while (!deflater.needsInput()) {
+            drain(Deflater.NO_FLUSH);
+        }
+    }
+
+    /**
+     * 지금까지 받은 입력을 모두 압축해 내보낸다. 압축률이 조금 떨어지므로 flush()가 불렸을 때만 쓴다.
+     */
+    void flush() throws IOException {
+        while (drain(Deflater.SYNC_FLUSH) == buffer.length) {
+            // 출력 버퍼가 가득 찼으면 남은 것이 더 있다.
+        }
+    }
+
+    void finish() throws IOException {
+        deflater.finish();
+        while (!deflater.finished()) {
+            drain(Deflater.NO_FLUSH);
+        }
+        if (encoding == ContentEncoding.GZIP) {
+            writeIntLE(trailer, 0, (int) crc.getValue());
+            writeIntLE(trailer, 4, (int) deflater.getBytesRead());
+            sink.write(trailer);
+        }
+    }
+
+    long bytesRead() {
+        return deflater.getBytesRead();
+    }
+
+    long bytesWritten() {
+        return deflater.getBytesWritten() + (encoding == ContentEncoding.GZIP ? GZIP_HEADER.length + trailer.length : 0);
+    }
+
+    private int drain(final int flush) throws IOException {
+        final var length = deflater.deflate(buffer, 0, buffer.length, flush);
+        if (length > 0) {
+            sink.write(buffer, 0, length);
+        }
+        return length;
+    }
+
+    private static void writeIntLE(final byte[] b, final int off, final int value) {
+        b[off] = (byte) value;
+        b[off + 1] = (byte) (value >>> 8);
+        b[off + 2] = (byte) (value >>> 16);
+        b[off + 3] = (byte) (value >>> 24);
+    }
+
+    /**
+     * 풀에 돌려줄 때 부른다. 다음 응답의 {@link #begin(OutputStream)}이 Deflater를 reset한다.
+     */
+    void release() {
+        sink = null;
+    }
+
+    /**
+     * 풀에 들어가지 못한 Compressor의 네이티브 메모리를 바로 놓아준다. 이후에는 쓸 수 없다.
+     */
+    void end() {
+        sink = null;
+        deflater.end();
+    }
+}
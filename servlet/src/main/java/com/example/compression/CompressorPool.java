@@ -0,0 +1,81 @@
+package com.example.compression;
+
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 인코딩별로 쉬고 있는 {@link Compressor}를 최대 maxPooled개까지 담아 두고 모든 스레드가 같이 쓴다.
+ * <p>
+ * 스레드마다 들고 있으면 요청마다 가상 스레드를 새로 만드는 커넥터에서는 요청마다 Deflater(네이티브 zlib 상태)를 새로 만들고,
+ * 스레드가 사라진 뒤 Cleaner가 돌 때까지 네이티브 메모리를 놓지 않는다. 공유 큐에 두면 스레드가 몇 개든
+ * 동시에 압축하는 응답 수만큼만 만든다. 큐가 비어 있으면 새로 만들고, 돌려받을 때 큐가 가득 차 있으면 바로 end()한다.
+ */
+class CompressorPool {
+
+    private final int level;
+    private final int bufferSize;
+    private final int threshold;
+    private final ArrayBlockingQueue<Compressor> gzip;
+    private final ArrayBlockingQueue<Compressor> deflate;
+
+    private final LongAdder created = new LongAdder();
+
+    CompressorPool(final int level, final int bufferSize, final int threshold, final int maxPooled) {
+        if (maxPooled <= 0) {
+            throw new IllegalArgumentException("maxPooled는 0보다 커야 합니다.");
+        }
+        this.level = level;
+        this.bufferSize = bufferSize;
+        this.threshold = threshold;
+        this.gzip = new ArrayBlockingQueue<>(maxPooled);
+        this.deflate = new ArrayBlockingQueue<>(maxPooled);
+    }
+
+    Compressor borrow(final ContentEncoding encoding) {
+        final var compressor = queue(encoding).poll();
+        if (compressor != null) {
+            return compressor;
+        }
+        created.increment();
+        return new Compressor(encoding, level, bufferSize, threshold);
+    }
+
+    void release(final Compressor compressor) {
+        compressor.release();
+        if (!queue(compressor.encoding()).offer(compressor)) {
+            compressor.end();
+        }
+    }
+
+    private ArrayBlockingQueue<Compressor> queue(final ContentEncoding encoding) {
+        return encoding == ContentEncoding.GZIP ? gzip : deflate;
+    }
+
+    /**
+     * 쉬고 있는 Compressor의 네이티브 메모리를 놓아준다. 필터가 내려갈 때 부른다.
+     */
+    void close() {
+        for (final var queue : List.of(gzip, deflate)) {
+            Compressor compressor;
+            while ((compressor = queue.poll()) != null) {
+                compressor.end();
+            }
+        }
+    }
+
+    int level() {
+        return level;
+    }
+
+    int threshold() {
+        return threshold;
+    }
+
+    /**
+     * 지금까지 새로 만든 Compressor 수. 풀이 충분하면 동시에 압축한 응답 수의 최댓값을 넘지 않는다.
+     */
+    long getCreatedCount() {
+        return created.sum();
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.compression;
+
+/**
+ * 이 필터가 만들 수 있는 Content-Encoding.
+ */
+enum ContentEncoding {
+
+    GZIP("gzip", true),
+    DEFLATE("deflate", false);
+
+    private final String token;
+    private final boolean nowrap;
+
+    ContentEncoding(final String token, final boolean nowrap) {
+        this.token = token;
+        this.nowrap = nowrap;
+    }
+
+    String token() {
+        return token;
+    }
+
+    /**
+     * gzip은 헤더와 트레일러를 직접 쓰므로 zlib 래퍼 없는 Deflater를 쓴다.
+     */
+    boolean nowrap() {
+        return nowrap;
+    }
+
+    /**
+     * Accept-Encoding에서 q 값이 가장 큰 인코딩을 고른다. 같으면 gzip을 고른다. 받을 수 있는 것이 없으면 null.
+     * <p>
+     * 요청마다 불리므로 토큰 이름은 잘라 내지 않고 regionMatches로 비교한다.
+     */
+    static ContentEncoding negotiate(final String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return null;
+        }
+        var gzipQ = -1.0;
+        var deflateQ = -1.0;
+        var wildcardQ = -1.0;
+        final var length = acceptEncoding.length();
+        var start = 0;
+        while (start < length) {
+            var end = acceptEncoding.indexOf(',', start);
+            if (end < 0) {
+                end = length;
+            }
+            final var semicolon = acceptEncoding.indexOf(';', start);
+            final var nameEnd = semicolon >= 0 && semicolon < end ? semicolon : end;
+            final var nameStart = skipWhitespace(acceptEncoding, start, nameEnd);
+            final var nameLength = trimEnd(acceptEncoding, nameStart, nameEnd) - nameStart;
+            final var q = nameEnd < end ? quality(acceptEncoding, nameEnd + 1, end) : 1.0;
+            if (is(acceptEncoding, nameStart, nameLength, "gzip") || is(acceptEncoding, nameStart, nameLength, "x-gzip")) {
+                gzipQ = q;
+            } else if (is(acceptEncoding, nameStart, nameLength, "deflate")) {
+                deflateQ = q;
+            } else if (is(acceptEncoding, nameStart, nameLength, "*")) {
+                wildcardQ = q;
+            }
+            start = end + 1;
+        }
+        if (gzipQ < 0) {
+            gzipQ = wildcardQ;
+        }
+        if (deflateQ < 0) {
+            deflateQ = wildcardQ;
+        }
+        if (gzipQ <= 0 && deflateQ <= 0) {
+            return null;
+        }
+        return gzipQ >= deflateQ ? GZIP : DEFLATE;
+    }
+
+    private static boolean is(final String value, final int start, final int length, final String token) {
+        return length == token.length() && value.regionMatches(true, start, token, 0, length);
+    }
+
+    private static double quality(final String value, final int start, final int end) {
+        final var parameter = value.substring(start, end).trim();
+        if (!parameter.regionMatches(true, 0, "q=", 0, 2)) {
+            return 1.0;
+        }
+        try {
+            return Double.parseDouble(parameter.substring(2).trim());
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    private static int skipWhitespace(final String value, int start, final int end) {
+        while (start < end && Character.isWhitespace(value.charAt(start))) {
+            start++;
+        }
+        return start;
+    }
+
+    private static int trimEnd(final String value, final int start, int end) {
+        while (end > start && Character.isWhitespace(value.charAt(end - 1))) {
+            end--;
+        }
+        return end;
+    }
+}
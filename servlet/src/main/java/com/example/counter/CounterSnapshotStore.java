@@ -0,0 +1,89 @@
+package com.example.counter;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * 카운터 값을 메모리 매핑 파일에 저장한다.
+ * <p>
+ * 파일에는 [순번, 값, 검증값] 묶음을 두 칸 두고 번갈아 쓴다. 쓰는 도중에 프로세스가 죽어서 한 칸이 깨져도
+ * 나머지 칸에 직전 값이 남아 있으므로, 읽을 때는 검증값이 맞는 칸 중 순번이 큰 쪽을 고른다.
+ * 매핑된 메모리에 쓰면 OS가 알아서 디스크로 내려 보내므로, 프로세스가 비정상 종료되어도 값이 남는다.
+ */
+public class CounterSnapshotStore implements AutoCloseable {
+
+    private static final long MAGIC = 0x5348415245444354L;
+    private static final int SLOT_SIZE = Long.BYTES * 3;
+    private static final int FILE_SIZE = SLOT_SIZE * 2;
+
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private long sequence;
+
+    public CounterSnapshotStore(final Path path) throws IOException {
+        final var parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, FILE_SIZE);
+        this.sequence = Math.max(0, Math.max(readSequence(0), readSequence(1)));
+    }
+
+    /**
+     * 마지막으로 저장한 값. 저장된 값이 없으면 0이다.
+     */
+    public synchronized long load() {
+        final var first = readSequence(0);
+        final var second = readSequence(1);
+        if (first < 0 && second < 0) {
+            return 0;
+        }
+        return readValue(first >= second ? 0 : 1);
+    }
+
+    public synchronized void save(final long value) {
+        sequence++;
+        final var offset = (int) (sequence % 2) * SLOT_SIZE;
+        buffer.putLong(offset + Long.BYTES, value);
+        buffer.putLong(offset + Long.BYTES * 2, checksum(sequence, value));
+        buffer.putLong(offset, sequence);
+    }
+
+    /**
+     * 디스크에 쓰일 때까지 기다린다. 종료할 때만 호출한다.
+     */
+    public synchronized void flush() {
+        buffer.force();
+    }
+
+    @Override
+    public void close() throws IOException {
+        flush();
+        channel.close();
+    }
+
+    private long readSequence(final int slot) {
+        final var offset = slot * SLOT_SIZE;
+        final var slotSequence = buffer.getLong(offset);
+        final var value = buffer.getLong(offset + Long.BYTES);
+        final var check = buffer.getLong(offset + Long.BYTES * 2);
+        if (slotSequence <= 0 || check != checksum(slotSequence, value)) {
+            return -1;
+        }
+        return slotSequence;
+    }
+
+    private long readValue(final int slot) {
+        return buffer.getLong(slot * SLOT_SIZE + Long.BYTES);
+    }
+
+    private static long checksum(final long sequence, final long value) {
+        return MAGIC ^ (sequence * 31 + value);
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.counter;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * 여러 스레드가 동시에 올려도 값을 잃지 않는 카운터.
+ * 스냅샷 파일을 주면 주기적으로 별도 스레드에서 값을 저장하고, 다시 만들 때 저장된 값부터 센다.
+ */
+public class SharedCounter implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(SharedCounter.class);
+
+    private final StripedCounter counter;
+    private final CounterSnapshotStore snapshotStore;
+    private final ScheduledExecutorService scheduler;
+    private long lastSaved;
+
+    private SharedCounter(final StripedCounter counter, final CounterSnapshotStore snapshotStore,
+                          final long snapshotIntervalMillis) {
+        this.counter = counter;
+        this.snapshotStore = snapshotStore;
+        this.lastSaved = counter.sum();
+        if (snapshotStore == null) {
+            this.scheduler = null;
+            return;
+        }
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            final var thread = new Thread(runnable, "shared-counter-snapshot");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::saveSnapshot, snapshotIntervalMillis, snapshotIntervalMillis,
+                TimeUnit.MILLISECONDS);
+    }
+
+    public static SharedCounter inMemory() {
+        return new SharedCounter(new StripedCounter(), null, 0);
+    }
+
+    public static SharedCounter persistent(final Path snapshotFile, final long snapshotIntervalMillis)
+            throws IOException {
+        final var snapshotStore = new CounterSnapshotStore(snapshotFile);
+        final var initialValue = snapshotStore.load();
+        log.info("shared counter restored. file={}, value={}", snapshotFile, initialValue);
+        return new SharedCounter(new StripedCounter(initialValue), snapshotStore, snapshotIntervalMillis);
+    }
+
+    /**
+     * 올린 뒤의 값을 돌려준다. 다른 스레드가 동시에 올리고 있다면 그 몫까지 포함될 수 있다.
+     */
+    public long incrementAndGet() {
+        counter.increment();
+        return counter.sum();
+    }
+
+    public long get() {
+        return counter.sum();
+    }
+
+    private synchronized void saveSnapshot() {
+        final var value = counter.sum();
+        if (value == lastSaved) {
+            return;
+        }
+        snapshotStore.save(value);
+        lastSaved = value;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (snapshotStore == null) {
+            return;
+        }
+        scheduler.shutdown();
+        saveSnapshot();
+        snapshotStore.close();
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.counter;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * LongAdder처럼 값을 여러 칸(cell)에 나눠 더하는 카운터.
+ * <p>
+ * 스레드마다 정해진 칸에 더하므로 여러 스레드가 하나의 값을 두고 CAS 경쟁을 하지 않는다.
+ * 칸 사이에 빈 공간을 두어 서로 다른 칸이 같은 캐시 라인에 놓이지 않게 했다(false sharing 방지).
+ * 값은 모든 칸을 더해서 읽는다.
+ */
+public class StripedCounter {
+
+    // long 16개 = 128바이트. 인접 캐시 라인 프리페치까지 고려해서 칸 하나가 두 줄을 차지하게 한다.
+    private static final int PADDING = 16;
+
+    private final AtomicLongArray cells;
+    private final int mask;
+    private final long base;
+
+    public StripedCounter() {
+        this(0);
+    }
+
+    public StripedCounter(final long initialValue) {
+        this(initialValue, Runtime.getRuntime().availableProcessors() * 2);
+    }
+
+    StripedCounter(final long initialValue, final int stripes) {
+        final var size = ceilingPowerOfTwo(Math.max(stripes, 1));
+        this.cells = new AtomicLongArray(size * PADDING);
+        this.mask = size - 1;
+        this.base = initialValue;
+    }
+
+    public void increment() {
+        add(1);
+    }
+
+    public void add(final long delta) {
+        cells.getAndAdd(cellIndex(), delta);
+    }
+
+    /**
+     * 동시에 더하는 중이면 그 순간의 정확한 값은 아닐 수 있지만, 더하기가 끝난 값은 빠짐없이 들어 있다.
+     */
+    public long sum() {
+        long sum = base;
+        for (int i = 0; i < cells.length(); i += PADDING) {
+            sum += cells.get(i);
+        }
+        return sum;
+    }
+
+    private int cellIndex() {
+        return (mix(Thread.currentThread().getId()) & mask) * PADDING;
+    }
+
+    private static int mix(final long value) {
+        var hash = value * 0x9E3779B97F4A7C15L;
+        hash ^= hash >>> 32;
+        return (int) hash;
+    }
+
+    private static int ceilingPowerOfTwo(final int value) {
+        return value <= 1 ? 1 : Integer.highestOneBit(value - 1) << 1;
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.filter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * 서블릿 url-pattern 형식(/exact, /prefix/*, *.extension)의 경로 규칙을 미리 트라이로 만들어 두고 요청 경로와 맞춰 본다.
+ * <p>
+ * 규칙을 리스트로 두고 요청마다 startsWith, endsWith로 하나씩 비교하면 규칙 수만큼 비교한다.
+ * 트라이는 경로를 한 글자씩 한 번만 따라가면 되고, 매칭하는 동안 객체를 만들지 않는다.
+ * 만든 뒤에는 바뀌지 않으므로 여러 스레드에서 같이 써도 된다.
+ */
+public final class PathPatternTrie {
+
+    private final Node root;
+    private final String[] extensions;
+
+    private PathPatternTrie(final Node root, final String[] extensions) {
+        this.root = root;
+        this.extensions = extensions;
+    }
+
+    /**
+     * @param patterns 쉼표로 구분한 url-pattern 목록. 예: "/static/*, *.png, /favicon.ico"
+     */
+    public static PathPatternTrie compile(final String patterns) {
+        final var root = new Node();
+        final List<String> extensions = new ArrayList<>();
+        if (patterns == null) {
+            return new PathPatternTrie(root, new String[0]);
+        }
+        for (final var rawPattern : patterns.split(",")) {
+            final var pattern = rawPattern.trim();
+            if (pattern.isEmpty()) {
+                continue;
+            }
+            if (pattern.startsWith("*.")) {
+                extensions.add(pattern.substring(2).toLowerCase(Locale.ROOT));
+                continue;
+            }
+            if (!pattern.startsWith("/")) {
+                throw new IllegalArgumentException("지원하지 않는 url-pattern 입니다. pattern=" + pattern);
+            }
+            if (pattern.endsWith("/*")) {
+                // 서블릿 스펙대로 /static/* 은 /static 자체도 포함한다.
+                final var prefix = pattern.substring(0, pattern.length() - 2);
+                root.insert(prefix).exact = true;
+                root.insert(prefix + "/").prefix = true;
+            } else {
+                root.insert(pattern).exact = true;
+            }
+        }
+        return new PathPatternTrie(root, extensions.toArray(new String[0]));
+    }
+
+    public boolean matches(final String path) {
+        return matchesPath(path) || matchesExtension(path);
+    }
+
+    private boolean matchesPath(final String path) {
+        var node = root;
+        for (int i = 0; i < path.length(); i++) {
+            node = node.child(path.charAt(i));
+            if (node == null) {
+                return false;
+            }
+            if (node.prefix) {
+                return true;
+            }
+        }
+        return node.exact;
+    }
+
+    private boolean matchesExtension(final String path) {
+        final var dot = path.lastIndexOf('.');
+        if (dot < 0 || path.indexOf('/', dot) >= 0) {
+            return false;
+        }
+        final var length = path.length() - dot - 1;
+        for (final var extension : extensions) {
+            if (extension.length() == length && path.regionMatches(true, dot + 1, extension, 0, length)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static final class Node {
+
+        private char[] keys = new char[0];
+        private Node[] children = new Node[0];
+        private boolean exact;
+        private boolean prefix;
+
+        Node insert(final String path) {
+            var node = this;
+            for (int i = 0; i < path.length(); i++) {
+                final var key = path.charAt(i);
+                var next = node.child(key);
+                if (next == null) {
+                    next = new Node();
+                    node.keys = Arrays.copyOf(node.keys, node.keys.length + 1);
+                    node.children = Arrays.copyOf(node.children, node.children.length + 1);
+                    node.keys[node.keys.length - 1] = key;
+                    node.children[node.children.length - 1] = next;
+                }
+                node = next;
+            }
+            return node;
+        }
+
+        /**
+         * 경로 한 글자마다 갈래가 몇 개 되지 않으므로 해시 대신 배열을 차례로 본다.
+         */
+        Node child(final char key) {
+            for (int i = 0; i < keys.length; i++) {
+                if (keys[i] == key) {
+                    return children[i];
+                }
+            }
+            return null;
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.filter;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * 필터에서 경로 규칙을 맞춰 볼 때 쓰는 요청 경로.
+ * <p>
+ * getRequestURI()는 클라이언트가 보낸 그대로라서 /static/../korean, /korean;jsessionid=..., //korean 처럼 쓰면
+ * 같은 서블릿으로 가면서도 다른 문자열이 된다. 컨테이너가 디코딩하고 정규화한 뒤 서블릿을 고른 결과인
+ * getServletPath() + getPathInfo()를 쓰면 필터가 보는 경로와 실제로 실행되는 서블릿이 어긋나지 않는다.
+ */
+public final class RequestPaths {
+
+    private RequestPaths() {
+    }
+
+    /**
+     * 컨텍스트 경로를 뺀, 정규화한 경로. 예: /korean, /static/logo.png
+     */
+    public static String pathWithinApplication(final HttpServletRequest request) {
+        final var servletPath = request.getServletPath();
+        final var pathInfo = request.getPathInfo();
+        if (pathInfo == null) {
+            return servletPath;
+        }
+        return servletPath + pathInfo;
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.metrics;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.Filter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.FilterConfig;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.annotation.WebFilter;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import org.apache.catalina.connector.ResponseFacade;
+
+/**
+ * 서블릿별 요청 수, 상태 코드, 응답 바이트, 지연 시간을 {@link MetricsRegistry}에 기록한다. 결과는 /metrics에서 본다.
+ * <p>
+ * 응답 바이트는 톰캣 응답 객체가 이미 세고 있는 값을 읽으므로 응답을 감싸지 않는다.
+ * 비동기 요청은 dispatch가 끝난 시점이 아니라 응답이 완료된 시점에 기록한다.
+ */
+@WebFilter(urlPatterns = "/*", asyncSupported = true)
+public class MetricsFilter implements Filter {
+
+    private MetricsRegistry registry;
+
+    @Override
+    public void init(final FilterConfig filterConfig) {
+        final var servletContext = filterConfig.getServletContext();
+        registry = new MetricsRegistry();
+        // 요청이 한 번도 없었던 서블릿도 0으로 보이도록 등록된 서블릿을 미리 만들어 둔다.
+        for (final var servletName : servletContext.getServletRegistrations().keySet()) {
+            registry.servlet(servletName);
+        }
+        servletContext.setAttribute(MetricsRegistry.ATTRIBUTE_NAME, registry);
+    }
+
+    @Override
+    public void doFilter(final ServletRequest request, final ServletResponse response, final FilterChain chain)
+            throws IOException, ServletException {
+        final var start = System.nanoTime();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new RecordOnComplete(start));
+            } else {
+                record((HttpServletRequest) request, (HttpServletResponse) response, start);
+            }
+        }
+    }
+
+    private void record(final HttpServletRequest request, final HttpServletResponse response, final long start) {
+        registry.record(servletName(request), response.getStatus(), bytesWritten(response), System.nanoTime() - start);
+    }
+
+    private static String servletName(final HttpServletRequest request) {
+        final var mapping = request.getHttpServletMapping();
+        return mapping == null || mapping.getServletName() == null ? "(none)" : mapping.getServletName();
+    }
+
+    private static long bytesWritten(final HttpServletResponse response) {
+        if (response instanceof ResponseFacade) {
+            return ((ResponseFacade) response).getContentWritten();
+        }
+        final var contentLength = response.getHeader("Content-Length");
+        return contentLength == null ? 0 : Long.parseLong(contentLength);
+    }
+
+    private final class RecordOnComplete implements AsyncListener {
+
+        private final long start;
+
+        private RecordOnComplete(final long start) {
+            this.start = start;
+        }
+
+        @Override
+        public void onComplete(final AsyncEvent event) {
+            record((HttpServletRequest) event.getSuppliedRequest(), (HttpServletResponse) event.getSuppliedResponse(),
+                    start);
+        }
+
+        @Override
+        public void onTimeout(final AsyncEvent event) {
+        }
+
+        @Override
+        public void onError(final AsyncEvent event) {
+        }
+
+        @Override
+        public void onStartAsync(final AsyncEvent event) {
+            // 같은 요청에서 startAsync()를 다시 부르면 리스너가 지워지므로 다시 등록한다.
+            event.getAsyncContext().addListener(this);
+        }
+    }
+}
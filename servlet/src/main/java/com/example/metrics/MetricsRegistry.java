@@ -0,0 +1,138 @@
+package com.example.metrics;
+
+import jakarta.servlet.ServletContext;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 서블릿별 {@link ServletMetrics}를 모아 두고 Prometheus 텍스트 형식으로 내보낸다.
+ * <p>
+ * 스크레이프는 한 번에 하나만 돈다. 출력용 StringBuilder와 byte[]를 재사용하고, 레이블 문자열은 서블릿을 처음 볼 때
+ * 만들어 두므로 스크레이프마다 새로 만드는 객체가 거의 없다.
+ */
+public class MetricsRegistry {
+
+    public static final String ATTRIBUTE_NAME = MetricsRegistry.class.getName();
+
+    /**
+     * 히스토그램 버킷 경계(le). 마이크로초 값과 초 단위 레이블을 같은 순서로 둔다.
+     */
+    private static final long[] BUCKET_MICROS = {
+            500, 1_000, 2_500, 5_000, 10_000, 25_000, 50_000, 100_000, 250_000, 500_000, 1_000_000, 2_500_000,
+            5_000_000, 10_000_000};
+    private static final String[] BUCKET_LABELS = {
+            "0.0005", "0.001", "0.0025", "0.005", "0.01", "0.025", "0.05", "0.1", "0.25", "0.5", "1", "2.5",
+            "5", "10"};
+
+    private final Map<String, ServletMetrics> servlets = new ConcurrentHashMap<>();
+
+    private final StringBuilder text = new StringBuilder(4 * 1024);
+    private byte[] bytes = new byte[4 * 1024];
+
+    public static MetricsRegistry from(final ServletContext servletContext) {
+        return (MetricsRegistry) servletContext.getAttribute(ATTRIBUTE_NAME);
+    }
+
+    ServletMetrics servlet(final String servletName) {
+        final var metrics = servlets.get(servletName);
+        if (metrics != null) {
+            return metrics;
+        }
+        return servlets.computeIfAbsent(servletName, name -> new ServletMetrics(sanitize(name)));
+    }
+
+    public void record(final String servletName, final int status, final long bytes, final long elapsedNanos) {
+        servlet(servletName).record(status, bytes, elapsedNanos);
+    }
+
+    /**
+     * Prometheus 텍스트 형식(ASCII)으로 렌더링해서 outputStream에 쓴다.
+     */
+    public synchronized void scrape(final OutputStream outputStream) throws IOException {
+        text.setLength(0);
+
+        text.append("# HELP servlet_requests_total Completed requests by servlet and status code.\n")
+                .append("# TYPE servlet_requests_total counter\n");
+        for (final var metrics : servlets.values()) {
+            for (int slot = 0; slot < metrics.statusSlots(); slot++) {
+                final var count = metrics.statusCountAt(slot);
+                if (count < 0) {
+                    continue;
+                }
+                text.append("servlet_requests_total{servlet=\"").append(metrics.getName())
+                        .append("\",code=\"").append(ServletMetrics.statusAt(slot)).append("\"} ")
+                        .append(count).append('\n');
+            }
+        }
+
+        text.append("# HELP servlet_response_bytes_total Response body bytes written by servlet.\n")
+                .append("# TYPE servlet_response_bytes_total counter\n");
+        for (final var metrics : servlets.values()) {
+            text.append("servlet_response_bytes_total{servlet=\"").append(metrics.getName()).append("\"} ")
+                    .append(metrics.getResponseBytes()).append('\n');
+        }
+
+        text.append("# HELP servlet_request_duration_seconds Request latency by servlet.\n")
+                .append("# TYPE servlet_request_duration_seconds histogram\n");
+        for (final var metrics : servlets.values()) {
+            appendHistogram(metrics);
+        }
+        // encode()가 bytes를 더 큰 배열로 바꿀 수 있으므로 길이를 먼저 받은 뒤에 필드를 읽는다.
+        final var length = encode();
+        outputStream.write(bytes, 0, length);
+    }
+
+    private void appendHistogram(final ServletMetrics metrics) {
+        final var histogram = metrics.collect();
+        for (int i = 0; i < BUCKET_MICROS.length; i++) {
+            text.append("servlet_request_duration_seconds_bucket{servlet=\"").append(metrics.getName())
+                    .append("\",le=\"").append(BUCKET_LABELS[i]).append("\"} ")
+                    .append(histogram.getCountBetweenValues(0, BUCKET_MICROS[i])).append('\n');
+        }
+        text.append("servlet_request_duration_seconds_bucket{servlet=\"").append(metrics.getName())
+                .append("\",le=\"+Inf\"} ").append(histogram.getTotalCount()).append('\n');
+        appendSeconds(text.append("servlet_request_duration_seconds_sum{servlet=\"").append(metrics.getName())
+                .append("\"} "), metrics.getTotalMicros()).append('\n');
+        text.append("servlet_request_duration_seconds_count{servlet=\"").append(metrics.getName()).append("\"} ")
+                .append(histogram.getTotalCount()).append('\n');
+    }
+
+    /**
+     * double을 거치지 않고 마이크로초를 초 단위 소수로 쓴다.
+     */
+    private static StringBuilder appendSeconds(final StringBuilder builder, final long micros) {
+        builder.append(micros / 1_000_000).append('.');
+        final var fraction = micros % 1_000_000;
+        for (long digit = 100_000; digit > 0; digit /= 10) {
+            builder.append((char) ('0' + fraction / digit % 10));
+        }
+        return builder;
+    }
+
+    private int encode() {
+        final var length = text.length();
+        if (bytes.length < length) {
+            bytes = new byte[Math.max(length, bytes.length * 2)];
+        }
+        for (int i = 0; i < length; i++) {
+            bytes[i] = (byte) text.charAt(i);
+        }
+        return length;
+    }
+
+    /**
+     * 레이블 값에 넣을 수 있도록 서블릿 이름을 ASCII 영숫자, 밑줄, 하이픈, 점만 남긴다.
+     */
+    static String sanitize(final String name) {
+        final var builder = new StringBuilder(name.length());
+        for (int i = 0; i < name.length(); i++) {
+            final var c = name.charAt(i);
+            final var allowed = (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9')
+                    || c == '_' || c == '-' || c == '.';
+            builder.append(allowed ? c : '_');
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.metrics;
+
+import jakarta.servlet.annotation.WebServlet;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * MetricsFilter가 모은 값을 Prometheus 텍스트 형식으로 보여준다.
+ */
+@WebServlet(name = "metricsServlet", urlPatterns = "/metrics")
+public class MetricsServlet extends HttpServlet {
+
+    private static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    @Override
+    protected void doGet(final HttpServletRequest request, final HttpServletResponse response) throws IOException {
+        final var registry = MetricsRegistry.from(getServletContext());
+        if (registry == null) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND, "MetricsFilter가 등록되지 않았습니다.");
+            return;
+        }
+        response.setContentType(CONTENT_TYPE);
+        registry.scrape(response.getOutputStream());
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+/**
+ * 서블릿 하나의 요청 수(상태 코드별), 응답 바이트, 지연 시간 분포.
+ * <p>
+ * 요청 스레드는 Recorder에 기록만 한다. Recorder는 쓰는 쪽끼리 락 없이 기록하고,
+ * 읽는 쪽은 {@link #collect()}에서 지금까지 쌓인 구간 히스토그램을 받아 누적 히스토그램에 더한다.
+ */
+class ServletMetrics {
+
+    static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(1);
+
+    private static final int MIN_STATUS = 100;
+    private static final int MAX_STATUS = 599;
+
+    private final String name;
+    private final Recorder recorder = new Recorder(HIGHEST_TRACKABLE_MICROS, 3);
+    private final AtomicReferenceArray<LongAdder> statusCounts = new AtomicReferenceArray<>(MAX_STATUS - MIN_STATUS + 1);
+    private final LongAdder responseBytes = new LongAdder();
+    private final LongAdder totalMicros = new LongAdder();
+
+    // collect()를 부르는 쪽(스크레이프)에서만 접근한다.
+    private final Histogram accumulated = new Histogram(HIGHEST_TRACKABLE_MICROS, 3);
+    private Histogram interval;
+
+    ServletMetrics(final String name) {
+        this.name = name;
+    }
+
+    void record(final int status, final long bytes, final long elapsedNanos) {
+        final var micros = Math.min(TimeUnit.NANOSECONDS.toMicros(elapsedNanos), HIGHEST_TRACKABLE_MICROS);
+        recorder.recordValue(micros);
+        totalMicros.add(micros);
+        statusCount(status).increment();
+        if (bytes > 0) {
+            responseBytes.add(bytes);
+        }
+    }
+
+    private LongAdder statusCount(final int status) {
+        final var index = Math.min(Math.max(status, MIN_STATUS), MAX_STATUS) - MIN_STATUS;
+        final var count = statusCounts.get(index);
+        if (count != null) {
+            return count;
+        }
+        statusCounts.compareAndSet(index, null, new LongAdder());
+        return statusCounts.get(index);
+    }
+
+    /**
+     * 마지막 collect() 이후에 기록된 값을 누적 히스토그램에 더하고 돌려준다. 구간 히스토그램은 다음 호출에 재사용한다.
+     */
+    Histogram collect() {
+        interval = recorder.getIntervalHistogram(interval);
+        accumulated.add(interval);
+        return accumulated;
+    }
+
+    String getName() {
+        return name;
+    }
+
+    int statusSlots() {
+        return statusCounts.length();
+    }
+
+    /**
+     * @return 해당 칸의 상태 코드가 한 번도 나오지 않았으면 -1
+     */
+    long statusCountAt(final int slot) {
+        final var count = statusCounts.get(slot);
+        return count == null ? -1 : count.sum();
+    }
+
+    static int statusAt(final int slot) {
+        return slot + MIN_STATUS;
+    }
+
+    long getResponseBytes() {
+        return responseBytes.sum();
+    }
+
+    long getTotalMicros() {
+        return totalMicros.sum();
+    }
+}
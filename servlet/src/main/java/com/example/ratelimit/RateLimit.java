@@ -0,0 +1,69 @@
+package com.example.ratelimit;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 초당 허용 요청 수와 한 번에 몰아서 받을 수 있는 요청 수(burst). "100/20" 처럼 적는다.
+ */
+public final class RateLimit {
+
+    private final double permitsPerSecond;
+    private final int burst;
+    private final long intervalNanos;
+    private final long toleranceNanos;
+
+    private RateLimit(final double permitsPerSecond, final int burst) {
+        if (permitsPerSecond <= 0 || burst <= 0) {
+            throw new IllegalArgumentException("permitsPerSecond와 burst는 0보다 커야 합니다.");
+        }
+        this.permitsPerSecond = permitsPerSecond;
+        this.burst = burst;
+        this.intervalNanos = Math.max((long) (TimeUnit.SECONDS.toNanos(1) / permitsPerSecond), 1);
+        this.toleranceNanos = intervalNanos * (burst - 1);
+    }
+
+    public static RateLimit of(final double permitsPerSecond, final int burst) {
+        return new RateLimit(permitsPerSecond, burst);
+    }
+
+    /**
+     * "rate/burst" 또는 burst를 생략한 "rate"(burst = rate).
+     */
+    public static RateLimit parse(final String value) {
+        final var trimmed = value.trim();
+        final var slash = trimmed.indexOf('/');
+        if (slash < 0) {
+            final var rate = Double.parseDouble(trimmed);
+            return of(rate, (int) Math.max(Math.ceil(rate), 1));
+        }
+        return of(Double.parseDouble(trimmed.substring(0, slash).trim()),
+                Integer.parseInt(trimmed.substring(slash + 1).trim()));
+    }
+
+    /**
+     * 토큰 하나가 다시 차는 데 걸리는 시간.
+     */
+    long intervalNanos() {
+        return intervalNanos;
+    }
+
+    /**
+     * 버킷이 가득 찬 상태에서 연달아 받을 수 있는 요청(burst - 1)만큼 앞당겨 쓸 수 있는 시간.
+     */
+    long toleranceNanos() {
+        return toleranceNanos;
+    }
+
+    public double getPermitsPerSecond() {
+        return permitsPerSecond;
+    }
+
+    public int getBurst() {
+        return burst;
+    }
+
+    @Override
+    public String toString() {
+        return permitsPerSecond + "/" + burst;
+    }
+}
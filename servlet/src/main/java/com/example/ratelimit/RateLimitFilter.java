@@ -0,0 +1,211 @@
+package com.example.ratelimit;
+
+import com.example.filter.RequestPaths;
+import com.example.trace.RequestTracer;
+import jakarta.servlet.Filter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.FilterConfig;
+import jakarta.servlet.ServletContext;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.annotation.WebFilter;
+import jakarta.servlet.annotation.WebInitParam;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 클라이언트별, (클라이언트, 경로)별 토큰 버킷으로 요청 수를 제한한다. 토큰이 없으면 서블릿까지 가지 않고 429와 Retry-After로 응답한다.
+ * <p>
+ * 설정은 init-param으로 주고, 같은 이름에 "rate-limit."을 붙인 시스템 프로퍼티나 context-param이 있으면 그 값을 쓴다.
+ * <ul>
+ *     <li>client-limit: 클라이언트 하나가 모든 경로에 보낼 수 있는 양. "100/20"은 초당 100개, 한 번에 20개까지.</li>
+ *     <li>path-limits: 클라이언트 하나가 특정 경로에 보낼 수 있는 양. "/shared-counter=10/5, /korean=50".
+ *     경로는 컨테이너가 정규화한 경로({@link RequestPaths})와 맞춰 보므로 /shared-counter;x=y, //shared-counter도 같은 제한을 받는다.</li>
+ *     <li>client-header: 클라이언트를 구분할 헤더. 비어 있으면 remote address를 쓴다.
+ *     이 헤더를 덮어쓰는 프록시 뒤에서만 설정해야 한다. 그렇지 않으면 클라이언트가 헤더를 바꿔 가며 제한을 피한다.
+ *     값이 {@value #MAX_CLIENT_KEY_LENGTH}자보다 길면 SHA-256 값으로 바꿔서 버킷에 넣는다.</li>
+ *     <li>capacity: 버킷을 담는 테이블 크기. 메모리는 이 크기로 고정된다.</li>
+ * </ul>
+ * client-limit과 path-limits가 모두 비어 있으면(기본값) 아무것도 하지 않고 넘긴다. 부하 테스트가 같은 주소에서 요청을 몰아 보내기 때문이다.
+ * <p>
+ * 경로 제한을 먼저 보고 클라이언트 제한을 본다. 어느 쪽에서 거절하든 다른 쪽 토큰은 쓰지 않는다.
+ * <p>
+ * TomcatStarter.programmatic으로 띄우면 WebComponents 순서대로 MetricsFilter 뒤에 놓이므로 거절한 요청도
+ * servlet_requests_total{code="429"}에 잡힌다. addWebapp으로 애너테이션을 스캔해서 올리면 필터 순서를 컨테이너가 정하므로
+ * 이 필터가 MetricsFilter보다 앞에 오면 429는 메트릭에 잡히지 않는다.
+ * 필터 자체의 카운트는 ServletContext의 {@link #ATTRIBUTE_NAME} 속성으로 등록한 이 필터에서 꺼내 볼 수 있다.
+ */
+@WebFilter(urlPatterns = "/*", asyncSupported = true,
+        initParams = @WebInitParam(name = RateLimitFilter.CAPACITY, value = "65536"))
+public class RateLimitFilter implements Filter {
+
+    public static final String ATTRIBUTE_NAME = RateLimitFilter.class.getName();
+    static final String CLIENT_LIMIT = "client-limit";
+    static final String PATH_LIMITS = "path-limits";
+    static final String CLIENT_HEADER = "client-header";
+    static final String CAPACITY = "capacity";
+
+    private static final String SETTING_PREFIX = "rate-limit.";
+    private static final int TOO_MANY_REQUESTS = 429;
+    static final int MAX_CLIENT_KEY_LENGTH = 64;
+
+    private final LongAdder allowed = new LongAdder();
+    private final LongAdder rejectedByClient = new LongAdder();
+    private final LongAdder rejectedByPath = new LongAdder();
+    private RateLimit clientLimit;
+    private Map<String, RateLimit> pathLimits;
+    private String clientHeader;
+    private RateLimiter limiter;
+    private RequestTracer tracer;
+    private ServletContext servletContext;
+
+    @Override
+    public void init(final FilterConfig filterConfig) {
+        final var clientLimitValue = setting(filterConfig, CLIENT_LIMIT);
+        clientLimit = clientLimitValue == null ? null : RateLimit.parse(clientLimitValue);
+        pathLimits = parsePathLimits(setting(filterConfig, PATH_LIMITS));
+        clientHeader = setting(filterConfig, CLIENT_HEADER);
+        final var capacity = setting(filterConfig, CAPACITY);
+        limiter = new RateLimiter(capacity == null ? 65_536 : Integer.parseInt(capacity));
+        tracer = RequestTracer.from(filterConfig.getServletContext());
+        servletContext = filterConfig.getServletContext();
+        servletContext.setAttribute(ATTRIBUTE_NAME, this);
+        servletContext.log("rate limit client=" + clientLimit + ", paths=" + pathLimits
+                + ", capacity=" + limiter.capacity());
+    }
+
+    private static String setting(final FilterConfig filterConfig, final String name) {
+        var value = System.getProperty(SETTING_PREFIX + name,
+                filterConfig.getServletContext().getInitParameter(SETTING_PREFIX + name));
+        if (value == null) {
+            value = filterConfig.getInitParameter(name);
+        }
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+
+    static Map<String, RateLimit> parsePathLimits(final String value) {
+        final Map<String, RateLimit> limits = new HashMap<>();
+        if (value == null) {
+            return limits;
+        }
+        for (final var entry : value.split(",")) {
+            if (entry.isBlank()) {
+                continue;
+            }
+            final var equals = entry.indexOf('=');
+            if (equals < 0) {
+                throw new IllegalArgumentException("path-limits는 경로=제한 형식이어야 합니다: " + entry);
+            }
+            limits.put(entry.substring(0, equals).trim(), RateLimit.parse(entry.substring(equals + 1)));
+        }
+        return limits;
+    }
+
+    @Override
+    public void doFilter(final ServletRequest request, final ServletResponse response, final FilterChain chain)
+            throws IOException, ServletException {
+        if (clientLimit == null && pathLimits.isEmpty()) {
+            chain.doFilter(request, response);
+            return;
+        }
+        final var httpRequest = (HttpServletRequest) request;
+        final var client = client(httpRequest);
+        final var now = System.nanoTime();
+        // 경로 제한에 걸린 요청이 클라이언트 토큰까지 쓰지 않도록 좁은 제한부터 본다.
+        final var path = RequestPaths.pathWithinApplication(httpRequest);
+        final var pathLimit = pathLimits.get(path);
+        if (pathLimit != null) {
+            final var wait = limiter.acquire(client, path, pathLimit, now);
+            if (wait > 0) {
+                rejectedByPath.increment();
+                reject((HttpServletResponse) response, client, wait);
+                return;
+            }
+        }
+        if (clientLimit != null) {
+            final var wait = limiter.acquire(client, null, clientLimit, now);
+            if (wait > 0) {
+                if (pathLimit != null) {
+                    limiter.release(client, path, pathLimit);
+                }
+                rejectedByClient.increment();
+                reject((HttpServletResponse) response, client, wait);
+                return;
+            }
+        }
+        allowed.increment();
+        chain.doFilter(request, response);
+    }
+
+    private String client(final HttpServletRequest request) {
+        if (clientHeader != null) {
+            final var value = request.getHeader(clientHeader);
+            if (value != null) {
+                return clientKey(value);
+            }
+        }
+        return request.getRemoteAddr();
+    }
+
+    /**
+     * 헤더 값은 길이 제한 없이 클라이언트가 정한다. 그대로 버킷에 넣으면 버킷 테이블이 헤더 크기만큼 메모리를 잡으므로
+     * 긴 값은 고정 길이 해시로 바꾼다. String.hashCode()와 달리 일부러 다른 클라이언트와 같은 키를 만들 수 없다.
+     */
+    static String clientKey(final String value) {
+        if (value.length() <= MAX_CLIENT_KEY_LENGTH) {
+            return value;
+        }
+        try {
+            final var digest = MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+            return "sha256:" + Base64.getEncoder().withoutPadding().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256은 모든 JVM이 지원해야 합니다.", e);
+        }
+    }
+
+    private void reject(final HttpServletResponse response, final String client, final long waitNanos) {
+        tracer.trace("요청 제한", client);
+        response.setStatus(TOO_MANY_REQUESTS);
+        response.setIntHeader("Retry-After", retryAfterSeconds(waitNanos));
+        response.setContentLength(0);
+    }
+
+    static int retryAfterSeconds(final long waitNanos) {
+        final var second = TimeUnit.SECONDS.toNanos(1);
+        return (int) Math.max((waitNanos + second - 1) / second, 1);
+    }
+
+    public long getAllowedCount() {
+        return allowed.sum();
+    }
+
+    public long getRejectedByClientCount() {
+        return rejectedByClient.sum();
+    }
+
+    public long getRejectedByPathCount() {
+        return rejectedByPath.sum();
+    }
+
+    public long getEvictedCount() {
+        return limiter.getEvictedCount();
+    }
+
+    @Override
+    public void destroy() {
+        servletContext.log("destroy() 호출. allowed=" + getAllowedCount()
+                + ", rejectedByClient=" + getRejectedByClientCount()
+                + ", rejectedByPath=" + getRejectedByPathCount()
+                + ", evicted=" + getEvictedCount());
+    }
+}
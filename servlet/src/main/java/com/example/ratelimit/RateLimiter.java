@@ -0,0 +1,163 @@
+package com.example.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * (클라이언트, 경로)별 토큰 버킷을 크기가 고정된 테이블에 담아 둔다.
+ * <p>
+ * 버킷은 토큰 수와 마지막 충전 시각 대신 "다음 토큰이 생기는 이론적 시각(TAT)" 하나만 가진다(GCRA).
+ * 토큰 버킷과 같은 결과를 내면서 상태가 long 하나라서 락 없이 CAS 한 번으로 토큰을 꺼낼 수 있다.
+ * <p>
+ * 테이블은 해시로 고른 칸부터 {@link #WAYS}칸만 살펴본다. 빈 칸이 없으면 TAT가 지난 버킷(가득 차 있어 새로 만든 것과 같은 버킷)을
+ * 덮어쓰고, 그것도 없으면 가장 먼저 가득 찰 버킷을 덮어쓴다. 두 경우 모두 TAT가 가장 이른 버킷을 고르면 된다. 그래서 클라이언트가 수백만이어도 메모리는 capacity만큼만 쓰고,
+ * 만료된 버킷을 치우는 별도 스레드도 필요 없다. 아직 가득 차지 않은 버킷을 덮어쓴 횟수는 {@link #getEvictedCount()}로 센다.
+ * 이 값이 계속 늘면 그 클라이언트들은 제한보다 조금 더 받고 있으므로 capacity를 늘린다.
+ * <p>
+ * 처음 보는 키를 두 스레드가 동시에 넣으면 버킷이 두 개 생길 수 있다. 그 순간의 요청 몇 개를 더 허용하는 정도라 따로 막지 않는다.
+ */
+public class RateLimiter {
+
+    static final int WAYS = 8;
+
+    private final AtomicReferenceArray<Bucket> buckets;
+    private final int mask;
+    private final LongAdder evicted = new LongAdder();
+
+    public RateLimiter(final int capacity) {
+        if (capacity < WAYS) {
+            throw new IllegalArgumentException("capacity는 " + WAYS + " 이상이어야 합니다.");
+        }
+        final var size = Integer.highestOneBit(capacity - 1) << 1;
+        this.buckets = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+    }
+
+    /**
+     * 토큰 하나를 꺼낸다.
+     *
+     * @param path 클라이언트 전체에 대한 제한이면 null
+     * @return 허용하면 0, 거절하면 토큰이 생길 때까지 기다려야 하는 나노초
+     */
+    public long acquire(final String client, final String path, final RateLimit limit, final long nowNanos) {
+        return bucket(client, path, nowNanos).acquire(limit, nowNanos);
+    }
+
+    /**
+     * {@link #acquire}로 꺼낸 토큰 하나를 돌려준다. 다른 제한에 걸려 요청을 거절할 때 부른다.
+     * 그 사이 버킷이 다른 키에 밀려났으면 돌려줄 곳이 없으므로 아무것도 하지 않는다.
+     */
+    public void release(final String client, final String path, final RateLimit limit) {
+        final var bucket = find(client, path);
+        if (bucket != null) {
+            bucket.release(limit);
+        }
+    }
+
+    private Bucket find(final String client, final String path) {
+        final var start = start(client, path);
+        for (int way = 0; way < WAYS; way++) {
+            final var bucket = buckets.get((start + way) & mask);
+            if (bucket == null) {
+                return null;
+            }
+            if (bucket.matches(client, path)) {
+                return bucket;
+            }
+        }
+        return null;
+    }
+
+    private Bucket bucket(final String client, final String path, final long nowNanos) {
+        final var start = start(client, path);
+        for (int attempt = 0; attempt < WAYS; attempt++) {
+            var victim = -1;
+            Bucket victimBucket = null;
+            for (int way = 0; way < WAYS; way++) {
+                final var index = (start + way) & mask;
+                final var bucket = buckets.get(index);
+                if (bucket == null) {
+                    // 칸은 비워지지 않으므로 빈 칸 뒤에는 같은 키가 있을 수 없다.
+                    victim = index;
+                    victimBucket = null;
+                    break;
+                }
+                if (bucket.matches(client, path)) {
+                    return bucket;
+                }
+                if (victim < 0 || bucket.tat() - victimBucket.tat() < 0) {
+                    victim = index;
+                    victimBucket = bucket;
+                }
+            }
+            final var created = new Bucket(client, path, nowNanos);
+            if (buckets.compareAndSet(victim, victimBucket, created)) {
+                if (victimBucket != null && victimBucket.tat() - nowNanos > 0) {
+                    evicted.increment();
+                }
+                return created;
+            }
+        }
+        // 다른 스레드와 계속 부딪히면 테이블에 넣지 않은 버킷으로 이번 요청만 처리한다.
+        return new Bucket(client, path, nowNanos);
+    }
+
+    private int start(final String client, final String path) {
+        return spread(client.hashCode() * 31 + (path == null ? 0 : path.hashCode())) & mask;
+    }
+
+    private static int spread(final int hash) {
+        return (hash ^ (hash >>> 16)) * 0x45d9f3b;
+    }
+
+    public int capacity() {
+        return buckets.length();
+    }
+
+    public long getEvictedCount() {
+        return evicted.sum();
+    }
+
+    private static final class Bucket {
+
+        private final String client;
+        private final String path;
+        private final AtomicLong tat;
+
+        private Bucket(final String client, final String path, final long nowNanos) {
+            this.client = client;
+            this.path = path;
+            this.tat = new AtomicLong(nowNanos);
+        }
+
+        boolean matches(final String client, final String path) {
+            return this.client.equals(client) && (this.path == null ? path == null : this.path.equals(path));
+        }
+
+        long tat() {
+            return tat.get();
+        }
+
+        long acquire(final RateLimit limit, final long nowNanos) {
+            while (true) {
+                final var current = tat.get();
+                final var from = current - nowNanos > 0 ? current : nowNanos;
+                final var wait = from - nowNanos - limit.toleranceNanos();
+                if (wait > 0) {
+                    return wait;
+                }
+                if (tat.compareAndSet(current, from + limit.intervalNanos())) {
+                    return 0;
+                }
+            }
+        }
+
+        /**
+         * TAT를 간격 하나만큼 되돌린다. 현재 시각보다 이전으로 가도 acquire가 현재 시각부터 세므로 버킷이 넘치지 않는다.
+         */
+        void release(final RateLimit limit) {
+            tat.addAndGet(-limit.intervalNanos());
+        }
+    }
+}
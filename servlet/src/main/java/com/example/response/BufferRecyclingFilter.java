@@ -0,0 +1,103 @@
+package com.example.response;
+
+import jakarta.servlet.Filter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.FilterConfig;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.annotation.WebFilter;
+import jakarta.servlet.annotation.WebInitParam;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import org.apache.catalina.connector.CoyoteOutputStream;
+
+/**
+ * 서블릿이 응답 본문을 만들 때 쓰는 direct ByteBuffer를 {@link DirectBufferPool}에서 빌려주고, 요청이 끝나면 돌려받는다.
+ * <p>
+ * 응답을 감싸지 않는다. 감싸면 StaticResponse처럼 톰캣의 CoyoteOutputStream에 ByteBuffer를 바로 넘기는 서블릿이
+ * byte[]로 쓰는 길로 빠지고, 요청마다 래퍼와 스트림 객체가 생기고, 모은 바이트를 톰캣 버퍼로 한 번 더 복사한다.
+ * 대신 버퍼가 필요한 서블릿이 {@link #borrow(ServletRequest)}로 빌려서 채우고 {@link #write(ByteBuffer, ServletResponse)}로
+ * 내보낸다. 빌리지 않은 요청에서는 하는 일이 없다.
+ * <pre>
+ * final var buffer = BufferRecyclingFilter.borrow(request);
+ * buffer.put(...);
+ * BufferRecyclingFilter.write(buffer, response);
+ * </pre>
+ * 버퍼 크기와 풀 크기는 buffer-size, max-pooled init-param으로 정한다.
+ * 풀 적중률은 ServletContext의 {@link #ATTRIBUTE_NAME} 속성으로 등록한 풀에서 볼 수 있다.
+ */
+@WebFilter(urlPatterns = "/*", asyncSupported = true, initParams = {
+        @WebInitParam(name = BufferRecyclingFilter.BUFFER_SIZE, value = "8192"),
+        @WebInitParam(name = BufferRecyclingFilter.MAX_POOLED, value = "256")
+})
+public class BufferRecyclingFilter implements Filter {
+
+    public static final String ATTRIBUTE_NAME = DirectBufferPool.class.getName();
+    static final String BUFFER_SIZE = "buffer-size";
+    static final String MAX_POOLED = "max-pooled";
+    private static final String BORROWED = BufferRecyclingFilter.class.getName() + ".borrowed";
+    private static final int FALLBACK_BUFFER_SIZE = 8192;
+
+    private DirectBufferPool pool;
+
+    @Override
+    public void init(final FilterConfig filterConfig) {
+        pool = new DirectBufferPool(Integer.parseInt(filterConfig.getInitParameter(BUFFER_SIZE)),
+                Integer.parseInt(filterConfig.getInitParameter(MAX_POOLED)));
+        filterConfig.getServletContext().setAttribute(ATTRIBUTE_NAME, pool);
+    }
+
+    @Override
+    public void doFilter(final ServletRequest request, final ServletResponse response, final FilterChain chain)
+            throws IOException, ServletException {
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            final var borrowed = request.getAttribute(BORROWED);
+            if (borrowed != null) {
+                request.removeAttribute(BORROWED);
+                pool.release((ByteBuffer) borrowed);
+            }
+        }
+    }
+
+    /**
+     * 요청이 끝날 때까지 쓸 버퍼를 빌린다. 돌려주는 것은 필터가 하므로 서블릿은 버퍼를 들고 있지 않기만 하면 된다.
+     * 같은 요청에서 다시 부르면 같은 버퍼를 비워서 돌려준다.
+     * <p>
+     * 필터가 없거나, 체인이 끝난 뒤에도 응답을 쓸 수 있는 비동기 요청이면 풀을 거치지 않고 heap 버퍼를 만든다.
+     */
+    public static ByteBuffer borrow(final ServletRequest request) {
+        final var borrowed = (ByteBuffer) request.getAttribute(BORROWED);
+        if (borrowed != null) {
+            return borrowed.clear();
+        }
+        final var pool = (DirectBufferPool) request.getServletContext().getAttribute(ATTRIBUTE_NAME);
+        if (pool == null || request.isAsyncSupported()) {
+            return ByteBuffer.allocate(pool == null ? FALLBACK_BUFFER_SIZE : pool.getBufferSize());
+        }
+        final var buffer = pool.acquire();
+        request.setAttribute(BORROWED, buffer);
+        return buffer;
+    }
+
+    /**
+     * 버퍼에 채운 바이트(처음부터 position까지)를 내보내고 버퍼를 비운다.
+     * 톰캣의 출력 스트림이면 ByteBuffer를 그대로 넘기고, 다른 필터가 응답을 감쌌으면 byte[]로 복사해서 쓴다.
+     */
+    public static void write(final ByteBuffer buffer, final ServletResponse response) throws IOException {
+        buffer.flip();
+        final var outputStream = response.getOutputStream();
+        if (outputStream instanceof CoyoteOutputStream) {
+            ((CoyoteOutputStream) outputStream).write(buffer);
+        } else if (buffer.hasArray()) {
+            outputStream.write(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+        } else {
+            final var bytes = new byte[buffer.remaining()];
+            buffer.get(bytes);
+            outputStream.write(bytes);
+        }
+        buffer.clear();
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.response;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 같은 크기의 direct ByteBuffer를 돌려 쓰는 풀.
+ * <p>
+ * direct 버퍼는 만들고 해제하는 비용이 크고 GC가 바로 거둬 가지도 않으므로 요청마다 만들면 안 된다.
+ * 스레드마다 하나씩 먼저 꺼내 쓰고, 모자라면 공유 큐에서 꺼낸다. 큐가 가득 차면 돌려받은 버퍼는 버린다.
+ * 큐는 고정 크기 배열이라 빌리고 돌려줄 때 객체를 만들지 않는다.
+ */
+public class DirectBufferPool {
+
+    private final int bufferSize;
+    private final ArrayBlockingQueue<ByteBuffer> shared;
+    private final ThreadLocal<ByteBuffer[]> local = ThreadLocal.withInitial(() -> new ByteBuffer[1]);
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public DirectBufferPool(final int bufferSize, final int maxPooled) {
+        if (bufferSize <= 0 || maxPooled <= 0) {
+            throw new IllegalArgumentException("bufferSize, maxPooled는 0보다 커야 합니다.");
+        }
+        this.bufferSize = bufferSize;
+        this.shared = new ArrayBlockingQueue<>(maxPooled);
+    }
+
+    public ByteBuffer acquire() {
+        final var slot = local.get();
+        var buffer = slot[0];
+        if (buffer != null) {
+            slot[0] = null;
+        } else {
+            buffer = shared.poll();
+        }
+        if (buffer == null) {
+            misses.increment();
+            return ByteBuffer.allocateDirect(bufferSize);
+        }
+        hits.increment();
+        return buffer.clear();
+    }
+
+    public void release(final ByteBuffer buffer) {
+        if (buffer.capacity() != bufferSize || !buffer.isDirect()) {
+            throw new IllegalArgumentException("이 풀에서 빌린 버퍼가 아닙니다.");
+        }
+        final var slot = local.get();
+        if (slot[0] == null) {
+            slot[0] = buffer;
+            return;
+        }
+        shared.offer(buffer);
+    }
+
+    public int getBufferSize() {
+        return bufferSize;
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.response;
+
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import org.apache.catalina.connector.CoyoteOutputStream;
+
+/**
+ * 매번 같은 내용을 내보내는 응답 본문을 미리 인코딩해 둔다.
+ * <p>
+ * getWriter()로 문자열을 쓰면 요청마다 CharsetEncoder가 char를 byte로 바꾸고, 응답 버퍼에 한 번 더 복사한다.
+ * 내용이 바뀌지 않는다면 인코딩은 처음 한 번이면 충분하다.
+ * StaticResponse는 만들 때 본문을 direct ByteBuffer로 인코딩해 두고, 요청마다 Content-Type, Content-Length와 함께
+ * getOutputStream()으로 그대로 내보낸다. Content-Length를 미리 알려주므로 chunked 인코딩도 필요 없다.
+ * <p>
+ * 인스턴스는 불변이라 서블릿의 인스턴스 변수나 상수로 두고 여러 스레드에서 같이 써도 된다.
+ */
+public final class StaticResponse {
+
+    private final String contentType;
+    private final ByteBuffer body;
+    private final byte[] bytes;
+
+    private StaticResponse(final String contentType, final byte[] bytes) {
+        this.contentType = contentType;
+        this.bytes = bytes;
+        final var buffer = ByteBuffer.allocateDirect(bytes.length).put(bytes);
+        buffer.flip();
+        this.body = buffer.asReadOnlyBuffer();
+    }
+
+    /**
+     * @param mimeType text/plain 처럼 charset을 뺀 값. charset은 Content-Type에 붙여서 내보낸다.
+     */
+    public static StaticResponse of(final String mimeType, final Charset charset, final String body) {
+        return new StaticResponse(mimeType + ";charset=" + charset.name(), body.getBytes(charset));
+    }
+
+    public void writeTo(final HttpServletResponse response) throws IOException {
+        response.setContentType(contentType);
+        response.setContentLength(bytes.length);
+        write(response.getOutputStream());
+    }
+
+    /**
+     * 톰캣의 출력 스트림이면 ByteBuffer를 그대로 넘긴다. 필터가 응답을 감쌌으면 byte[]로 쓴다.
+     * 어느 쪽이든 요청마다 새로 인코딩하거나 새 배열을 만들지 않는다.
+     */
+    void write(final ServletOutputStream outputStream) throws IOException {
+        if (outputStream instanceof CoyoteOutputStream) {
+            // duplicate()는 position, limit만 따로 가진다. 여러 스레드가 같은 body를 동시에 써도 서로 건드리지 않는다.
+            ((CoyoteOutputStream) outputStream).write(body.duplicate());
+            return;
+        }
+        outputStream.write(bytes);
+    }
+
+    /**
+     * 본문 바이트. 호출할 때마다 position, limit을 따로 가진 읽기 전용 사본을 돌려주므로 마음대로 읽어도 된다.
+     */
+    public ByteBuffer body() {
+        return body.duplicate();
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public int getContentLength() {
+        return bytes.length;
+    }
+}
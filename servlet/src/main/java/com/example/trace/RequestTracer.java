@@ -0,0 +1,101 @@
+package com.example.trace;
+
+import jakarta.servlet.ServletContext;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * 요청마다 호출되는 곳(doFilter, service)에서 쓰는 가벼운 추적 기록기.
+ * <p>
+ * ServletContext.log()는 컨테이너 로거를 동기적으로 호출하고 내부에서 락을 잡는다. 요청마다 부르면 그만큼 요청 스레드가 느려진다.
+ * RequestTracer는 표본으로 뽑힌 요청만 링 버퍼에 기록하고 바로 돌아온다.
+ * 버퍼에 쌓인 이벤트는 별도 스레드가 주기적으로 꺼내서 logback으로 보낸다.
+ * <p>
+ * init(), destroy() 같은 생명주기 로그는 한 번씩만 호출되므로 그대로 ServletContext.log()를 쓴다.
+ */
+public class RequestTracer {
+
+    public static final String ATTRIBUTE_NAME = RequestTracer.class.getName();
+
+    private static final Logger log = LoggerFactory.getLogger(RequestTracer.class);
+    private static final RequestTracer NOOP = new RequestTracer(null, 0);
+
+    private final TraceRingBuffer buffer;
+    private final int sampleRate;
+    private ScheduledExecutorService drainer;
+
+    RequestTracer(final TraceRingBuffer buffer, final int sampleRate) {
+        this.buffer = buffer;
+        this.sampleRate = sampleRate;
+    }
+
+    /**
+     * @param sampleRate N이면 평균 N번에 한 번 기록한다. 1이면 모두 기록한다.
+     */
+    public static RequestTracer create(final int bufferSize, final int sampleRate) {
+        if (sampleRate <= 0) {
+            throw new IllegalArgumentException("sampleRate는 0보다 커야 합니다. sampleRate=" + sampleRate);
+        }
+        return new RequestTracer(new TraceRingBuffer(bufferSize), sampleRate);
+    }
+
+    /**
+     * TraceListener가 등록한 tracer를 꺼낸다. 등록되지 않았으면 아무것도 기록하지 않는 tracer를 돌려준다.
+     */
+    public static RequestTracer from(final ServletContext servletContext) {
+        final var tracer = servletContext.getAttribute(ATTRIBUTE_NAME);
+        if (tracer instanceof RequestTracer) {
+            return (RequestTracer) tracer;
+        }
+        return NOOP;
+    }
+
+    public void trace(final String event, final String detail) {
+        if (buffer == null) {
+            return;
+        }
+        if (sampleRate > 1 && ThreadLocalRandom.current().nextInt(sampleRate) != 0) {
+            return;
+        }
+        buffer.record(event, detail);
+    }
+
+    public synchronized void startDraining(final long intervalMillis) {
+        if (buffer == null || drainer != null) {
+            return;
+        }
+        drainer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            final var thread = new Thread(runnable, "request-trace-drainer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        drainer.scheduleWithFixedDelay(this::drain, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public synchronized void stop() {
+        if (drainer == null) {
+            return;
+        }
+        drainer.shutdown();
+        try {
+            drainer.awaitTermination(1, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        drainer = null;
+        drain();
+        log.info("request tracer stopped. recorded={}, dropped={}", buffer.getRecorded(), buffer.getDropped());
+    }
+
+    synchronized int drain() {
+        if (buffer == null || !log.isInfoEnabled()) {
+            return 0;
+        }
+        return buffer.drain((event, detail, timestampMillis, threadId) ->
+                log.info("{} {} thread={} at={}", event, detail, threadId, timestampMillis));
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.trace;
+
+import jakarta.servlet.ServletContext;
+import jakarta.servlet.ServletContextEvent;
+import jakarta.servlet.ServletContextListener;
+import jakarta.servlet.annotation.WebListener;
+
+/**
+ * 컨텍스트가 뜰 때 RequestTracer를 만들어 ServletContext에 넣고, 내려갈 때 남은 이벤트를 모두 내보낸다.
+ * 설정은 같은 이름의 시스템 프로퍼티나 context-param으로 바꿀 수 있다.
+ */
+@WebListener
+public class TraceListener implements ServletContextListener {
+
+    static final String BUFFER_SIZE = "trace.buffer-size";
+    static final String SAMPLE_RATE = "trace.sample-rate";
+    static final String DRAIN_INTERVAL_MILLIS = "trace.drain-interval-millis";
+
+    private static final int DEFAULT_BUFFER_SIZE = 4_096;
+    private static final int DEFAULT_SAMPLE_RATE = 1;
+    private static final long DEFAULT_DRAIN_INTERVAL_MILLIS = 200;
+
+    @Override
+    public void contextInitialized(final ServletContextEvent event) {
+        final var servletContext = event.getServletContext();
+        final var tracer = RequestTracer.create(
+                (int) setting(servletContext, BUFFER_SIZE, DEFAULT_BUFFER_SIZE),
+                (int) setting(servletContext, SAMPLE_RATE, DEFAULT_SAMPLE_RATE));
+        tracer.startDraining(setting(servletContext, DRAIN_INTERVAL_MILLIS, DEFAULT_DRAIN_INTERVAL_MILLIS));
+        servletContext.setAttribute(RequestTracer.ATTRIBUTE_NAME, tracer);
+    }
+
+    @Override
+    public void contextDestroyed(final ServletContextEvent event) {
+        RequestTracer.from(event.getServletContext()).stop();
+    }
+
+    private static long setting(final ServletContext servletContext, final String name,
+                                final long defaultValue) {
+        final var value = System.getProperty(name, servletContext.getInitParameter(name));
+        return value == null ? defaultValue : Long.parseLong(value.trim());
+    }
+}
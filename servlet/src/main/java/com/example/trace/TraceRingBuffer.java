@@ -0,0 +1,105 @@
+package com.example.trace;
+
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 락 없이 여러 스레드가 동시에 이벤트를 기록하는 고정 크기 링 버퍼.
+ * <p>
+ * 기록하는 쪽은 순번을 하나 받아(getAndIncrement) 그 칸에 값을 쓰고, 마지막에 "이 칸에는 몇 번째 이벤트가 있다"를 발행한다.
+ * 읽는 쪽은 발행된 순번을 확인하고 값을 읽은 뒤 순번을 한 번 더 확인해서, 읽는 사이에 덮어써졌으면 버린다.
+ * 읽는 쪽이 늦어서 한 바퀴 이상 밀리면 오래된 이벤트는 덮어써지고 dropped로 센다. 기록하는 쪽은 절대 기다리지 않는다.
+ */
+public class TraceRingBuffer {
+
+    private final int mask;
+    private final String[] events;
+    private final String[] details;
+    private final long[] timestamps;
+    private final long[] threadIds;
+    private final AtomicLongArray published;
+    private final AtomicLong cursor = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+
+    // drain()은 한 스레드에서만 호출한다.
+    private long nextToRead;
+
+    public TraceRingBuffer(final int capacity) {
+        if (capacity <= 0 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("capacity는 2의 거듭제곱이어야 합니다. capacity=" + capacity);
+        }
+        this.mask = capacity - 1;
+        this.events = new String[capacity];
+        this.details = new String[capacity];
+        this.timestamps = new long[capacity];
+        this.threadIds = new long[capacity];
+        this.published = new AtomicLongArray(capacity);
+    }
+
+    public void record(final String event, final String detail) {
+        final var sequence = cursor.getAndIncrement();
+        final var index = (int) (sequence & mask);
+        // 쓰는 중임을 먼저 알린다. 읽는 쪽은 순번이 맞지 않으면 이 칸을 건너뛴다.
+        published.set(index, -1);
+        VarHandle.releaseFence();
+        events[index] = event;
+        details[index] = detail;
+        timestamps[index] = System.currentTimeMillis();
+        threadIds[index] = Thread.currentThread().getId();
+        published.lazySet(index, sequence + 1);
+    }
+
+    /**
+     * 마지막으로 읽은 뒤에 기록된 이벤트를 순서대로 넘긴다. 읽은 이벤트 수를 돌려준다.
+     */
+    public int drain(final TraceEventConsumer consumer) {
+        final var end = cursor.get();
+        if (end - nextToRead > events.length) {
+            dropped.addAndGet(end - nextToRead - events.length);
+            nextToRead = end - events.length;
+        }
+
+        int drained = 0;
+        for (; nextToRead < end; nextToRead++) {
+            final var index = (int) (nextToRead & mask);
+            final var expected = nextToRead + 1;
+            final var sequence = published.get(index);
+            if (sequence > expected) {
+                // 읽기 전에 다음 바퀴의 이벤트로 덮어써졌다.
+                dropped.incrementAndGet();
+                continue;
+            }
+            if (sequence != expected) {
+                // 아직 쓰는 중이다. 다음 drain에서 다시 본다.
+                break;
+            }
+            final var event = events[index];
+            final var detail = details[index];
+            final var timestamp = timestamps[index];
+            final var threadId = threadIds[index];
+            VarHandle.acquireFence();
+            if (published.get(index) != expected) {
+                dropped.incrementAndGet();
+                continue;
+            }
+            consumer.accept(event, detail, timestamp, threadId);
+            drained++;
+        }
+        return drained;
+    }
+
+    public long getRecorded() {
+        return cursor.get();
+    }
+
+    public long getDropped() {
+        return dropped.get();
+    }
+
+    @FunctionalInterface
+    public interface TraceEventConsumer {
+
+        void accept(String event, String detail, long timestampMillis, long threadId);
+    }
+}
@@ -0,0 +1,88 @@
+package com.example;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import jakarta.servlet.annotation.WebServlet;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.List;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+/**
+ * 필터가 보는 경로와 실제로 실행되는 서블릿이 같은지, 텍스트 응답에만 UTF-8을 넣는지 톰캣으로 확인한다.
+ * bypass-patterns에는 /static/* 이 들어 있다.
+ */
+class CharacterEncodingFilterTest {
+
+    private static TomcatStarter tomcatStarter;
+
+    @BeforeAll
+    static void setUp() throws Exception {
+        tomcatStarter = TomcatStarter.programmatic(ConnectorConfig.builder()
+                        .port(0)
+                        .build(),
+                List.of(TextServlet.class, BinaryServlet.class));
+        tomcatStarter.start();
+    }
+
+    @AfterAll
+    static void tearDown() throws Exception {
+        tomcatStarter.stop();
+    }
+
+    @Test
+    void textResponseIsEncodedInUtf8() throws Exception {
+        final var response = TestHttpUtils.send(tomcatStarter.getPort(), "/encoding-text");
+
+        assertThat(response.headers().firstValue("Content-Type")).hasValue("text/plain;charset=UTF-8");
+        assertThat(response.body()).isEqualTo(KoreanServlet.인코딩);
+    }
+
+    /**
+     * 요청 URI 그대로 맞춰 보면 /static/* 에 걸려 필터를 건너뛰지만, 톰캣은 정규화한 뒤 /encoding-text 서블릿을 실행한다.
+     */
+    @Test
+    void bypassIsDecidedOnNormalizedPath() throws Exception {
+        for (final var path : List.of("/static/../encoding-text", "/encoding-text;jsessionid=abc",
+                "//encoding-text", "/./encoding-text")) {
+            final var response = TestHttpUtils.send(tomcatStarter.getPort(), path);
+
+            assertThat(response.statusCode()).as(path).isEqualTo(200);
+            assertThat(response.headers().firstValue("Content-Type")).as(path).hasValue("text/plain;charset=UTF-8");
+            assertThat(response.body()).as(path).isEqualTo(KoreanServlet.인코딩);
+        }
+    }
+
+    @Test
+    void binaryResponseHasNoCharset() throws Exception {
+        final var response = TestHttpUtils.send(tomcatStarter.getPort(), "/encoding-binary");
+
+        assertThat(response.headers().firstValue("Content-Type")).hasValue("image/png");
+    }
+
+    @WebServlet(name = "encodingTextServlet", urlPatterns = "/encoding-text")
+    public static class TextServlet extends HttpServlet {
+
+        @Override
+        protected void service(final HttpServletRequest request, final HttpServletResponse response)
+                throws IOException {
+            response.setContentType("text/plain");
+            response.getWriter().write(KoreanServlet.인코딩);
+        }
+    }
+
+    @WebServlet(name = "encodingBinaryServlet", urlPatterns = "/encoding-binary")
+    public static class BinaryServlet extends HttpServlet {
+
+        @Override
+        protected void service(final HttpServletRequest request, final HttpServletResponse response)
+                throws IOException {
+            response.setContentType("image/png");
+            response.getOutputStream().write(new byte[]{(byte) 0x89, 'P', 'N', 'G'});
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.example;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.example.ConnectorConfig.Protocol;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.TestFactory;
+import org.junit.jupiter.api.parallel.Isolated;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * 커넥터 설정 조합마다 톰캣을 띄우고 같은 부하를 걸어 처리량과 지연 시간을 비교한다.
+ * <pre>
+ * ./gradlew :servlet:benchmark --tests "*ConnectorBenchmarkTest" -Dbenchmark.connector.clients=128
+ * </pre>
+ * 프로토콜(NIO, NIO2) x 스레드(작은 풀, 기본 풀, 가상 스레드) x keep-alive(켬, 끔) 조합을 돈다.
+ * 가상 스레드 조합은 JDK 21 이상에서만 실행한다.
+ */
+@Tag("benchmark")
+@Isolated
+class ConnectorBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(ConnectorBenchmarkTest.class);
+
+    private static final int CLIENTS = Integer.getInteger("benchmark.connector.clients", 64);
+    private static final int REQUESTS_PER_CLIENT = Integer.getInteger("benchmark.connector.requests", 200);
+    private static final String PATH = System.getProperty("benchmark.connector.path", "/korean");
+
+    @TestFactory
+    Stream<DynamicTest> connectorMatrix() {
+        final List<ConnectorConfig> configs = new ArrayList<>();
+        for (final var protocol : Protocol.values()) {
+            for (final var keepAlive : new boolean[]{true, false}) {
+                final var maxKeepAliveRequests = keepAlive ? 100 : 1;
+                configs.add(config(protocol, maxKeepAliveRequests).maxThreads(16).build());
+                configs.add(config(protocol, maxKeepAliveRequests).maxThreads(200).build());
+                configs.add(config(protocol, maxKeepAliveRequests).virtualThreads(true).build());
+            }
+        }
+        return configs.stream().map(config -> DynamicTest.dynamicTest(config.toString(), () -> run(config)));
+    }
+
+    private static ConnectorConfig.Builder config(final Protocol protocol, final int maxKeepAliveRequests) {
+        return ConnectorConfig.builder()
+                .protocol(protocol)
+                .port(0)
+                .keepAliveTimeout(Duration.ofSeconds(5))
+                .maxKeepAliveRequests(maxKeepAliveRequests);
+    }
+
+    private void run(final ConnectorConfig config) throws Exception {
+        Assumptions.assumeTrue(!config.isVirtualThreads() || ConnectorConfig.isVirtualThreadSupported(),
+                "가상 스레드는 JDK 21 이상에서만 실행한다.");
+        final var tomcatStarter = TestHttpUtils.createTomcatStarter(config);
+        tomcatStarter.start();
+        try {
+            // 워밍업
+            for (int i = 0; i < 100; i++) {
+                TestHttpUtils.send(tomcatStarter.getPort(), PATH);
+            }
+            load(config, tomcatStarter.getPort());
+        } finally {
+            tomcatStarter.stop();
+        }
+    }
+
+    private void load(final ConnectorConfig config, final int port) throws InterruptedException {
+        final var failures = new AtomicInteger();
+        final var latencies = new long[CLIENTS * REQUESTS_PER_CLIENT];
+        final var executor = Executors.newFixedThreadPool(CLIENTS);
+        final var start = System.nanoTime();
+        for (int client = 0; client < CLIENTS; client++) {
+            final var offset = client * REQUESTS_PER_CLIENT;
+            executor.submit(() -> {
+                for (int i = 0; i < REQUESTS_PER_CLIENT; i++) {
+                    final var requestStart = System.nanoTime();
+                    try {
+                        if (TestHttpUtils.send(port, PATH).statusCode() != 200) {
+                            failures.incrementAndGet();
+                        }
+                    } catch (Exception e) {
+                        failures.incrementAndGet();
+                    }
+                    latencies[offset + i] = System.nanoTime() - requestStart;
+                }
+            });
+        }
+        executor.shutdown();
+        assertThat(executor.awaitTermination(5, TimeUnit.MINUTES)).isTrue();
+        final var elapsedMillis = Math.max(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), 1);
+
+        Arrays.sort(latencies);
+        log.info("{} | throughput={}/s p50={}us p99={}us max={}us failures={}", config,
+                latencies.length * 1000L / elapsedMillis,
+                TimeUnit.NANOSECONDS.toMicros(latencies[latencies.length / 2]),
+                TimeUnit.NANOSECONDS.toMicros(latencies[(int) (latencies.length * 0.99)]),
+                TimeUnit.NANOSECONDS.toMicros(latencies[latencies.length - 1]),
+                failures.get());
+        assertThat(failures.get()).isZero();
+    }
+}
@@ -0,0 +1,81 @@
+package com.example;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.Isolated;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * 동시에 1000개 요청을 띄워 둔 상태에서 h2c 멀티플렉싱과 HTTP/1.1 keep-alive를 비교한다.
+ * <pre>
+ * ./gradlew :servlet:benchmark --tests "*Http2BenchmarkTest" -Dbenchmark.http2.streams=1000
+ * </pre>
+ * HTTP/1.1은 요청 하나가 연결 하나를 차지하므로 동시 요청 수만큼 연결을 연다.
+ * 클라이언트와 서버가 한 JVM에 있으므로 파일 디스크립터 제한(ulimit -n)이 동시 요청 수의 두 배보다 커야 한다.
+ * h2c는 연결 하나에 스트림을 동시에 싣는다.
+ */
+@Tag("benchmark")
+@Isolated
+class Http2BenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(Http2BenchmarkTest.class);
+
+    private static final int STREAMS = Integer.getInteger("benchmark.http2.streams", 1000);
+    private static final int ROUNDS = Integer.getInteger("benchmark.http2.rounds", 20);
+    private static final String PATH = System.getProperty("benchmark.http2.path", "/korean");
+
+    @Test
+    void h2cVersusHttp11KeepAlive() throws Exception {
+        final var tomcatStarter = TestHttpUtils.createTomcatStarter(ConnectorConfig.builder()
+                .port(0)
+                .http2(true)
+                .maxConcurrentStreams(STREAMS)
+                .maxKeepAliveRequests(-1)
+                .keepAliveTimeout(Duration.ofSeconds(30))
+                .build());
+        tomcatStarter.start();
+        try {
+            // 업그레이드를 먼저 끝내 두어야 동시 요청이 모두 같은 h2 연결을 쓴다.
+            final var port = tomcatStarter.getPort();
+            TestHttpUtils.sendHttp2(port, PATH);
+            run(HttpClient.Version.HTTP_1_1, port, 2);
+            run(HttpClient.Version.HTTP_2, port, 2);
+
+            run(HttpClient.Version.HTTP_1_1, port, ROUNDS);
+            run(HttpClient.Version.HTTP_2, port, ROUNDS);
+        } finally {
+            tomcatStarter.stop();
+        }
+    }
+
+    private void run(final HttpClient.Version version, final int port, final int rounds) {
+        var failures = 0;
+        final var start = System.nanoTime();
+        for (int round = 0; round < rounds; round++) {
+            @SuppressWarnings("unchecked") final CompletableFuture<HttpResponse<String>>[] futures =
+                    new CompletableFuture[STREAMS];
+            for (int i = 0; i < STREAMS; i++) {
+                futures[i] = TestHttpUtils.sendAsync(version, port, PATH);
+            }
+            for (final var future : futures) {
+                final var response = future.handle((result, e) -> e == null ? result : null).join();
+                if (response == null || response.statusCode() != 200 || response.version() != version) {
+                    failures++;
+                }
+            }
+        }
+        final var elapsedMillis = Math.max(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), 1);
+        final var total = (long) STREAMS * rounds;
+        log.info("{} streams={} rounds={} elapsed={}ms throughput={}/s failures={}", version, STREAMS, rounds,
+                elapsedMillis, total * 1000 / elapsedMillis, failures);
+        assertThat(failures).isZero();
+    }
+}
@@ -0,0 +1,45 @@
+package com.example;
+
+import static com.example.KoreanServlet.인코딩;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.net.http.HttpClient;
+import org.junit.jupiter.api.Test;
+
+class Http2Test {
+
+    @Test
+    void h2c() throws Exception {
+        final var tomcatStarter = TestHttpUtils.createTomcatStarter(ConnectorConfig.builder()
+                .port(0)
+                .http2(true)
+                .build());
+        tomcatStarter.start();
+
+        final var upgraded = TestHttpUtils.sendHttp2(tomcatStarter.getPort(), "/korean");
+        final var multiplexed = TestHttpUtils.sendHttp2(tomcatStarter.getPort(), "/local-counter");
+
+        tomcatStarter.stop();
+
+        assertThat(upgraded.version()).isEqualTo(HttpClient.Version.HTTP_2);
+        assertThat(upgraded.body()).isEqualTo(인코딩);
+        assertThat(multiplexed.version()).isEqualTo(HttpClient.Version.HTTP_2);
+        assertThat(multiplexed.body()).isEqualTo("1");
+    }
+
+    @Test
+    void http11StillWorks() throws Exception {
+        final var tomcatStarter = TestHttpUtils.createTomcatStarter(ConnectorConfig.builder()
+                .port(0)
+                .http2(true)
+                .build());
+        tomcatStarter.start();
+
+        final var response = TestHttpUtils.send(tomcatStarter.getPort(), "/korean");
+
+        tomcatStarter.stop();
+
+        assertThat(response.version()).isEqualTo(HttpClient.Version.HTTP_1_1);
+        assertThat(response.body()).isEqualTo(인코딩);
+    }
+}
@@ -3,24 +3,23 @@ package com.example;
 import static org.assertj.core.api.Assertions.assertThat;
 
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
 
+/**
+ * 공유 톰캣에서 /shared-counter를 부르는 테스트는 testSharedCounter 하나뿐이다.
+ * 다른 테스트에서 /shared-counter를 부르면 이 테스트의 결과가 달라진다.
+ */
+@ExtendWith(SharedTomcatExtension.class)
 class ServletTest {
 
     @Test
     void testSharedCounter() throws Exception {
-        // 톰캣 서버 시작
-        final var tomcatStarter = TestHttpUtils.createTomcatStarter();
-        tomcatStarter.start();
-
         // shared-counter 페이지를 3번 호출한다.
         final var PATH = "/shared-counter";
         TestHttpUtils.send(PATH);
         TestHttpUtils.send(PATH);
         final var response = TestHttpUtils.send(PATH);
 
-        // 톰캣 서버 종료
-        tomcatStarter.stop();
-
         assertThat(response.statusCode()).isEqualTo(200);
 
         // expected를 0이 아닌 올바른 값으로 바꿔보자.
@@ -30,19 +29,12 @@ class ServletTest {
 
     @Test
     void testLocalCounter() throws Exception {
-        // 톰캣 서버 시작
-        final var tomcatStarter = TestHttpUtils.createTomcatStarter();
-        tomcatStarter.start();
-
         // local-counter 페이지를 3번 호출한다.
         final var PATH = "/local-counter";
         TestHttpUtils.send(PATH);
         TestHttpUtils.send(PATH);
         final var response = TestHttpUtils.send(PATH);
 
-        // 톰캣 서버 종료
-        tomcatStarter.stop();
-
         assertThat(response.statusCode()).isEqualTo(200);
 
         // expected를 0이 아닌 올바른 값으로 바꿔보자.
@@ -0,0 +1,63 @@
+package com.example;
+
+import org.junit.jupiter.api.extension.BeforeAllCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+
+/**
+ * 테스트 JVM 하나에 톰캣을 한 번만 띄우고 이 확장을 쓰는 모든 테스트 클래스가 같이 쓴다.
+ * <pre>
+ * &#64;ExtendWith(SharedTomcatExtension.class)
+ * class ServletTest { ... TestHttpUtils.send("/korean") ... }
+ * </pre>
+ * 포트는 OS가 골라 주는 빈 포트(0)를 쓰므로 다른 테스트가 띄운 톰캣이나 8080을 쓰는 프로세스와 부딪히지 않는다.
+ * 톰캣은 최상위 ExtensionContext의 Store에 넣어 두어서 모든 테스트가 끝날 때 함께 내려간다.
+ */
+public class SharedTomcatExtension implements BeforeAllCallback {
+
+    private static final ExtensionContext.Namespace NAMESPACE = ExtensionContext.Namespace.create(
+            SharedTomcatExtension.class);
+
+    private static volatile int port;
+
+    @Override
+    public void beforeAll(final ExtensionContext context) {
+        // 병렬로 실행되는 테스트 클래스가 동시에 불러도 getOrComputeIfAbsent는 한 번만 만든다.
+        context.getRoot().getStore(NAMESPACE)
+                .getOrComputeIfAbsent(SharedTomcat.class, ignored -> SharedTomcat.start(), SharedTomcat.class);
+    }
+
+    static int port() {
+        if (port == 0) {
+            throw new IllegalStateException("공유 톰캣이 떠 있지 않습니다. 테스트 클래스에 @ExtendWith(SharedTomcatExtension.class)를 붙이세요.");
+        }
+        return port;
+    }
+
+    private static final class SharedTomcat implements ExtensionContext.Store.CloseableResource {
+
+        private final TomcatStarter tomcatStarter;
+
+        private SharedTomcat(final TomcatStarter tomcatStarter) {
+            this.tomcatStarter = tomcatStarter;
+        }
+
+        static SharedTomcat start() {
+            final var tomcatStarter = TestHttpUtils.createTomcatStarter(ConnectorConfig.builder()
+                    .port(0)
+                    .build());
+            try {
+                tomcatStarter.start();
+            } catch (Exception e) {
+                throw new IllegalStateException("공유 톰캣을 띄우지 못했습니다.", e);
+            }
+            port = tomcatStarter.getPort();
+            return new SharedTomcat(tomcatStarter);
+        }
+
+        @Override
+        public void close() throws Exception {
+            port = 0;
+            tomcatStarter.stop();
+        }
+    }
+}
@@ -5,6 +5,7 @@ import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
 
 public class TestHttpUtils {
 
@@ -13,16 +14,56 @@ public class TestHttpUtils {
             .connectTimeout(Duration.ofSeconds(3))
             .build();
 
-    public static TomcatStarter createTomcatStarter() {
-        return new TomcatStarter("../servlet/src/main/webapp/");
+    /**
+     * 평문 HTTP/2(h2c) 클라이언트. 처음 요청에 Upgrade: h2c를 붙여 전환하고, 그 뒤로는 연결 하나에 요청을 동시에 싣는다.
+     */
+    private static final HttpClient http2Client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_2)
+            .connectTimeout(Duration.ofSeconds(3))
+            .build();
+
+    /**
+     * 테스트는 JSP나 정적 파일이 필요 없으므로 스캔 없이 빨리 뜨는 방식으로 띄운다.
+     * 따로 띄울 때도 port(0)으로 띄우고 {@link TomcatStarter#getPort()}로 보내야 병렬로 실행되는 다른 테스트와 부딪히지 않는다.
+     */
+    public static TomcatStarter createTomcatStarter(final ConnectorConfig connectorConfig) {
+        return TomcatStarter.programmatic(connectorConfig);
     }
 
+    /**
+     * {@link SharedTomcatExtension}이 띄운 공유 톰캣으로 보낸다.
+     */
     public static HttpResponse<String> send(final String path) throws Exception {
+        return send(SharedTomcatExtension.port(), path);
+    }
+
+    public static HttpResponse<String> send(final int port, final String path) throws Exception {
+        return httpClient.send(request(port, path), HttpResponse.BodyHandlers.ofString());
+    }
+
+    public static HttpResponse<String> sendDelete(final int port, final String path) throws Exception {
         final var request = HttpRequest.newBuilder()
-                .uri(URI.create("http://localhost:8080" + path))
+                .uri(URI.create("http://localhost:" + port + path))
                 .timeout(Duration.ofSeconds(3))
+                .DELETE()
                 .build();
-
         return httpClient.send(request, HttpResponse.BodyHandlers.ofString());
     }
+
+    public static HttpResponse<String> sendHttp2(final int port, final String path) throws Exception {
+        return http2Client.send(request(port, path), HttpResponse.BodyHandlers.ofString());
+    }
+
+    public static CompletableFuture<HttpResponse<String>> sendAsync(final HttpClient.Version version, final int port,
+                                                                    final String path) {
+        final var client = version == HttpClient.Version.HTTP_2 ? http2Client : httpClient;
+        return client.sendAsync(request(port, path), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static HttpRequest request(final int port, final String path) {
+        return HttpRequest.newBuilder()
+                .uri(URI.create("http://localhost:" + port + path))
+                .timeout(Duration.ofSeconds(3))
+                .build();
+    }
 }
@@ -0,0 +1,57 @@
+package com.example.allocation;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.example.ConnectorConfig;
+import com.example.TestHttpUtils;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.Isolated;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * 서블릿마다 요청을 보낸 뒤 /allocations에서 요청당 할당 바이트를 가져와 출력한다.
+ * <pre>
+ * ./gradlew :servlet:benchmark --tests "*AllocationReportTest" -Dbenchmark.allocation.requests=20000
+ * </pre>
+ * 앞쪽 요청은 클래스 로딩, JIT 때문에 많이 할당하므로 한 번 돌리고 통계를 비운 뒤에 다시 잰다.
+ */
+@Tag("benchmark")
+@Isolated
+class AllocationReportTest {
+
+    private static final Logger log = LoggerFactory.getLogger(AllocationReportTest.class);
+
+    private static final int REQUESTS = Integer.getInteger("benchmark.allocation.requests", 5_000);
+    private static final String[] PATHS = {"/korean", "/local-counter", "/shared-counter"};
+
+    @Test
+    void bytesAllocatedPerRequest() throws Exception {
+        final var tomcatStarter = TestHttpUtils.createTomcatStarter(ConnectorConfig.builder()
+                .port(0)
+                .build());
+        tomcatStarter.start();
+        final var port = tomcatStarter.getPort();
+        try {
+            sendAll(port);
+            TestHttpUtils.sendDelete(port, "/allocations");
+            sendAll(port);
+
+            final var report = TestHttpUtils.send(port, "/allocations").body();
+            log.info("allocation per request (requests={})\n{}", REQUESTS, report);
+
+            assertThat(report).contains("koreanServlet", "localCounterServlet", "sharedCounterServlet");
+        } finally {
+            tomcatStarter.stop();
+        }
+    }
+
+    private static void sendAll(final int port) throws Exception {
+        for (int i = 0; i < REQUESTS; i++) {
+            for (final var path : PATHS) {
+                TestHttpUtils.send(port, path);
+            }
+        }
+    }
+}
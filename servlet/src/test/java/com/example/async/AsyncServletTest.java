@@ -0,0 +1,31 @@
+package com.example.async;
+
+import static com.example.KoreanServlet.인코딩;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.example.SharedTomcatExtension;
+import com.example.TestHttpUtils;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+@ExtendWith(SharedTomcatExtension.class)
+class AsyncServletTest {
+
+    @Test
+    void asyncKorean() throws Exception {
+        final var response = TestHttpUtils.send("/async/korean");
+
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(response.headers().firstValueAsLong("Content-Length")).hasValue(인코딩.getBytes().length);
+        assertThat(response.body()).isEqualTo(인코딩);
+    }
+
+    @Test
+    void asyncLocalCounter() throws Exception {
+        TestHttpUtils.send("/async/local-counter");
+        final var response = TestHttpUtils.send("/async/local-counter");
+
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(response.body()).isEqualTo("1");
+    }
+}
@@ -0,0 +1,149 @@
+package com.example.async;
+
+import com.example.ConnectorConfig;
+import com.example.TomcatStarter;
+import jakarta.servlet.annotation.WebServlet;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.Isolated;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * 느린 클라이언트 1000개가 초당 1KB씩 받아 갈 때, 블로킹 서블릿과 AsyncWriteServlet이 컨테이너 스레드를 몇 개나 잡고 있는지 센다.
+ * <pre>
+ * ./gradlew :servlet:benchmark --tests "*SlowClientBenchmarkTest" -Dbenchmark.slow.clients=1000
+ * </pre>
+ * 클라이언트는 수신 버퍼를 1KB로 줄이고 1초에 1KB만 읽는다. 응답 본문이 소켓 버퍼보다 훨씬 크므로 블로킹 서블릿은 쓰기에서 멈춘다.
+ * 200ms마다 스레드 덤프를 떠서 서블릿 service()나 onWritePossible() 안에 있는 컨테이너 스레드를 "잡힌 스레드"로 센다.
+ * 클라이언트와 서버가 한 JVM에 있으므로 ulimit -n이 클라이언트 수의 두 배보다 커야 한다.
+ */
+@Tag("benchmark")
+@Isolated
+class SlowClientBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(SlowClientBenchmarkTest.class);
+
+    private static final int CLIENTS = Integer.getInteger("benchmark.slow.clients", 1000);
+    private static final int SECONDS = Integer.getInteger("benchmark.slow.seconds", 10);
+    private static final int READ_BYTES_PER_SECOND = 1024;
+    private static final byte[] PAYLOAD = new byte[Integer.getInteger("benchmark.slow.payload-bytes", 1024 * 1024)];
+
+    static {
+        Arrays.fill(PAYLOAD, (byte) 'a');
+    }
+
+    @Test
+    void containerThreadsHeldBySlowClients() throws Exception {
+        final var tomcatStarter = TomcatStarter.programmatic(ConnectorConfig.builder()
+                        .port(0)
+                        .maxThreads(200)
+                        .build(),
+                List.of(BlockingPayloadServlet.class, AsyncPayloadServlet.class));
+        tomcatStarter.start();
+        try {
+            run(tomcatStarter.getPort(), "/bench/blocking");
+            run(tomcatStarter.getPort(), "/bench/async");
+        } finally {
+            tomcatStarter.stop();
+        }
+    }
+
+    private void run(final int port, final String path) throws Exception {
+        final var request = ("GET " + path + " HTTP/1.1\r\nHost: localhost\r\nConnection: close\r\n\r\n")
+                .getBytes(StandardCharsets.US_ASCII);
+        final List<SocketChannel> clients = new ArrayList<>(CLIENTS);
+        try {
+            for (int i = 0; i < CLIENTS; i++) {
+                final var channel = SocketChannel.open();
+                channel.setOption(StandardSocketOptions.SO_RCVBUF, READ_BYTES_PER_SECOND);
+                channel.connect(new InetSocketAddress("localhost", port));
+                channel.write(ByteBuffer.wrap(request));
+                channel.configureBlocking(false);
+                clients.add(channel);
+            }
+
+            final var readBuffer = ByteBuffer.allocate(READ_BYTES_PER_SECOND);
+            var received = 0L;
+            var maxHeld = 0;
+            var heldSum = 0L;
+            var samples = 0;
+            final var end = System.nanoTime() + TimeUnit.SECONDS.toNanos(SECONDS);
+            var nextRead = System.nanoTime();
+            while (System.nanoTime() < end) {
+                if (System.nanoTime() >= nextRead) {
+                    for (final var client : clients) {
+                        readBuffer.clear();
+                        received += Math.max(client.read(readBuffer), 0);
+                    }
+                    nextRead += TimeUnit.SECONDS.toNanos(1);
+                }
+                final var held = heldContainerThreads();
+                maxHeld = Math.max(maxHeld, held);
+                heldSum += held;
+                samples++;
+                Thread.sleep(200);
+            }
+            log.info("{} clients={} seconds={} heldThreads(max={}, avg={}) receivedBytes={}", path, CLIENTS, SECONDS,
+                    maxHeld, heldSum / Math.max(samples, 1), received);
+        } finally {
+            for (final var client : clients) {
+                client.close();
+            }
+        }
+    }
+
+    private static int heldContainerThreads() {
+        var held = 0;
+        for (final var entry : Thread.getAllStackTraces().entrySet()) {
+            if (!entry.getKey().getName().contains("-exec-")) {
+                continue;
+            }
+            for (final var frame : entry.getValue()) {
+                if (frame.getMethodName().equals("onWritePossible")
+                        || (frame.getClassName().equals(HttpServlet.class.getName())
+                        && frame.getMethodName().equals("service"))) {
+                    held++;
+                    break;
+                }
+            }
+        }
+        return held;
+    }
+
+    @WebServlet(name = "blockingPayloadServlet", urlPatterns = "/bench/blocking")
+    public static class BlockingPayloadServlet extends HttpServlet {
+
+        @Override
+        protected void doGet(final HttpServletRequest request, final HttpServletResponse response)
+                throws IOException {
+            response.setContentLength(PAYLOAD.length);
+            response.getOutputStream().write(PAYLOAD);
+        }
+    }
+
+    @WebServlet(name = "asyncPayloadServlet", urlPatterns = "/bench/async", asyncSupported = true)
+    public static class AsyncPayloadServlet extends AsyncWriteServlet {
+
+        private static final ByteBuffer BODY = ByteBuffer.wrap(PAYLOAD).asReadOnlyBuffer();
+
+        @Override
+        protected ByteBuffer respond(final HttpServletRequest request, final HttpServletResponse response,
+                                     final ByteBuffer requestBody) {
+            return BODY;
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.example.compression;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * 압축 수준별로 응답 하나를 압축하는 CPU 시간과 압축 후 크기를 비교한다.
+ * <pre>
+ * ./gradlew :servlet:jmh -PjmhArgs="CompressionBenchmark -prof gc"
+ * </pre>
+ * bytesIn/bytesOut이 압축 전후 바이트 수, gc.alloc.rate.norm이 요청당 할당한 바이트다.
+ * <ul>
+ *     <li>pooledCompressor: CompressionFilter처럼 풀에서 빌려 재사용하는 Deflater로 압축한다.</li>
+ *     <li>gzipOutputStream: 요청마다 GZIPOutputStream(Deflater와 버퍼)을 새로 만든다.</li>
+ * </ul>
+ * 본문은 숫자가 섞인 JSON 배열(약 32KB)이다.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class CompressionBenchmark {
+
+    @Param({"1", "6", "9"})
+    public int level;
+
+    private byte[] body;
+    private CompressorPool pool;
+
+    @Setup
+    public void setUp() {
+        body = jsonBody(32 * 1024);
+        pool = new CompressorPool(level, 8192, 1024, 1);
+    }
+
+    private static byte[] jsonBody(final int size) {
+        final var random = new Random(42);
+        final var builder = new StringBuilder(size + 128).append('[');
+        while (builder.length() < size) {
+            builder.append("{\"id\":").append(random.nextInt(1_000_000))
+                    .append(",\"name\":\"사용자-").append(random.nextInt(10_000))
+                    .append("\",\"score\":").append(random.nextDouble())
+                    .append(",\"active\":").append(random.nextBoolean())
+                    .append("},");
+        }
+        builder.setCharAt(builder.length() - 1, ']');
+        return builder.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public void pooledCompressor(final ByteCounters counters) throws IOException {
+        final var compressor = pool.borrow(ContentEncoding.GZIP);
+        try {
+            compressor.begin(counters.sink);
+            compressor.write(body, 0, body.length);
+            compressor.finish();
+            counters.bytesIn += body.length;
+        } finally {
+            pool.release(compressor);
+        }
+    }
+
+    @Benchmark
+    public void gzipOutputStream(final ByteCounters counters) throws IOException {
+        try (final var gzip = new LeveledGZIPOutputStream(counters.sink, level)) {
+            gzip.write(body);
+        }
+        counters.bytesIn += body.length;
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class ByteCounters {
+
+        public long bytesIn;
+        public long bytesOut;
+
+        private final OutputStream sink = new CountingOutputStream(this);
+
+        @Setup(Level.Iteration)
+        public void clean() {
+            bytesIn = 0;
+            bytesOut = 0;
+        }
+    }
+
+    private static final class LeveledGZIPOutputStream extends GZIPOutputStream {
+
+        private LeveledGZIPOutputStream(final OutputStream outputStream, final int level) throws IOException {
+            super(outputStream, 8192);
+            def.setLevel(level);
+        }
+    }
+
+    /**
+     * 소켓에 쓰는 대신 바이트 수만 센다.
+     */
+    private static final class CountingOutputStream extends OutputStream {
+
+        private final ByteCounters counters;
+
+        private CountingOutputStream(final ByteCounters counters) {
+            this.counters = counters;
+        }
+
+        @Override
+        public void write(final int b) {
+            counters.bytesOut++;
+        }
+
+        @Override
+        public void write(final byte[] b, final int off, final int len) {
+            counters.bytesOut += len;
+        }
+    }
+}
@@ -0,0 +1,201 @@
+package com.example.compression;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.example.inmemory.InMemoryDispatcher;
+import com.example.inmemory.InMemoryRequest;
+import com.example.inmemory.InMemoryResponse;
+import jakarta.servlet.annotation.WebServlet;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class CompressionFilterTest {
+
+    private static final byte[] LARGE = "압축할 본문 compressible body\n".repeat(1_000).getBytes(StandardCharsets.UTF_8);
+    private static final byte[] SMALL = "작은 본문".getBytes(StandardCharsets.UTF_8);
+
+    private InMemoryDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        dispatcher = InMemoryDispatcher.of(CompressionFilter.class, PayloadServlet.class);
+    }
+
+    @AfterEach
+    void tearDown() {
+        dispatcher.destroy();
+    }
+
+    @Test
+    void gzipLargeBody() throws Exception {
+        final var response = dispatch("/large", "gzip, deflate");
+
+        assertThat(response.getHeader("Content-Encoding")).isEqualTo("gzip");
+        assertThat(response.getHeader("Vary")).isEqualTo("Accept-Encoding");
+        assertThat(response.getHeader("Content-Length")).isNull();
+        assertThat(response.getBodyLength()).isLessThan(LARGE.length / 10);
+        assertThat(new GZIPInputStream(new ByteArrayInputStream(response.getBody())).readAllBytes())
+                .isEqualTo(LARGE);
+    }
+
+    @Test
+    void deflateWhenPreferred() throws Exception {
+        final var response = dispatch("/large-known-length", "gzip;q=0.5, deflate");
+
+        assertThat(response.getHeader("Content-Encoding")).isEqualTo("deflate");
+        assertThat(response.getHeader("Content-Length")).isNull();
+        assertThat(inflate(new InflaterInputStream(new ByteArrayInputStream(response.getBody())))).isEqualTo(LARGE);
+    }
+
+    @Test
+    void writer() throws Exception {
+        final var response = dispatch("/large-writer", "gzip");
+
+        assertThat(response.getHeader("Content-Encoding")).isEqualTo("gzip");
+        assertThat(new GZIPInputStream(new ByteArrayInputStream(response.getBody())).readAllBytes())
+                .isEqualTo(LARGE);
+    }
+
+    @Test
+    void smallBodyWithContentLengthIsNotCompressed() throws Exception {
+        final var response = dispatch("/small", "gzip");
+
+        assertThat(response.getHeader("Content-Encoding")).isNull();
+        assertThat(response.getHeader("Content-Length")).isEqualTo(String.valueOf(SMALL.length));
+        assertThat(response.getBody()).isEqualTo(SMALL);
+    }
+
+    @Test
+    void smallBodyWithoutContentLengthIsNotCompressed() throws Exception {
+        final var response = dispatch("/small-unknown-length", "gzip");
+
+        assertThat(response.getHeader("Content-Encoding")).isNull();
+        assertThat(response.getHeader("Content-Length")).isEqualTo(String.valueOf(SMALL.length));
+        assertThat(response.getBody()).isEqualTo(SMALL);
+    }
+
+    @Test
+    void excludedContentType() throws Exception {
+        final var response = dispatch("/image", "gzip");
+
+        assertThat(response.getHeader("Content-Encoding")).isNull();
+        assertThat(response.getBody()).isEqualTo(LARGE);
+    }
+
+    @Test
+    void clientWithoutAcceptEncoding() throws Exception {
+        final var response = dispatch("/large", null);
+
+        assertThat(response.getHeader("Content-Encoding")).isNull();
+        assertThat(response.getBody()).isEqualTo(LARGE);
+    }
+
+    @Test
+    void flushWithoutBodyDoesNotWriteGzipHeader() throws Exception {
+        final var response = dispatch("/flush-empty", "gzip");
+
+        assertThat(response.getHeader("Content-Encoding")).isNull();
+        assertThat(response.getBodyLength()).isZero();
+    }
+
+    @Test
+    void flushBeforeWriteStillCompresses() throws Exception {
+        final var response = dispatch("/flush-then-large", "gzip");
+
+        assertThat(response.getHeader("Content-Encoding")).isEqualTo("gzip");
+        assertThat(new GZIPInputStream(new ByteArrayInputStream(response.getBody())).readAllBytes())
+                .isEqualTo(LARGE);
+    }
+
+    @Test
+    void compressorsAreReused() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            final var response = dispatch("/large", "gzip");
+            assertThat(new GZIPInputStream(new ByteArrayInputStream(response.getBody())).readAllBytes())
+                    .isEqualTo(LARGE);
+        }
+        final var filter = (CompressionFilter) dispatcher.getServletContext()
+                .getAttribute(CompressionFilter.ATTRIBUTE_NAME);
+        assertThat(filter.getCompressedCount()).isEqualTo(3);
+        assertThat(filter.getBytesIn()).isEqualTo(3L * LARGE.length);
+        assertThat(filter.getCreatedCompressorCount()).isEqualTo(1);
+    }
+
+    @Test
+    void negotiate() {
+        assertThat(ContentEncoding.negotiate("gzip, deflate, br")).isEqualTo(ContentEncoding.GZIP);
+        assertThat(ContentEncoding.negotiate("br, gzip;q=0.5, deflate;q=0.8")).isEqualTo(ContentEncoding.DEFLATE);
+        assertThat(ContentEncoding.negotiate("GZIP ; q=1")).isEqualTo(ContentEncoding.GZIP);
+        assertThat(ContentEncoding.negotiate("gzip;q=0, deflate")).isEqualTo(ContentEncoding.DEFLATE);
+        assertThat(ContentEncoding.negotiate("*")).isEqualTo(ContentEncoding.GZIP);
+        assertThat(ContentEncoding.negotiate("identity")).isNull();
+        assertThat(ContentEncoding.negotiate("gzip;q=0")).isNull();
+        assertThat(ContentEncoding.negotiate(null)).isNull();
+    }
+
+    private InMemoryResponse dispatch(final String path, final String acceptEncoding) throws Exception {
+        final var request = InMemoryRequest.get(path);
+        if (acceptEncoding != null) {
+            request.header("Accept-Encoding", acceptEncoding);
+        }
+        final var response = new InMemoryResponse();
+        dispatcher.dispatch(request, response);
+        return response;
+    }
+
+    private static byte[] inflate(final InputStream inputStream) throws IOException {
+        try (inputStream) {
+            return inputStream.readAllBytes();
+        }
+    }
+
+    @WebServlet(urlPatterns = "/*")
+    public static class PayloadServlet extends HttpServlet {
+
+        @Override
+        protected void service(final HttpServletRequest request, final HttpServletResponse response)
+                throws IOException {
+            final var path = request.getRequestURI();
+            response.setContentType(path.equals("/image") ? "image/png" : "text/plain;charset=UTF-8");
+            switch (path) {
+                case "/large-known-length":
+                    response.setContentLength(LARGE.length);
+                    response.getOutputStream().write(LARGE);
+                    break;
+                case "/large-writer":
+                    response.getWriter().write(new String(LARGE, StandardCharsets.UTF_8));
+                    break;
+                case "/small":
+                    response.setContentLength(SMALL.length);
+                    response.getOutputStream().write(SMALL);
+                    break;
+                case "/small-unknown-length":
+                    response.getOutputStream().write(SMALL);
+                    break;
+                case "/flush-empty":
+                    response.getOutputStream().flush();
+                    break;
+                case "/flush-then-large":
+                    response.getOutputStream().flush();
+                    response.getOutputStream().write(LARGE);
+                    break;
+                default:
+                    // 작은 조각으로 나눠 써서 모으는 중에 압축으로 넘어가는 경우를 본다.
+                    final var outputStream = response.getOutputStream();
+                    for (int off = 0; off < LARGE.length; off += 100) {
+                        outputStream.write(LARGE, off, Math.min(100, LARGE.length - off));
+                    }
+            }
+        }
+    }
+}
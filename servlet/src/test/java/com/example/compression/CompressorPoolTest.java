@@ -0,0 +1,46 @@
+package com.example.compression;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.CompletableFuture;
+import org.junit.jupiter.api.Test;
+
+class CompressorPoolTest {
+
+    @Test
+    void reuseReleasedCompressorFromAnotherThread() throws Exception {
+        final var pool = new CompressorPool(6, 1024, 256, 4);
+        final var first = pool.borrow(ContentEncoding.GZIP);
+        pool.release(first);
+
+        // 가상 스레드처럼 요청마다 스레드가 바뀌어도 돌려준 Compressor를 다시 쓴다.
+        final var second = CompletableFuture.supplyAsync(() -> pool.borrow(ContentEncoding.GZIP)).get();
+
+        assertThat(second).isSameAs(first);
+        assertThat(pool.getCreatedCount()).isEqualTo(1);
+    }
+
+    @Test
+    void encodingsArePooledSeparately() {
+        final var pool = new CompressorPool(6, 1024, 256, 4);
+        pool.release(pool.borrow(ContentEncoding.GZIP));
+
+        final var deflate = pool.borrow(ContentEncoding.DEFLATE);
+
+        assertThat(deflate.encoding()).isEqualTo(ContentEncoding.DEFLATE);
+        assertThat(pool.getCreatedCount()).isEqualTo(2);
+    }
+
+    @Test
+    void compressorsBeyondMaxPooledAreNotKept() {
+        final var pool = new CompressorPool(6, 1024, 256, 1);
+        final var first = pool.borrow(ContentEncoding.GZIP);
+        final var second = pool.borrow(ContentEncoding.GZIP);
+        pool.release(first);
+        pool.release(second);
+
+        assertThat(pool.borrow(ContentEncoding.GZIP)).isSameAs(first);
+        assertThat(pool.borrow(ContentEncoding.GZIP)).isNotSameAs(second);
+        assertThat(pool.getCreatedCount()).isEqualTo(3);
+    }
+}
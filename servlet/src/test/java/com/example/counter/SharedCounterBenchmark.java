@@ -0,0 +1,76 @@
+package com.example.counter;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * 64개 스레드가 동시에 카운터를 올릴 때의 처리량을 비교한다.
+ * <pre>
+ * ./gradlew :servlet:jmh -PjmhArgs="SharedCounterBenchmark"
+ * </pre>
+ * boxedInteger는 SharedCounterServlet의 원래 방식(Integer++)이다. 빠르게 보일 수 있지만 값을 잃어버린다.
+ * 잃어버리는지는 SharedCounterTest, SharedCounterLoadTest에서 확인한다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Threads(64)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class SharedCounterBenchmark {
+
+    private Integer boxedInteger = 0;
+    private final Object lock = new Object();
+    private long synchronizedValue;
+    private final AtomicLong atomicLong = new AtomicLong();
+    private final LongAdder longAdder = new LongAdder();
+    private final SharedCounter sharedCounter = SharedCounter.inMemory();
+    private final StripedCounter stripedCounter = new StripedCounter();
+
+    @Benchmark
+    public Integer boxedInteger() {
+        return boxedInteger++;
+    }
+
+    @Benchmark
+    public long synchronizedLong() {
+        synchronized (lock) {
+            return ++synchronizedValue;
+        }
+    }
+
+    @Benchmark
+    public long atomicLong() {
+        return atomicLong.incrementAndGet();
+    }
+
+    @Benchmark
+    public void longAdder() {
+        longAdder.increment();
+    }
+
+    @Benchmark
+    public void stripedCounter() {
+        stripedCounter.increment();
+    }
+
+    /**
+     * 서블릿이 실제로 하는 일(올리고 나서 합계 읽기).
+     */
+    @Benchmark
+    public long sharedCounterIncrementAndGet() {
+        return sharedCounter.incrementAndGet();
+    }
+}
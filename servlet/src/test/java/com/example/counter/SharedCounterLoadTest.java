@@ -0,0 +1,68 @@
+package com.example.counter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.example.ConnectorConfig;
+import com.example.TestHttpUtils;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.Isolated;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * 64개 스레드가 동시에 /shared-counter를 호출해도 값을 잃어버리지 않는지 확인한다.
+ * <pre>
+ * ./gradlew :servlet:benchmark --tests "*SharedCounterLoadTest"
+ * </pre>
+ */
+@Tag("benchmark")
+@Isolated
+class SharedCounterLoadTest {
+
+    private static final Logger log = LoggerFactory.getLogger(SharedCounterLoadTest.class);
+
+    private static final int THREADS = 64;
+    private static final int REQUESTS_PER_THREAD = Integer.getInteger("benchmark.counter.requests", 200);
+
+    @Test
+    void noLostUpdates() throws Exception {
+        final var tomcatStarter = TestHttpUtils.createTomcatStarter(ConnectorConfig.builder()
+                .port(0)
+                .build());
+        tomcatStarter.start();
+        final var port = tomcatStarter.getPort();
+
+        final var failures = new AtomicInteger();
+        final var executor = Executors.newFixedThreadPool(THREADS);
+        final var start = System.nanoTime();
+        for (int thread = 0; thread < THREADS; thread++) {
+            executor.submit(() -> {
+                for (int i = 0; i < REQUESTS_PER_THREAD; i++) {
+                    try {
+                        if (TestHttpUtils.send(port, "/shared-counter").statusCode() != 200) {
+                            failures.incrementAndGet();
+                        }
+                    } catch (Exception e) {
+                        failures.incrementAndGet();
+                    }
+                }
+            });
+        }
+        executor.shutdown();
+        executor.awaitTermination(5, TimeUnit.MINUTES);
+        final var elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        final var response = TestHttpUtils.send(port, "/shared-counter");
+        tomcatStarter.stop();
+
+        final var total = THREADS * REQUESTS_PER_THREAD;
+        log.info("requests={} failures={} elapsed={}ms throughput={}/s", total, failures.get(), elapsedMillis,
+                total * 1000L / Math.max(elapsedMillis, 1));
+        assertThat(failures.get()).isZero();
+        assertThat(Long.parseLong(response.body())).isEqualTo(total + 1);
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.counter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class SharedCounterTest {
+
+    @Test
+    void noLostUpdatesAt64Threads() throws Exception {
+        final var counter = SharedCounter.inMemory();
+        final var executor = Executors.newFixedThreadPool(64);
+
+        IntStream.range(0, 64).forEach(thread -> executor.submit(() -> {
+            for (int i = 0; i < 10_000; i++) {
+                counter.incrementAndGet();
+            }
+        }));
+        executor.shutdown();
+        assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(counter.get()).isEqualTo(640_000);
+    }
+
+    @Test
+    void restoreFromSnapshot(@TempDir final Path directory) throws Exception {
+        final var snapshotFile = directory.resolve("shared-counter.snapshot");
+
+        final var first = SharedCounter.persistent(snapshotFile, 10);
+        first.incrementAndGet();
+        first.incrementAndGet();
+        first.close();
+
+        final var second = SharedCounter.persistent(snapshotFile, 10);
+        assertThat(second.incrementAndGet()).isEqualTo(3);
+        second.close();
+    }
+
+    @Test
+    void periodicSnapshotWithoutClose(@TempDir final Path directory) throws Exception {
+        final var snapshotFile = directory.resolve("shared-counter.snapshot");
+        final var counter = SharedCounter.persistent(snapshotFile, 10);
+        counter.incrementAndGet();
+        Thread.sleep(200);
+
+        try (final var store = new CounterSnapshotStore(snapshotFile)) {
+            assertThat(store.load()).isEqualTo(1);
+        }
+        counter.close();
+    }
+
+    @Test
+    void ignoreTornSlot(@TempDir final Path directory) throws Exception {
+        final var snapshotFile = directory.resolve("shared-counter.snapshot");
+        try (final var store = new CounterSnapshotStore(snapshotFile)) {
+            store.save(10);
+            store.save(20);
+        }
+        // 두 번째 칸(순번 2)의 값만 바뀌고 검증값은 그대로인 상태 = 쓰다가 죽은 상태
+        try (final var channel = FileChannel.open(snapshotFile, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.allocate(Long.BYTES).putLong(0, 999), Long.BYTES);
+        }
+
+        try (final var store = new CounterSnapshotStore(snapshotFile)) {
+            assertThat(store.load()).isEqualTo(10);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.filter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.jupiter.api.Test;
+
+class PathPatternTrieTest {
+
+    private final PathPatternTrie trie = PathPatternTrie.compile("/static/*, /favicon.ico, *.png, *.ZIP");
+
+    @Test
+    void prefixPattern() {
+        assertThat(trie.matches("/static")).isTrue();
+        assertThat(trie.matches("/static/")).isTrue();
+        assertThat(trie.matches("/static/app/main.js")).isTrue();
+        assertThat(trie.matches("/staticfile")).isFalse();
+        assertThat(trie.matches("/stat")).isFalse();
+    }
+
+    @Test
+    void exactPattern() {
+        assertThat(trie.matches("/favicon.ico")).isTrue();
+        assertThat(trie.matches("/favicon.ico/more")).isFalse();
+        assertThat(trie.matches("/images/favicon.ico")).isFalse();
+    }
+
+    @Test
+    void extensionPatternIgnoresCase() {
+        assertThat(trie.matches("/images/logo.png")).isTrue();
+        assertThat(trie.matches("/images/logo.PNG")).isTrue();
+        assertThat(trie.matches("/download/archive.zip")).isTrue();
+        assertThat(trie.matches("/images.png/korean")).isFalse();
+        assertThat(trie.matches("/korean")).isFalse();
+    }
+
+    @Test
+    void emptyPatterns() {
+        assertThat(PathPatternTrie.compile(null).matches("/korean")).isFalse();
+        assertThat(PathPatternTrie.compile("").matches("/")).isFalse();
+    }
+
+    @Test
+    void unsupportedPattern() {
+        assertThatThrownBy(() -> PathPatternTrie.compile("static/*"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> PathPatternTrie.compile("/favicon.ico, favicon.ico"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
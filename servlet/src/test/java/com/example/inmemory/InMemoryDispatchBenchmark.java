@@ -0,0 +1,109 @@
+package com.example.inmemory;
+
+import com.example.CharacterEncodingFilter;
+import com.example.KoreanServlet;
+import com.example.LocalCounterServlet;
+import com.example.WebComponents;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.annotation.WebServlet;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * 소켓, HTTP 파싱, 톰캣 파이프라인을 빼고 필터 체인과 서블릿만의 요청당 비용을 잰다.
+ * <pre>
+ * ./gradlew :servlet:jmh -PjmhArgs="InMemoryDispatchBenchmark -prof gc"
+ * </pre>
+ * gc.alloc.rate.norm이 요청당 할당한 바이트다. 요청/응답 객체는 재사용하므로 디스패처가 만드는 FilterChain 하나와
+ * 필터와 서블릿이 만든 것만 잡힌다.
+ * <ul>
+ *     <li>noop: 아무것도 하지 않는 서블릿 하나. 디스패처 자체의 비용이다.</li>
+ *     <li>servlet: 필터 없이 서블릿만 거친다.</li>
+ *     <li>encodingFilter: CharacterEncodingFilter와 서블릿.</li>
+ *     <li>allComponents: WebComponents에 등록된 필터 전부와 서블릿. 실제 서버와 같은 체인이다.</li>
+ * </ul>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class InMemoryDispatchBenchmark {
+
+    @Param({"/korean", "/local-counter"})
+    public String path;
+
+    private final InMemoryRequest request = InMemoryRequest.get("/");
+    private final InMemoryResponse response = new InMemoryResponse();
+
+    private InMemoryDispatcher noop;
+    private InMemoryDispatcher servlet;
+    private InMemoryDispatcher encodingFilter;
+    private InMemoryDispatcher allComponents;
+
+    @Setup
+    public void setUp() throws ServletException {
+        noop = InMemoryDispatcher.of(NoopServlet.class);
+        servlet = InMemoryDispatcher.of(KoreanServlet.class, LocalCounterServlet.class);
+        encodingFilter = InMemoryDispatcher.of(CharacterEncodingFilter.class, KoreanServlet.class,
+                LocalCounterServlet.class);
+        allComponents = InMemoryDispatcher.of(WebComponents.components());
+    }
+
+    @TearDown
+    public void tearDown() {
+        noop.destroy();
+        servlet.destroy();
+        encodingFilter.destroy();
+        allComponents.destroy();
+    }
+
+    @Benchmark
+    public int noop() throws IOException, ServletException {
+        return dispatch(noop);
+    }
+
+    @Benchmark
+    public int servlet() throws IOException, ServletException {
+        return dispatch(servlet);
+    }
+
+    @Benchmark
+    public int encodingFilter() throws IOException, ServletException {
+        return dispatch(encodingFilter);
+    }
+
+    @Benchmark
+    public int allComponents() throws IOException, ServletException {
+        return dispatch(allComponents);
+    }
+
+    private int dispatch(final InMemoryDispatcher dispatcher) throws IOException, ServletException {
+        dispatcher.dispatch(request.recycle("GET", path), response.recycle());
+        return response.getBodyLength();
+    }
+
+    @WebServlet(urlPatterns = "/*")
+    public static class NoopServlet extends HttpServlet {
+
+        @Override
+        protected void service(final HttpServletRequest request, final HttpServletResponse response) {
+        }
+    }
+}
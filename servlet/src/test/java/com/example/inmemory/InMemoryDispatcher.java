@@ -0,0 +1,280 @@
+package com.example.inmemory;
+
+import com.example.filter.PathPatternTrie;
+import jakarta.servlet.Filter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.FilterConfig;
+import jakarta.servlet.Servlet;
+import jakarta.servlet.ServletConfig;
+import jakarta.servlet.ServletContext;
+import jakarta.servlet.ServletContextEvent;
+import jakarta.servlet.ServletContextListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.annotation.WebFilter;
+import jakarta.servlet.annotation.WebInitParam;
+import jakarta.servlet.annotation.WebListener;
+import jakarta.servlet.annotation.WebServlet;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 톰캣과 소켓 없이 @WebListener, @WebFilter, @WebServlet 클래스를 직접 만들어 요청을 흘려보낸다.
+ * <pre>
+ * final var dispatcher = InMemoryDispatcher.of(CharacterEncodingFilter.class, KoreanServlet.class);
+ * final var response = new InMemoryResponse();
+ * dispatcher.dispatch(InMemoryRequest.get("/korean"), response);
+ * </pre>
+ * 애너테이션의 이름, url-pattern, init-param은 톰캣에 등록할 때와 같게 읽는다. 필터는 넘긴 순서대로 체인에 들어간다.
+ * 경로별로 어떤 필터와 서블릿을 거칠지는 처음 본 경로에서 한 번 계산해 둔다.
+ * 요청마다 새로 만드는 것은 FilterChain 객체 하나뿐이다.
+ * <p>
+ * 비동기 요청, 요청 본문, 세션, forward/include는 지원하지 않는다.
+ */
+public class InMemoryDispatcher {
+
+    private final InMemoryServletContext servletContext = new InMemoryServletContext();
+    private final List<ServletContextListener> listeners = new ArrayList<>();
+    private final List<FilterEntry> filters = new ArrayList<>();
+    private final List<ServletEntry> servlets = new ArrayList<>();
+    private final Map<String, Route> routes = new ConcurrentHashMap<>();
+
+    private InMemoryDispatcher(final List<Class<?>> components) throws ServletException {
+        for (final var component : components) {
+            final var webServlet = component.getAnnotation(WebServlet.class);
+            if (webServlet != null) {
+                final var name = webServlet.name().isEmpty() ? component.getName() : webServlet.name();
+                servlets.add(new ServletEntry(name, instantiate(component.asSubclass(Servlet.class)),
+                        urlPatterns(webServlet.value(), webServlet.urlPatterns()), initParams(webServlet.initParams())));
+                servletContext.addServlet(name);
+            }
+        }
+        for (final var component : components) {
+            if (component.isAnnotationPresent(WebListener.class)) {
+                final var listener = instantiate(component.asSubclass(ServletContextListener.class));
+                listener.contextInitialized(new ServletContextEvent(servletContext.get()));
+                listeners.add(listener);
+            }
+        }
+        for (final var component : components) {
+            final var webFilter = component.getAnnotation(WebFilter.class);
+            if (webFilter != null) {
+                final var name = webFilter.filterName().isEmpty() ? component.getName() : webFilter.filterName();
+                final var filter = instantiate(component.asSubclass(Filter.class));
+                filter.init(new Config(name, servletContext.get(), initParams(webFilter.initParams())));
+                filters.add(new FilterEntry(filter, urlPatterns(webFilter.value(), webFilter.urlPatterns())));
+            }
+        }
+        for (final var servlet : servlets) {
+            servlet.servlet.init(new Config(servlet.name, servletContext.get(), servlet.initParams));
+        }
+    }
+
+    public static InMemoryDispatcher of(final Class<?>... components) throws ServletException {
+        return of(List.of(components));
+    }
+
+    public static InMemoryDispatcher of(final List<Class<?>> components) throws ServletException {
+        return new InMemoryDispatcher(components);
+    }
+
+    public void dispatch(final InMemoryRequest request, final InMemoryResponse response)
+            throws IOException, ServletException {
+        final var route = routes.computeIfAbsent(request.getRequestURI(), this::route);
+        if (route.servlet == null) {
+            response.sendError(404);
+            return;
+        }
+        request.dispatched(servletContext.get(), route.servlet.name, route.pattern);
+        new Chain(route).doFilter(request, response);
+    }
+
+    public ServletContext getServletContext() {
+        return servletContext.get();
+    }
+
+    public void destroy() {
+        for (final var servlet : servlets) {
+            servlet.servlet.destroy();
+        }
+        for (final var filter : filters) {
+            filter.filter.destroy();
+        }
+        for (int i = listeners.size() - 1; i >= 0; i--) {
+            listeners.get(i).contextDestroyed(new ServletContextEvent(servletContext.get()));
+        }
+    }
+
+    private Route route(final String path) {
+        final var matchedFilters = new ArrayList<Filter>();
+        for (final var filter : filters) {
+            if (filter.patterns.matches(path)) {
+                matchedFilters.add(filter.filter);
+            }
+        }
+        ServletEntry matchedServlet = null;
+        String matchedPattern = null;
+        for (final var servlet : servlets) {
+            for (final var pattern : servlet.urlPatterns) {
+                if (betterMatch(path, pattern, matchedPattern)) {
+                    matchedServlet = servlet;
+                    matchedPattern = pattern;
+                }
+            }
+        }
+        return new Route(matchedServlet, matchedPattern, matchedFilters.toArray(new Filter[0]));
+    }
+
+    /**
+     * 서블릿 스펙의 매핑 우선순위(정확히 일치 > 가장 긴 경로 접두사 > 확장자)를 따른다.
+     */
+    private static boolean betterMatch(final String path, final String pattern, final String current) {
+        final var rank = rank(path, pattern);
+        if (rank == 0) {
+            return false;
+        }
+        if (current == null) {
+            return true;
+        }
+        final var currentRank = rank(path, current);
+        return rank > currentRank || (rank == currentRank && pattern.length() > current.length());
+    }
+
+    private static int rank(final String path, final String pattern) {
+        if (pattern.equals(path)) {
+            return 3;
+        }
+        if (pattern.endsWith("/*") && PathPatternTrie.compile(pattern).matches(path)) {
+            return 2;
+        }
+        if (pattern.startsWith("*.") && path.endsWith(pattern.substring(1))) {
+            return 1;
+        }
+        return 0;
+    }
+
+    private static String[] urlPatterns(final String[] value, final String[] urlPatterns) {
+        return value.length > 0 ? value : urlPatterns;
+    }
+
+    private static Map<String, String> initParams(final WebInitParam[] initParams) {
+        final Map<String, String> params = new HashMap<>();
+        for (final var initParam : initParams) {
+            params.put(initParam.name(), initParam.value());
+        }
+        return params;
+    }
+
+    private static <T> T instantiate(final Class<T> type) throws ServletException {
+        try {
+            return type.getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new ServletException(type.getName() + "을 만들 수 없습니다.", e);
+        }
+    }
+
+    private static final class Chain implements FilterChain {
+
+        private final Route route;
+        private int index;
+
+        private Chain(final Route route) {
+            this.route = route;
+        }
+
+        @Override
+        public void doFilter(final ServletRequest request, final ServletResponse response)
+                throws IOException, ServletException {
+            if (index < route.filters.length) {
+                route.filters[index++].doFilter(request, response, this);
+                return;
+            }
+            route.servlet.servlet.service(request, response);
+        }
+    }
+
+    private static final class Route {
+
+        private final ServletEntry servlet;
+        private final String pattern;
+        private final Filter[] filters;
+
+        private Route(final ServletEntry servlet, final String pattern, final Filter[] filters) {
+            this.servlet = servlet;
+            this.pattern = pattern;
+            this.filters = filters;
+        }
+    }
+
+    private static final class FilterEntry {
+
+        private final Filter filter;
+        private final PathPatternTrie patterns;
+
+        private FilterEntry(final Filter filter, final String[] urlPatterns) {
+            this.filter = filter;
+            this.patterns = PathPatternTrie.compile(String.join(",", urlPatterns));
+        }
+    }
+
+    private static final class ServletEntry {
+
+        private final String name;
+        private final Servlet servlet;
+        private final String[] urlPatterns;
+        private final Map<String, String> initParams;
+
+        private ServletEntry(final String name, final Servlet servlet, final String[] urlPatterns,
+                             final Map<String, String> initParams) {
+            this.name = name;
+            this.servlet = servlet;
+            this.urlPatterns = urlPatterns;
+            this.initParams = initParams;
+        }
+    }
+
+    private static final class Config implements FilterConfig, ServletConfig {
+
+        private final String name;
+        private final ServletContext servletContext;
+        private final Map<String, String> initParams;
+
+        private Config(final String name, final ServletContext servletContext, final Map<String, String> initParams) {
+            this.name = name;
+            this.servletContext = servletContext;
+            this.initParams = initParams;
+        }
+
+        @Override
+        public String getFilterName() {
+            return name;
+        }
+
+        @Override
+        public String getServletName() {
+            return name;
+        }
+
+        @Override
+        public ServletContext getServletContext() {
+            return servletContext;
+        }
+
+        @Override
+        public String getInitParameter(final String name) {
+            return initParams.get(name);
+        }
+
+        @Override
+        public Enumeration<String> getInitParameterNames() {
+            return Collections.enumeration(initParams.keySet());
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.inmemory;
+
+import static com.example.KoreanServlet.인코딩;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.example.CharacterEncodingFilter;
+import com.example.KoreanServlet;
+import com.example.LocalCounterServlet;
+import com.example.WebComponents;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class InMemoryDispatcherTest {
+
+    private InMemoryDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        dispatcher = InMemoryDispatcher.of(CharacterEncodingFilter.class, KoreanServlet.class,
+                LocalCounterServlet.class);
+    }
+
+    @AfterEach
+    void tearDown() {
+        dispatcher.destroy();
+    }
+
+    @Test
+    void filterAndServlet() throws Exception {
+        final var response = new InMemoryResponse();
+
+        dispatcher.dispatch(InMemoryRequest.get("/korean"), response);
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getContentType()).isEqualTo("text/plain;charset=UTF-8");
+        assertThat(response.getBodyAsString()).isEqualTo(인코딩);
+
+        final var filter = (CharacterEncodingFilter) dispatcher.getServletContext()
+                .getAttribute(CharacterEncodingFilter.ATTRIBUTE_NAME);
+        assertThat(filter.getEncodedCount()).isEqualTo(1);
+    }
+
+    @Test
+    void recycledRequestAndResponse() throws Exception {
+        final var request = InMemoryRequest.get("/local-counter");
+        final var response = new InMemoryResponse();
+
+        for (int i = 0; i < 3; i++) {
+            dispatcher.dispatch(request.recycle("GET", "/local-counter"), response.recycle());
+            assertThat(response.getBodyAsString()).isEqualTo("1");
+        }
+    }
+
+    @Test
+    void unmappedPath() throws Exception {
+        final var response = new InMemoryResponse();
+
+        dispatcher.dispatch(InMemoryRequest.get("/unknown"), response);
+
+        assertThat(response.getStatus()).isEqualTo(404);
+    }
+
+    @Test
+    void allWebComponents() throws Exception {
+        final var all = InMemoryDispatcher.of(WebComponents.components());
+        final var response = new InMemoryResponse();
+        try {
+            all.dispatch(InMemoryRequest.get("/korean"), response);
+        } finally {
+            all.destroy();
+        }
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getBodyAsString()).isEqualTo(인코딩);
+    }
+}
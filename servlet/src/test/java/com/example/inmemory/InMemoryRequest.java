@@ -0,0 +1,212 @@
+package com.example.inmemory;
+
+import jakarta.servlet.ServletContext;
+import jakarta.servlet.http.HttpServletMapping;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.MappingMatch;
+import java.nio.charset.Charset;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 소켓 없이 필터와 서블릿에 넘길 수 있는 요청. 본문 없는 요청만 지원한다.
+ * <p>
+ * {@link #recycle}로 같은 객체를 다음 요청에 다시 쓸 수 있어서, 벤치마크에서 재면 필터와 서블릿이 할당한 양만 잡힌다.
+ * 톰캣도 요청 객체를 이렇게 재사용한다.
+ */
+public class InMemoryRequest extends HttpServletRequestWrapper {
+
+    private final Map<String, String> headers = new HashMap<>();
+    private final Map<String, Object> attributes = new HashMap<>();
+    private ServletContext servletContext;
+    private String method;
+    private String requestURI;
+    private String characterEncoding;
+    private Mapping mapping;
+
+    public InMemoryRequest(final String method, final String requestURI) {
+        super(Unsupported.of(HttpServletRequest.class));
+        recycle(method, requestURI);
+    }
+
+    public static InMemoryRequest get(final String requestURI) {
+        return new InMemoryRequest("GET", requestURI);
+    }
+
+    public InMemoryRequest recycle(final String method, final String requestURI) {
+        this.method = method;
+        this.requestURI = requestURI;
+        this.characterEncoding = null;
+        this.mapping = null;
+        headers.clear();
+        attributes.clear();
+        return this;
+    }
+
+    public InMemoryRequest header(final String name, final String value) {
+        headers.put(name.toLowerCase(), value);
+        return this;
+    }
+
+    void dispatched(final ServletContext servletContext, final String servletName, final String pattern) {
+        this.servletContext = servletContext;
+        if (mapping == null || !mapping.servletName.equals(servletName)) {
+            mapping = new Mapping(servletName, pattern, requestURI);
+        }
+    }
+
+    @Override
+    public ServletContext getServletContext() {
+        return servletContext;
+    }
+
+    @Override
+    public String getMethod() {
+        return method;
+    }
+
+    @Override
+    public String getRequestURI() {
+        return requestURI;
+    }
+
+    @Override
+    public String getContextPath() {
+        return "";
+    }
+
+    @Override
+    public String getServletPath() {
+        return requestURI;
+    }
+
+    @Override
+    public String getPathInfo() {
+        return null;
+    }
+
+    @Override
+    public String getQueryString() {
+        return null;
+    }
+
+    @Override
+    public HttpServletMapping getHttpServletMapping() {
+        return mapping;
+    }
+
+    @Override
+    public String getHeader(final String name) {
+        return headers.get(name.toLowerCase());
+    }
+
+    @Override
+    public Enumeration<String> getHeaders(final String name) {
+        final var value = getHeader(name);
+        return value == null ? Collections.emptyEnumeration() : Collections.enumeration(Collections.singleton(value));
+    }
+
+    @Override
+    public long getContentLengthLong() {
+        final var value = getHeader("Content-Length");
+        return value == null ? -1 : Long.parseLong(value);
+    }
+
+    @Override
+    public int getContentLength() {
+        return (int) getContentLengthLong();
+    }
+
+    @Override
+    public String getContentType() {
+        return getHeader("Content-Type");
+    }
+
+    @Override
+    public String getCharacterEncoding() {
+        return characterEncoding;
+    }
+
+    @Override
+    public void setCharacterEncoding(final String encoding) {
+        // 톰캣처럼 지원하지 않는 인코딩이면 여기서 실패한다.
+        Charset.forName(encoding);
+        this.characterEncoding = encoding;
+    }
+
+    @Override
+    public Object getAttribute(final String name) {
+        return attributes.get(name);
+    }
+
+    @Override
+    public void setAttribute(final String name, final Object value) {
+        attributes.put(name, value);
+    }
+
+    @Override
+    public void removeAttribute(final String name) {
+        attributes.remove(name);
+    }
+
+    @Override
+    public boolean isAsyncSupported() {
+        return false;
+    }
+
+    @Override
+    public boolean isAsyncStarted() {
+        return false;
+    }
+
+    @Override
+    public String getProtocol() {
+        return "HTTP/1.1";
+    }
+
+    @Override
+    public String getScheme() {
+        return "http";
+    }
+
+    @Override
+    public String getRemoteAddr() {
+        return "127.0.0.1";
+    }
+
+    private static final class Mapping implements HttpServletMapping {
+
+        private final String servletName;
+        private final String pattern;
+        private final String matchValue;
+
+        private Mapping(final String servletName, final String pattern, final String requestURI) {
+            this.servletName = servletName;
+            this.pattern = pattern;
+            this.matchValue = requestURI.isEmpty() ? "" : requestURI.substring(1);
+        }
+
+        @Override
+        public String getMatchValue() {
+            return matchValue;
+        }
+
+        @Override
+        public String getPattern() {
+            return pattern;
+        }
+
+        @Override
+        public String getServletName() {
+            return servletName;
+        }
+
+        @Override
+        public MappingMatch getMappingMatch() {
+            return pattern.endsWith("/*") ? MappingMatch.PATH : MappingMatch.EXACT;
+        }
+    }
+}
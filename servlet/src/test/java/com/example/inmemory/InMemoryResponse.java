@@ -0,0 +1,307 @@
+package com.example.inmemory;
+
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * 본문을 메모리 버퍼에 모으는 응답.
+ * <p>
+ * 톰캣처럼 출력 버퍼와 writer를 응답 객체와 함께 재사용한다. {@link #recycle()} 뒤에 다시 쓰면 새로 할당하지 않는다.
+ * 다만 writer는 처음 쓰는 charset으로 만들어지므로, charset이 바뀌면 새로 만든다.
+ */
+public class InMemoryResponse extends HttpServletResponseWrapper {
+
+    private final Map<String, String> headers = new LinkedHashMap<>();
+    private final Body body = new Body();
+    private int status;
+    private String contentType;
+    private String characterEncoding;
+    private boolean usingOutputStream;
+    private boolean usingWriter;
+    private PrintWriter writer;
+    private Charset writerCharset;
+
+    public InMemoryResponse() {
+        super(Unsupported.of(HttpServletResponse.class));
+        recycle();
+    }
+
+    public InMemoryResponse recycle() {
+        // writer에 남은 문자가 다음 응답으로 넘어가지 않게 먼저 비운다.
+        flushWriter();
+        status = SC_OK;
+        contentType = null;
+        characterEncoding = null;
+        usingOutputStream = false;
+        usingWriter = false;
+        headers.clear();
+        body.length = 0;
+        return this;
+    }
+
+    public byte[] getBody() {
+        flushWriter();
+        return Arrays.copyOf(body.bytes, body.length);
+    }
+
+    public String getBodyAsString() {
+        flushWriter();
+        return new String(body.bytes, 0, body.length, charset());
+    }
+
+    public int getBodyLength() {
+        flushWriter();
+        return body.length;
+    }
+
+    private void flushWriter() {
+        if (usingWriter) {
+            writer.flush();
+        }
+    }
+
+    private Charset charset() {
+        return characterEncoding == null ? StandardCharsets.ISO_8859_1 : Charset.forName(characterEncoding);
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() {
+        if (usingWriter) {
+            throw new IllegalStateException("getWriter()를 이미 호출했습니다.");
+        }
+        usingOutputStream = true;
+        return body;
+    }
+
+    @Override
+    public PrintWriter getWriter() {
+        if (usingOutputStream) {
+            throw new IllegalStateException("getOutputStream()을 이미 호출했습니다.");
+        }
+        final var charset = charset();
+        if (writer == null || !charset.equals(writerCharset)) {
+            writer = new PrintWriter(new OutputStreamWriter(body, charset));
+            writerCharset = charset;
+        }
+        usingWriter = true;
+        return writer;
+    }
+
+    @Override
+    public void flushBuffer() {
+        flushWriter();
+    }
+
+    @Override
+    public void resetBuffer() {
+        body.length = 0;
+    }
+
+    @Override
+    public void reset() {
+        recycle();
+    }
+
+    @Override
+    public boolean isCommitted() {
+        return false;
+    }
+
+    @Override
+    public int getBufferSize() {
+        return body.bytes.length;
+    }
+
+    @Override
+    public void setBufferSize(final int size) {
+    }
+
+    @Override
+    public void setStatus(final int status) {
+        this.status = status;
+    }
+
+    @Override
+    public int getStatus() {
+        return status;
+    }
+
+    @Override
+    public void sendError(final int status) {
+        sendError(status, null);
+    }
+
+    @Override
+    public void sendError(final int status, final String message) {
+        this.status = status;
+        body.length = 0;
+    }
+
+    @Override
+    public void setHeader(final String name, final String value) {
+        if (name.equalsIgnoreCase("Content-Type")) {
+            setContentType(value);
+            return;
+        }
+        headers.put(name.toLowerCase(Locale.ROOT), value);
+    }
+
+    @Override
+    public void addHeader(final String name, final String value) {
+        if (name.equalsIgnoreCase("Content-Type")) {
+            setContentType(value);
+            return;
+        }
+        headers.merge(name.toLowerCase(Locale.ROOT), value, (first, second) -> first + ", " + second);
+    }
+
+    @Override
+    public void setIntHeader(final String name, final int value) {
+        setHeader(name, String.valueOf(value));
+    }
+
+    @Override
+    public void addIntHeader(final String name, final int value) {
+        addHeader(name, String.valueOf(value));
+    }
+
+    @Override
+    public String getHeader(final String name) {
+        if (name.equalsIgnoreCase("Content-Type")) {
+            return getContentType();
+        }
+        return headers.get(name.toLowerCase(Locale.ROOT));
+    }
+
+    @Override
+    public boolean containsHeader(final String name) {
+        return getHeader(name) != null;
+    }
+
+    @Override
+    public Collection<String> getHeaderNames() {
+        final var names = new ArrayList<>(headers.keySet());
+        if (contentType != null) {
+            names.add("content-type");
+        }
+        return names;
+    }
+
+    @Override
+    public void setContentLength(final int length) {
+        setContentLengthLong(length);
+    }
+
+    @Override
+    public void setContentLengthLong(final long length) {
+        headers.put("content-length", String.valueOf(length));
+    }
+
+    /**
+     * 톰캣처럼 "text/plain;charset=UTF-8"의 charset은 문자 인코딩으로 떼어 내서 저장한다.
+     */
+    @Override
+    public void setContentType(final String type) {
+        if (type == null) {
+            contentType = null;
+            return;
+        }
+        final var index = type.toLowerCase(Locale.ROOT).indexOf("charset=");
+        if (index < 0) {
+            contentType = type;
+            return;
+        }
+        if (!usingWriter) {
+            characterEncoding = type.substring(index + "charset=".length()).trim();
+        }
+        var end = index;
+        while (end > 0 && (type.charAt(end - 1) == ';' || Character.isWhitespace(type.charAt(end - 1)))) {
+            end--;
+        }
+        contentType = type.substring(0, end);
+    }
+
+    @Override
+    public String getContentType() {
+        if (contentType == null) {
+            return null;
+        }
+        return characterEncoding == null ? contentType : contentType + ";charset=" + characterEncoding;
+    }
+
+    @Override
+    public void setCharacterEncoding(final String encoding) {
+        if (!usingWriter) {
+            characterEncoding = encoding;
+        }
+    }
+
+    @Override
+    public String getCharacterEncoding() {
+        return characterEncoding == null ? StandardCharsets.ISO_8859_1.name() : characterEncoding;
+    }
+
+    @Override
+    public void setLocale(final Locale locale) {
+    }
+
+    @Override
+    public Locale getLocale() {
+        return Locale.getDefault();
+    }
+
+    /**
+     * 커지기만 하고 줄지 않는 버퍼. recycle() 뒤에도 그대로 재사용한다.
+     */
+    private static final class Body extends ServletOutputStream {
+
+        private byte[] bytes = new byte[8 * 1024];
+        private int length;
+
+        @Override
+        public void write(final int b) {
+            ensureCapacity(length + 1);
+            bytes[length++] = (byte) b;
+        }
+
+        @Override
+        public void write(final byte[] b, final int off, final int len) {
+            ensureCapacity(length + len);
+            System.arraycopy(b, off, bytes, length, len);
+            length += len;
+        }
+
+        private void ensureCapacity(final int capacity) {
+            if (capacity > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(capacity, bytes.length * 2));
+            }
+        }
+
+        @Override
+        public boolean isReady() {
+            return true;
+        }
+
+        @Override
+        public void setWriteListener(final WriteListener writeListener) {
+            throw new UnsupportedOperationException("in-memory 응답은 논블로킹 쓰기를 지원하지 않습니다.");
+        }
+
+        @Override
+        public void flush() throws IOException {
+        }
+    }
+}
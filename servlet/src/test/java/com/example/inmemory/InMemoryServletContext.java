@@ -0,0 +1,63 @@
+package com.example.inmemory;
+
+import jakarta.servlet.ServletContext;
+import jakarta.servlet.ServletRegistration;
+import java.lang.reflect.Proxy;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 속성, 로그, 등록된 서블릿 이름만 지원하는 ServletContext. 나머지 메서드는 UnsupportedOperationException을 던진다.
+ * ServletContext는 요청마다 불리는 객체가 아니므로 동적 프록시로 만든다.
+ */
+final class InMemoryServletContext {
+
+    private final Map<String, Object> attributes = new ConcurrentHashMap<>();
+    private final Map<String, ServletRegistration> servletRegistrations = new LinkedHashMap<>();
+    private final ServletContext servletContext;
+
+    InMemoryServletContext() {
+        this.servletContext = (ServletContext) Proxy.newProxyInstance(ServletContext.class.getClassLoader(),
+                new Class<?>[]{ServletContext.class}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "getAttribute":
+                            return attributes.get((String) args[0]);
+                        case "setAttribute":
+                            if (args[1] == null) {
+                                attributes.remove((String) args[0]);
+                            } else {
+                                attributes.put((String) args[0], args[1]);
+                            }
+                            return null;
+                        case "removeAttribute":
+                            attributes.remove((String) args[0]);
+                            return null;
+                        case "getAttributeNames":
+                            return Collections.enumeration(attributes.keySet());
+                        case "getInitParameter":
+                            return null;
+                        case "getInitParameterNames":
+                            return Collections.emptyEnumeration();
+                        case "getContextPath":
+                            return "";
+                        case "getServletRegistrations":
+                            return Collections.unmodifiableMap(servletRegistrations);
+                        case "log":
+                            // 벤치마크 결과를 흐리지 않도록 로그는 버린다.
+                            return null;
+                        default:
+                            return Unsupported.invoke(ServletContext.class, proxy, method, args);
+                    }
+                });
+    }
+
+    void addServlet(final String servletName) {
+        servletRegistrations.put(servletName, Unsupported.of(ServletRegistration.class));
+    }
+
+    ServletContext get() {
+        return servletContext;
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.inmemory;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+
+/**
+ * 인터페이스의 모든 메서드가 UnsupportedOperationException을 던지는 구현을 만든다.
+ * <p>
+ * 서블릿 API 인터페이스는 메서드가 많고 버전마다 조금씩 늘어난다. in-memory 구현은 API의 Wrapper 클래스가
+ * 이 객체를 감싸게 하고 필요한 메서드만 오버라이드한다. 구현하지 않은 메서드를 부르면 어떤 메서드인지 바로 알 수 있다.
+ */
+final class Unsupported {
+
+    private Unsupported() {
+    }
+
+    static <T> T of(final Class<T> type) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type},
+                (proxy, method, args) -> invoke(type, proxy, method, args)));
+    }
+
+    /**
+     * equals, hashCode, toString은 프록시 자신을 기준으로 답하고 나머지는 예외를 던진다.
+     */
+    static Object invoke(final Class<?> type, final Object proxy, final Method method, final Object[] args) {
+        if (method.getDeclaringClass() == Object.class) {
+            switch (method.getName()) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                default:
+                    return "in-memory " + type.getSimpleName();
+            }
+        }
+        throw new UnsupportedOperationException(
+                type.getSimpleName() + "." + method.getName() + "()은 in-memory 구현에서 지원하지 않습니다.");
+    }
+}
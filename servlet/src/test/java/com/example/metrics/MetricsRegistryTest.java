@@ -0,0 +1,73 @@
+package com.example.metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+class MetricsRegistryTest {
+
+    @Test
+    void prometheusText() throws Exception {
+        final var registry = new MetricsRegistry();
+        registry.record("koreanServlet", 200, 9, TimeUnit.MILLISECONDS.toNanos(3));
+        registry.record("koreanServlet", 200, 9, TimeUnit.MILLISECONDS.toNanos(30));
+        registry.record("koreanServlet", 404, 0, TimeUnit.MICROSECONDS.toNanos(100));
+
+        final var text = scrape(registry);
+
+        assertThat(text)
+                .contains("servlet_requests_total{servlet=\"koreanServlet\",code=\"200\"} 2\n")
+                .contains("servlet_requests_total{servlet=\"koreanServlet\",code=\"404\"} 1\n")
+                .contains("servlet_response_bytes_total{servlet=\"koreanServlet\"} 18\n")
+                .contains("servlet_request_duration_seconds_bucket{servlet=\"koreanServlet\",le=\"0.001\"} 1\n")
+                .contains("servlet_request_duration_seconds_bucket{servlet=\"koreanServlet\",le=\"0.005\"} 2\n")
+                .contains("servlet_request_duration_seconds_bucket{servlet=\"koreanServlet\",le=\"+Inf\"} 3\n")
+                .contains("servlet_request_duration_seconds_sum{servlet=\"koreanServlet\"} 0.033100\n")
+                .contains("servlet_request_duration_seconds_count{servlet=\"koreanServlet\"} 3\n");
+    }
+
+    @Test
+    void histogramAccumulatesAcrossScrapes() throws Exception {
+        final var registry = new MetricsRegistry();
+        registry.record("koreanServlet", 200, 0, 1_000);
+        scrape(registry);
+        registry.record("koreanServlet", 200, 0, 1_000);
+
+        assertThat(scrape(registry))
+                .contains("servlet_request_duration_seconds_count{servlet=\"koreanServlet\"} 2\n");
+    }
+
+    /**
+     * 서블릿이 여러 개면 출력이 처음 잡은 4KB 버퍼를 넘는다. 늘린 버퍼로 끝까지 써야 한다.
+     */
+    @Test
+    void outputLargerThanInitialBuffer() throws Exception {
+        final var registry = new MetricsRegistry();
+        final var servlets = 20;
+        for (int i = 0; i < servlets; i++) {
+            registry.record("servlet" + i, 200, 1, 1_000);
+        }
+
+        final var text = scrape(registry);
+
+        assertThat(text.length()).isGreaterThan(4 * 1024);
+        assertThat(text).endsWith("} 1\n");
+        for (int i = 0; i < servlets; i++) {
+            assertThat(text).contains("servlet_request_duration_seconds_count{servlet=\"servlet" + i + "\"} 1\n");
+        }
+    }
+
+    @Test
+    void sanitizeLabelValue() {
+        assertThat(MetricsRegistry.sanitize("com.example.My Servlet\"")).isEqualTo("com.example.My_Servlet_");
+    }
+
+    private static String scrape(final MetricsRegistry registry) throws Exception {
+        final var outputStream = new ByteArrayOutputStream();
+        registry.scrape(outputStream);
+        return outputStream.toString(StandardCharsets.US_ASCII);
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.example.SharedTomcatExtension;
+import com.example.TestHttpUtils;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+@ExtendWith(SharedTomcatExtension.class)
+class MetricsServletTest {
+
+    @Test
+    void allServletsAreExposed() throws Exception {
+        TestHttpUtils.send("/korean");
+
+        final var response = TestHttpUtils.send("/metrics");
+
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(response.headers().firstValue("Content-Type")).get().asString().startsWith("text/plain");
+        assertThat(response.body())
+                .contains("servlet_requests_total{servlet=\"koreanServlet\",code=\"200\"}")
+                .contains("servlet_request_duration_seconds_count{servlet=\"localCounterServlet\"}")
+                .contains("servlet_request_duration_seconds_count{servlet=\"sharedCounterServlet\"}");
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.ratelimit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.example.ConnectorConfig;
+import com.example.TomcatStarter;
+import jakarta.servlet.annotation.WebFilter;
+import jakarta.servlet.annotation.WebInitParam;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+/**
+ * /shared-counter에 100초에 한 번만 허용하는 경로 제한을 걸고, 같은 서블릿으로 가는 다른 표기도 같은 버킷을 쓰는지 확인한다.
+ * 클라이언트 제한은 100초에 두 번이다.
+ */
+class RateLimitFilterTest {
+
+    private static final String CLIENT_HEADER = "X-Client-Id";
+
+    private static final HttpClient httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(3))
+            .build();
+
+    private static TomcatStarter tomcatStarter;
+
+    @BeforeAll
+    static void setUp() throws Exception {
+        tomcatStarter = TomcatStarter.programmatic(ConnectorConfig.builder()
+                        .port(0)
+                        .build(),
+                List.of(PathLimitedRateLimitFilter.class));
+        tomcatStarter.start();
+    }
+
+    @AfterAll
+    static void tearDown() throws Exception {
+        tomcatStarter.stop();
+    }
+
+    @Test
+    void pathLimitAppliesToNormalizedPath() throws Exception {
+        assertThat(send("/shared-counter", "path-client")).isEqualTo(200);
+
+        for (final var path : List.of("/shared-counter;x=y", "//shared-counter", "/./shared-counter")) {
+            assertThat(send(path, "path-client")).as(path).isEqualTo(429);
+        }
+        assertThat(send("/shared-counter", "other-client")).isEqualTo(200);
+    }
+
+    @Test
+    void pathRejectionDoesNotSpendClientToken() throws Exception {
+        assertThat(send("/shared-counter", "budget-client")).isEqualTo(200);
+        for (int i = 0; i < 3; i++) {
+            assertThat(send("/shared-counter", "budget-client")).isEqualTo(429);
+        }
+
+        assertThat(send("/korean", "budget-client")).isEqualTo(200);
+        assertThat(send("/korean", "budget-client")).isEqualTo(429);
+    }
+
+    @Test
+    void longClientHeaderIsHashed() throws Exception {
+        final var longValue = "a".repeat(4_000);
+
+        final var key = RateLimitFilter.clientKey(longValue);
+
+        assertThat(key.length()).isLessThanOrEqualTo(RateLimitFilter.MAX_CLIENT_KEY_LENGTH);
+        assertThat(key).isEqualTo(RateLimitFilter.clientKey(longValue));
+        assertThat(key).isNotEqualTo(RateLimitFilter.clientKey(longValue + "b"));
+        assertThat(RateLimitFilter.clientKey("short-client")).isEqualTo("short-client");
+        assertThat(send("/shared-counter", longValue)).isEqualTo(200);
+        assertThat(send("/shared-counter", longValue)).isEqualTo(429);
+    }
+
+    private static int send(final String path, final String client) throws Exception {
+        final var request = HttpRequest.newBuilder()
+                .uri(URI.create("http://localhost:" + tomcatStarter.getPort() + path))
+                .timeout(Duration.ofSeconds(3))
+                .header(CLIENT_HEADER, client)
+                .build();
+        return httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    @WebFilter(filterName = "pathLimitedRateLimitFilter", urlPatterns = "/*", asyncSupported = true, initParams = {
+            @WebInitParam(name = RateLimitFilter.PATH_LIMITS, value = "/shared-counter=0.01/1"),
+            @WebInitParam(name = RateLimitFilter.CLIENT_LIMIT, value = "0.01/2"),
+            @WebInitParam(name = RateLimitFilter.CLIENT_HEADER, value = CLIENT_HEADER),
+            @WebInitParam(name = RateLimitFilter.CAPACITY, value = "1024")})
+    public static class PathLimitedRateLimitFilter extends RateLimitFilter {
+    }
+}
@@ -0,0 +1,166 @@
+package com.example.ratelimit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.example.ConnectorConfig;
+import com.example.TomcatStarter;
+import jakarta.servlet.annotation.WebFilter;
+import jakarta.servlet.annotation.WebInitParam;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.Isolated;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * 한 클라이언트가 요청을 퍼붓는 동안 다른 클라이언트가 제 몫을 받는지 본다.
+ * <pre>
+ * ./gradlew :servlet:benchmark --tests "*RateLimitLoadTest" -Dbenchmark.rate-limit.seconds=10
+ * </pre>
+ * 모든 요청이 같은 주소에서 나가므로 X-Client-Id 헤더로 클라이언트를 나눈다.
+ * <ul>
+ *     <li>abuser: 스레드 여러 개로 /korean을 쉬지 않고 부른다. 클라이언트 제한(100/s)에 걸린다.</li>
+ *     <li>counter-abuser: /shared-counter를 초당 80번 부른다. 클라이언트 제한 안쪽이지만 경로 제한(20/s)에 걸린다.</li>
+ *     <li>polite-N: /korean을 초당 50번 부른다. 한 번도 거절되면 안 된다.</li>
+ * </ul>
+ */
+@Tag("benchmark")
+@Isolated
+class RateLimitLoadTest {
+
+    private static final Logger log = LoggerFactory.getLogger(RateLimitLoadTest.class);
+
+    private static final int SECONDS = Integer.getInteger("benchmark.rate-limit.seconds", 5);
+    private static final int ABUSER_THREADS = Integer.getInteger("benchmark.rate-limit.abuser-threads", 16);
+    private static final int POLITE_CLIENTS = 4;
+    private static final String CLIENT_HEADER = "X-Client-Id";
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(3))
+            .build();
+
+    @Test
+    void politeClientsKeepTheirShareUnderAbuse() throws Exception {
+        final var tomcatStarter = TomcatStarter.programmatic(ConnectorConfig.builder()
+                        .port(0)
+                        .build(),
+                List.of(LimitedRateLimitFilter.class));
+        tomcatStarter.start();
+        final ExecutorService executor = Executors.newFixedThreadPool(ABUSER_THREADS + POLITE_CLIENTS + 1);
+        try {
+            final var port = tomcatStarter.getPort();
+            final var end = System.nanoTime() + TimeUnit.SECONDS.toNanos(SECONDS);
+            final var abuser = new ClientStats("abuser");
+            final var counterAbuser = new ClientStats("counter-abuser");
+            final List<ClientStats> polite = new ArrayList<>();
+            final List<Future<?>> futures = new ArrayList<>();
+
+            for (int i = 0; i < ABUSER_THREADS; i++) {
+                futures.add(executor.submit(() -> run(port, "/korean", abuser, 0, end)));
+            }
+            futures.add(executor.submit(() -> run(port, "/shared-counter", counterAbuser, 80, end)));
+            for (int i = 0; i < POLITE_CLIENTS; i++) {
+                final var stats = new ClientStats("polite-" + i);
+                polite.add(stats);
+                futures.add(executor.submit(() -> run(port, "/korean", stats, 50, end)));
+            }
+            for (final var future : futures) {
+                future.get();
+            }
+
+            abuser.log();
+            counterAbuser.log();
+            polite.forEach(ClientStats::log);
+
+            // 버킷이 가득 찬 상태로 시작하므로 burst만큼 더 받을 수 있다. 시간 측정 오차로 10%를 더 둔다.
+            assertThat(abuser.ok.sum()).isLessThanOrEqualTo((long) ((100L * SECONDS + 20) * 1.1));
+            assertThat(abuser.rejected.sum()).isPositive();
+            assertThat(counterAbuser.ok.sum()).isLessThanOrEqualTo((long) ((20L * SECONDS + 5) * 1.1));
+            assertThat(counterAbuser.rejected.sum()).isPositive();
+            for (final var stats : polite) {
+                assertThat(stats.rejected.sum()).isZero();
+                assertThat(stats.ok.sum()).isPositive();
+            }
+        } finally {
+            executor.shutdownNow();
+            tomcatStarter.stop();
+        }
+    }
+
+    private Void run(final int port, final String path, final ClientStats stats, final int perSecond,
+                     final long end) throws Exception {
+        final var request = HttpRequest.newBuilder()
+                .uri(URI.create("http://localhost:" + port + path))
+                .timeout(Duration.ofSeconds(3))
+                .header(CLIENT_HEADER, stats.name)
+                .build();
+        final var interval = perSecond == 0 ? 0 : TimeUnit.SECONDS.toNanos(1) / perSecond;
+        var next = System.nanoTime();
+        while (System.nanoTime() < end) {
+            final var start = System.nanoTime();
+            final var response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+            stats.record(response, System.nanoTime() - start);
+            if (interval > 0) {
+                next += interval;
+                final var sleep = next - System.nanoTime();
+                if (sleep > 0) {
+                    TimeUnit.NANOSECONDS.sleep(sleep);
+                }
+            }
+        }
+        return null;
+    }
+
+    private static final class ClientStats {
+
+        private final String name;
+        private final LongAdder ok = new LongAdder();
+        private final LongAdder rejected = new LongAdder();
+        private final LongAdder other = new LongAdder();
+        private final LongAdder latencyNanos = new LongAdder();
+
+        private ClientStats(final String name) {
+            this.name = name;
+        }
+
+        void record(final HttpResponse<?> response, final long elapsedNanos) {
+            latencyNanos.add(elapsedNanos);
+            if (response.statusCode() == 200) {
+                ok.increment();
+            } else if (response.statusCode() == 429) {
+                assertThat(response.headers().firstValue("Retry-After")).isPresent();
+                rejected.increment();
+            } else {
+                other.increment();
+            }
+        }
+
+        void log() {
+            final var total = ok.sum() + rejected.sum() + other.sum();
+            RateLimitLoadTest.log.info("{} seconds={} ok={} ({}/s) rejected={} other={} avgLatency={}us", name,
+                    SECONDS, ok.sum(), ok.sum() / SECONDS, rejected.sum(), other.sum(),
+                    total == 0 ? 0 : latencyNanos.sum() / total / 1_000);
+        }
+    }
+
+    @WebFilter(filterName = "limitedRateLimitFilter", urlPatterns = "/*", asyncSupported = true, initParams = {
+            @WebInitParam(name = RateLimitFilter.CLIENT_LIMIT, value = "100/20"),
+            @WebInitParam(name = RateLimitFilter.PATH_LIMITS, value = "/shared-counter=20/5"),
+            @WebInitParam(name = RateLimitFilter.CLIENT_HEADER, value = CLIENT_HEADER),
+            @WebInitParam(name = RateLimitFilter.CAPACITY, value = "1024")})
+    public static class LimitedRateLimitFilter extends RateLimitFilter {
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.ratelimit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+class RateLimiterTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final RateLimiter limiter = new RateLimiter(1024);
+
+    @Test
+    void burstThenRefill() {
+        final var limit = RateLimit.parse("10/3");
+        final var now = 1_000 * SECOND;
+
+        assertThat(limiter.acquire("a", null, limit, now)).isZero();
+        assertThat(limiter.acquire("a", null, limit, now)).isZero();
+        assertThat(limiter.acquire("a", null, limit, now)).isZero();
+        // 10/s이므로 다음 토큰은 100ms 뒤에 생긴다.
+        assertThat(limiter.acquire("a", null, limit, now)).isEqualTo(SECOND / 10);
+
+        assertThat(limiter.acquire("a", null, limit, now + SECOND / 10)).isZero();
+        assertThat(limiter.acquire("a", null, limit, now + SECOND / 10)).isPositive();
+    }
+
+    @Test
+    void rejectedRequestDoesNotConsumeToken() {
+        final var limit = RateLimit.of(1, 1);
+        final var now = 1_000 * SECOND;
+
+        assertThat(limiter.acquire("a", null, limit, now)).isZero();
+        for (int i = 0; i < 100; i++) {
+            assertThat(limiter.acquire("a", null, limit, now)).isEqualTo(SECOND);
+        }
+        assertThat(limiter.acquire("a", null, limit, now + SECOND)).isZero();
+    }
+
+    @Test
+    void releaseReturnsToken() {
+        final var limit = RateLimit.of(1, 1);
+        final var now = 1_000 * SECOND;
+
+        assertThat(limiter.acquire("a", "/korean", limit, now)).isZero();
+        limiter.release("a", "/korean", limit);
+        assertThat(limiter.acquire("a", "/korean", limit, now)).isZero();
+        assertThat(limiter.acquire("a", "/korean", limit, now)).isPositive();
+    }
+
+    @Test
+    void clientsAndPathsHaveSeparateBuckets() {
+        final var limit = RateLimit.of(1, 1);
+        final var now = 1_000 * SECOND;
+
+        assertThat(limiter.acquire("a", null, limit, now)).isZero();
+        assertThat(limiter.acquire("a", null, limit, now)).isPositive();
+        assertThat(limiter.acquire("b", null, limit, now)).isZero();
+        assertThat(limiter.acquire("a", "/shared-counter", limit, now)).isZero();
+        assertThat(limiter.acquire("a", "/korean", limit, now)).isZero();
+        assertThat(limiter.acquire("a", "/korean", limit, now)).isPositive();
+    }
+
+    @Test
+    void memoryStaysFixedWithManyClients() {
+        final var small = new RateLimiter(64);
+        final var limit = RateLimit.of(1, 1);
+        final var now = 1_000 * SECOND;
+
+        for (int i = 0; i < 100_000; i++) {
+            small.acquire("client-" + i, null, limit, now);
+        }
+
+        assertThat(small.capacity()).isEqualTo(64);
+        assertThat(small.getEvictedCount()).isGreaterThanOrEqualTo(100_000 - 64);
+    }
+
+    @Test
+    void refilledBucketsAreReplacedWithoutEviction() {
+        final var small = new RateLimiter(64);
+        final var limit = RateLimit.of(1, 1);
+
+        for (int i = 0; i < 10_000; i++) {
+            // 한 클라이언트가 1초에 한 번씩만 오므로 덮어쓰이는 버킷은 모두 이미 가득 차 있다.
+            small.acquire("client-" + i, null, limit, 1_000 * SECOND + i * SECOND);
+        }
+
+        assertThat(small.getEvictedCount()).isZero();
+    }
+
+    @Test
+    void parse() {
+        assertThat(RateLimit.parse("100/20").getPermitsPerSecond()).isEqualTo(100.0);
+        assertThat(RateLimit.parse("100/20").getBurst()).isEqualTo(20);
+        assertThat(RateLimit.parse(" 5 ").getBurst()).isEqualTo(5);
+        assertThat(RateLimit.parse("0.5").getBurst()).isEqualTo(1);
+        assertThat(RateLimitFilter.parsePathLimits("/shared-counter=10/5, /korean=50"))
+                .containsOnlyKeys("/shared-counter", "/korean");
+    }
+
+    @Test
+    void retryAfterRoundsUpToSeconds() {
+        assertThat(RateLimitFilter.retryAfterSeconds(1)).isEqualTo(1);
+        assertThat(RateLimitFilter.retryAfterSeconds(SECOND)).isEqualTo(1);
+        assertThat(RateLimitFilter.retryAfterSeconds(SECOND + 1)).isEqualTo(2);
+    }
+}
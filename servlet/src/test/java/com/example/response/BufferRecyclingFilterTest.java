@@ -0,0 +1,101 @@
+package com.example.response;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.example.ConnectorConfig;
+import com.example.KoreanServlet;
+import com.example.TestHttpUtils;
+import com.example.TomcatStarter;
+import jakarta.servlet.annotation.WebServlet;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import org.apache.catalina.connector.CoyoteOutputStream;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+/**
+ * WebComponents의 필터를 모두 건 톰캣에서 BufferRecyclingFilter가 응답을 감싸지 않는지,
+ * 빌려준 버퍼를 요청이 끝날 때 돌려받는지 확인한다.
+ */
+class BufferRecyclingFilterTest {
+
+    private static final int MAX_THREADS = 2;
+    private static final StaticResponse RESPONSE =
+            StaticResponse.of("text/plain", StandardCharsets.UTF_8, KoreanServlet.인코딩);
+
+    private static TomcatStarter tomcatStarter;
+
+    @BeforeAll
+    static void setUp() throws Exception {
+        tomcatStarter = TomcatStarter.programmatic(ConnectorConfig.builder()
+                        .port(0)
+                        .maxThreads(MAX_THREADS)
+                        .build(),
+                List.of(StreamProbeServlet.class, PoolStatsServlet.class));
+        tomcatStarter.start();
+    }
+
+    @AfterAll
+    static void tearDown() throws Exception {
+        tomcatStarter.stop();
+    }
+
+    /**
+     * 서블릿이 받은 출력 스트림이 톰캣의 CoyoteOutputStream이어야 StaticResponse가 ByteBuffer를 그대로 넘긴다.
+     */
+    @Test
+    void staticResponseKeepsCoyoteOutputStream() throws Exception {
+        final var probe = TestHttpUtils.send(tomcatStarter.getPort(), "/buffer-probe");
+        final var korean = TestHttpUtils.send(tomcatStarter.getPort(), "/korean");
+
+        assertThat(probe.headers().firstValue("X-Output-Stream")).hasValue(CoyoteOutputStream.class.getName());
+        assertThat(probe.body()).isEqualTo(KoreanServlet.인코딩);
+        assertThat(korean.body()).isEqualTo(KoreanServlet.인코딩);
+    }
+
+    /**
+     * /shared-counter는 요청마다 버퍼를 빌린다. 돌려받지 못하면 요청마다 새 버퍼를 만들어 miss가 요청 수만큼 쌓인다.
+     * 돌려받으면 새로 만드는 것은 처음 한 번씩, 스레드 수를 넘지 않는다.
+     */
+    @Test
+    void borrowedBufferIsReturnedAfterRequest() throws Exception {
+        final var requests = 20;
+        for (int i = 1; i <= requests; i++) {
+            final var response = TestHttpUtils.send(tomcatStarter.getPort(), "/shared-counter");
+            assertThat(Long.parseLong(response.body())).isEqualTo(i);
+        }
+
+        final var stats = TestHttpUtils.send(tomcatStarter.getPort(), "/buffer-pool").body().split(",");
+        final var hits = Long.parseLong(stats[0]);
+        final var misses = Long.parseLong(stats[1]);
+        assertThat(hits + misses).isEqualTo(requests);
+        assertThat(misses).isLessThanOrEqualTo(MAX_THREADS);
+    }
+
+    @WebServlet(name = "bufferStreamProbeServlet", urlPatterns = "/buffer-probe")
+    public static class StreamProbeServlet extends HttpServlet {
+
+        @Override
+        protected void service(final HttpServletRequest request, final HttpServletResponse response)
+                throws IOException {
+            response.setHeader("X-Output-Stream", response.getOutputStream().getClass().getName());
+            RESPONSE.writeTo(response);
+        }
+    }
+
+    @WebServlet(name = "bufferPoolStatsServlet", urlPatterns = "/buffer-pool")
+    public static class PoolStatsServlet extends HttpServlet {
+
+        @Override
+        protected void service(final HttpServletRequest request, final HttpServletResponse response)
+                throws IOException {
+            final var pool = (DirectBufferPool) getServletContext().getAttribute(BufferRecyclingFilter.ATTRIBUTE_NAME);
+            response.getWriter().write(pool.getHits() + "," + pool.getMisses());
+        }
+    }
+}
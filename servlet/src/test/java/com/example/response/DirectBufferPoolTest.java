@@ -0,0 +1,47 @@
+package com.example.response;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.nio.ByteBuffer;
+import org.junit.jupiter.api.Test;
+
+class DirectBufferPoolTest {
+
+    @Test
+    void reuseReleasedBuffer() {
+        final var pool = new DirectBufferPool(1024, 4);
+
+        final var first = pool.acquire();
+        first.put((byte) 1);
+        pool.release(first);
+        final var second = pool.acquire();
+
+        assertThat(second).isSameAs(first);
+        assertThat(second.position()).isZero();
+        assertThat(second.isDirect()).isTrue();
+        assertThat(pool.getHits()).isEqualTo(1);
+        assertThat(pool.getMisses()).isEqualTo(1);
+    }
+
+    @Test
+    void sharedQueueAfterThreadSlot() {
+        final var pool = new DirectBufferPool(1024, 4);
+        final var first = pool.acquire();
+        final var second = pool.acquire();
+        pool.release(first);
+        pool.release(second);
+
+        assertThat(pool.acquire()).isSameAs(first);
+        assertThat(pool.acquire()).isSameAs(second);
+        assertThat(pool.getMisses()).isEqualTo(2);
+    }
+
+    @Test
+    void rejectForeignBuffer() {
+        final var pool = new DirectBufferPool(1024, 4);
+
+        assertThatThrownBy(() -> pool.release(ByteBuffer.allocate(1024)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,138 @@
+package com.example.response;
+
+import static com.example.KoreanServlet.인코딩;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import org.apache.catalina.connector.CoyoteOutputStream;
+import org.apache.catalina.connector.OutputBuffer;
+import org.apache.coyote.Response;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * KoreanServlet의 응답 본문을 쓰는 방법별 비용을 비교한다. 요청당 할당량은 gc 프로파일러로 본다.
+ * <pre>
+ * ./gradlew :servlet:jmh -PjmhArgs="StaticResponseBenchmark -prof gc"
+ * </pre>
+ * 세 방법 모두 톰캣의 CoyoteOutputStream(OutputBuffer)에 쓴다. 소켓으로 내보내지는 않고 매번 OutputBuffer를 비운다.
+ * gc.alloc.rate.norm이 요청당 할당한 바이트, bytesEncoded가 요청마다 char를 byte로 인코딩한 바이트,
+ * bytesCopied가 응답 버퍼(OutputBuffer)로 복사한 바이트다. 각각 한 번씩만 센다.
+ * <ul>
+ *     <li>encodeEveryRequest: String.getBytes()처럼 요청마다 새 byte[]를 만들어 write(byte[])로 쓴다.</li>
+ *     <li>writerEncoding: 재사용하는 CharsetEncoder로 인코딩한 뒤 write(byte[])로 쓴다. 톰캣의 getWriter()도
+ *     요청마다 인코딩한다는 점은 같다.</li>
+ *     <li>staticResponse: 미리 인코딩한 direct ByteBuffer를 CoyoteOutputStream.write(ByteBuffer)로 쓴다.
+ *     인코딩은 없고 응답 버퍼로 한 번만 복사한다.</li>
+ * </ul>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class StaticResponseBenchmark {
+
+    private final StaticResponse staticResponse = StaticResponse.of("text/plain", StandardCharsets.UTF_8, 인코딩);
+    private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder();
+    private final ByteBuffer encodeBuffer = ByteBuffer.allocate(8 * 1024);
+    private final OutputBuffer outputBuffer = new OutputBuffer(8 * 1024);
+    private CountingCoyoteOutputStream outputStream;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        outputBuffer.setResponse(new Response());
+        outputStream = new CountingCoyoteOutputStream(outputBuffer);
+    }
+
+    @Benchmark
+    public void encodeEveryRequest(final CopyCounters counters) throws IOException {
+        final var bytes = 인코딩.getBytes(StandardCharsets.UTF_8);
+        counters.bytesEncoded += bytes.length;
+        outputStream.write(bytes);
+        counters.bytesCopied += outputStream.takeCopied();
+        outputBuffer.recycle();
+    }
+
+    @Benchmark
+    public void writerEncoding(final CopyCounters counters) throws IOException {
+        encodeBuffer.clear();
+        encoder.reset();
+        encoder.encode(CharBuffer.wrap(인코딩), encodeBuffer, true);
+        encoder.flush(encodeBuffer);
+        counters.bytesEncoded += encodeBuffer.position();
+        outputStream.write(encodeBuffer.array(), 0, encodeBuffer.position());
+        counters.bytesCopied += outputStream.takeCopied();
+        outputBuffer.recycle();
+    }
+
+    @Benchmark
+    public void staticResponse(final CopyCounters counters) throws IOException {
+        staticResponse.write(outputStream);
+        counters.bytesCopied += outputStream.takeCopied();
+        outputBuffer.recycle();
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class CopyCounters {
+
+        public long bytesEncoded;
+        public long bytesCopied;
+
+        @Setup(Level.Iteration)
+        public void clean() {
+            bytesEncoded = 0;
+            bytesCopied = 0;
+        }
+    }
+
+    /**
+     * 톰캣의 CoyoteOutputStream 그대로다. StaticResponse가 instanceof로 확인하는 ByteBuffer 경로를 타고,
+     * 응답 버퍼로 넘긴 바이트 수만 따로 센다. write(byte[])는 write(byte[], int, int)를 부르므로 여기서 한 번만 센다.
+     * <p>
+     * JMH는 @AuxCounters 상태를 @Setup에 주입하지 못하게 하므로 스트림은 카운터를 들고 있지 않는다.
+     * 벤치마크 메서드가 쓰고 나서 {@link #takeCopied()}로 가져가 CopyCounters에 더한다.
+     */
+    private static final class CountingCoyoteOutputStream extends CoyoteOutputStream {
+
+        private long copied;
+
+        private CountingCoyoteOutputStream(final OutputBuffer outputBuffer) {
+            super(outputBuffer);
+        }
+
+        @Override
+        public void write(final byte[] b, final int off, final int len) throws IOException {
+            copied += len;
+            super.write(b, off, len);
+        }
+
+        @Override
+        public void write(final ByteBuffer from) throws IOException {
+            copied += from.remaining();
+            super.write(from);
+        }
+
+        long takeCopied() {
+            final var result = copied;
+            copied = 0;
+            return result;
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.trace;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+
+class TraceRingBufferTest {
+
+    @Test
+    void drainInOrder() {
+        final var buffer = new TraceRingBuffer(8);
+        buffer.record("doFilter() 호출", "/korean");
+        buffer.record("service() 호출", "/korean");
+
+        final List<String> drained = new ArrayList<>();
+        final var count = buffer.drain((event, detail, timestampMillis, threadId) -> drained.add(event + " " + detail));
+
+        assertThat(count).isEqualTo(2);
+        assertThat(drained).containsExactly("doFilter() 호출 /korean", "service() 호출 /korean");
+        assertThat(buffer.drain((event, detail, timestampMillis, threadId) -> drained.add(event))).isZero();
+    }
+
+    @Test
+    void overwrittenEventsAreCountedAsDropped() {
+        final var buffer = new TraceRingBuffer(4);
+        IntStream.range(0, 10).forEach(i -> buffer.record("event", String.valueOf(i)));
+
+        final List<String> drained = new ArrayList<>();
+        buffer.drain((event, detail, timestampMillis, threadId) -> drained.add(detail));
+
+        assertThat(drained).containsExactly("6", "7", "8", "9");
+        assertThat(buffer.getRecorded()).isEqualTo(10);
+        assertThat(buffer.getDropped()).isEqualTo(6);
+    }
+
+    @Test
+    void concurrentWritersWithDrainer() throws Exception {
+        final var buffer = new TraceRingBuffer(1 << 16);
+        final var executor = Executors.newFixedThreadPool(8);
+        IntStream.range(0, 8).forEach(thread -> executor.submit(() -> {
+            for (int i = 0; i < 5_000; i++) {
+                buffer.record("event", thread + "-" + i);
+            }
+        }));
+
+        final var seen = new HashSet<String>();
+        executor.shutdown();
+        while (!executor.awaitTermination(1, TimeUnit.MILLISECONDS)) {
+            buffer.drain((event, detail, timestampMillis, threadId) -> seen.add(detail));
+        }
+        buffer.drain((event, detail, timestampMillis, threadId) -> seen.add(detail));
+
+        assertThat(seen).hasSize(40_000);
+        assertThat(buffer.getDropped()).isZero();
+    }
+
+    @Test
+    void capacityMustBePowerOfTwo() {
+        assertThatThrownBy(() -> new TraceRingBuffer(1000))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
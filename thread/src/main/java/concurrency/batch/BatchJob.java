@@ -0,0 +1,24 @@
+package concurrency.batch;
+
+import java.util.List;
+
+/**
+ * 실행 중인 배치 작업.
+ */
+public interface BatchJob<R> {
+
+    /**
+     * 작업이 끝날 때까지 기다린다. 취소되었으면 CancellationException, 처리 중 예외가 나면 그 예외를 던진다.
+     */
+    List<R> join();
+
+    /**
+     * 아직 시작하지 않은 청크는 실행하지 않는다. 이미 처리 중인 청크는 끝까지 처리되며,
+     * {@link #join()}은 그 청크가 끝난 뒤에 돌아오고 {@link #isDone()}도 그때부터 true다.
+     */
+    void cancel();
+
+    boolean isCancelled();
+
+    boolean isDone();
+}
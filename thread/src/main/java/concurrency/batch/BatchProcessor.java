@@ -0,0 +1,221 @@
+package concurrency.batch;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+/**
+ * 많은 수의 작은 항목을 모든 코어에 나눠 처리하는 ForkJoin 기반 배치 처리기.
+ * <p>
+ * 요청마다 스레드를 하나씩 쓰는 방식과 달리, 입력 범위를 절반씩 나눠(fork) 작업을 만들고
+ * 일이 먼저 끝난 워커가 다른 워커의 큐에서 남은 작업을 훔쳐 온다(work stealing).
+ * 그래서 항목마다 처리 시간이 달라도 특정 스레드만 늦게 끝나는 일이 줄어든다.
+ * <pre>
+ * final var processor = BatchProcessor.mapping(User::getName)
+ *         .chunkSize(10_000)
+ *         .parallelism(8)
+ *         .build();
+ * final List&lt;String&gt; names = processor.process(users);
+ * </pre>
+ */
+public class BatchProcessor<T, R> {
+
+    public static final int DEFAULT_CHUNK_SIZE = 4_096;
+
+    private final Function<? super T, ? extends R> mapper;
+    private final int chunkSize;
+    private final boolean ordered;
+    private final ForkJoinPool pool;
+    private final boolean ownsPool;
+
+    private BatchProcessor(final Builder<T, R> builder) {
+        this.mapper = builder.mapper;
+        this.chunkSize = builder.chunkSize;
+        this.ordered = builder.ordered;
+        this.ownsPool = builder.parallelism > 0;
+        this.pool = ownsPool ? new ForkJoinPool(builder.parallelism) : ForkJoinPool.commonPool();
+    }
+
+    public static <T, R> Builder<T, R> mapping(final Function<? super T, ? extends R> mapper) {
+        return new Builder<>(mapper);
+    }
+
+    /**
+     * 처리가 끝날 때까지 기다렸다가 결과를 돌려준다.
+     */
+    public List<R> process(final List<? extends T> items) {
+        return submit(items).join();
+    }
+
+    /**
+     * 처리를 시작하고 바로 돌아온다. 돌려받은 {@link BatchJob}으로 결과를 기다리거나 취소한다.
+     */
+    public BatchJob<R> submit(final List<? extends T> items) {
+        final var job = new Job(items);
+        pool.execute(job.root);
+        return job;
+    }
+
+    public int getParallelism() {
+        return pool.getParallelism();
+    }
+
+    /**
+     * 직접 만든 ForkJoinPool만 종료한다. 공용 풀(commonPool)은 건드리지 않는다.
+     */
+    public void shutdown() {
+        if (ownsPool) {
+            pool.shutdown();
+        }
+    }
+
+    private final class Job implements BatchJob<R> {
+
+        private final List<? extends T> items;
+        private final AtomicBoolean cancelled = new AtomicBoolean();
+        private final Object[] orderedResults;
+        private final ConcurrentLinkedQueue<List<R>> unorderedResults;
+        private final ChunkAction root;
+
+        private Job(final List<? extends T> items) {
+            this.items = items;
+            this.orderedResults = ordered ? new Object[items.size()] : null;
+            this.unorderedResults = ordered ? null : new ConcurrentLinkedQueue<>();
+            this.root = new ChunkAction(this, 0, items.size());
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public List<R> join() {
+            // 취소되어도 root는 이미 처리 중인 청크가 끝난 뒤에야 완료된다.
+            root.join();
+            if (isCancelled()) {
+                throw new CancellationException("배치 작업이 취소되었습니다.");
+            }
+            if (ordered) {
+                final List<R> results = new ArrayList<>(orderedResults.length);
+                for (final var result : orderedResults) {
+                    results.add((R) result);
+                }
+                return results;
+            }
+            final List<R> results = new ArrayList<>();
+            unorderedResults.forEach(results::addAll);
+            return results;
+        }
+
+        @Override
+        public void cancel() {
+            // ForkJoinTask.cancel()은 처리 중인 청크를 기다리지 않고 바로 완료 상태로 만들기 때문에 쓰지 않는다.
+            // 플래그만 세우면 아직 시작하지 않은 청크는 compute()에서 건너뛰고, root는 처리 중인 청크가 끝나야 완료된다.
+            cancelled.set(true);
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return cancelled.get();
+        }
+
+        @Override
+        public boolean isDone() {
+            return root.isDone();
+        }
+    }
+
+    private final class ChunkAction extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final transient Job job;
+        private final int from;
+        private final int to;
+
+        private ChunkAction(final Job job, final int from, final int to) {
+            this.job = job;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (job.isCancelled()) {
+                return;
+            }
+            if (to - from <= chunkSize) {
+                processChunk();
+                return;
+            }
+            final var middle = (from + to) >>> 1;
+            invokeAll(new ChunkAction(job, from, middle), new ChunkAction(job, middle, to));
+        }
+
+        private void processChunk() {
+            if (ordered) {
+                for (int i = from; i < to; i++) {
+                    job.orderedResults[i] = mapper.apply(job.items.get(i));
+                }
+                return;
+            }
+            final List<R> results = new ArrayList<>(to - from);
+            for (int i = from; i < to; i++) {
+                final R result = mapper.apply(job.items.get(i));
+                if (result != null) {
+                    results.add(result);
+                }
+            }
+            job.unorderedResults.add(results);
+        }
+    }
+
+    public static final class Builder<T, R> {
+
+        private final Function<? super T, ? extends R> mapper;
+        private int chunkSize = DEFAULT_CHUNK_SIZE;
+        private int parallelism;
+        private boolean ordered = true;
+
+        private Builder(final Function<? super T, ? extends R> mapper) {
+            this.mapper = Objects.requireNonNull(mapper);
+        }
+
+        /**
+         * 더 나누지 않고 한 작업에서 순서대로 처리할 항목 수. 너무 작으면 작업 생성 비용이, 너무 크면 불균형이 커진다.
+         */
+        public Builder<T, R> chunkSize(final int chunkSize) {
+            if (chunkSize <= 0) {
+                throw new IllegalArgumentException("chunkSize는 0보다 커야 합니다. chunkSize=" + chunkSize);
+            }
+            this.chunkSize = chunkSize;
+            return this;
+        }
+
+        /**
+         * 지정하면 전용 ForkJoinPool을 만든다. 지정하지 않으면 ForkJoinPool.commonPool()을 쓴다.
+         */
+        public Builder<T, R> parallelism(final int parallelism) {
+            if (parallelism <= 0) {
+                throw new IllegalArgumentException("parallelism은 0보다 커야 합니다. parallelism=" + parallelism);
+            }
+            this.parallelism = parallelism;
+            return this;
+        }
+
+        /**
+         * false면 결과를 입력 순서와 상관없이 청크가 끝난 순서대로 모으고, mapper가 null을 돌려준 항목은 버린다.
+         */
+        public Builder<T, R> ordered(final boolean ordered) {
+            this.ordered = ordered;
+            return this;
+        }
+
+        public BatchProcessor<T, R> build() {
+            return new BatchProcessor<>(this);
+        }
+    }
+}
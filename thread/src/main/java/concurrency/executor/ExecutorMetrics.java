@@ -0,0 +1,153 @@
+package concurrency.executor;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * 하나의 실행기(executor)에 대한 작업 종류별 지표와 현재 실행 중인 작업 정보를 모은다.
+ * <p>
+ * 실행 중인 작업은 작업마다 Map에 넣고 빼는 대신 워커 스레드마다 하나씩 있는 슬롯(ThreadLocal)에 기록한다.
+ * 슬롯 수는 워커 스레드 수를 넘지 않으므로 작업이 아무리 많아도 기록 비용과 메모리가 늘어나지 않는다.
+ */
+public class ExecutorMetrics {
+
+    private final String name;
+    private final Map<String, TaskTypeMetrics> taskTypes = new ConcurrentHashMap<>();
+    private final Set<RunningSlot> slots = ConcurrentHashMap.newKeySet();
+    private final ThreadLocal<RunningSlot> currentSlot = ThreadLocal.withInitial(this::registerSlot);
+
+    private volatile ThreadPoolExecutor pool;
+
+    public ExecutorMetrics(final String name) {
+        this.name = name;
+    }
+
+    private RunningSlot registerSlot() {
+        final var slot = new RunningSlot(Thread.currentThread());
+        slots.add(slot);
+        return slot;
+    }
+
+    /**
+     * ThreadPoolExecutor를 알려주면 포화도(활성 스레드 수, 큐 길이)도 같이 보여준다.
+     */
+    public void bindPool(final ThreadPoolExecutor pool) {
+        this.pool = pool;
+    }
+
+    public TaskTypeMetrics taskType(final String taskType) {
+        return taskTypes.computeIfAbsent(taskType, TaskTypeMetrics::new);
+    }
+
+    public Collection<TaskTypeMetrics> getTaskTypes() {
+        return Collections.unmodifiableCollection(taskTypes.values());
+    }
+
+    RunningSlot currentSlot() {
+        return currentSlot.get();
+    }
+
+    /**
+     * threshold보다 오래 실행 중인 작업을 찾는다. 죽은 워커 스레드의 슬롯은 이때 정리한다.
+     */
+    public List<LongRunningTask> findLongRunningTasks(final Duration threshold) {
+        slots.removeIf(slot -> !slot.thread.isAlive());
+
+        final var now = System.nanoTime();
+        final var thresholdNanos = threshold.toNanos();
+        final List<LongRunningTask> result = new ArrayList<>();
+        for (final var slot : slots) {
+            if (!slot.running) {
+                continue;
+            }
+            final var taskType = slot.taskType;
+            final var elapsedNanos = now - slot.startNanos;
+            if (elapsedNanos >= thresholdNanos) {
+                result.add(new LongRunningTask(slot.thread.getName(), taskType, Duration.ofNanos(elapsedNanos),
+                        slot.thread.getStackTrace()));
+            }
+        }
+        return result;
+    }
+
+    public int getRunningCount() {
+        int running = 0;
+        for (final var slot : slots) {
+            if (slot.running) {
+                running++;
+            }
+        }
+        return running;
+    }
+
+    /**
+     * 풀이 얼마나 찼는지 0 ~ 1 사이로 나타낸다. 큐에 작업이 쌓이기 시작하면 1이다.
+     */
+    public double getSaturation() {
+        final var boundPool = pool;
+        if (boundPool == null) {
+            return Double.NaN;
+        }
+        if (!boundPool.getQueue().isEmpty()) {
+            return 1.0;
+        }
+        return boundPool.getActiveCount() / (double) boundPool.getMaximumPoolSize();
+    }
+
+    public String render() {
+        final var builder = new StringBuilder()
+                .append("executor=").append(name)
+                .append(" running=").append(getRunningCount());
+        final var boundPool = pool;
+        if (boundPool != null) {
+            builder.append(" poolSize=").append(boundPool.getPoolSize())
+                    .append(" active=").append(boundPool.getActiveCount())
+                    .append(" max=").append(boundPool.getMaximumPoolSize())
+                    .append(" queue=").append(boundPool.getQueue().size())
+                    .append(String.format(" saturation=%.2f", getSaturation()));
+        }
+        builder.append('\n');
+        for (final var metrics : taskTypes.values()) {
+            builder.append("  ").append(metrics.getTaskType())
+                    .append(" submitted=").append(metrics.getSubmitted())
+                    .append(" queued=").append(metrics.getQueued())
+                    .append(" completed=").append(metrics.getCompleted())
+                    .append(" failed=").append(metrics.getFailed())
+                    .append(" rejected=").append(metrics.getRejected())
+                    .append(" abandoned=").append(metrics.getAbandoned())
+                    .append('\n')
+                    .append("    queueWait ").append(metrics.getQueueWait().summary()).append('\n')
+                    .append("    execution ").append(metrics.getExecution().summary()).append('\n');
+        }
+        return builder.toString();
+    }
+
+    static final class RunningSlot {
+
+        private final Thread thread;
+        private volatile String taskType;
+        private volatile long startNanos;
+        private volatile boolean running;
+
+        private RunningSlot(final Thread thread) {
+            this.thread = thread;
+        }
+
+        void begin(final String taskType, final long startNanos) {
+            this.taskType = taskType;
+            this.startNanos = startNanos;
+            this.running = true;
+        }
+
+        void end() {
+            this.running = false;
+        }
+    }
+}
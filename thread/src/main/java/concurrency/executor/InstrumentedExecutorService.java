@@ -0,0 +1,103 @@
+package concurrency.executor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RunnableFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 기존 ExecutorService를 감싸서 작업 종류별 큐 대기 시간, 실행 시간, 포화도를 기록한다.
+ * <pre>
+ * final var executor = InstrumentedExecutorService.wrap("fixed", Executors.newFixedThreadPool(2));
+ * executor.submit(TaskTypes.named("join", () -> userServlet.service(user)));
+ * log.info(executor.getMetrics().render());
+ * </pre>
+ * 스프링의 ThreadPoolTaskExecutor에는 {@link InstrumentingTaskDecorator}를 설정한다.
+ */
+public class InstrumentedExecutorService extends AbstractExecutorService {
+
+    private final ExecutorService delegate;
+    private final ExecutorMetrics metrics;
+
+    public InstrumentedExecutorService(final ExecutorService delegate, final ExecutorMetrics metrics) {
+        this.delegate = delegate;
+        this.metrics = metrics;
+        if (delegate instanceof ThreadPoolExecutor) {
+            metrics.bindPool((ThreadPoolExecutor) delegate);
+        }
+    }
+
+    public static InstrumentedExecutorService wrap(final String name, final ExecutorService delegate) {
+        return new InstrumentedExecutorService(delegate, new ExecutorMetrics(name));
+    }
+
+    public ExecutorMetrics getMetrics() {
+        return metrics;
+    }
+
+    @Override
+    protected <T> RunnableFuture<T> newTaskFor(final Runnable runnable, final T value) {
+        return new InstrumentedTask.TypedFutureTask<>(TaskTypes.of(runnable), runnable, value);
+    }
+
+    @Override
+    protected <T> RunnableFuture<T> newTaskFor(final Callable<T> callable) {
+        return new InstrumentedTask.TypedFutureTask<>(TaskTypes.of(callable), callable);
+    }
+
+    @Override
+    public void execute(final Runnable command) {
+        final var taskMetrics = metrics.taskType(TaskTypes.of(command));
+        taskMetrics.recordSubmitted();
+        try {
+            delegate.execute(new InstrumentedTask(command, taskMetrics, metrics));
+        } catch (RejectedExecutionException e) {
+            taskMetrics.recordRejected();
+            throw e;
+        }
+    }
+
+    @Override
+    public void shutdown() {
+        delegate.shutdown();
+    }
+
+    /**
+     * 시작하지 못하고 버려진 작업은 abandoned로 센다. 돌려주는 목록에는 감싸기 전의 원래 작업이 들어 있다.
+     */
+    @Override
+    public List<Runnable> shutdownNow() {
+        final var pending = delegate.shutdownNow();
+        final List<Runnable> unwrapped = new ArrayList<>(pending.size());
+        for (final var task : pending) {
+            if (task instanceof InstrumentedTask) {
+                final var instrumented = (InstrumentedTask) task;
+                metrics.taskType(TaskTypes.of(instrumented.getDelegate())).recordAbandoned();
+                unwrapped.add(instrumented.getDelegate());
+            } else {
+                unwrapped.add(task);
+            }
+        }
+        return unwrapped;
+    }
+
+    @Override
+    public boolean isShutdown() {
+        return delegate.isShutdown();
+    }
+
+    @Override
+    public boolean isTerminated() {
+        return delegate.isTerminated();
+    }
+
+    @Override
+    public boolean awaitTermination(final long timeout, final TimeUnit unit) throws InterruptedException {
+        return delegate.awaitTermination(timeout, unit);
+    }
+}
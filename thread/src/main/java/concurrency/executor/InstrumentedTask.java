@@ -0,0 +1,77 @@
+package concurrency.executor;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.FutureTask;
+
+/**
+ * 제출 시각을 기억해 두었다가 실행될 때 큐 대기 시간과 실행 시간을 기록한다.
+ */
+final class InstrumentedTask implements Runnable {
+
+    private final Runnable delegate;
+    private final TaskTypeMetrics metrics;
+    private final ExecutorMetrics executorMetrics;
+    private final long submittedNanos;
+
+    InstrumentedTask(final Runnable delegate, final TaskTypeMetrics metrics, final ExecutorMetrics executorMetrics) {
+        this.delegate = delegate;
+        this.metrics = metrics;
+        this.executorMetrics = executorMetrics;
+        this.submittedNanos = System.nanoTime();
+    }
+
+    @Override
+    public void run() {
+        final var startNanos = System.nanoTime();
+        metrics.recordStarted(startNanos - submittedNanos);
+        final var slot = executorMetrics.currentSlot();
+        slot.begin(metrics.getTaskType(), startNanos);
+
+        var success = false;
+        try {
+            delegate.run();
+            success = !(delegate instanceof TypedFutureTask) || !((TypedFutureTask<?>) delegate).isFailed();
+        } finally {
+            slot.end();
+            metrics.recordFinished(System.nanoTime() - startNanos, success);
+        }
+    }
+
+    Runnable getDelegate() {
+        return delegate;
+    }
+
+    /**
+     * FutureTask는 작업에서 난 예외를 삼키므로 실패 여부를 따로 남긴다.
+     */
+    static final class TypedFutureTask<V> extends FutureTask<V> implements TaskTypes.Named {
+
+        private final String taskType;
+        private volatile boolean failed;
+
+        TypedFutureTask(final String taskType, final Callable<V> callable) {
+            super(callable);
+            this.taskType = taskType;
+        }
+
+        TypedFutureTask(final String taskType, final Runnable runnable, final V result) {
+            super(runnable, result);
+            this.taskType = taskType;
+        }
+
+        @Override
+        protected void setException(final Throwable t) {
+            failed = true;
+            super.setException(t);
+        }
+
+        boolean isFailed() {
+            return failed;
+        }
+
+        @Override
+        public String taskType() {
+            return taskType;
+        }
+    }
+}
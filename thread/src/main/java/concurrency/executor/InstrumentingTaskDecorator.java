@@ -0,0 +1,33 @@
+package concurrency.executor;
+
+import org.springframework.core.task.TaskDecorator;
+
+/**
+ * 스프링의 ThreadPoolTaskExecutor, SimpleAsyncTaskExecutor 등에 끼워 넣는 TaskDecorator.
+ * <pre>
+ * final var taskExecutor = new ThreadPoolTaskExecutor();
+ * final var metrics = new ExecutorMetrics("spring");
+ * taskExecutor.setTaskDecorator(new InstrumentingTaskDecorator(metrics));
+ * taskExecutor.initialize();
+ * metrics.bindPool(taskExecutor.getThreadPoolExecutor());
+ * </pre>
+ * decorate()는 작업이 큐에 들어가기 직전에 호출되므로 그 시점부터 큐 대기 시간을 잰다.
+ * submit()으로 넘긴 작업은 FutureTask로 감싸진 뒤에 들어오므로 작업 종류가 FutureTask로 묶인다. 종류별로 보려면 execute()를 쓴다.
+ * <br>
+ * 거절된 작업은 executor가 예외를 던지기 전에 이미 decorate 되었으므로 rejected가 아닌 queued로 남는다.
+ */
+public class InstrumentingTaskDecorator implements TaskDecorator {
+
+    private final ExecutorMetrics metrics;
+
+    public InstrumentingTaskDecorator(final ExecutorMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    @Override
+    public Runnable decorate(final Runnable runnable) {
+        final var taskMetrics = metrics.taskType(TaskTypes.of(runnable));
+        taskMetrics.recordSubmitted();
+        return new InstrumentedTask(runnable, taskMetrics, metrics);
+    }
+}
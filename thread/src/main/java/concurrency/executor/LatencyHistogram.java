@@ -0,0 +1,93 @@
+package concurrency.executor;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 2의 거듭제곱 경계를 가진 나노초 단위 히스토그램.
+ * <p>
+ * 버킷마다 LongAdder를 써서 여러 스레드가 동시에 기록해도 같은 캐시 라인을 두고 경쟁하지 않는다.
+ * 버킷 경계가 2배씩 커지므로 백분위 값은 최대 2배까지 오차가 있지만, 기록 비용은 덧셈 한 번으로 고정된다.
+ */
+public class LatencyHistogram {
+
+    private static final int BUCKET_COUNT = 64;
+
+    private final LongAdder[] buckets = new LongAdder[BUCKET_COUNT];
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+    public LatencyHistogram() {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    public void record(final long nanos) {
+        final var value = Math.max(nanos, 0);
+        buckets[bucketIndex(value)].increment();
+        count.increment();
+        totalNanos.add(value);
+        maxNanos.accumulate(value);
+    }
+
+    /**
+     * bucket i 는 [2^(i-1), 2^i) 나노초 구간을 센다. 0은 0번 버킷이다.
+     */
+    static int bucketIndex(final long nanos) {
+        return Math.min(BUCKET_COUNT - Long.numberOfLeadingZeros(nanos), BUCKET_COUNT - 1);
+    }
+
+    private static long bucketUpperBound(final int index) {
+        return index >= BUCKET_COUNT - 1 ? Long.MAX_VALUE : 1L << index;
+    }
+
+    public long count() {
+        return count.sum();
+    }
+
+    public long maxNanos() {
+        return maxNanos.get();
+    }
+
+    public long meanNanos() {
+        final var total = count.sum();
+        return total == 0 ? 0 : totalNanos.sum() / total;
+    }
+
+    /**
+     * 주어진 백분위(0 ~ 100)가 속한 버킷의 상한값을 돌려준다. 최댓값보다 크게 나오지는 않는다.
+     */
+    public long percentileNanos(final double percentile) {
+        final var counts = new long[BUCKET_COUNT];
+        long total = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            counts[i] = buckets[i].sum();
+            total += counts[i];
+        }
+        if (total == 0) {
+            return 0;
+        }
+        final var target = (long) Math.ceil(total * percentile / 100.0);
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += counts[i];
+            if (seen >= target) {
+                return Math.min(bucketUpperBound(i), maxNanos());
+            }
+        }
+        return maxNanos();
+    }
+
+    public String summary() {
+        return String.format("count=%d mean=%.3fms p50=%.3fms p90=%.3fms p99=%.3fms max=%.3fms",
+                count(), millis(meanNanos()), millis(percentileNanos(50)), millis(percentileNanos(90)),
+                millis(percentileNanos(99)), millis(maxNanos()));
+    }
+
+    private static double millis(final long nanos) {
+        return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+}
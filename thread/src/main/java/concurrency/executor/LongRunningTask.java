@@ -0,0 +1,44 @@
+package concurrency.executor;
+
+import java.time.Duration;
+
+public class LongRunningTask {
+
+    private final String threadName;
+    private final String taskType;
+    private final Duration elapsed;
+    private final StackTraceElement[] stackTrace;
+
+    public LongRunningTask(final String threadName, final String taskType, final Duration elapsed,
+                           final StackTraceElement[] stackTrace) {
+        this.threadName = threadName;
+        this.taskType = taskType;
+        this.elapsed = elapsed;
+        this.stackTrace = stackTrace;
+    }
+
+    public String getThreadName() {
+        return threadName;
+    }
+
+    public String getTaskType() {
+        return taskType;
+    }
+
+    public Duration getElapsed() {
+        return elapsed;
+    }
+
+    public StackTraceElement[] getStackTrace() {
+        return stackTrace.clone();
+    }
+
+    @Override
+    public String toString() {
+        return "LongRunningTask{" +
+                "threadName='" + threadName + '\'' +
+                ", taskType='" + taskType + '\'' +
+                ", elapsed=" + elapsed +
+                '}';
+    }
+}
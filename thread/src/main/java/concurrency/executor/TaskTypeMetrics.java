@@ -0,0 +1,92 @@
+package concurrency.executor;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 작업 종류 하나에 대한 지표. 큐에서 기다린 시간과 실제로 실행된 시간을 따로 기록한다.
+ */
+public class TaskTypeMetrics {
+
+    private final String taskType;
+    private final LatencyHistogram queueWait = new LatencyHistogram();
+    private final LatencyHistogram execution = new LatencyHistogram();
+    private final LongAdder submitted = new LongAdder();
+    private final LongAdder started = new LongAdder();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder abandoned = new LongAdder();
+
+    TaskTypeMetrics(final String taskType) {
+        this.taskType = taskType;
+    }
+
+    void recordSubmitted() {
+        submitted.increment();
+    }
+
+    void recordRejected() {
+        rejected.increment();
+    }
+
+    void recordAbandoned() {
+        abandoned.increment();
+    }
+
+    void recordStarted(final long queueWaitNanos) {
+        started.increment();
+        queueWait.record(queueWaitNanos);
+    }
+
+    void recordFinished(final long executionNanos, final boolean success) {
+        execution.record(executionNanos);
+        if (success) {
+            completed.increment();
+        } else {
+            failed.increment();
+        }
+    }
+
+    public String getTaskType() {
+        return taskType;
+    }
+
+    public LatencyHistogram getQueueWait() {
+        return queueWait;
+    }
+
+    public LatencyHistogram getExecution() {
+        return execution;
+    }
+
+    public long getSubmitted() {
+        return submitted.sum();
+    }
+
+    public long getStarted() {
+        return started.sum();
+    }
+
+    public long getCompleted() {
+        return completed.sum();
+    }
+
+    public long getFailed() {
+        return failed.sum();
+    }
+
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+    public long getAbandoned() {
+        return abandoned.sum();
+    }
+
+    /**
+     * 제출됐지만 아직 시작하지 못한 작업 수. 여러 카운터를 따로 읽으므로 순간적으로 오차가 있을 수 있다.
+     */
+    public long getQueued() {
+        return Math.max(getSubmitted() - getRejected() - getStarted() - getAbandoned(), 0);
+    }
+}
@@ -0,0 +1,83 @@
+package concurrency.executor;
+
+import java.util.concurrent.Callable;
+
+/**
+ * 작업 종류 이름을 정한다.
+ * <p>
+ * 람다는 클래스 이름이 실행할 때마다 달라지므로($$Lambda$12/0x...) 뒤쪽을 잘라서 선언한 클래스 기준으로 묶는다.
+ * 더 구체적인 이름이 필요하면 {@link #named(String, Runnable)}로 감싸서 넘긴다.
+ */
+public final class TaskTypes {
+
+    private static final String LAMBDA_MARKER = "$$Lambda$";
+
+    private TaskTypes() {
+    }
+
+    public static Runnable named(final String taskType, final Runnable task) {
+        return new NamedRunnable(taskType, task);
+    }
+
+    public static <T> Callable<T> named(final String taskType, final Callable<T> task) {
+        return new NamedCallable<>(taskType, task);
+    }
+
+    static String of(final Object task) {
+        if (task instanceof Named) {
+            return ((Named) task).taskType();
+        }
+        final var className = task.getClass().getName();
+        final var lambdaIndex = className.indexOf(LAMBDA_MARKER);
+        if (lambdaIndex < 0) {
+            return className;
+        }
+        return className.substring(0, lambdaIndex) + "$$Lambda";
+    }
+
+    interface Named {
+        String taskType();
+    }
+
+    private static final class NamedRunnable implements Runnable, Named {
+
+        private final String taskType;
+        private final Runnable delegate;
+
+        private NamedRunnable(final String taskType, final Runnable delegate) {
+            this.taskType = taskType;
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void run() {
+            delegate.run();
+        }
+
+        @Override
+        public String taskType() {
+            return taskType;
+        }
+    }
+
+    private static final class NamedCallable<T> implements Callable<T>, Named {
+
+        private final String taskType;
+        private final Callable<T> delegate;
+
+        private NamedCallable(final String taskType, final Callable<T> delegate) {
+            this.taskType = taskType;
+            this.delegate = delegate;
+        }
+
+        @Override
+        public T call() throws Exception {
+            return delegate.call();
+        }
+
+        @Override
+        public String taskType() {
+            return taskType;
+        }
+    }
+}
@@ -0,0 +1,462 @@
+package concurrency.nio;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.PriorityQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * 스레드 하나(event loop)로 모든 연결을 처리하는 아주 작은 HTTP/1.1 서버.
+ * <p>
+ * SampleController의 /test와 같은 계약(500ms 뒤에 "Hello World")을 지키지만, 기다리는 동안 스레드를 재우지 않는다.
+ * 요청을 읽으면 응답할 시각을 타이머 큐에 넣고, selector가 그 시각까지만 기다리도록 해서
+ * 스레드 하나로도 수천 개의 연결이 동시에 500ms를 기다릴 수 있다.
+ * <p>
+ * application.yml의 max-connections, accept-count에 해당하는 값은 생성자로 받는다.
+ * 연결 수가 maxConnections에 닿으면 accept를 멈추고, 그동안 들어온 연결은 OS의 accept 대기열(backlog)에 쌓인다.
+ * <p>
+ * 파일 디스크립터가 모자라는 등(EMFILE)으로 accept가 실패하면 톰캣의 Acceptor처럼 accept를 잠시 멈췄다가 다시 건다.
+ * 멈추는 시간은 50ms부터 실패할 때마다 두 배로 늘려 1.6초까지 기다리고, 연결이 하나 닫히면 바로 다시 건다.
+ * OP_ACCEPT를 켠 채로 두면 backlog에 연결이 남아 있는 동안 select가 계속 깨어나 같은 실패를 반복한다.
+ * <p>
+ * 비교용으로 만든 서버라서 GET 요청, Content-Length가 있는 요청 본문, keep-alive, pipelining까지만 지원한다.
+ */
+public class NioHttpServer {
+
+    private static final Logger log = LoggerFactory.getLogger(NioHttpServer.class);
+
+    private static final int READ_BUFFER_SIZE = 8 * 1024;
+    private static final int INITIAL_ACCEPT_ERROR_DELAY_MILLIS = 50;
+    private static final int MAX_ACCEPT_ERROR_DELAY_MILLIS = 1600;
+    private static final byte[] HEADER_END = {'\r', '\n', '\r', '\n'};
+    private static final String TEST_PATH = "/test";
+    private static final byte[] OK = response("200 OK", "Hello World");
+    private static final byte[] NOT_FOUND = response("404 Not Found", "Not Found");
+    private static final byte[] BAD_REQUEST = response("400 Bad Request", "Bad Request");
+
+    private final int port;
+    private final long responseDelayNanos;
+    private final int maxConnections;
+    private final int acceptCount;
+
+    private final PriorityQueue<Connection> timers = new PriorityQueue<>(
+            (first, second) -> Long.compare(first.respondAtNanos, second.respondAtNanos));
+    private final AtomicInteger openConnections = new AtomicInteger();
+    private final AtomicInteger peakConnections = new AtomicInteger();
+    private final AtomicLong servedRequests = new AtomicLong();
+    private final CountDownLatch started = new CountDownLatch(1);
+
+    private Selector selector;
+    private ServerSocketChannel serverChannel;
+    private SelectionKey acceptKey;
+    private Thread eventLoop;
+    private volatile boolean running;
+
+    // event loop 스레드에서만 접근한다.
+    private int acceptErrorDelayMillis;
+    private long acceptResumeAtNanos;
+    private long acceptErrors;
+
+    public NioHttpServer(final int port, final long responseDelayMillis, final int maxConnections,
+                         final int acceptCount) {
+        this.port = port;
+        this.responseDelayNanos = TimeUnit.MILLISECONDS.toNanos(responseDelayMillis);
+        this.maxConnections = maxConnections;
+        this.acceptCount = acceptCount;
+    }
+
+    public static void main(final String[] args) throws Exception {
+        final var port = args.length > 0 ? Integer.parseInt(args[0]) : 8080;
+        final var server = new NioHttpServer(port, 500, 10_000, 100);
+        server.start();
+        server.eventLoop.join();
+    }
+
+    public void start() throws IOException {
+        selector = Selector.open();
+        serverChannel = ServerSocketChannel.open();
+        serverChannel.bind(new InetSocketAddress(port), acceptCount);
+        serverChannel.configureBlocking(false);
+        acceptKey = serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+
+        running = true;
+        eventLoop = new Thread(this::loop, "nio-http-event-loop");
+        eventLoop.start();
+        awaitStarted();
+        log.info("nio http server started. port={}", getLocalPort());
+    }
+
+    public void stop() throws InterruptedException {
+        running = false;
+        selector.wakeup();
+        eventLoop.join();
+    }
+
+    public int getLocalPort() {
+        return serverChannel.socket().getLocalPort();
+    }
+
+    public int getOpenConnections() {
+        return openConnections.get();
+    }
+
+    public int getPeakConnections() {
+        return peakConnections.get();
+    }
+
+    public long getServedRequests() {
+        return servedRequests.get();
+    }
+
+    private void awaitStarted() {
+        try {
+            started.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void loop() {
+        started.countDown();
+        try {
+            while (running) {
+                selector.select(selectTimeoutMillis());
+                for (final var key : selector.selectedKeys()) {
+                    handle(key);
+                }
+                selector.selectedKeys().clear();
+                fireTimers();
+                resumeAcceptIfDue();
+            }
+        } catch (IOException | ClosedSelectorException e) {
+            log.error("event loop stopped", e);
+        } finally {
+            closeAll();
+        }
+    }
+
+    /**
+     * 가장 빨리 응답해야 할 요청이나 accept를 다시 걸 시각까지만 기다린다. 둘 다 없으면 이벤트가 올 때까지 기다린다(0).
+     */
+    private long selectTimeoutMillis() {
+        final var next = timers.peek();
+        if (next == null && acceptResumeAtNanos == 0) {
+            return 0;
+        }
+        var wakeAtNanos = next == null ? acceptResumeAtNanos : next.respondAtNanos;
+        if (acceptResumeAtNanos != 0 && acceptResumeAtNanos - wakeAtNanos < 0) {
+            wakeAtNanos = acceptResumeAtNanos;
+        }
+        final var remainingNanos = wakeAtNanos - System.nanoTime();
+        return Math.max(1, TimeUnit.NANOSECONDS.toMillis(remainingNanos + 999_999));
+    }
+
+    private void handle(final SelectionKey key) {
+        if (!key.isValid()) {
+            return;
+        }
+        try {
+            if (key.isAcceptable()) {
+                accept();
+                return;
+            }
+            final var connection = (Connection) key.attachment();
+            if (key.isReadable()) {
+                read(connection);
+            } else if (key.isWritable()) {
+                write(connection);
+            }
+        } catch (IOException | RuntimeException e) {
+            // 연결 하나의 오류가 event loop를 끝내지 않도록 그 연결만 닫는다.
+            if (key == acceptKey) {
+                pauseAccept(e);
+                return;
+            }
+            if (e instanceof RuntimeException) {
+                log.warn("closing connection after unexpected error", e);
+            }
+            close(key);
+        }
+    }
+
+    private void accept() throws IOException {
+        SocketChannel channel;
+        while (openConnections.get() < maxConnections && (channel = serverChannel.accept()) != null) {
+            channel.configureBlocking(false);
+            final var key = channel.register(selector, SelectionKey.OP_READ);
+            key.attach(new Connection(key));
+            peakConnections.accumulateAndGet(openConnections.incrementAndGet(), Math::max);
+            if (acceptErrorDelayMillis > 0) {
+                log.info("accept recovered after {} failures", acceptErrors);
+                acceptErrorDelayMillis = 0;
+                acceptErrors = 0;
+            }
+        }
+        if (openConnections.get() >= maxConnections) {
+            // 연결이 닫힐 때까지 accept를 멈춘다. 새 연결은 OS backlog(acceptCount)에서 기다린다.
+            acceptKey.interestOps(0);
+        }
+    }
+
+    /**
+     * accept를 멈추고 acceptErrorDelayMillis 뒤에 다시 건다. 연속된 실패 중 첫 번째만 warn으로 남기고
+     * 나머지는 debug로 남긴다. 몇 번 실패했는지는 accept가 다시 성공할 때 한 번 남긴다.
+     */
+    private void pauseAccept(final Exception e) {
+        acceptErrors++;
+        if (acceptErrorDelayMillis == 0) {
+            acceptErrorDelayMillis = INITIAL_ACCEPT_ERROR_DELAY_MILLIS;
+            log.warn("accept failed. pausing accept for {}ms", acceptErrorDelayMillis, e);
+        } else {
+            acceptErrorDelayMillis = Math.min(acceptErrorDelayMillis * 2, MAX_ACCEPT_ERROR_DELAY_MILLIS);
+            log.debug("accept failed again. failures={}, pausing accept for {}ms", acceptErrors,
+                    acceptErrorDelayMillis, e);
+        }
+        acceptKey.interestOps(0);
+        acceptResumeAtNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(acceptErrorDelayMillis);
+    }
+
+    private void resumeAcceptIfDue() {
+        if (acceptResumeAtNanos == 0 || acceptResumeAtNanos - System.nanoTime() > 0) {
+            return;
+        }
+        acceptResumeAtNanos = 0;
+        if (acceptKey.isValid() && openConnections.get() < maxConnections) {
+            acceptKey.interestOps(SelectionKey.OP_ACCEPT);
+        }
+    }
+
+    private void read(final Connection connection) throws IOException {
+        final var read = connection.channel().read(connection.readBuffer);
+        if (read < 0) {
+            close(connection.key);
+            return;
+        }
+        parseRequest(connection);
+    }
+
+    /**
+     * 읽어 둔 버퍼에 완성된 요청이 있으면 응답 시각을 예약한다. 응답을 보내기 전까지는 더 읽지 않는다.
+     */
+    private void parseRequest(final Connection connection) throws IOException {
+        final var buffer = connection.readBuffer;
+        final var headerEnd = indexOf(buffer, HEADER_END);
+        if (headerEnd < 0) {
+            if (!buffer.hasRemaining()) {
+                respondNow(connection, BAD_REQUEST, false);
+            }
+            return;
+        }
+
+        final var head = new String(buffer.array(), 0, headerEnd, StandardCharsets.ISO_8859_1);
+        final var contentLength = contentLength(head);
+        if (contentLength < 0) {
+            respondNow(connection, BAD_REQUEST, false);
+            return;
+        }
+        final var requestEnd = headerEnd + HEADER_END.length + contentLength;
+        if (requestEnd > buffer.capacity()) {
+            respondNow(connection, BAD_REQUEST, false);
+            return;
+        }
+        if (buffer.position() < requestEnd) {
+            return;
+        }
+
+        connection.keepAlive = isKeepAlive(head);
+        connection.consume(requestEnd);
+        connection.key.interestOps(0);
+        if (!TEST_PATH.equals(path(head))) {
+            respondNow(connection, NOT_FOUND, connection.keepAlive);
+            return;
+        }
+        connection.respondAtNanos = System.nanoTime() + responseDelayNanos;
+        timers.add(connection);
+    }
+
+    private void fireTimers() {
+        final var now = System.nanoTime();
+        while (!timers.isEmpty() && timers.peek().respondAtNanos <= now) {
+            final var connection = timers.poll();
+            if (!connection.key.isValid()) {
+                continue;
+            }
+            try {
+                respondNow(connection, OK, connection.keepAlive);
+            } catch (IOException | RuntimeException e) {
+                close(connection.key);
+            }
+        }
+    }
+
+    private void respondNow(final Connection connection, final byte[] response, final boolean keepAlive)
+            throws IOException {
+        connection.keepAlive = keepAlive;
+        connection.writeBuffer = ByteBuffer.wrap(response);
+        servedRequests.incrementAndGet();
+        write(connection);
+    }
+
+    private void write(final Connection connection) throws IOException {
+        connection.channel().write(connection.writeBuffer);
+        if (connection.writeBuffer.hasRemaining()) {
+            connection.key.interestOps(SelectionKey.OP_WRITE);
+            return;
+        }
+        connection.writeBuffer = null;
+        if (!connection.keepAlive) {
+            close(connection.key);
+            return;
+        }
+        connection.key.interestOps(SelectionKey.OP_READ);
+        // pipelining으로 이미 다음 요청까지 읽어 두었을 수 있다.
+        parseRequest(connection);
+    }
+
+    private void close(final SelectionKey key) {
+        key.cancel();
+        try {
+            key.channel().close();
+        } catch (IOException e) {
+            log.debug("close failed", e);
+        }
+        if (key.attachment() != null) {
+            openConnections.decrementAndGet();
+            key.attach(null);
+            // accept 실패로 멈춰 있었더라도 디스크립터가 하나 생겼으므로 기다리지 않고 다시 건다.
+            if (running && acceptKey.isValid()) {
+                acceptResumeAtNanos = 0;
+                acceptKey.interestOps(SelectionKey.OP_ACCEPT);
+            }
+        }
+    }
+
+    private void closeAll() {
+        for (final var key : selector.keys()) {
+            close(key);
+        }
+        try {
+            selector.close();
+            serverChannel.close();
+        } catch (IOException e) {
+            log.debug("close failed", e);
+        }
+    }
+
+    private static int indexOf(final ByteBuffer buffer, final byte[] target) {
+        final var array = buffer.array();
+        final var limit = buffer.position() - target.length;
+        for (int i = 0; i <= limit; i++) {
+            int j = 0;
+            while (j < target.length && array[i + j] == target[j]) {
+                j++;
+            }
+            if (j == target.length) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static String path(final String head) {
+        final var firstLineEnd = head.indexOf("\r\n");
+        final var requestLine = firstLineEnd < 0 ? head : head.substring(0, firstLineEnd);
+        final var parts = requestLine.split(" ");
+        if (parts.length < 2) {
+            return "";
+        }
+        final var target = parts[1];
+        final var queryStart = target.indexOf('?');
+        return queryStart < 0 ? target : target.substring(0, queryStart);
+    }
+
+    /**
+     * 숫자가 아니거나 음수이거나 읽기 버퍼보다 크면 -1을 돌려준다. 호출한 쪽은 400으로 응답하고 연결을 닫는다.
+     */
+    private static int contentLength(final String head) {
+        final var value = header(head, "content-length");
+        if (value == null) {
+            return 0;
+        }
+        if (value.isEmpty() || value.length() > 9) {
+            return -1;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            final var c = value.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+        }
+        final var length = Integer.parseInt(value);
+        return length > READ_BUFFER_SIZE ? -1 : length;
+    }
+
+    private static boolean isKeepAlive(final String head) {
+        final var connection = header(head, "connection");
+        if (head.contains("HTTP/1.0")) {
+            return "keep-alive".equalsIgnoreCase(connection);
+        }
+        return !"close".equalsIgnoreCase(connection);
+    }
+
+    private static String header(final String head, final String name) {
+        for (final var line : head.split("\r\n")) {
+            final var colon = line.indexOf(':');
+            if (colon > 0 && line.substring(0, colon).trim().equalsIgnoreCase(name)) {
+                return line.substring(colon + 1).trim();
+            }
+        }
+        return null;
+    }
+
+    private static byte[] response(final String status, final String body) {
+        final var bodyBytes = body.getBytes(StandardCharsets.UTF_8);
+        final var head = "HTTP/1.1 " + status + "\r\n" +
+                "Content-Type: text/plain;charset=UTF-8\r\n" +
+                "Content-Length: " + bodyBytes.length + "\r\n" +
+                "\r\n";
+        final var headBytes = head.getBytes(StandardCharsets.ISO_8859_1);
+        final var bytes = new byte[headBytes.length + bodyBytes.length];
+        System.arraycopy(headBytes, 0, bytes, 0, headBytes.length);
+        System.arraycopy(bodyBytes, 0, bytes, headBytes.length, bodyBytes.length);
+        return bytes;
+    }
+
+    private static final class Connection {
+
+        private final SelectionKey key;
+        private final ByteBuffer readBuffer = ByteBuffer.allocate(READ_BUFFER_SIZE);
+        private ByteBuffer writeBuffer;
+        private boolean keepAlive;
+        private long respondAtNanos;
+
+        private Connection(final SelectionKey key) {
+            this.key = key;
+        }
+
+        SocketChannel channel() {
+            return (SocketChannel) key.channel();
+        }
+
+        /**
+         * 처리한 요청만큼 버퍼 앞부분을 버리고 남은 바이트(다음 요청)를 앞으로 당긴다.
+         */
+        void consume(final int length) {
+            readBuffer.flip();
+            readBuffer.position(length);
+            readBuffer.compact();
+        }
+    }
+}
@@ -0,0 +1,355 @@
+package concurrency.stage2.diagnostics;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadInfo;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * ThreadMXBean으로 주기적으로 스레드 상태를 샘플링한다.
+ * <p>
+ * 샘플마다 스레드별 blocked/waited 시간의 증가분을 현재 기다리고 있는 락(모니터)과 첫 애플리케이션 프레임에 누적하고,
+ * 스택 전체는 flame graph 도구(flamegraph.pl, speedscope 등)가 읽을 수 있는 collapsed stack 형식으로 센다.
+ * <p>
+ * 기다리는 스레드의 최상단 프레임은 항상 Unsafe.park나 Object.wait이므로 java.*, jdk.*, sun.* 프레임은 건너뛰고
+ * 처음 나오는 프레임(예: UserServlet.join)에 붙인다. 스레드 풀의 작업 큐에서 일을 기다리는 스레드
+ * (톰캣 exec 스레드가 TaskQueue.poll에서 쉬는 경우 등)는 경합이 아니므로 락과 프레임에 넣지 않고 idle 샘플로만 센다.
+ * <p>
+ * 락 정보(lockedMonitors, lockedSynchronizers)는 수집하지 않고 스택 깊이도 제한해서
+ * 운영 환경에서 켜 두어도 부담이 적도록 했다.
+ */
+public class ThreadContentionSampler {
+
+    private static final Logger log = LoggerFactory.getLogger(ThreadContentionSampler.class);
+
+    private static final String SAMPLER_THREAD_NAME = "thread-contention-sampler";
+    private static final String TRUNCATED = "[truncated]";
+    private static final String[] JDK_PACKAGES = {"java.", "jdk.", "sun."};
+
+    private final ThreadMXBean threadMXBean;
+    private final long intervalMillis;
+    private final int maxDepth;
+    private final int maxStacks;
+    private final boolean contentionMonitoringSupported;
+
+    private final Map<String, ContentionStats> lockStats = new ConcurrentHashMap<>();
+    private final Map<String, ContentionStats> frameStats = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> collapsedStacks = new ConcurrentHashMap<>();
+    private final LongAdder sampleCount = new LongAdder();
+    private final LongAdder idleSamples = new LongAdder();
+
+    // 샘플러 스레드에서만 접근한다.
+    private Map<Long, ThreadTimes> previousTimes = new HashMap<>();
+
+    private ScheduledExecutorService scheduler;
+
+    public ThreadContentionSampler(final long intervalMillis, final int maxDepth, final int maxStacks) {
+        this(ManagementFactory.getThreadMXBean(), intervalMillis, maxDepth, maxStacks);
+    }
+
+    ThreadContentionSampler(final ThreadMXBean threadMXBean, final long intervalMillis, final int maxDepth,
+                            final int maxStacks) {
+        if (intervalMillis <= 0 || maxDepth <= 0 || maxStacks <= 0) {
+            throw new IllegalArgumentException("intervalMillis, maxDepth, maxStacks는 0보다 커야 합니다.");
+        }
+        this.threadMXBean = threadMXBean;
+        this.intervalMillis = intervalMillis;
+        this.maxDepth = maxDepth;
+        this.maxStacks = maxStacks;
+        this.contentionMonitoringSupported = threadMXBean.isThreadContentionMonitoringSupported();
+        if (contentionMonitoringSupported) {
+            threadMXBean.setThreadContentionMonitoringEnabled(true);
+        }
+    }
+
+    public synchronized void start() {
+        if (scheduler != null) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            final var thread = new Thread(runnable, SAMPLER_THREAD_NAME);
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleAtFixedRate(this::sampleSafely, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+        log.info("thread contention sampler started. interval={}ms, maxDepth={}", intervalMillis, maxDepth);
+    }
+
+    public synchronized void stop() {
+        if (scheduler == null) {
+            return;
+        }
+        scheduler.shutdownNow();
+        scheduler = null;
+    }
+
+    public synchronized void reset() {
+        lockStats.clear();
+        frameStats.clear();
+        collapsedStacks.clear();
+        sampleCount.reset();
+        idleSamples.reset();
+    }
+
+    private void sampleSafely() {
+        try {
+            sample();
+        } catch (RuntimeException e) {
+            log.warn("thread sampling failed", e);
+        }
+    }
+
+    /**
+     * 모든 스레드를 한 번 샘플링한다. 스케줄러 스레드에서 호출되며, 테스트에서는 직접 호출할 수 있다.
+     */
+    synchronized void sample() {
+        final var currentThreadId = Thread.currentThread().getId();
+        final var infos = threadMXBean.getThreadInfo(threadMXBean.getAllThreadIds(), maxDepth);
+        final var currentTimes = new HashMap<Long, ThreadTimes>(infos.length * 2);
+
+        for (final var info : infos) {
+            if (info == null || info.getThreadId() == currentThreadId) {
+                continue;
+            }
+            final var times = ThreadTimes.from(info);
+            currentTimes.put(info.getThreadId(), times);
+            recordContention(info, times.minus(previousTimes.get(info.getThreadId())));
+            recordStack(info);
+        }
+        previousTimes = currentTimes;
+        sampleCount.increment();
+    }
+
+    private void recordContention(final ThreadInfo info, final ThreadTimes delta) {
+        final var state = info.getThreadState();
+        if (state != Thread.State.BLOCKED && state != Thread.State.WAITING && state != Thread.State.TIMED_WAITING) {
+            return;
+        }
+        final var stackTrace = info.getStackTrace();
+        if (state != Thread.State.BLOCKED && isIdleWorker(stackTrace)) {
+            idleSamples.increment();
+            return;
+        }
+        final var lockName = info.getLockName();
+        if (lockName != null) {
+            bounded(lockStats, lockName, ContentionStats::new).add(state, delta);
+        }
+        if (stackTrace.length > 0) {
+            bounded(frameStats, frameName(applicationFrame(stackTrace)), ContentionStats::new).add(state, delta);
+        }
+    }
+
+    /**
+     * 처음 나오는 java.*, jdk.*, sun.* 밖의 프레임. 스택이 모두 JDK 프레임이면 최상단 프레임을 쓴다.
+     */
+    static StackTraceElement applicationFrame(final StackTraceElement[] stackTrace) {
+        for (final var element : stackTrace) {
+            if (!isJdkFrame(element)) {
+                return element;
+            }
+        }
+        return stackTrace[0];
+    }
+
+    private static boolean isJdkFrame(final StackTraceElement element) {
+        final var className = element.getClassName();
+        for (final var jdkPackage : JDK_PACKAGES) {
+            if (className.startsWith(jdkPackage)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 스레드 풀 워커가 다음 작업을 기다리는 중인지 본다. JDK와 톰캣의 ThreadPoolExecutor는 모두 getTask()에서
+     * 작업 큐의 take/poll을 부르고, ForkJoinPool 워커는 awaitWork()에서 쉰다.
+     */
+    static boolean isIdleWorker(final StackTraceElement[] stackTrace) {
+        for (final var element : stackTrace) {
+            final var className = element.getClassName();
+            final var methodName = element.getMethodName();
+            if ((className.endsWith("ThreadPoolExecutor") && methodName.equals("getTask"))
+                    || (className.equals("java.util.concurrent.ForkJoinPool") && methodName.equals("awaitWork"))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void recordStack(final ThreadInfo info) {
+        bounded(collapsedStacks, collapse(info), LongAdder::new).increment();
+    }
+
+    /**
+     * 키 종류가 maxStacks를 넘어가면 메모리가 계속 늘어나지 않도록 하나의 키로 모은다.
+     */
+    private <V> V bounded(final Map<String, V> map, final String key, final Supplier<V> factory) {
+        final var value = map.get(key);
+        if (value != null) {
+            return value;
+        }
+        final var effectiveKey = map.size() < maxStacks ? key : TRUNCATED;
+        return map.computeIfAbsent(effectiveKey, ignored -> factory.get());
+    }
+
+    private String collapse(final ThreadInfo info) {
+        final var builder = new StringBuilder(256).append(threadGroupName(info.getThreadName()));
+        final var stackTrace = info.getStackTrace();
+        for (int i = stackTrace.length - 1; i >= 0; i--) {
+            builder.append(';').append(frameName(stackTrace[i]));
+        }
+        return builder.append(";[").append(info.getThreadState()).append(']').toString();
+    }
+
+    /**
+     * http-nio-8080-exec-3 처럼 번호만 다른 스레드는 하나의 루트로 묶는다.
+     */
+    static String threadGroupName(final String threadName) {
+        int end = threadName.length();
+        while (end > 0 && Character.isDigit(threadName.charAt(end - 1))) {
+            end--;
+        }
+        final var groupName = end < threadName.length() ? threadName.substring(0, end) + "N" : threadName;
+        return groupName.replace(';', '_').replace(' ', '_');
+    }
+
+    private static String frameName(final StackTraceElement element) {
+        return element.getClassName() + "." + element.getMethodName();
+    }
+
+    /**
+     * flame graph 도구가 읽는 collapsed stack 형식(`root;frame;...;leaf count`)으로 출력한다.
+     */
+    public String renderCollapsedStacks() {
+        final var builder = new StringBuilder();
+        collapsedStacks.forEach((stack, count) -> builder.append(stack).append(' ').append(count.sum()).append('\n'));
+        return builder.toString();
+    }
+
+    public String renderLocks() {
+        return render("lock", lockStats);
+    }
+
+    public String renderFrames() {
+        return render("frame", frameStats);
+    }
+
+    private String render(final String title, final Map<String, ContentionStats> stats) {
+        final List<Map.Entry<String, ContentionStats>> entries = new ArrayList<>(stats.entrySet());
+        entries.sort(Comparator.comparingLong(
+                (Map.Entry<String, ContentionStats> entry) -> entry.getValue().totalMillis()).reversed());
+
+        final var builder = new StringBuilder()
+                .append("# samples=").append(sampleCount.sum())
+                .append(" idleSamples=").append(idleSamples.sum())
+                .append(" contentionMonitoring=").append(contentionMonitoringSupported)
+                .append('\n')
+                .append("# ").append(title).append("\tblockedSamples\tblockedCount\tblockedMs\twaitingSamples\twaitedMs\n");
+        for (final var entry : entries) {
+            final var value = entry.getValue();
+            builder.append(entry.getKey()).append('\t')
+                    .append(value.blockedSamples.sum()).append('\t')
+                    .append(value.blockedCount.sum()).append('\t')
+                    .append(value.blockedMillis.sum()).append('\t')
+                    .append(value.waitingSamples.sum()).append('\t')
+                    .append(value.waitedMillis.sum()).append('\n');
+        }
+        return builder.toString();
+    }
+
+    /**
+     * 현재 시점의 스레드 덤프. 어떤 스레드가 어떤 락을 누구 때문에 기다리는지 보여준다.
+     */
+    public String renderThreadDump() {
+        final var builder = new StringBuilder();
+        for (final var info : threadMXBean.getThreadInfo(threadMXBean.getAllThreadIds(), maxDepth)) {
+            if (info == null) {
+                continue;
+            }
+            builder.append('"').append(info.getThreadName()).append("\" id=").append(info.getThreadId())
+                    .append(' ').append(info.getThreadState());
+            if (info.getLockName() != null) {
+                builder.append(" on ").append(info.getLockName());
+            }
+            if (info.getLockOwnerName() != null) {
+                builder.append(" owned by \"").append(info.getLockOwnerName())
+                        .append("\" id=").append(info.getLockOwnerId());
+            }
+            builder.append('\n');
+            for (final var element : info.getStackTrace()) {
+                builder.append("\tat ").append(element).append('\n');
+            }
+            builder.append('\n');
+        }
+        return builder.toString();
+    }
+
+    private static final class ContentionStats {
+
+        private final LongAdder blockedSamples = new LongAdder();
+        private final LongAdder blockedCount = new LongAdder();
+        private final LongAdder blockedMillis = new LongAdder();
+        private final LongAdder waitingSamples = new LongAdder();
+        private final LongAdder waitedMillis = new LongAdder();
+
+        void add(final Thread.State state, final ThreadTimes delta) {
+            if (state == Thread.State.BLOCKED) {
+                blockedSamples.increment();
+            } else {
+                waitingSamples.increment();
+            }
+            blockedCount.add(delta.blockedCount);
+            blockedMillis.add(delta.blockedMillis);
+            waitedMillis.add(delta.waitedMillis);
+        }
+
+        long totalMillis() {
+            return blockedMillis.sum() + waitedMillis.sum();
+        }
+    }
+
+    private static final class ThreadTimes {
+
+        private static final ThreadTimes ZERO = new ThreadTimes(0, 0, 0);
+
+        private final long blockedCount;
+        private final long blockedMillis;
+        private final long waitedMillis;
+
+        private ThreadTimes(final long blockedCount, final long blockedMillis, final long waitedMillis) {
+            this.blockedCount = blockedCount;
+            this.blockedMillis = blockedMillis;
+            this.waitedMillis = waitedMillis;
+        }
+
+        static ThreadTimes from(final ThreadInfo info) {
+            // contention monitoring이 꺼져 있으면 시간은 -1로 나온다.
+            return new ThreadTimes(info.getBlockedCount(), Math.max(info.getBlockedTime(), 0),
+                    Math.max(info.getWaitedTime(), 0));
+        }
+
+        ThreadTimes minus(final ThreadTimes previous) {
+            // 처음 본 스레드는 기준값만 잡는다. 누적값을 그대로 더하면 오래된 스레드의 과거 대기 시간이 한꺼번에 잡힌다.
+            if (previous == null) {
+                return ZERO;
+            }
+            return new ThreadTimes(
+                    Math.max(blockedCount - previous.blockedCount, 0),
+                    Math.max(blockedMillis - previous.blockedMillis, 0),
+                    Math.max(waitedMillis - previous.waitedMillis, 0));
+        }
+    }
+}
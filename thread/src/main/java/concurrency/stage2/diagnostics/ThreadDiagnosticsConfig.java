@@ -0,0 +1,19 @@
+package concurrency.stage2.diagnostics;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConditionalOnProperty(name = "diagnostics.threads.enabled", havingValue = "true", matchIfMissing = true)
+public class ThreadDiagnosticsConfig {
+
+    @Bean(initMethod = "start", destroyMethod = "stop")
+    public ThreadContentionSampler threadContentionSampler(
+            @Value("${diagnostics.threads.sample-interval-millis:200}") final long intervalMillis,
+            @Value("${diagnostics.threads.max-depth:64}") final int maxDepth,
+            @Value("${diagnostics.threads.max-stacks:4096}") final int maxStacks) {
+        return new ThreadContentionSampler(intervalMillis, maxDepth, maxStacks);
+    }
+}
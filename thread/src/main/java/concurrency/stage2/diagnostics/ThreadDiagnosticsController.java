@@ -0,0 +1,64 @@
+package concurrency.stage2.diagnostics;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseBody;
+
+/**
+ * AppTest를 실행하는 동안 아래 주소를 호출해서 nio-8080-exec-x 스레드가 어디서 멈춰 있는지 확인해보자.
+ * <br>
+ * - /diagnostics/threads : 현재 스레드 덤프
+ * <br>
+ * - /diagnostics/threads/locks : 락(모니터)별 blocked/waited 누적 시간
+ * <br>
+ * - /diagnostics/threads/frames : 첫 애플리케이션 프레임(java.*, jdk.*, sun.* 제외)별 blocked/waited 누적 시간.
+ * 작업을 기다리며 쉬는 exec 스레드는 빼고 idleSamples로만 센다.
+ * <br>
+ * - /diagnostics/threads/collapsed : flame graph용 collapsed stack (flamegraph.pl, speedscope에 그대로 넣으면 된다)
+ */
+@Controller
+@ConditionalOnProperty(name = "diagnostics.threads.enabled", havingValue = "true", matchIfMissing = true)
+@RequestMapping(value = "/diagnostics/threads", produces = MediaType.TEXT_PLAIN_VALUE)
+public class ThreadDiagnosticsController {
+
+    private final ThreadContentionSampler sampler;
+
+    public ThreadDiagnosticsController(final ThreadContentionSampler sampler) {
+        this.sampler = sampler;
+    }
+
+    @GetMapping
+    @ResponseBody
+    public String threadDump() {
+        return sampler.renderThreadDump();
+    }
+
+    @GetMapping("/locks")
+    @ResponseBody
+    public String locks() {
+        return sampler.renderLocks();
+    }
+
+    @GetMapping("/frames")
+    @ResponseBody
+    public String frames() {
+        return sampler.renderFrames();
+    }
+
+    @GetMapping("/collapsed")
+    @ResponseBody
+    public String collapsedStacks() {
+        return sampler.renderCollapsedStacks();
+    }
+
+    @PostMapping("/reset")
+    @ResponseBody
+    public String reset() {
+        sampler.reset();
+        return "reset";
+    }
+}
@@ -0,0 +1,44 @@
+package concurrency.stage2.shutdown;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatServletWebServerFactory;
+import org.springframework.boot.web.server.WebServerFactoryCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 재배포할 때 처리 중인 요청(SampleController는 500ms가 걸린다)이 끊기지 않도록 한다.
+ * <br>
+ * 1. application.yml의 server.shutdown=graceful 설정으로 톰캣이 종료 신호를 받으면 새 연결을 받지 않고,
+ * spring.lifecycle.timeout-per-shutdown-phase 동안 처리 중인 요청이 끝나기를 기다린다.
+ * <br>
+ * 2. InFlightRequestFilter와 GracefulShutdownReporter가 종료 시작 시점의 요청 중 몇 개가 끝까지 처리되었는지 로그로 남긴다.
+ * <br>
+ * 3. graceful-shutdown.reuse-port=true면 SO_REUSEPORT로 바인딩해서 새 프로세스를 먼저 띄운 뒤 이전 프로세스를 종료할 수 있다.
+ * 실수로 App을 두 번 띄워도 오류 없이 요청이 나뉘어 들어가므로 기본값은 false다. 배포할 때만
+ * --graceful-shutdown.reuse-port=true로 두 프로세스를 모두 띄운다.
+ */
+@Configuration
+public class GracefulShutdownConfig {
+
+    @Bean
+    public InFlightRequests inFlightRequests() {
+        return new InFlightRequests();
+    }
+
+    @Bean
+    public InFlightRequestFilter inFlightRequestFilter(final InFlightRequests inFlightRequests) {
+        return new InFlightRequestFilter(inFlightRequests);
+    }
+
+    @Bean
+    public GracefulShutdownReporter gracefulShutdownReporter(final InFlightRequests inFlightRequests) {
+        return new GracefulShutdownReporter(inFlightRequests);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "graceful-shutdown.reuse-port", havingValue = "true")
+    public WebServerFactoryCustomizer<TomcatServletWebServerFactory> reusePortCustomizer() {
+        return factory -> factory.setProtocol(ReusePortHttp11NioProtocol.class.getName());
+    }
+}
@@ -0,0 +1,56 @@
+package concurrency.stage2.shutdown;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.event.ContextClosedEvent;
+
+/**
+ * 종료 과정의 처음과 끝에서 처리 중인 요청 수를 기록한다.
+ * <p>
+ * 스프링은 종료할 때 ContextClosedEvent를 먼저 발행하고, 그 다음 SmartLifecycle을 phase가 높은 순서로 멈춘다.
+ * 웹 서버의 graceful shutdown(phase = DEFAULT_PHASE)과 웹 서버 종료(DEFAULT_PHASE - 1)가 끝난 뒤에
+ * 이 클래스의 stop()이 호출되도록 phase를 그보다 낮게 잡았다.
+ */
+public class GracefulShutdownReporter implements ApplicationListener<ContextClosedEvent>, SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(GracefulShutdownReporter.class);
+
+    private final InFlightRequests inFlightRequests;
+    private volatile boolean running;
+
+    public GracefulShutdownReporter(final InFlightRequests inFlightRequests) {
+        this.inFlightRequests = inFlightRequests;
+    }
+
+    @Override
+    public void onApplicationEvent(final ContextClosedEvent event) {
+        inFlightRequests.startDraining();
+        log.info("graceful shutdown started. in-flight requests={}", inFlightRequests.getActive());
+    }
+
+    @Override
+    public void start() {
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        final var report = inFlightRequests.report();
+        log.info("graceful shutdown finished. in-flight={}, drained={}, aborted={}, late-requests={}, elapsed={}ms",
+                report.getInFlight(), report.getDrained(), report.getAborted(), report.getLateRequests(),
+                report.getElapsedMillis());
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 2;
+    }
+}
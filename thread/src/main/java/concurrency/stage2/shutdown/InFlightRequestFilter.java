@@ -0,0 +1,31 @@
+package concurrency.stage2.shutdown;
+
+import java.io.IOException;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class InFlightRequestFilter extends OncePerRequestFilter {
+
+    private final InFlightRequests inFlightRequests;
+
+    public InFlightRequestFilter(final InFlightRequests inFlightRequests) {
+        this.inFlightRequests = inFlightRequests;
+    }
+
+    @Override
+    protected void doFilterInternal(final HttpServletRequest request, final HttpServletResponse response,
+                                    final FilterChain filterChain) throws ServletException, IOException {
+        final var beforeDrain = inFlightRequests.begin();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            inFlightRequests.end(beforeDrain);
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package concurrency.stage2.shutdown;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 처리 중인 요청 수를 센다. 종료가 시작되기 전에 들어온 요청과 종료 중에 들어온 요청을 따로 세어서,
+ * 종료가 끝났을 때 종료 시작 시점에 처리 중이던 요청 중 몇 개가 끝까지 처리되었고(drained) 몇 개가 끊겼는지(aborted) 계산한다.
+ * <p>
+ * 톰캣은 종료가 시작되면 새 연결을 받지 않지만, 이미 열려 있는 keep-alive 연결로는 종료 중에도 새 요청이 들어온다.
+ * 이런 요청은 drained에 넣지 않고 lateRequests로 따로 센다.
+ * <pre>
+ * final boolean beforeDrain = inFlightRequests.begin();
+ * try {
+ *     ...
+ * } finally {
+ *     inFlightRequests.end(beforeDrain);
+ * }
+ * </pre>
+ */
+public class InFlightRequests {
+
+    private final AtomicInteger active = new AtomicInteger();
+    private final AtomicInteger activeDuringDrain = new AtomicInteger();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder drained = new LongAdder();
+    private final LongAdder lateRequests = new LongAdder();
+
+    private volatile DrainSnapshot drainStart;
+
+    /**
+     * @return 종료가 시작되기 전에 들어온 요청이면 true. 같은 값을 {@link #end(boolean)}에 넘긴다.
+     */
+    public boolean begin() {
+        final var beforeDrain = !isDraining();
+        final var counter = beforeDrain ? active : activeDuringDrain;
+        counter.incrementAndGet();
+        if (beforeDrain && isDraining()) {
+            // 세는 사이에 종료가 시작되었다. 종료 시작 시점의 요청으로 볼지 애매하므로 종료 중에 들어온 요청으로 옮긴다.
+            // 종료는 한 번만 시작되므로 한 번만 옮기면 된다.
+            active.decrementAndGet();
+            activeDuringDrain.incrementAndGet();
+            lateRequests.increment();
+            return false;
+        }
+        if (!beforeDrain) {
+            lateRequests.increment();
+        }
+        return beforeDrain;
+    }
+
+    public void end(final boolean beforeDrain) {
+        if (beforeDrain) {
+            active.decrementAndGet();
+            if (isDraining()) {
+                drained.increment();
+            }
+        } else {
+            activeDuringDrain.decrementAndGet();
+        }
+        completed.increment();
+    }
+
+    public int getActive() {
+        return active.get() + activeDuringDrain.get();
+    }
+
+    public long getCompleted() {
+        return completed.sum();
+    }
+
+    public boolean isDraining() {
+        return drainStart != null;
+    }
+
+    /**
+     * 새 연결을 받지 않기 시작한 순간에 호출한다. 여러 번 호출해도 처음 값만 남는다.
+     */
+    public synchronized void startDraining() {
+        if (drainStart == null) {
+            drainStart = new DrainSnapshot(System.nanoTime());
+        }
+    }
+
+    /**
+     * 웹 서버가 멈춘 뒤에 호출한다. 그때까지 끝나지 않은, 종료 전에 들어온 요청을 aborted로 센다.
+     */
+    public DrainReport report() {
+        final var start = drainStart;
+        if (start == null) {
+            return new DrainReport(0, 0, 0, 0, 0);
+        }
+        final var drainedCount = (int) drained.sum();
+        final var aborted = active.get();
+        final var elapsedMillis = (System.nanoTime() - start.startNanos) / 1_000_000;
+        return new DrainReport(drainedCount + aborted, drainedCount, aborted, (int) lateRequests.sum(), elapsedMillis);
+    }
+
+    private static final class DrainSnapshot {
+
+        private final long startNanos;
+
+        private DrainSnapshot(final long startNanos) {
+            this.startNanos = startNanos;
+        }
+    }
+
+    public static final class DrainReport {
+
+        private final int inFlight;
+        private final int drained;
+        private final int aborted;
+        private final int lateRequests;
+        private final long elapsedMillis;
+
+        DrainReport(final int inFlight, final int drained, final int aborted, final int lateRequests,
+                    final long elapsedMillis) {
+            this.inFlight = inFlight;
+            this.drained = drained;
+            this.aborted = aborted;
+            this.lateRequests = lateRequests;
+            this.elapsedMillis = elapsedMillis;
+        }
+
+        public int getInFlight() {
+            return inFlight;
+        }
+
+        public int getDrained() {
+            return drained;
+        }
+
+        public int getAborted() {
+            return aborted;
+        }
+
+        /**
+         * 종료 중에 keep-alive 연결로 들어온 요청 수. drained/aborted에는 들어가지 않는다.
+         */
+        public int getLateRequests() {
+            return lateRequests;
+        }
+
+        public long getElapsedMillis() {
+            return elapsedMillis;
+        }
+
+        @Override
+        public String toString() {
+            return "DrainReport{" +
+                    "inFlight=" + inFlight +
+                    ", drained=" + drained +
+                    ", aborted=" + aborted +
+                    ", lateRequests=" + lateRequests +
+                    ", elapsedMillis=" + elapsedMillis +
+                    '}';
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package concurrency.stage2.shutdown;
+
+import org.apache.coyote.http11.AbstractHttp11JsseProtocol;
+import org.apache.juli.logging.Log;
+import org.apache.juli.logging.LogFactory;
+import org.apache.tomcat.util.net.NioChannel;
+
+/**
+ * Http11NioProtocol과 같지만 {@link ReusePortNioEndpoint}를 쓴다.
+ * 톰캣이 클래스 이름으로 생성하므로 기본 생성자가 있어야 한다.
+ */
+public class ReusePortHttp11NioProtocol extends AbstractHttp11JsseProtocol<NioChannel> {
+
+    private static final Log log = LogFactory.getLog(ReusePortHttp11NioProtocol.class);
+
+    public ReusePortHttp11NioProtocol() {
+        super(new ReusePortNioEndpoint());
+    }
+
+    @Override
+    protected Log getLog() {
+        return log;
+    }
+
+    /**
+     * 스레드 이름(http-nio-8080-exec-x)이 기본 커넥터와 같도록 맞춘다.
+     */
+    @Override
+    protected String getNamePrefix() {
+        if (isSSLEnabled()) {
+            return "https-" + getSslImplementationShortName() + "-nio";
+        }
+        return "http-nio";
+    }
+}
@@ -0,0 +1,90 @@
+package concurrency.stage2.shutdown;
+
+import java.lang.reflect.Field;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.channels.ServerSocketChannel;
+import org.apache.catalina.util.ServerInfo;
+import org.apache.tomcat.util.net.NioEndpoint;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * 서버 소켓에 SO_REUSEPORT를 켜고 바인딩하는 NioEndpoint.
+ * <p>
+ * 새 프로세스가 같은 포트로 먼저 떠서 연결을 받기 시작하면, 커널이 두 프로세스에 새 연결을 나눠 준다.
+ * 이전 프로세스가 graceful shutdown에 들어가 서버 소켓을 닫으면 그때부터는 새 프로세스만 연결을 받는다.
+ * 두 프로세스 모두 SO_REUSEPORT를 켜야 하며, 이전 프로세스의 accept 대기열에 남아 있던 연결은 소켓을 닫을 때 끊긴다.
+ * <p>
+ * 톰캣 9.0에는 바인딩 전에 소켓 옵션을 넣을 수 있는 확장 지점이 없다. initServerSocket()은 protected지만
+ * 바인딩한 채널을 넣을 serverSock 필드가 private이라 리플렉션으로 넣는다. 이 필드는 톰캣 내부 구현이므로
+ * {@link #SUPPORTED_VERSION}x 이외의 톰캣이거나 필드가 바뀌었으면 조용히 잘못 동작하지 않도록 생성할 때
+ * IllegalStateException을 던져 기동을 멈춘다. 톰캣을 올릴 때는 NioEndpoint.initServerSocket()을 다시 확인하고 이 값을 고친다.
+ * <p>
+ * 9.0.65에서 확인한 내용: serverSock은 private volatile ServerSocketChannel이고, initServerSocket()은
+ * open(), socketProperties.setProperties(), bind(주소, acceptCount), configureBlocking(true) 순서로 부른다.
+ * 아래 구현은 open() 바로 뒤에 SO_REUSEPORT를 켜는 것만 다르다.
+ * <p>
+ * 상속받은 채널(useInheritedChannel)과 유닉스 도메인 소켓(unixDomainSocketPath)은 SO_REUSEPORT와 상관이 없으므로
+ * 톰캣 구현을 그대로 쓴다.
+ */
+public class ReusePortNioEndpoint extends NioEndpoint {
+
+    private static final String SUPPORTED_VERSION = "9.0.";
+
+    private static final Logger log = LoggerFactory.getLogger(ReusePortNioEndpoint.class);
+
+    private static final String SERVER_SOCKET_FIELD = "serverSock";
+
+    private final Field serverSocketField;
+
+    public ReusePortNioEndpoint() {
+        this.serverSocketField = serverSocketField();
+    }
+
+    private static Field serverSocketField() {
+        final var version = ServerInfo.getServerNumber();
+        if (!version.startsWith(SUPPORTED_VERSION)) {
+            throw new IllegalStateException("ReusePortNioEndpoint는 톰캣 " + SUPPORTED_VERSION
+                    + "x에서만 확인했습니다. version=" + version);
+        }
+        try {
+            final var field = NioEndpoint.class.getDeclaredField(SERVER_SOCKET_FIELD);
+            if (field.getType() != ServerSocketChannel.class) {
+                throw new IllegalStateException("NioEndpoint." + SERVER_SOCKET_FIELD + "의 타입이 바뀌었습니다. type="
+                        + field.getType().getName() + ", version=" + version);
+            }
+            field.setAccessible(true);
+            return field;
+        } catch (NoSuchFieldException e) {
+            throw new IllegalStateException("NioEndpoint에 " + SERVER_SOCKET_FIELD + " 필드가 없습니다. version="
+                    + version, e);
+        }
+    }
+
+    @Override
+    protected void initServerSocket() throws Exception {
+        if (getUseInheritedChannel() || getUnixDomainSocketPath() != null) {
+            super.initServerSocket();
+            return;
+        }
+
+        final var serverSocket = ServerSocketChannel.open();
+        if (!serverSocket.supportedOptions().contains(StandardSocketOptions.SO_REUSEPORT)) {
+            serverSocket.close();
+            log.warn("SO_REUSEPORT is not supported on this platform. falling back to an exclusive bind.");
+            super.initServerSocket();
+            return;
+        }
+        try {
+            serverSocket.setOption(StandardSocketOptions.SO_REUSEPORT, true);
+            socketProperties.setProperties(serverSocket.socket());
+            serverSocket.bind(new InetSocketAddress(getAddress(), getPortWithOffset()), getAcceptCount());
+            serverSocket.configureBlocking(true);
+            serverSocketField.set(this, serverSocket);
+        } catch (Exception e) {
+            serverSocket.close();
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package concurrency.batch;
+
+import concurrency.stage1.User;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * BatchProcessor(ForkJoin, work stealing)와 고정 크기 스레드 풀, parallel stream을 같은 입력으로 비교한다.
+ * <p>
+ * 기본 test 태스크에서는 제외된다. 아래처럼 실행한다. 1억 건은 힙이 충분해야 한다(-Xmx16g 이상 권장).
+ * <pre>
+ * ./gradlew :thread:benchmark -Dbenchmark.batch.sizes=1000000,10000000,100000000
+ * </pre>
+ */
+@Tag("benchmark")
+class BatchProcessorBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(BatchProcessorBenchmarkTest.class);
+
+    private static final int WARMUP_ROUNDS = 3;
+    private static final int MEASURE_ROUNDS = 5;
+    private static final int CHUNK_SIZE = 8_192;
+
+    // 항목마다 처리 비용이 조금씩 다르도록 이름 길이에 비례하는 계산을 한다.
+    private static final Function<User, Integer> WORK = user -> {
+        final var name = user.getName();
+        int hash = 0;
+        for (int i = 0; i < name.length() * 8; i++) {
+            hash = 31 * hash + name.charAt(i % name.length());
+        }
+        return hash;
+    };
+
+    @Test
+    void compare() throws Exception {
+        final var parallelism = Runtime.getRuntime().availableProcessors();
+        for (final var size : sizes()) {
+            final var users = BatchProcessorTest.users(size);
+
+            final var forkJoin = BatchProcessor.mapping(WORK)
+                    .chunkSize(CHUNK_SIZE)
+                    .parallelism(parallelism)
+                    .build();
+            measure("forkJoin", size, () -> forkJoin.process(users));
+            forkJoin.shutdown();
+
+            final var fixedPool = Executors.newFixedThreadPool(parallelism);
+            measure("fixedThreadPool", size, () -> processWithFixedPool(fixedPool, users, parallelism));
+            fixedPool.shutdown();
+
+            measure("parallelStream", size, () -> users.parallelStream().map(WORK).collect(Collectors.toList()));
+        }
+    }
+
+    /**
+     * 입력을 스레드 수만큼 똑같이 나눠서 넘긴다. 한 조각이 늦어지면 나머지 스레드는 놀게 된다.
+     */
+    private static List<Integer> processWithFixedPool(final ExecutorService pool,
+                                                      final List<User> users, final int parallelism) {
+        final var sliceSize = (users.size() + parallelism - 1) / parallelism;
+        final List<Future<List<Integer>>> futures = new ArrayList<>();
+        for (int from = 0; from < users.size(); from += sliceSize) {
+            final var slice = users.subList(from, Math.min(from + sliceSize, users.size()));
+            futures.add(pool.submit(() -> slice.stream().map(WORK).collect(Collectors.toList())));
+        }
+        final List<Integer> results = new ArrayList<>(users.size());
+        for (final var future : futures) {
+            try {
+                results.addAll(future.get());
+            } catch (InterruptedException | ExecutionException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+        return results;
+    }
+
+    private static void measure(final String name, final int size, final Supplier<List<Integer>> task) {
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            task.get();
+        }
+        long best = Long.MAX_VALUE;
+        long total = 0;
+        for (int i = 0; i < MEASURE_ROUNDS; i++) {
+            final var start = System.nanoTime();
+            final var results = task.get();
+            final var elapsed = System.nanoTime() - start;
+            if (results.size() != size) {
+                throw new IllegalStateException(name + " 결과 수가 다릅니다. expected=" + size + ", actual=" + results.size());
+            }
+            best = Math.min(best, elapsed);
+            total += elapsed;
+        }
+        log.info("{} items={} best={}ms avg={}ms", name, size, best / 1_000_000, total / MEASURE_ROUNDS / 1_000_000);
+    }
+
+    private static List<Integer> sizes() {
+        final var property = System.getProperty("benchmark.batch.sizes", "1000000");
+        return Arrays.stream(property.split(","))
+                .map(String::trim)
+                .map(Integer::parseInt)
+                .collect(Collectors.toList());
+    }
+}
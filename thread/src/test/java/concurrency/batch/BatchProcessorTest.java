@@ -0,0 +1,147 @@
+package concurrency.batch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import concurrency.stage1.User;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+
+class BatchProcessorTest {
+
+    @Test
+    void processInOrder() {
+        final var users = users(100_000);
+        final var processor = BatchProcessor.mapping(User::getName)
+                .chunkSize(1_000)
+                .parallelism(4)
+                .build();
+
+        final var names = processor.process(users);
+        processor.shutdown();
+
+        assertThat(names).hasSize(100_000);
+        assertThat(names.get(0)).isEqualTo("user0");
+        assertThat(names.get(99_999)).isEqualTo("user99999");
+    }
+
+    @Test
+    void processUnorderedDropsNullResults() {
+        final var users = users(10_000);
+        final var processor = BatchProcessor.<User, String>mapping(
+                        user -> user.getName().endsWith("0") ? user.getName() : null)
+                .chunkSize(100)
+                .ordered(false)
+                .build();
+
+        final var names = processor.process(users);
+
+        assertThat(names).hasSize(1_000)
+                .containsExactlyInAnyOrderElementsOf(IntStream.range(0, 10_000)
+                        .filter(i -> i % 10 == 0)
+                        .mapToObj(i -> "user" + i)
+                        .collect(Collectors.toList()));
+    }
+
+    @Test
+    void cancel() throws Exception {
+        final var started = new CountDownLatch(1);
+        final var processor = BatchProcessor.<User, String>mapping(user -> {
+                    started.countDown();
+                    sleep();
+                    return user.getName();
+                })
+                .chunkSize(1)
+                .parallelism(2)
+                .build();
+
+        final var job = processor.submit(users(1_000));
+        started.await();
+        job.cancel();
+
+        assertThat(job.isCancelled()).isTrue();
+        assertThatThrownBy(job::join).isInstanceOf(CancellationException.class);
+        processor.shutdown();
+    }
+
+    @Test
+    void cancelWaitsForRunningChunk() throws Exception {
+        final var started = new CountDownLatch(1);
+        final var release = new CountDownLatch(1);
+        final var processed = new AtomicInteger();
+        final var processor = BatchProcessor.<User, String>mapping(user -> {
+                    started.countDown();
+                    await(release);
+                    processed.incrementAndGet();
+                    return user.getName();
+                })
+                .chunkSize(1)
+                .parallelism(1)
+                .build();
+
+        final var job = processor.submit(users(100));
+        started.await();
+        job.cancel();
+
+        final var joinResult = new AtomicReference<Throwable>();
+        final var joiner = new Thread(() -> {
+            try {
+                job.join();
+            } catch (Throwable e) {
+                joinResult.set(e);
+            }
+        });
+        joiner.start();
+        joiner.join(100);
+
+        assertThat(joiner.isAlive()).isTrue();
+        assertThat(job.isDone()).isFalse();
+
+        release.countDown();
+        joiner.join(5_000);
+
+        assertThat(job.isDone()).isTrue();
+        assertThat(processed.get()).isEqualTo(1);
+        assertThat(joinResult.get()).isInstanceOf(CancellationException.class);
+        processor.shutdown();
+    }
+
+    @Test
+    void exceptionIsPropagated() {
+        final var processor = BatchProcessor.<User, String>mapping(user -> {
+                    throw new IllegalStateException(user.getName());
+                })
+                .build();
+
+        assertThatThrownBy(() -> processor.process(users(10)))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    static List<User> users(final int count) {
+        return IntStream.range(0, count)
+                .mapToObj(i -> new User("user" + i))
+                .collect(Collectors.toList());
+    }
+
+    private static void await(final CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void sleep() {
+        try {
+            Thread.sleep(10);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package concurrency.executor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+class InstrumentedExecutorServiceTest {
+
+    /**
+     * ThreadPoolsTest의 newFixedThreadPool(2)에 작업 3개를 넣으면 하나는 큐에서 기다린다.
+     * 큐에서 기다린 시간과 실행 시간이 나뉘어 기록되는지 확인한다.
+     */
+    @Test
+    void recordQueueWaitAndExecution() throws Exception {
+        final var executor = InstrumentedExecutorService.wrap("fixed", Executors.newFixedThreadPool(2));
+        final var release = new CountDownLatch(1);
+
+        for (int i = 0; i < 3; i++) {
+            executor.submit(TaskTypes.named("sleep", () -> await(release)));
+        }
+        Thread.sleep(100);
+
+        final var metrics = executor.getMetrics();
+        final var sleep = metrics.taskType("sleep");
+        assertThat(sleep.getQueued()).isEqualTo(1);
+        assertThat(metrics.getRunningCount()).isEqualTo(2);
+        assertThat(metrics.getSaturation()).isEqualTo(1.0);
+        assertThat(metrics.findLongRunningTasks(Duration.ofMillis(50))).hasSize(2)
+                .allMatch(task -> task.getTaskType().equals("sleep"));
+
+        release.countDown();
+        executor.shutdown();
+        assertThat(executor.awaitTermination(1, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(sleep.getCompleted()).isEqualTo(3);
+        assertThat(sleep.getQueueWait().count()).isEqualTo(3);
+        assertThat(sleep.getQueueWait().maxNanos()).isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(100));
+        assertThat(sleep.getExecution().count()).isEqualTo(3);
+    }
+
+    @Test
+    void recordFailureAndAbandonedTasks() throws Exception {
+        final var executor = InstrumentedExecutorService.wrap("single", Executors.newSingleThreadExecutor());
+        final var release = new CountDownLatch(1);
+
+        executor.submit(TaskTypes.named("fail", () -> {
+            throw new IllegalStateException();
+        }));
+        executor.submit(TaskTypes.named("block", () -> await(release)));
+        executor.submit(TaskTypes.named("never", () -> {
+        }));
+        Thread.sleep(100);
+
+        final var pending = executor.shutdownNow();
+        release.countDown();
+        executor.awaitTermination(1, TimeUnit.SECONDS);
+
+        final var metrics = executor.getMetrics();
+        assertThat(pending).hasSize(1);
+        assertThat(metrics.taskType("fail").getFailed()).isEqualTo(1);
+        assertThat(metrics.taskType("never").getAbandoned()).isEqualTo(1);
+    }
+
+    @Test
+    void springTaskDecorator() throws Exception {
+        final var metrics = new ExecutorMetrics("spring");
+        final var taskExecutor = new ThreadPoolTaskExecutor();
+        taskExecutor.setCorePoolSize(1);
+        taskExecutor.setMaxPoolSize(1);
+        taskExecutor.setTaskDecorator(new InstrumentingTaskDecorator(metrics));
+        taskExecutor.initialize();
+        metrics.bindPool(taskExecutor.getThreadPoolExecutor());
+
+        final var done = new CountDownLatch(2);
+        taskExecutor.execute(TaskTypes.named("spring-task", done::countDown));
+        taskExecutor.execute(TaskTypes.named("spring-task", done::countDown));
+        assertThat(done.await(1, TimeUnit.SECONDS)).isTrue();
+        taskExecutor.shutdown();
+
+        assertThat(metrics.taskType("spring-task").getSubmitted()).isEqualTo(2);
+        assertThat(metrics.render()).contains("spring-task");
+    }
+
+    private static void await(final CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package concurrency.nio;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.net.Socket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class NioHttpServerTest {
+
+    private static final long RESPONSE_DELAY_MILLIS = 200;
+
+    private NioHttpServer server;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        server = new NioHttpServer(0, RESPONSE_DELAY_MILLIS, 100, 10);
+        server.start();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        server.stop();
+    }
+
+    @Test
+    void test() throws Exception {
+        final var response = send("/test");
+
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(response.body()).isEqualTo("Hello World");
+    }
+
+    @Test
+    void notFound() throws Exception {
+        assertThat(send("/unknown").statusCode()).isEqualTo(404);
+    }
+
+    /**
+     * 스레드가 하나뿐이지만 기다리는 동안 스레드를 재우지 않으므로 요청 20개가 거의 동시에 끝난다.
+     * Thread.sleep(500)을 쓰는 SampleController에 threads.max=1을 주면 20개를 처리하는 데 10초가 걸린다.
+     */
+    @Test
+    void concurrentRequestsDoNotWaitForEachOther() throws Exception {
+        final var start = System.nanoTime();
+        final List<CompletableFuture<HttpResponse<String>>> responses = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            responses.add(HttpClient.newHttpClient().sendAsync(request("/test"), HttpResponse.BodyHandlers.ofString()));
+        }
+        for (final var response : responses) {
+            assertThat(response.get().statusCode()).isEqualTo(200);
+        }
+        final var elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+        assertThat(elapsed).isLessThan(Duration.ofMillis(RESPONSE_DELAY_MILLIS * 10));
+        assertThat(server.getPeakConnections()).isGreaterThan(1);
+    }
+
+    /**
+     * 잘못된 Content-Length를 보낸 연결만 400을 받고 닫힌다. 같은 event loop의 다른 연결과 이후 요청은 영향을 받지 않는다.
+     */
+    @Test
+    void badContentLengthClosesOnlyThatConnection() throws Exception {
+        final var pending = HttpClient.newHttpClient().sendAsync(request("/test"), HttpResponse.BodyHandlers.ofString());
+
+        for (final var contentLength : List.of("abc", "-1", "99999999999", "1000000")) {
+            assertThat(sendRaw("POST /test HTTP/1.1\r\nHost: localhost\r\nContent-Length: " + contentLength
+                    + "\r\n\r\n")).startsWith("HTTP/1.1 400");
+        }
+
+        assertThat(pending.get().statusCode()).isEqualTo(200);
+        assertThat(send("/test").statusCode()).isEqualTo(200);
+    }
+
+    /**
+     * 응답을 보내고 서버가 연결을 닫을 때까지 읽는다.
+     */
+    private String sendRaw(final String request) throws Exception {
+        try (final var socket = new Socket("localhost", server.getLocalPort())) {
+            socket.setSoTimeout(3_000);
+            socket.getOutputStream().write(request.getBytes(StandardCharsets.ISO_8859_1));
+            return new String(socket.getInputStream().readAllBytes(), StandardCharsets.ISO_8859_1);
+        }
+    }
+
+    private HttpResponse<String> send(final String path) throws Exception {
+        return HttpClient.newHttpClient().send(request(path), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpRequest request(final String path) {
+        return HttpRequest.newBuilder()
+                .uri(URI.create("http://localhost:" + server.getLocalPort() + path))
+                .version(HttpClient.Version.HTTP_1_1)
+                .timeout(Duration.ofSeconds(3))
+                .build();
+    }
+}
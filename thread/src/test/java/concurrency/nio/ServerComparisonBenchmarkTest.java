@@ -0,0 +1,144 @@
+package concurrency.nio;
+
+import concurrency.stage2.App;
+import java.lang.management.ManagementFactory;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntSupplier;
+import org.apache.coyote.AbstractProtocol;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.web.embedded.tomcat.TomcatWebServer;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+
+/**
+ * 같은 /test 계약을 가진 톰캣(App + SampleController)과 NioHttpServer에 똑같은 부하를 주고 비교한다.
+ * <p>
+ * 톰캣 설정은 application.yml 대신 아래 값으로 덮어쓴다. 같은 값을 NioHttpServer의 max-connections, accept-count로 준다.
+ * <pre>
+ * ./gradlew :thread:benchmark --tests "*ServerComparisonBenchmarkTest" \
+ *     -Dbenchmark.server.clients=200 -Dbenchmark.server.threads=10 -Dbenchmark.server.max-connections=100
+ * </pre>
+ * 같은 JVM에서 차례로 실행하므로 스레드 수와 힙 사용량에는 부하를 주는 클라이언트 몫도 포함되어 있다. 두 서버의 차이만 보면 된다.
+ */
+@Tag("benchmark")
+class ServerComparisonBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(ServerComparisonBenchmarkTest.class);
+
+    private static final int CLIENTS = Integer.getInteger("benchmark.server.clients", 200);
+    private static final int REQUESTS_PER_CLIENT = Integer.getInteger("benchmark.server.requests", 5);
+    private static final int TOMCAT_THREADS = Integer.getInteger("benchmark.server.threads", 10);
+    private static final int MAX_CONNECTIONS = Integer.getInteger("benchmark.server.max-connections", 100);
+    private static final int ACCEPT_COUNT = Integer.getInteger("benchmark.server.accept-count", 100);
+    private static final long RESPONSE_DELAY_MILLIS = 500;
+
+    @Test
+    void compare() throws Exception {
+        final var context = (ServletWebServerApplicationContext) SpringApplication.run(App.class,
+                "--server.port=0",
+                "--server.tomcat.threads.max=" + TOMCAT_THREADS,
+                "--server.tomcat.max-connections=" + MAX_CONNECTIONS,
+                "--server.tomcat.accept-count=" + ACCEPT_COUNT,
+                "--diagnostics.threads.enabled=false",
+                "--logging.level.concurrency.stage2=warn");
+        try {
+            final var protocol = (AbstractProtocol<?>) ((TomcatWebServer) context.getWebServer()).getTomcat()
+                    .getConnector().getProtocolHandler();
+            run("tomcat", context.getWebServer().getPort(), () -> (int) protocol.getConnectionCount());
+        } finally {
+            context.close();
+        }
+
+        final var nioServer = new NioHttpServer(0, RESPONSE_DELAY_MILLIS, MAX_CONNECTIONS, ACCEPT_COUNT);
+        nioServer.start();
+        try {
+            run("nio", nioServer.getLocalPort(), nioServer::getOpenConnections);
+        } finally {
+            nioServer.stop();
+        }
+    }
+
+    private static void run(final String name, final int port, final IntSupplier openConnections) throws Exception {
+        final var threadMXBean = ManagementFactory.getThreadMXBean();
+        final var memoryMXBean = ManagementFactory.getMemoryMXBean();
+        System.gc();
+        final var heapBefore = memoryMXBean.getHeapMemoryUsage().getUsed();
+        threadMXBean.resetPeakThreadCount();
+
+        final var peakConnections = new AtomicInteger();
+        final var peakHeap = new AtomicLong(heapBefore);
+        final var sampler = Executors.newSingleThreadScheduledExecutor();
+        sampler.scheduleAtFixedRate(() -> {
+            peakConnections.accumulateAndGet(openConnections.getAsInt(), Math::max);
+            peakHeap.accumulateAndGet(memoryMXBean.getHeapMemoryUsage().getUsed(), Math::max);
+        }, 0, 20, TimeUnit.MILLISECONDS);
+
+        final var latencies = new long[CLIENTS * REQUESTS_PER_CLIENT];
+        final var failures = new AtomicInteger();
+        final var start = System.nanoTime();
+        final List<CompletableFuture<Void>> clients = new ArrayList<>();
+        final var clientPool = Executors.newFixedThreadPool(CLIENTS);
+        for (int client = 0; client < CLIENTS; client++) {
+            final var offset = client * REQUESTS_PER_CLIENT;
+            clients.add(CompletableFuture.runAsync(() -> sendAll(port, latencies, offset, failures), clientPool));
+        }
+        CompletableFuture.allOf(clients.toArray(new CompletableFuture[0])).join();
+        final var elapsed = Duration.ofNanos(System.nanoTime() - start);
+        clientPool.shutdown();
+        sampler.shutdown();
+
+        Arrays.sort(latencies);
+        log.info("[{}] requests={} failures={} elapsed={}ms throughput={}/s", name, latencies.length, failures.get(),
+                elapsed.toMillis(), latencies.length * 1000L / Math.max(elapsed.toMillis(), 1));
+        log.info("[{}] latency p50={}ms p90={}ms p99={}ms max={}ms", name, percentile(latencies, 50),
+                percentile(latencies, 90), percentile(latencies, 99), latencies[latencies.length - 1] / 1_000_000);
+        log.info("[{}] peakConnectionsHeld={} peakThreads={} peakHeapGrowth={}KB", name, peakConnections.get(),
+                threadMXBean.getPeakThreadCount(), (peakHeap.get() - heapBefore) / 1024);
+    }
+
+    /**
+     * 클라이언트마다 keep-alive 연결 하나로 요청을 차례로 보낸다.
+     */
+    private static void sendAll(final int port, final long[] latencies, final int offset, final AtomicInteger failures) {
+        final var httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(30))
+                .build();
+        final var request = HttpRequest.newBuilder()
+                .uri(URI.create("http://localhost:" + port + "/test"))
+                .timeout(Duration.ofSeconds(60))
+                .build();
+        for (int i = 0; i < REQUESTS_PER_CLIENT; i++) {
+            final var start = System.nanoTime();
+            try {
+                final var response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+                if (response.statusCode() != 200) {
+                    failures.incrementAndGet();
+                }
+            } catch (Exception e) {
+                failures.incrementAndGet();
+            }
+            latencies[offset + i] = System.nanoTime() - start;
+        }
+    }
+
+    private static long percentile(final long[] sorted, final int percentile) {
+        final var index = Math.min(sorted.length - 1, (int) Math.ceil(sorted.length * percentile / 100.0) - 1);
+        return sorted[Math.max(index, 0)] / 1_000_000;
+    }
+}
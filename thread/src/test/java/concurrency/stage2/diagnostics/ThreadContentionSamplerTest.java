@@ -0,0 +1,159 @@
+package concurrency.stage2.diagnostics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import org.junit.jupiter.api.Test;
+
+class ThreadContentionSamplerTest {
+
+    private static final Object MONITOR = new Object();
+
+    /**
+     * UserServlet.join()처럼 synchronized 메서드에서 한 스레드가 오래 머물면 나머지 스레드는 BLOCKED 상태가 된다.
+     * 샘플러가 어떤 모니터에서 막혔는지 잡아내는지 확인한다.
+     */
+    @Test
+    void sampleBlockedThread() throws Exception {
+        final var sampler = new ThreadContentionSampler(100, 32, 1024);
+        final var locked = new CountDownLatch(1);
+        final var release = new CountDownLatch(1);
+
+        final var owner = new Thread(() -> {
+            synchronized (MONITOR) {
+                locked.countDown();
+                await(release);
+            }
+        }, "owner-1");
+        final var waiter = new Thread(() -> {
+            synchronized (MONITOR) {
+                // 락을 얻으면 바로 빠져나간다.
+            }
+        }, "waiter-1");
+
+        owner.start();
+        locked.await();
+        waiter.start();
+        while (waiter.getState() != Thread.State.BLOCKED) {
+            Thread.sleep(10);
+        }
+
+        sampler.sample();
+        Thread.sleep(50);
+        sampler.sample();
+
+        release.countDown();
+        owner.join();
+        waiter.join();
+
+        assertThat(sampler.renderLocks()).contains("java.lang.Object@");
+        assertThat(sampler.renderCollapsedStacks()).contains("waiter-N;").contains(";[BLOCKED] ");
+        assertThat(sampler.renderFrames()).contains("lambda$sampleBlockedThread$");
+    }
+
+    /**
+     * wait()로 기다리는 스레드의 최상단 프레임은 Object.wait이다. 그 아래 처음 나오는 애플리케이션 프레임에 붙여야 한다.
+     */
+    @Test
+    void waitingThreadIsAttributedToApplicationFrame() throws Exception {
+        final var sampler = new ThreadContentionSampler(100, 32, 1024);
+        final var waiter = new Thread(ThreadContentionSamplerTest::waitOnMonitor, "waiter-1");
+        waiter.start();
+        while (waiter.getState() != Thread.State.WAITING) {
+            Thread.sleep(10);
+        }
+
+        sampler.sample();
+
+        synchronized (MONITOR) {
+            MONITOR.notifyAll();
+        }
+        waiter.join();
+
+        assertThat(sampler.renderFrames())
+                .contains("concurrency.stage2.diagnostics.ThreadContentionSamplerTest.waitOnMonitor\t");
+    }
+
+    @Test
+    void applicationFrameSkipsJdkFrames() {
+        final StackTraceElement[] stackTrace = {
+                frame("jdk.internal.misc.Unsafe", "park"),
+                frame("java.util.concurrent.locks.LockSupport", "park"),
+                frame("sun.nio.ch.Util", "select"),
+                frame("concurrency.stage2.UserServlet", "join"),
+                frame("java.lang.Thread", "run")};
+
+        assertThat(ThreadContentionSampler.applicationFrame(stackTrace).getClassName())
+                .isEqualTo("concurrency.stage2.UserServlet");
+        assertThat(ThreadContentionSampler.applicationFrame(new StackTraceElement[]{stackTrace[0]}).getMethodName())
+                .isEqualTo("park");
+    }
+
+    /**
+     * 톰캣 exec 스레드가 일이 없어 TaskQueue.poll에서 쉬는 스택은 경합이 아니다.
+     */
+    @Test
+    void idlePoolWorker() {
+        final StackTraceElement[] tomcatIdle = {
+                frame("jdk.internal.misc.Unsafe", "park"),
+                frame("java.util.concurrent.locks.LockSupport", "parkNanos"),
+                frame("java.util.concurrent.LinkedBlockingQueue", "poll"),
+                frame("org.apache.tomcat.util.threads.TaskQueue", "poll"),
+                frame("org.apache.tomcat.util.threads.ThreadPoolExecutor", "getTask"),
+                frame("org.apache.tomcat.util.threads.ThreadPoolExecutor", "runWorker")};
+        final StackTraceElement[] busy = {
+                frame("java.lang.Object", "wait"),
+                frame("concurrency.stage2.UserServlet", "join"),
+                frame("org.apache.tomcat.util.threads.ThreadPoolExecutor", "runWorker")};
+
+        assertThat(ThreadContentionSampler.isIdleWorker(tomcatIdle)).isTrue();
+        assertThat(ThreadContentionSampler.isIdleWorker(busy)).isFalse();
+    }
+
+    @Test
+    void idleExecutorThreadIsNotContention() throws Exception {
+        final var sampler = new ThreadContentionSampler(100, 32, 1024);
+        final var executor = Executors.newSingleThreadExecutor();
+        try {
+            final var worker = executor.submit(Thread::currentThread).get();
+            while (worker.getState() != Thread.State.WAITING) {
+                Thread.sleep(10);
+            }
+
+            sampler.sample();
+
+            assertThat(sampler.renderFrames()).containsPattern("^# samples=1 idleSamples=[1-9]");
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void threadGroupName() {
+        assertThat(ThreadContentionSampler.threadGroupName("http-nio-8080-exec-3")).isEqualTo("http-nio-8080-exec-N");
+        assertThat(ThreadContentionSampler.threadGroupName("main")).isEqualTo("main");
+    }
+
+    private static void waitOnMonitor() {
+        synchronized (MONITOR) {
+            try {
+                MONITOR.wait();
+            } catch (InterruptedException e) {
+                throw new RuntimeException(e);
+            }
+        }
+    }
+
+    private static StackTraceElement frame(final String className, final String methodName) {
+        return new StackTraceElement(className, methodName, null, -1);
+    }
+
+    private static void await(final CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
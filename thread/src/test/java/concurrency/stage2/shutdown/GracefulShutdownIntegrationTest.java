@@ -0,0 +1,133 @@
+package concurrency.stage2.shutdown;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import concurrency.stage2.App;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.StandardSocketOptions;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * 같은 포트에 App을 두 개 띄워 재배포를 흉내 낸다.
+ * <br>
+ * 1. 이전 App만 떠 있을 때 연결을 열어 둔다. 이 연결은 이전 App이 받는다.
+ * <br>
+ * 2. 새 App을 SO_REUSEPORT로 같은 포트에 띄운다. reuse-port가 동작하지 않으면 여기서 BindException이 난다.
+ * <br>
+ * 3. 열어 둔 연결로 500ms가 걸리는 /test를 보내고, 처리 중에 이전 App을 종료한다.
+ * <br>
+ * 4. 종료하는 동안과 종료한 뒤에도 포트가 계속 응답하는지, 처리 중이던 요청이 끝까지 처리되는지 확인한다.
+ */
+class GracefulShutdownIntegrationTest {
+
+    @Test
+    void drainInFlightRequestWhileNewAppTakesOverPort() throws Exception {
+        assumeTrue(reusePortSupported(), "SO_REUSEPORT is not supported on this platform");
+        final var port = freePort();
+
+        final var oldApp = start(port);
+        // 새 App이 뜨기 전에 연결을 열어야 그 연결을 이전 App이 받는다.
+        final var inFlight = connect(port);
+        ConfigurableApplicationContext newApp = null;
+        try {
+            newApp = start(port);
+            final var oldRequests = oldApp.getBean(InFlightRequests.class);
+            write(inFlight, "/test");
+            // 첫 요청은 DispatcherServlet 초기화를 기다리므로 시간을 정해 두지 않고 필터에 들어올 때까지 기다린다.
+            while (oldRequests.getActive() == 0) {
+                Thread.sleep(10);
+            }
+
+            final var closing = CompletableFuture.runAsync(oldApp::close);
+            var answeredDuringDrain = 0;
+            while (!closing.isDone()) {
+                if (send(port, "/not-found") > 0) {
+                    answeredDuringDrain++;
+                }
+            }
+            closing.join();
+
+            assertThat(readStatus(inFlight)).isEqualTo(200);
+            final var report = oldRequests.report();
+            // 드레인 직전에 보낸 /not-found가 이전 App에서 처리 중이었을 수도 있으므로 /test 하나 이상이다.
+            assertThat(report.getInFlight()).isPositive();
+            assertThat(report.getDrained()).isEqualTo(report.getInFlight());
+            assertThat(report.getAborted()).isZero();
+            assertThat(answeredDuringDrain).isPositive();
+            for (int i = 0; i < 5; i++) {
+                assertThat(send(port, "/test")).isEqualTo(200);
+            }
+        } finally {
+            inFlight.close();
+            oldApp.close();
+            if (newApp != null) {
+                newApp.close();
+            }
+        }
+    }
+
+    private static ConfigurableApplicationContext start(final int port) {
+        return SpringApplication.run(App.class,
+                "--server.port=" + port,
+                "--graceful-shutdown.reuse-port=true",
+                "--server.tomcat.threads.max=10",
+                "--server.tomcat.max-connections=100",
+                "--server.tomcat.accept-count=100",
+                "--diagnostics.threads.enabled=false",
+                "--logging.level.concurrency.stage2=warn");
+    }
+
+    private static Socket connect(final int port) throws IOException {
+        final var socket = new Socket();
+        socket.connect(new InetSocketAddress("localhost", port), 1_000);
+        socket.setSoTimeout(5_000);
+        return socket;
+    }
+
+    private static int send(final int port, final String path) {
+        try (final var socket = connect(port)) {
+            write(socket, path);
+            return readStatus(socket);
+        } catch (IOException e) {
+            return -1;
+        }
+    }
+
+    private static void write(final Socket socket, final String path) throws IOException {
+        final var request = "GET " + path + " HTTP/1.1\r\nHost: localhost\r\nConnection: close\r\n\r\n";
+        socket.getOutputStream().write(request.getBytes(StandardCharsets.US_ASCII));
+        socket.getOutputStream().flush();
+    }
+
+    private static int readStatus(final Socket socket) throws IOException {
+        final var reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+        final var statusLine = reader.readLine();
+        if (statusLine == null) {
+            throw new IOException("connection closed without a response");
+        }
+        return Integer.parseInt(statusLine.split(" ")[1]);
+    }
+
+    private static int freePort() throws IOException {
+        try (final var socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private static boolean reusePortSupported() throws IOException {
+        try (final var channel = ServerSocketChannel.open()) {
+            return channel.supportedOptions().contains(StandardSocketOptions.SO_REUSEPORT);
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package concurrency.stage2.shutdown;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class InFlightRequestsTest {
+
+    @Test
+    void reportDrainedAndAborted() {
+        final var inFlightRequests = new InFlightRequests();
+        final var first = inFlightRequests.begin();
+        final var second = inFlightRequests.begin();
+        final var third = inFlightRequests.begin();
+        inFlightRequests.end(first);
+
+        // 종료가 시작될 때 처리 중인 요청은 2개
+        inFlightRequests.startDraining();
+        inFlightRequests.end(second);
+
+        final var report = inFlightRequests.report();
+        assertThat(third).isTrue();
+        assertThat(inFlightRequests.isDraining()).isTrue();
+        assertThat(report.getInFlight()).isEqualTo(2);
+        assertThat(report.getDrained()).isEqualTo(1);
+        assertThat(report.getAborted()).isEqualTo(1);
+    }
+
+    @Test
+    void keepAliveRequestsDuringDrainAreNotCountedAsDrained() {
+        final var inFlightRequests = new InFlightRequests();
+        final var beforeDrain = inFlightRequests.begin();
+        inFlightRequests.startDraining();
+
+        // 종료 중에 keep-alive 연결로 들어와서 먼저 끝난 요청
+        final var late = inFlightRequests.begin();
+        inFlightRequests.end(late);
+
+        final var report = inFlightRequests.report();
+        assertThat(beforeDrain).isTrue();
+        assertThat(late).isFalse();
+        assertThat(report.getInFlight()).isEqualTo(1);
+        assertThat(report.getDrained()).isZero();
+        assertThat(report.getAborted()).isEqualTo(1);
+        assertThat(report.getLateRequests()).isEqualTo(1);
+    }
+
+    @Test
+    void startDrainingOnlyOnce() {
+        final var inFlightRequests = new InFlightRequests();
+        inFlightRequests.begin();
+        inFlightRequests.startDraining();
+        inFlightRequests.begin();
+        inFlightRequests.startDraining();
+
+        assertThat(inFlightRequests.report().getInFlight()).isEqualTo(1);
+        assertThat(inFlightRequests.getActive()).isEqualTo(2);
+    }
+
+    @Test
+    void reportBeforeDraining() {
+        final var report = new InFlightRequests().report();
+
+        assertThat(report.getInFlight()).isZero();
+        assertThat(report.getAborted()).isZero();
+    }
+}